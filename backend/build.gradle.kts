@@ -2,6 +2,7 @@ plugins {
     java
     alias(libs.plugins.spring.boot)
     alias(libs.plugins.spring.dependency.management)
+    alias(libs.plugins.jmh)
 }
 
 group = "dev.coderkini.tailfin"
@@ -27,14 +28,57 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation(libs.flyway.core)
     implementation(libs.flyway.postgresql)
+    implementation(libs.postgresql)
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
     developmentOnly("org.springframework.boot:spring-boot-devtools")
     developmentOnly("org.springframework.boot:spring-boot-docker-compose")
-    runtimeOnly(libs.postgresql)
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.springframework.security:spring-security-test")
     testRuntimeOnly(libs.junit5.engine)
+    jmh(libs.jol.core)
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results-${project.version}.json")
+    humanOutputFile = layout.buildDirectory.file("results/jmh/results-${project.version}.txt")
+    profilers.add("gc")
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes.add(it) }
 }
 
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("scaling", "load", "database")
+    }
+}
+
+/**
+ * Registers a test task running only the tests with the specified tag, against the database and with the tuning
+ * passed as `spring.datasource.*` and `tailfin.*` system properties.
+ */
+fun registerTaggedTest(name: String, tag: String, taskDescription: String) = tasks.register<Test>(name) {
+    description = taskDescription
+    group = LifecycleBasePlugin.VERIFICATION_GROUP
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags(tag)
+    }
+    systemProperties(providers.systemPropertiesPrefixedBy("tailfin.$tag.").get())
+    systemProperties(providers.systemPropertiesPrefixedBy("spring.datasource.").get())
+    maxHeapSize = "4g"
+    testLogging.showStandardStreams = true
+    outputs.upToDateWhen { false }
+}
+
+registerTaggedTest("scalingTest", "scaling",
+    "Times the repositories against generated datasets of growing size, see RepositoryScalingTest.")
+registerTaggedTest("loadTest", "load",
+    "Compares throughput and p99 latency on platform and virtual threads, see ThreadingModelLoadTest.")
+registerTaggedTest("databaseTest", "database",
+    "Runs the balance and batch writing statements against the database, see JdbcBalanceCheckpointsTest.")
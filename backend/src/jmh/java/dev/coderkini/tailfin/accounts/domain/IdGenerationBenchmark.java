@@ -0,0 +1,47 @@
+package dev.coderkini.tailfin.accounts.domain;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures generating {@link AccountId account} and {@link TransactionId transaction} ids from a single thread, and
+ * from as many threads as there are processors, where the generators contend for the shared TSID factory.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class IdGenerationBenchmark {
+    @Benchmark
+    @Threads(1)
+    public AccountId generateAccountId() {
+        return AccountId.generate();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public AccountId generateAccountIdContended() {
+        return AccountId.generate();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public TransactionId generateTransactionId() {
+        return TransactionId.generate();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public TransactionId generateTransactionIdContended() {
+        return TransactionId.generate();
+    }
+}
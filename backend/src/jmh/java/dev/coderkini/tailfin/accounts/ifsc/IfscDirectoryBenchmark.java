@@ -0,0 +1,95 @@
+package dev.coderkini.tailfin.accounts.ifsc;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ByteArrayResource;
+
+import dev.coderkini.tailfin.accounts.domain.IfsCode;
+
+/**
+ * Measures the range queries of the in-memory {@link IfscDirectory}: exact lookups, and prefix searches by bank code
+ * and by the first digits of the branch code, over a synthetic master file of the size of the national one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class IfscDirectoryBenchmark {
+    private static final int BANKS = 1500;
+
+    @Param({"180000"})
+    public int branches;
+
+    private IfscDirectory directory;
+    private String[] codes;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        StringBuilder masterFile = new StringBuilder("BANK,IFSC,BRANCH,CITY,STATE\n");
+        codes = new String[branches];
+        for (int i = 0; i < branches; i++) {
+            codes[i] = bankCode(i % BANKS) + "0" + String.format(Locale.ROOT, "%06d", i / BANKS);
+            masterFile.append("Bank ").append(i % BANKS).append(',').append(codes[i]).append(",Branch ").append(i)
+                    .append(",City ").append(i % 700).append(",State ").append(i % 36).append('\n');
+        }
+        directory = new IfscDirectory(new IfscProperties(null, 50));
+        directory.load(new ByteArrayResource(masterFile.toString().getBytes(StandardCharsets.UTF_8)));
+
+        Random random = new Random(42);
+        for (int i = codes.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            String code = codes[i];
+            codes[i] = codes[j];
+            codes[j] = code;
+        }
+    }
+
+    @Benchmark
+    public IfscBranch find() {
+        return directory.find(new IfsCode(nextCode()));
+    }
+
+    @Benchmark
+    public List<IfscBranch> findByBankCode() {
+        return directory.findByPrefix(nextCode().substring(0, 4), 50);
+    }
+
+    @Benchmark
+    public List<IfscBranch> findByBranchPrefix() {
+        return directory.findByPrefix(nextCode().substring(0, 8), 50);
+    }
+
+    private String nextCode() {
+        String code = codes[next];
+        next = next + 1 == codes.length ? 0 : next + 1;
+        return code;
+    }
+
+    private static String bankCode(int bank) {
+        char[] code = new char[4];
+        for (int i = 3; i >= 0; i--) {
+            code[i] = (char) ('A' + bank % 26);
+            bank /= 26;
+        }
+        return new String(code);
+    }
+}
@@ -0,0 +1,81 @@
+package dev.coderkini.tailfin.accounts.infrastructure;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import dev.coderkini.tailfin.accounts.domain.Transaction;
+import dev.coderkini.tailfin.accounts.domain.TransactionType;
+import dev.coderkini.tailfin.commons.jdbc.PreparedQuery;
+import dev.coderkini.tailfin.commons.jdbc.QueryCompiler;
+import dev.coderkini.tailfin.commons.jdbc.QueryTemplate;
+import dev.coderkini.tailfin.commons.jdbc.RepositoryProperties;
+import dev.coderkini.tailfin.commons.repository.FilterOperator;
+import dev.coderkini.tailfin.commons.repository.QueryConstraints;
+import dev.coderkini.tailfin.commons.repository.SortDirection;
+
+/**
+ * Measures building the {@link QueryConstraints} of a page of transactions and preparing its SQL, both when the shape
+ * of the constraints is compiled by {@link QueryCompiler} and when it is found in its cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class QueryCompilerBenchmark {
+    private static final QueryTemplate TEMPLATE = fragments -> {
+        String from = " from transactions where true" + fragments.filters();
+        return new QueryTemplate.Statements("select " + JdbcTransactionRepository.COLUMNS + from + fragments.seek() +
+                fragments.orderBy() + fragments.paging(), "select count(*)" + from);
+    };
+
+    private final LocalDateTime since = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private RepositoryProperties properties;
+    private QueryCompiler compiler;
+
+    @Setup
+    public void setUp() {
+        properties = new RepositoryProperties(500, 500, 5000, 1024, Duration.ofSeconds(30), 1024, 10000, 10000,
+                0.01, 0, Duration.ofSeconds(5), Duration.ofMillis(200), 100);
+        compiler = new QueryCompiler(properties);
+    }
+
+    @Benchmark
+    public QueryConstraints<Transaction> buildConstraints() {
+        return constraints();
+    }
+
+    @Benchmark
+    public PreparedQuery prepareCached() {
+        return compiler.prepare(EntityMappings.TRANSACTION, "findAll", constraints(), TEMPLATE,
+                new MapSqlParameterSource());
+    }
+
+    @Benchmark
+    public PreparedQuery prepareCompiled() {
+        return new QueryCompiler(properties).prepare(EntityMappings.TRANSACTION, "findAll", constraints(), TEMPLATE,
+                new MapSqlParameterSource());
+    }
+
+    private QueryConstraints<Transaction> constraints() {
+        return QueryConstraints.<Transaction>of()
+                .filter("type", FilterOperator.EQUALS, TransactionType.WITHDRAWAL)
+                .filter("createdAt", FilterOperator.GREATER_THAN_OR_EQUALS, since)
+                .sortBy("createdAt", SortDirection.DESCENDING)
+                .page(50, 0);
+    }
+}
@@ -0,0 +1,104 @@
+package dev.coderkini.tailfin.commons.collections;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import io.hypersistence.tsid.TSID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+
+/**
+ * Compares building and probing an index of accounts keyed by {@link AccountId} with the same index keyed by the
+ * primitive long of the id. Lookups probe with ids that are already materialized in both cases, so the difference is
+ * the cost of hashing and comparing the keys and of chasing the entries.
+ *
+ * @see IdMapFootprintBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class IdMapBenchmark {
+    private static final Object VALUE = new Object();
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private AccountId[] ids;
+    private long[] longIds;
+    private int[] probes;
+    private Map<AccountId, Object> recordKeyed;
+    private LongObjectHashMap<Object> longKeyed;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ids = new AccountId[size];
+        longIds = new long[size];
+        recordKeyed = new HashMap<>();
+        longKeyed = new LongObjectHashMap<>();
+        for (int i = 0; i < size; i++) {
+            ids[i] = new AccountId(TSID.Factory.getTsid());
+            longIds[i] = ids[i].toLong();
+            recordKeyed.put(ids[i], VALUE);
+            longKeyed.put(longIds[i], VALUE);
+        }
+        Random random = new Random(42);
+        probes = new int[1 << 16];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public Object lookupRecordKeyed() {
+        return recordKeyed.get(ids[probes[next++ & (probes.length - 1)]]);
+    }
+
+    @Benchmark
+    public Object lookupLongKeyed() {
+        return longKeyed.get(longIds[probes[next++ & (probes.length - 1)]]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public void buildRecordKeyed(Blackhole blackhole) {
+        Map<AccountId, Object> map = new HashMap<>();
+        for (AccountId id : ids) {
+            map.put(id, VALUE);
+        }
+        blackhole.consume(map);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public void buildLongKeyed(Blackhole blackhole) {
+        LongObjectHashMap<Object> map = new LongObjectHashMap<>();
+        for (long id : longIds) {
+            map.put(id, VALUE);
+        }
+        blackhole.consume(map);
+    }
+}
@@ -0,0 +1,108 @@
+package dev.coderkini.tailfin.commons.collections;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.hypersistence.tsid.TSID;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jol.info.GraphLayout;
+
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+
+/**
+ * <p>Measures the heap retained by an index of ids, keyed by {@link AccountId} in a {@link HashMap} and a
+ * {@link HashSet}, and keyed by the primitive long of the id in a {@link LongObjectHashMap} and a
+ * {@link LongHashSet}. The footprint is walked with JOL after the index is built and reported as the
+ * {@code bytesPerEntry} secondary result, the time of the benchmark is the time to build and walk the index and is
+ * not of interest.</p>
+ *
+ * <p>All the entries of the maps share one value, so the footprint is that of the keys and of the tables. The ids of
+ * the boxed index are part of its footprint, as an index built from rows read from the database creates them.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class IdMapFootprintBenchmark {
+    private static final Object VALUE = new Object();
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private long[] longIds;
+
+    /**
+     * The footprint of the last index built, per entry.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long bytesPerEntry;
+    }
+
+    @Setup
+    public void setUp() {
+        longIds = new long[size];
+        for (int i = 0; i < size; i++) {
+            longIds[i] = TSID.Factory.getTsid().toLong();
+        }
+    }
+
+    @Benchmark
+    public void recordKeyedMap(Footprint footprint, Blackhole blackhole) {
+        Map<AccountId, Object> map = new HashMap<>();
+        for (long id : longIds) {
+            map.put(AccountId.fromLong(id), VALUE);
+        }
+        measure(map, footprint, blackhole);
+    }
+
+    @Benchmark
+    public void longKeyedMap(Footprint footprint, Blackhole blackhole) {
+        LongObjectHashMap<Object> map = new LongObjectHashMap<>();
+        for (long id : longIds) {
+            map.put(id, VALUE);
+        }
+        measure(map, footprint, blackhole);
+    }
+
+    @Benchmark
+    public void recordKeyedSet(Footprint footprint, Blackhole blackhole) {
+        Set<AccountId> set = new HashSet<>();
+        for (long id : longIds) {
+            set.add(AccountId.fromLong(id));
+        }
+        measure(set, footprint, blackhole);
+    }
+
+    @Benchmark
+    public void longKeyedSet(Footprint footprint, Blackhole blackhole) {
+        LongHashSet set = new LongHashSet();
+        for (long id : longIds) {
+            set.add(id);
+        }
+        measure(set, footprint, blackhole);
+    }
+
+    private void measure(Object index, Footprint footprint, Blackhole blackhole) {
+        footprint.bytesPerEntry = GraphLayout.parseInstance(index).totalSize() / size;
+        blackhole.consume(index);
+    }
+}
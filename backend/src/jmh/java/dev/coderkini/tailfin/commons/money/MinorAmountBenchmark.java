@@ -0,0 +1,81 @@
+package dev.coderkini.tailfin.commons.money;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.money.CurrencyUnit;
+import javax.money.Monetary;
+import javax.money.MonetaryAmount;
+
+import org.javamoney.moneta.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares summing a year of transaction amounts held as {@link Money}, chaining {@link Money#add(MonetaryAmount)},
+ * with summing the same amounts held as minor units through {@link MinorAmount#add(long, long)}. Run with
+ * {@code -prof gc} to compare the allocation rates as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MinorAmountBenchmark {
+    private static final CurrencyUnit INR = Monetary.getCurrency("INR");
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private Money[] amounts;
+    private long[] units;
+
+    @Setup
+    public void setUp() {
+        amounts = new Money[size];
+        units = new long[size];
+        Random random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            long amount = (random.nextBoolean() ? 1 : -1) * (1 + random.nextInt(10_000_000));
+            amounts[i] = Money.of(BigDecimal.valueOf(amount, MinorAmount.SCALE), INR);
+            units[i] = MinorAmount.toUnits(amounts[i]);
+        }
+    }
+
+    @Benchmark
+    public MonetaryAmount sumMoney() {
+        Money sum = Money.zero(INR);
+        for (Money amount : amounts) {
+            sum = sum.add(amount);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sumMinorUnits() {
+        long sum = 0;
+        for (long amount : units) {
+            sum = MinorAmount.add(sum, amount);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public MonetaryAmount sumMinorUnitsToMoney() {
+        long sum = 0;
+        for (Money amount : amounts) {
+            sum = MinorAmount.add(sum, MinorAmount.toUnits(amount));
+        }
+        return new MinorAmount(sum, INR).toMonetaryAmount();
+    }
+}
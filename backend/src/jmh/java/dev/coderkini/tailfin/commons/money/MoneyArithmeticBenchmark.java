@@ -0,0 +1,95 @@
+package dev.coderkini.tailfin.commons.money;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryAmount;
+
+import org.javamoney.moneta.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the single operations on amounts that the domain performs: creating an amount from a column value,
+ * adding, comparing and converting at an exchange rate, as {@link Money} and as {@link MinorAmount}.
+ *
+ * @see MinorAmountBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MoneyArithmeticBenchmark {
+    private final CurrencyUnit inr = Currencies.of("INR");
+    private final CurrencyUnit usd = Currencies.of("USD");
+    private final BigDecimal value = new BigDecimal("12345.67");
+    private final BigDecimal rate = new BigDecimal("0.012");
+
+    private Money money;
+    private Money other;
+    private MinorAmount minor;
+    private MinorAmount otherMinor;
+
+    @Setup
+    public void setUp() {
+        money = Money.of(value, inr);
+        other = Money.of(new BigDecimal("890.12"), inr);
+        minor = MinorAmount.of(money);
+        otherMinor = MinorAmount.of(other);
+    }
+
+    @Benchmark
+    public MonetaryAmount createMoney() {
+        return Money.of(value, "INR");
+    }
+
+    @Benchmark
+    public MonetaryAmount createMoneyCachedCurrency() {
+        return Money.of(value, Currencies.of("INR"));
+    }
+
+    @Benchmark
+    public MinorAmount createMinorAmount() {
+        return new MinorAmount(MinorAmount.toUnits(value), inr);
+    }
+
+    @Benchmark
+    public MonetaryAmount addMoney() {
+        return money.add(other);
+    }
+
+    @Benchmark
+    public MinorAmount addMinorAmount() {
+        return minor.plus(otherMinor);
+    }
+
+    @Benchmark
+    public boolean compareMoney() {
+        return money.isGreaterThan(other);
+    }
+
+    @Benchmark
+    public int compareMinorAmount() {
+        return minor.compareTo(otherMinor);
+    }
+
+    @Benchmark
+    public MonetaryAmount convertMoney() {
+        return Money.of(money.getNumberStripped().multiply(rate), usd);
+    }
+
+    @Benchmark
+    public MinorAmount convertMinorAmount() {
+        return ExchangeRates.convert(minor, usd, rate);
+    }
+}
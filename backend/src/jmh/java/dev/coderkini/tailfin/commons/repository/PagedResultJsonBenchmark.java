@@ -0,0 +1,65 @@
+package dev.coderkini.tailfin.commons.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import dev.coderkini.tailfin.accounts.domain.IfsCode;
+import dev.coderkini.tailfin.accounts.ifsc.IfscBranch;
+
+/**
+ * Measures serializing a {@link PagedResult} to JSON with an {@link ObjectMapper} configured the way Spring MVC
+ * configures it, compared with serializing the same items as a list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PagedResultJsonBenchmark {
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+
+    private ObjectMapper mapper;
+    private List<IfscBranch> items;
+    private QueryConstraints<IfscBranch> constraints;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        items = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            items.add(new IfscBranch(new IfsCode(String.format("HDFC0%06d", i)), "HDFC Bank", "Branch " + i,
+                    "Mumbai", "Maharashtra"));
+        }
+        constraints = QueryConstraints.<IfscBranch>of()
+                .sortBy("ifsc", SortDirection.ASCENDING)
+                .page(pageSize, 3);
+    }
+
+    @Benchmark
+    public byte[] serializePagedResult() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(new PagedResult<>(items.stream(), constraints, 100_000));
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(items);
+    }
+}
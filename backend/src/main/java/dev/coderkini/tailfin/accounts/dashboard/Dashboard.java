@@ -0,0 +1,74 @@
+package dev.coderkini.tailfin.accounts.dashboard;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Represents the accounts of a dashboard together with their balances, banks and most recent transactions.
+ *
+ * @param accounts  The accounts, in the order they were requested in.
+ *
+ * @see DashboardService
+ */
+public record Dashboard(List<AccountSummary> accounts) {
+    /**
+     * Creates a new instance of {@link Dashboard}.
+     */
+    public Dashboard {
+        accounts = List.copyOf(accounts);
+    }
+
+    /**
+     * Represents an account on the dashboard.
+     *
+     * @param id                    The id of the account.
+     * @param type                  The type of the account.
+     * @param number                The account number.
+     * @param displayName           The display name of the account.
+     * @param currency              The currency of the account.
+     * @param balance               The current balance of the account.
+     * @param bank                  The bank of the account, or null if it has none.
+     * @param recentTransactions    The most recent transactions of the account, newest first.
+     */
+    public record AccountSummary(String id,
+                                 String type,
+                                 String number,
+                                 String displayName,
+                                 String currency,
+                                 BigDecimal balance,
+                                 BankSummary bank,
+                                 List<RecentTransaction> recentTransactions) {
+    }
+
+    /**
+     * Represents the bank of an account on the dashboard.
+     *
+     * @param id            The id of the bank.
+     * @param name          The name of the bank.
+     * @param branchName    The name of the branch.
+     * @param ifsc          The IFS code of the branch.
+     */
+    public record BankSummary(String id, String name, String branchName, String ifsc) {
+    }
+
+    /**
+     * Represents a recent transaction of an account on the dashboard.
+     *
+     * @param id                The id of the transaction.
+     * @param type              The type of the transaction.
+     * @param sourceAccountId   The id of the account the amount was moved from.
+     * @param targetAccountId   The id of the account the amount was moved to.
+     * @param amount            The amount of the transaction.
+     * @param currency          The currency of the amount.
+     * @param createdAt         When the transaction was made.
+     */
+    public record RecentTransaction(String id,
+                                    String type,
+                                    String sourceAccountId,
+                                    String targetAccountId,
+                                    BigDecimal amount,
+                                    String currency,
+                                    LocalDateTime createdAt) {
+    }
+}
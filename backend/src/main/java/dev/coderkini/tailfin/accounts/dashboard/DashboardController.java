@@ -0,0 +1,56 @@
+package dev.coderkini.tailfin.accounts.dashboard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+
+/**
+ * Exposes the dashboard of a set of accounts.
+ *
+ * @see DashboardService
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+    private final DashboardService dashboardService;
+
+    /**
+     * Create a new DashboardController instance.
+     *
+     * @param dashboardService  reference to the {@link DashboardService} assembling the dashboard
+     */
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    /**
+     * Returns the dashboard of the specified accounts.
+     *
+     * @param accountIds    the ids of the accounts to show
+     *
+     * @return the dashboard
+     */
+    @GetMapping
+    public Dashboard dashboard(@RequestParam("accountId") List<String> accountIds) {
+        List<AccountId> ids = new ArrayList<>(accountIds.size());
+        try {
+            for (String accountId : accountIds) {
+                ids.add(AccountId.fromString(accountId));
+            }
+            return dashboardService.dashboard(ids);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (QueryTimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, e.getMessage(), e);
+        }
+    }
+}
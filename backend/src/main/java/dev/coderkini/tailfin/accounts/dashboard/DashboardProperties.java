@@ -0,0 +1,19 @@
+package dev.coderkini.tailfin.accounts.dashboard;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the dashboard, bound from the {@code tailfin.dashboard} properties.
+ *
+ * @param maxAccounts           The maximum number of accounts on one dashboard.
+ * @param recentTransactions    The number of most recent transactions shown per account.
+ * @param callTimeout           How long each repository call of a dashboard may take before the dashboard fails.
+ */
+@ConfigurationProperties("tailfin.dashboard")
+public record DashboardProperties(@DefaultValue("50") int maxAccounts,
+                                  @DefaultValue("10") int recentTransactions,
+                                  @DefaultValue("2s") Duration callTimeout) {
+}
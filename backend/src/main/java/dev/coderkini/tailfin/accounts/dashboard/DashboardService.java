@@ -0,0 +1,182 @@
+package dev.coderkini.tailfin.accounts.dashboard;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.money.MonetaryAmount;
+
+import org.javamoney.moneta.Money;
+import org.springframework.stereotype.Service;
+
+import dev.coderkini.tailfin.accounts.domain.Account;
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+import dev.coderkini.tailfin.accounts.domain.AccountRepository;
+import dev.coderkini.tailfin.accounts.domain.Bank;
+import dev.coderkini.tailfin.accounts.domain.BankId;
+import dev.coderkini.tailfin.accounts.domain.BankRepository;
+import dev.coderkini.tailfin.accounts.domain.Transaction;
+import dev.coderkini.tailfin.accounts.domain.TransactionRepository;
+import dev.coderkini.tailfin.commons.repository.CountStrategy;
+import dev.coderkini.tailfin.commons.repository.FanOut;
+import dev.coderkini.tailfin.commons.repository.PagedResult;
+import dev.coderkini.tailfin.commons.repository.QueryConstraints;
+import dev.coderkini.tailfin.commons.repository.RepositoryExecutor;
+import dev.coderkini.tailfin.commons.repository.SortDirection;
+
+/**
+ * <p>Assembles the dashboard of a set of accounts: their details and banks, their balances and their most recent
+ * transactions.</p>
+ *
+ * <p>The repository calls behind a dashboard are independent of each other, so they are fanned out with
+ * {@link FanOut} instead of being made one after the other: one call loads the accounts and then their banks, one
+ * call loads the balances of all accounts with a single query, and every account gets a call for its recent
+ * transactions, as each is a page of its own. The dashboard takes as long as its slowest call. Each call has a
+ * deadline of {@link DashboardProperties#callTimeout() call timeout} from when it starts running, and the first call
+ * that fails or misses its deadline fails the dashboard and cancels the calls still running, including their
+ * statements in the database.</p>
+ *
+ * @see Dashboard
+ */
+@Service
+public class DashboardService {
+    private final AccountRepository accountRepository;
+    private final BankRepository bankRepository;
+    private final TransactionRepository transactionRepository;
+    private final RepositoryExecutor executor;
+    private final DashboardProperties properties;
+
+    /**
+     * Create a new DashboardService instance.
+     *
+     * @param accountRepository     reference to the {@link AccountRepository} holding the accounts
+     * @param bankRepository        reference to the {@link BankRepository} holding the banks of the accounts
+     * @param transactionRepository reference to the {@link TransactionRepository} holding the balances and
+     *                              transactions of the accounts
+     * @param executor              reference to the {@link RepositoryExecutor} the repository calls are fanned out on
+     * @param properties            reference to the {@link DashboardProperties} holding the limits of a dashboard
+     */
+    public DashboardService(AccountRepository accountRepository,
+                            BankRepository bankRepository,
+                            TransactionRepository transactionRepository,
+                            RepositoryExecutor executor,
+                            DashboardProperties properties) {
+        this.accountRepository = accountRepository;
+        this.bankRepository = bankRepository;
+        this.transactionRepository = transactionRepository;
+        this.executor = executor;
+        this.properties = properties;
+    }
+
+    /**
+     * Returns the dashboard of the specified accounts. Accounts that do not exist are left out.
+     *
+     * @param accountIds    the ids of the accounts, duplicates are ignored
+     *
+     * @return the dashboard, with the accounts in the order of their ids
+     *
+     * @throws IllegalArgumentException                         if there are more accounts than a dashboard can show
+     * @throws org.springframework.dao.QueryTimeoutException    if a repository call missed its deadline
+     */
+    public Dashboard dashboard(Collection<AccountId> accountIds) {
+        Set<AccountId> ids = new LinkedHashSet<>(accountIds);
+        ids.remove(null);
+        if (ids.size() > properties.maxAccounts()) {
+            throw new IllegalArgumentException("A dashboard shows at most " + properties.maxAccounts() +
+                    " accounts, got " + ids.size());
+        }
+        if (ids.isEmpty()) {
+            return new Dashboard(List.of());
+        }
+
+        Duration timeout = properties.callTimeout();
+        try (FanOut fanOut = executor.fanOut()) {
+            FanOut.Call<AccountsAndBanks> accounts = fanOut.fork(() -> accountsAndBanks(ids), timeout);
+            FanOut.Call<Map<AccountId, MonetaryAmount>> balances =
+                    fanOut.fork(() -> transactionRepository.getAccountBalances(ids), timeout);
+            Map<AccountId, FanOut.Call<List<Transaction>>> transactions = new LinkedHashMap<>();
+            for (AccountId id : ids) {
+                transactions.put(id, fanOut.fork(() -> recentTransactions(id), timeout));
+            }
+            fanOut.join();
+
+            Map<AccountId, Account> found = accounts.get().accounts();
+            Map<BankId, Bank> banks = accounts.get().banks();
+            List<Dashboard.AccountSummary> summaries = new ArrayList<>(found.size());
+            for (AccountId id : ids) {
+                Account account = found.get(id);
+                if (account != null) {
+                    // Accounts without transactions have no running balance yet.
+                    MonetaryAmount balance = balances.get().getOrDefault(id, Money.zero(account.getCurrency()));
+                    summaries.add(summary(account, banks.get(account.getBankId()), balance,
+                            transactions.get(id).get()));
+                }
+            }
+            return new Dashboard(summaries);
+        }
+    }
+
+    private AccountsAndBanks accountsAndBanks(Collection<AccountId> ids) {
+        Map<AccountId, Account> accounts = accountRepository.findAllByIds(ids);
+        List<BankId> bankIds = accounts.values().stream()
+                .map(Account::getBankId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        return new AccountsAndBanks(accounts, bankIds.isEmpty() ? Map.of() : bankRepository.findAllByIds(bankIds));
+    }
+
+    private List<Transaction> recentTransactions(AccountId id) {
+        QueryConstraints<Transaction> latest = QueryConstraints.<Transaction>of()
+                .sortBy("createdAt", SortDirection.DESCENDING)
+                .page(properties.recentTransactions(), 0)
+                .count(CountStrategy.HAS_MORE);
+        PagedResult<Transaction> page = transactionRepository.findByAccountId(id, latest);
+        try (Stream<Transaction> items = page.items()) {
+            return items.toList();
+        }
+    }
+
+    private static Dashboard.AccountSummary summary(Account account, Bank bank, MonetaryAmount balance,
+                                                    List<Transaction> transactions) {
+        return new Dashboard.AccountSummary(account.getId().value().toString(),
+                account.getType().name(),
+                account.getNumber(),
+                account.getDisplayName(),
+                balance.getCurrency().getCurrencyCode(),
+                balance.getNumber().numberValue(BigDecimal.class),
+                bank == null ? null : new Dashboard.BankSummary(bank.getId().value().toString(),
+                        bank.getName(),
+                        bank.getBranchName(),
+                        bank.getIfsc().value()),
+                transactions.stream().map(DashboardService::recent).toList());
+    }
+
+    private static Dashboard.RecentTransaction recent(Transaction transaction) {
+        MonetaryAmount amount = transaction.getAmount();
+        return new Dashboard.RecentTransaction(transaction.getId().value().toString(),
+                transaction.getType().name(),
+                id(transaction.getSourceAccountId()),
+                id(transaction.getTargetAccountId()),
+                amount.getNumber().numberValue(BigDecimal.class),
+                amount.getCurrency().getCurrencyCode(),
+                transaction.getCreatedAt());
+    }
+
+    private static String id(AccountId id) {
+        return id == null ? null : id.value().toString();
+    }
+
+    /**
+     * The accounts of a dashboard and their banks, loaded by one call as the banks depend on the accounts.
+     */
+    private record AccountsAndBanks(Map<AccountId, Account> accounts, Map<BankId, Bank> banks) {
+    }
+}
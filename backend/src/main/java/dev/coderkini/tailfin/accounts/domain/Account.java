@@ -1,18 +1,21 @@
 package dev.coderkini.tailfin.accounts.domain;
 
 import java.time.LocalDateTime;
-import javax.money.Monetary;
+import javax.money.CurrencyUnit;
 import javax.money.MonetaryAmount;
 
 import org.javamoney.moneta.Money;
 
+import dev.coderkini.tailfin.commons.money.Currencies;
+
 /**
  * <p>Account represents a container of monetary transactions. Accounts can be of different types. The supported types
  * are defined in the {@link AccountType} enumeration.</p>
  *
  * <p>It may optionally be associated with a bank which is when it also has an account number.</p>
  *
- * <p>An account may start with an initial balance, but this is optional which is when the balance is zero.</p>
+ * <p>An account may start with an initial balance, but this is optional which is when the balance is zero. The
+ * balance is in the currency of the account, which is {@link Currencies#DEFAULT INR} unless specified otherwise.</p>
  *
  * @see AccountId
  * @see AccountType
@@ -49,7 +52,18 @@ public class Account {
      * @param type      reference to the {@link AccountType} that represents the type of the account.
      */
     public Account(AccountId id, AccountType type) {
-        this(id, type, Money.zero(Monetary.getCurrency("INR")));
+        this(id, type, Currencies.DEFAULT);
+    }
+
+    /**
+     * Create a new Account instance with the specified ID, type and currency and zero initial balance.
+     *
+     * @param id        reference to {@link AccountId} that represents unique identifier for the account.
+     * @param type      reference to the {@link AccountType} that represents the type of the account.
+     * @param currency  reference to the {@link CurrencyUnit} that represents the currency of the account.
+     */
+    public Account(AccountId id, AccountType type, CurrencyUnit currency) {
+        this(id, type, Money.zero(currency));
     }
 
     /**
@@ -77,7 +91,7 @@ public class Account {
      * @param displayName   The display name for the account.
      */
     public Account(AccountId id, AccountType type, BankId bankId, String number, String displayName) {
-        this(id, type, Money.zero(Monetary.getCurrency("INR")));
+        this(id, type, Currencies.DEFAULT);
         this.bankId = bankId;
         this.number = number;
         this.displayName = displayName;
@@ -102,6 +116,33 @@ public class Account {
         this.displayName = displayName;
     }
 
+    /**
+     * Create a new Account instance with the specified ID, type, number, bank ID, display name, balance and timestamps,
+     * as stored.
+     *
+     * @param id                reference to {@link AccountId} that represents unique identifier for the account.
+     * @param type              reference to the {@link AccountType} that represents the type of the account.
+     * @param bankId            reference to the {@link BankId} of the associated bank, or null if there is none.
+     * @param number            The account number.
+     * @param displayName       The display name for the account.
+     * @param balance           reference to an instance of {@link MonetaryAmount} that represents the balance of the
+     *                          account.
+     * @param createdAt         The date and time when the account was created.
+     * @param updatedAt         The date and time when the account was last updated, or null if it never was.
+     */
+    public Account(AccountId id,
+                   AccountType type,
+                   BankId bankId,
+                   String number,
+                   String displayName,
+                   MonetaryAmount balance,
+                   LocalDateTime createdAt,
+                   LocalDateTime updatedAt) {
+        this(id, type, bankId, number, displayName, balance);
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
     /**
      * Return the unique identifier for the account.
      *
@@ -165,6 +206,15 @@ public class Account {
         return balance;
     }
 
+    /**
+     * Return the currency of the account.
+     *
+     * @return reference to the {@link CurrencyUnit} that represents the currency of the account.
+     */
+    public CurrencyUnit getCurrency() {
+        return balance.getCurrency();
+    }
+
     /**
      * Return the date and time when the account was created.
      *
@@ -33,4 +33,25 @@ public record AccountId(TSID value) {
     public static AccountId fromString(String value) {
         return new AccountId(TSID.from(value));
     }
+
+    /**
+     * Returns the unique identifier as a primitive long, which is how it is stored and how it is keyed in the
+     * collections of {@code dev.coderkini.tailfin.commons.collections}.
+     *
+     * @return  The unique identifier of the account as a long.
+     */
+    public long toLong() {
+        return value.toLong();
+    }
+
+    /**
+     * Create a new AccountId instance from the specified long value, as returned by {@link #toLong()}.
+     *
+     * @param value     The unique identifier of the account as a long.
+     *
+     * @return  A new AccountId instance.
+     */
+    public static AccountId fromLong(long value) {
+        return new AccountId(TSID.from(value));
+    }
 }
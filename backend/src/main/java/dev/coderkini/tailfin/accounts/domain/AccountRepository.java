@@ -1,5 +1,10 @@
 package dev.coderkini.tailfin.accounts.domain;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import javax.money.MonetaryAmount;
+
 import dev.coderkini.tailfin.commons.repository.PagedResult;
 import dev.coderkini.tailfin.commons.repository.QueryConstraints;
 
@@ -21,6 +26,15 @@ public interface AccountRepository {
      */
     Account findById(AccountId id);
 
+    /**
+     * Find the accounts with the specified IDs with a single query.
+     *
+     * @param ids   the IDs of the accounts, duplicates and nulls are ignored
+     *
+     * @return the accounts found by their ID, IDs of accounts that do not exist are absent
+     */
+    Map<AccountId, Account> findAllByIds(Collection<AccountId> ids);
+
     /**
      * Find an account by its account number.
      *
@@ -40,6 +54,24 @@ public interface AccountRepository {
      */
     PagedResult<Account> findAccountsByBank(BankId bankId, QueryConstraints<Account> constraints);
 
+    /**
+     * Search accounts whose display name or account number contains the specified text, ignoring case.
+     *
+     * @param text      the text to search for, matched literally
+     * @param limit     the maximum number of accounts to return
+     *
+     * @return the matching accounts, the ones most similar to the text first
+     */
+    List<Account> search(String text, int limit);
+
+    /**
+     * Retrieves the initial balance of every account, which the running balance kept by the
+     * {@link TransactionRepository} is added to.
+     *
+     * @return reference to a {@link Map} of the initial balance of every account keyed by the account.
+     */
+    Map<AccountId, MonetaryAmount> getInitialBalances();
+
     /**
      * Find accounts by the specified customer ID.
      *
@@ -24,10 +24,31 @@ public class Bank {
      * @param ifsc          The IFSC code of the bank.
      */
     public Bank(BankId id, String name, String branchName, IfsCode ifsc) {
+        this(id, name, branchName, ifsc, null, null);
+    }
+
+    /**
+     * Create a new Bank instance with the specified ID, name, branch name, IFSC and timestamps, as stored.
+     *
+     * @param id            The unique identifier for the bank.
+     * @param name          The name of the bank.
+     * @param branchName    The name of the branch.
+     * @param ifsc          The IFSC code of the bank.
+     * @param createdAt     The date and time the bank was created.
+     * @param updatedAt     The date and time the bank was last updated, or null if it never was.
+     */
+    public Bank(BankId id,
+                String name,
+                String branchName,
+                IfsCode ifsc,
+                LocalDateTime createdAt,
+                LocalDateTime updatedAt) {
         this.id = id;
         this.name = name;
         this.branchName = branchName;
         this.ifsc = ifsc;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
     }
 
     /**
@@ -38,4 +38,25 @@ public record BankId(TSID value) {
     public static BankId fromString(String value) {
         return new BankId(TSID.from(value));
     }
+
+    /**
+     * Returns the unique identifier as a primitive long, which is how it is stored and how it is keyed in the
+     * collections of {@code dev.coderkini.tailfin.commons.collections}.
+     *
+     * @return  The unique identifier of the bank as a long.
+     */
+    public long toLong() {
+        return value.toLong();
+    }
+
+    /**
+     * Create a new BankId instance from the specified long value, as returned by {@link #toLong()}.
+     *
+     * @param value     The unique identifier of the bank as a long.
+     *
+     * @return  A new BankId instance.
+     */
+    public static BankId fromLong(long value) {
+        return new BankId(TSID.from(value));
+    }
 }
@@ -1,5 +1,9 @@
 package dev.coderkini.tailfin.accounts.domain;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 import dev.coderkini.tailfin.commons.repository.PagedResult;
 import dev.coderkini.tailfin.commons.repository.QueryConstraints;
 
@@ -30,6 +34,15 @@ public interface BankRepository {
      */
     Bank findById(BankId id);
 
+    /**
+     * Find the banks with the specified IDs with a single query.
+     *
+     * @param ids   the IDs of the banks, duplicates and nulls are ignored
+     *
+     * @return the banks found by their ID, IDs of banks that do not exist are absent
+     */
+    Map<BankId, Bank> findAllByIds(Collection<BankId> ids);
+
     /**
      * Find a bank by its IFS code.
      *
@@ -48,6 +61,16 @@ public interface BankRepository {
      */
     Bank findByBranchName(String branchName);
 
+    /**
+     * Search banks whose name or branch name contains the specified text, ignoring case.
+     *
+     * @param text      the text to search for, matched literally
+     * @param limit     the maximum number of banks to return
+     *
+     * @return the matching banks, the ones most similar to the text first
+     */
+    List<Bank> search(String text, int limit);
+
     /**
      * Save the specified bank.
      *
@@ -0,0 +1,105 @@
+package dev.coderkini.tailfin.accounts.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import javax.money.MonetaryAmount;
+
+/**
+ * <p>Represents the key that makes saving a transaction idempotent: a transaction whose key has already been saved is
+ * not saved again.</p>
+ *
+ * <p>Keys are either supplied by the client, or derived from a hash of the content of the transaction. As identical
+ * transactions can legitimately occur, for example two equal card payments on the same day of a statement, derived
+ * keys take the occurrence of the content within its source as well.</p>
+ *
+ * @param value The value of the key, at most {@value #MAX_LENGTH} characters long.
+ */
+public record IdempotencyKey(String value) {
+    /**
+     * The maximum length of a key.
+     */
+    public static final int MAX_LENGTH = 64;
+
+    public IdempotencyKey {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Idempotency key cannot be blank");
+        }
+        if (value.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key must be at most " + MAX_LENGTH + " characters long");
+        }
+    }
+
+    /**
+     * Derives the key of the first occurrence of a transaction from its content.
+     *
+     * @param type              The type of the transaction.
+     * @param sourceAccountId   The source account of the transaction, or null if there is none.
+     * @param targetAccountId   The target account of the transaction, or null if there is none.
+     * @param amount            The amount of the transaction.
+     * @param createdAt         The date and time of the transaction.
+     *
+     * @return  The derived {@link IdempotencyKey}.
+     */
+    public static IdempotencyKey derive(TransactionType type,
+                                        AccountId sourceAccountId,
+                                        AccountId targetAccountId,
+                                        MonetaryAmount amount,
+                                        LocalDateTime createdAt) {
+        return derive(type, sourceAccountId, targetAccountId, amount, createdAt, 0);
+    }
+
+    /**
+     * Derives the key of the specified occurrence of a transaction from its content.
+     *
+     * @param type              The type of the transaction.
+     * @param sourceAccountId   The source account of the transaction, or null if there is none.
+     * @param targetAccountId   The target account of the transaction, or null if there is none.
+     * @param amount            The amount of the transaction.
+     * @param createdAt         The date and time of the transaction.
+     * @param occurrence        The number of transactions with the same content that precede it, starting from zero.
+     *
+     * @return  The derived {@link IdempotencyKey}.
+     */
+    public static IdempotencyKey derive(TransactionType type,
+                                        AccountId sourceAccountId,
+                                        AccountId targetAccountId,
+                                        MonetaryAmount amount,
+                                        LocalDateTime createdAt,
+                                        int occurrence) {
+        BigDecimal number = amount.getNumber().numberValue(BigDecimal.class).setScale(2, RoundingMode.HALF_EVEN);
+        return hash("content|" + type.getValue() +
+                '|' + (sourceAccountId == null ? "" : sourceAccountId.toLong()) +
+                '|' + (targetAccountId == null ? "" : targetAccountId.toLong()) +
+                '|' + number.toPlainString() +
+                '|' + amount.getCurrency().getCurrencyCode() +
+                '|' + createdAt +
+                '|' + occurrence);
+    }
+
+    /**
+     * Derives the key of a transaction from the reference its bank assigned to it, which banks keep unique per
+     * account.
+     *
+     * @param accountId The account the bank statement belongs to.
+     * @param reference The reference of the transaction.
+     *
+     * @return  The derived {@link IdempotencyKey}.
+     */
+    public static IdempotencyKey fromReference(AccountId accountId, String reference) {
+        return hash("reference|" + accountId.toLong() + '|' + reference);
+    }
+
+    private static IdempotencyKey hash(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return new IdempotencyKey(HexFormat.of().formatHex(digest));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
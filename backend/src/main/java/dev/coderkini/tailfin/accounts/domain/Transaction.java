@@ -22,10 +22,11 @@ public class Transaction {
     private final AccountId targetAccountId;
     private final MonetaryAmount amount;
     private final LocalDateTime createdAt;
+    private final IdempotencyKey idempotencyKey;
 
     /**
      * Create a new instance of {@link Transaction} with the specified unique identifier, type, source account, target
-     * account, amount, and creation date.
+     * account, amount, and creation date. The idempotency key of the transaction is derived from its content.
      *
      * @param id                    reference to an instance of {@link TransactionId} that represents the unique
      * @param type                  reference to an instance of {@link TransactionType} that represents the type of the
@@ -44,12 +45,44 @@ public class Transaction {
                        AccountId targetAccountId,
                        MonetaryAmount amount,
                        LocalDateTime createdAt) {
+        this(id, type, sourceAccountId, targetAccountId, amount, createdAt,
+                type == null || amount == null || createdAt == null ? null
+                        : IdempotencyKey.derive(type, sourceAccountId, targetAccountId, amount, createdAt));
+    }
+
+    /**
+     * Create a new instance of {@link Transaction} with the specified unique identifier, type, source account, target
+     * account, amount, creation date, and idempotency key.
+     *
+     * @param id                    reference to an instance of {@link TransactionId} that represents the unique
+     *                              identifier for the transaction.
+     * @param type                  reference to an instance of {@link TransactionType} that represents the type of the
+     *                              transaction.
+     * @param sourceAccountId       reference to an instance of {@link AccountId} that represents the unique identifier
+     *                              for the source account.
+     * @param targetAccountId       reference to an instance of {@link AccountId} that represents the unique identifier
+     *                              for the target account.
+     * @param amount                reference to an instance of {@link MonetaryAmount} that represents the amount of
+     *                              the transaction.
+     * @param createdAt             reference to an instance of {@link LocalDateTime} that represents the date and time
+     *                              when the transaction was created.
+     * @param idempotencyKey        reference to an instance of {@link IdempotencyKey} that prevents the transaction
+     *                              from being saved twice, or null if it may be saved any number of times.
+     */
+    public Transaction(TransactionId id,
+                       TransactionType type,
+                       AccountId sourceAccountId,
+                       AccountId targetAccountId,
+                       MonetaryAmount amount,
+                       LocalDateTime createdAt,
+                       IdempotencyKey idempotencyKey) {
         this.id = id;
         this.type = type;
         this.sourceAccountId = sourceAccountId;
         this.targetAccountId = targetAccountId;
         this.amount = amount;
         this.createdAt = createdAt;
+        this.idempotencyKey = idempotencyKey;
     }
 
     /**
@@ -107,6 +140,16 @@ public class Transaction {
         return createdAt;
     }
 
+    /**
+     * Returns the key that prevents the transaction from being saved twice.
+     *
+     * @return  reference to an instance of {@link IdempotencyKey}, or null if the transaction may be saved any number
+     *          of times.
+     */
+    public IdempotencyKey getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -129,6 +172,7 @@ public class Transaction {
                 ", targetAccountId=" + targetAccountId +
                 ", amount=" + amount +
                 ", createdAt=" + createdAt +
+                ", idempotencyKey=" + idempotencyKey +
                 '}';
     }
 }
@@ -34,4 +34,25 @@ public record TransactionId(TSID value) {
     public static TransactionId from(String value) {
         return new TransactionId(TSID.from(value));
     }
+
+    /**
+     * Returns the unique identifier as a primitive long, which is how it is stored and how it is keyed in the
+     * collections of {@code dev.coderkini.tailfin.commons.collections}.
+     *
+     * @return  The unique identifier of the transaction as a long.
+     */
+    public long toLong() {
+        return value.toLong();
+    }
+
+    /**
+     * Create a new TransactionId instance from the specified long value, as returned by {@link #toLong()}.
+     *
+     * @param value     The unique identifier of the transaction as a long.
+     *
+     * @return  A new TransactionId instance.
+     */
+    public static TransactionId fromLong(long value) {
+        return new TransactionId(TSID.from(value));
+    }
 }
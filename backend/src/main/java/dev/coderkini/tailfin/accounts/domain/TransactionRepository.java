@@ -1,8 +1,15 @@
 package dev.coderkini.tailfin.accounts.domain;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.stream.Stream;
 import javax.money.MonetaryAmount;
 
+import dev.coderkini.tailfin.commons.repository.BatchResult;
+import dev.coderkini.tailfin.commons.repository.BatchingSink;
 import dev.coderkini.tailfin.commons.repository.PagedResult;
 import dev.coderkini.tailfin.commons.repository.QueryConstraints;
 
@@ -15,8 +22,11 @@ import dev.coderkini.tailfin.commons.repository.QueryConstraints;
  * @see Account
  * @see MonetaryAmount
  * @see PagedResult
+ * @see BatchResult
  * @see QueryConstraints
+ * @see LocalDate
  * @see LocalDateTime
+ * @see Stream
  */
 public interface TransactionRepository {
     /**
@@ -71,6 +81,20 @@ public interface TransactionRepository {
                                                        LocalDateTime endDate,
                                                        QueryConstraints<Transaction> constraints);
 
+    /**
+     * <p>Retrieves all the transactions for the specified account from the repository, oldest first.</p>
+     *
+     * <p>The transactions are read lazily as the stream is consumed, so the whole history of an account can be
+     * processed without holding it in memory. The stream holds on to database resources until a terminal operation
+     * completes, a stream that is consumed through its iterator must be closed by the caller.</p>
+     *
+     * @param accountId    reference to an instance of {@link AccountId} that represents the unique identifier for the
+     *                     account.
+     *
+     * @return reference to a {@link Stream} of the transactions for the specified account.
+     */
+    Stream<Transaction> streamByAccountId(AccountId accountId);
+
     /**
      * Saves the specified transaction to the repository.
      *
@@ -78,6 +102,28 @@ public interface TransactionRepository {
      */
     void save(Transaction transaction);
 
+    /**
+     * Saves the specified transactions to the repository. Transactions that cannot be saved are reported in the
+     * result and do not prevent the other transactions from being saved.
+     *
+     * @param transactions  reference to the {@link Collection} of transactions to be saved.
+     *
+     * @return reference to an instance of {@link BatchResult} that represents the outcome of saving the transactions.
+     */
+    BatchResult<Transaction> saveAll(Collection<Transaction> transactions);
+
+    /**
+     * Returns a sink that saves the transactions accepted by it in batches of the specified size using
+     * {@link #saveAll(Collection)}. The sink must be closed to save the last batch.
+     *
+     * @param batchSize     The number of transactions to save at a time.
+     *
+     * @return reference to an instance of {@link BatchingSink} that saves the transactions accepted by it.
+     */
+    default BatchingSink<Transaction> sink(int batchSize) {
+        return new BatchingSink<>(batchSize, this::saveAll);
+    }
+
     /**
      * Retrieves the balance for the specified account from the repository.
      *
@@ -86,4 +132,58 @@ public interface TransactionRepository {
      * @return reference to an instance of {@link MonetaryAmount} that represents the balance for the specified account.
      */
     MonetaryAmount getAccountBalance(AccountId accountId);
+
+    /**
+     * Retrieves the balance of every account that has transactions from the repository.
+     *
+     * @return reference to a {@link Map} of the balance of every account with transactions keyed by the account.
+     */
+    Map<AccountId, MonetaryAmount> getAccountBalances();
+
+    /**
+     * Retrieves the balances of the specified accounts from the repository, with a single lookup.
+     *
+     * @param accountIds    reference to the {@link Collection} of the accounts whose balances to retrieve.
+     *
+     * @return reference to a {@link Map} of the balances keyed by the account. Accounts without transactions are
+     *         absent.
+     */
+    Map<AccountId, MonetaryAmount> getAccountBalances(Collection<AccountId> accountIds);
+
+    /**
+     * Locks the balances of the specified accounts until the end of the current transaction and returns them. The
+     * balances are locked in the order of their accounts, so callers locking overlapping sets of accounts cannot
+     * deadlock each other. Must be called in a transaction.
+     *
+     * @param accountIds    reference to the {@link Collection} of the accounts whose balances to lock.
+     *
+     * @return reference to a {@link Map} of the locked running balances keyed by the account, zero for accounts without
+     *         transactions. Accounts that do not exist are absent.
+     */
+    Map<AccountId, MonetaryAmount> lockAccountBalances(Collection<AccountId> accountIds);
+
+    /**
+     * Retrieves the balance for the specified account as of the specified point in time from the repository,
+     * including the transactions created at that point in time.
+     *
+     * @param accountId reference to an instance of {@link AccountId} that represents the unique identifier for the account.
+     * @param asOf      reference to an instance of {@link LocalDateTime} that represents the point in time.
+     *
+     * @return reference to an instance of {@link MonetaryAmount} that represents the balance for the specified account
+     *          as of the specified point in time.
+     */
+    MonetaryAmount getAccountBalance(AccountId accountId, LocalDateTime asOf);
+
+    /**
+     * Retrieves the closing balance for the specified account for every day within the specified date range from the
+     * repository.
+     *
+     * @param accountId     reference to an instance of {@link AccountId} that represents the unique identifier for the
+     *                      account.
+     * @param startDate     reference to an instance of {@link LocalDate} that represents the first day of the range.
+     * @param endDate       reference to an instance of {@link LocalDate} that represents the last day of the range.
+     *
+     * @return reference to a {@link SortedMap} of the closing balance for the specified account keyed by the day.
+     */
+    SortedMap<LocalDate, MonetaryAmount> getBalanceHistory(AccountId accountId, LocalDate startDate, LocalDate endDate);
 }
@@ -12,7 +12,12 @@ public enum TransactionType {
     /**
      * Represents a withdrawal transaction.
      */
-    WITHDRAWAL("dr");
+    WITHDRAWAL("dr"),
+
+    /**
+     * Represents a transfer between two accounts, debited from the source and credited to the target account.
+     */
+    TRANSFER("tr");
 
     private final String value;
 
@@ -34,6 +39,24 @@ public enum TransactionType {
         return value;
     }
 
+    /**
+     * Returns the {@link TransactionType} instance for the specified value.
+     *
+     * @param value The value of the transaction type.
+     *
+     * @return  The {@link TransactionType} instance for the specified value.
+     *
+     * @throws IllegalArgumentException If the specified value is not a valid transaction type.
+     */
+    public static TransactionType of(String value) {
+        for (TransactionType type : TransactionType.values()) {
+            if (type.value.equals(value)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("No TransactionType with value " + value + " found");
+    }
+
     @Override
     public String toString() {
         return value;
@@ -0,0 +1,15 @@
+package dev.coderkini.tailfin.accounts.ifsc;
+
+import dev.coderkini.tailfin.accounts.domain.IfsCode;
+
+/**
+ * Represents a bank branch listed in the IFSC master file.
+ *
+ * @param ifsc      The IFS code of the branch.
+ * @param bank      The name of the bank.
+ * @param branch    The name of the branch.
+ * @param city      The city of the branch, or null if the master file does not list it.
+ * @param state     The state of the branch, or null if the master file does not list it.
+ */
+public record IfscBranch(IfsCode ifsc, String bank, String branch, String city, String state) {
+}
@@ -0,0 +1,102 @@
+package dev.coderkini.tailfin.accounts.ifsc;
+
+import java.util.Locale;
+
+/**
+ * <p>Packs IFS codes into longs. An IFS code is eleven characters out of {@code 0-9} and {@code A-Z}, which are read as
+ * the digits of a base-36 number. As digits sort before letters, packed codes sort in the same order as the codes,
+ * and all the codes starting with a prefix fall between the prefix padded with {@code 0} and with {@code Z}.</p>
+ */
+final class IfscCodes {
+    static final int LENGTH = 11;
+
+    private static final int RADIX = 36;
+
+    private IfscCodes() {
+    }
+
+    /**
+     * Returns the packed form of the specified code.
+     *
+     * @param code  the code, in upper case
+     *
+     * @return the packed code
+     *
+     * @throws IllegalArgumentException if the code is not eleven digits and upper case letters
+     */
+    static long pack(CharSequence code) {
+        if (code.length() != LENGTH) {
+            throw new IllegalArgumentException("IFSC must be " + LENGTH + " characters long: " + code);
+        }
+        return packPrefix(code, '0');
+    }
+
+    /**
+     * Returns the code of the specified packed code.
+     *
+     * @param packed    the packed code
+     *
+     * @return the code
+     */
+    static String unpack(long packed) {
+        char[] code = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            code[i] = Character.toUpperCase(Character.forDigit((int) (packed % RADIX), RADIX));
+            packed /= RADIX;
+        }
+        return new String(code);
+    }
+
+    /**
+     * Returns the smallest packed code starting with the specified prefix.
+     *
+     * @param prefix    the prefix, in upper case
+     *
+     * @return the smallest packed code with the prefix
+     *
+     * @throws IllegalArgumentException if the prefix is longer than a code or not digits and upper case letters
+     */
+    static long lowerBound(CharSequence prefix) {
+        return packPrefix(prefix, '0');
+    }
+
+    /**
+     * Returns the largest packed code starting with the specified prefix.
+     *
+     * @param prefix    the prefix, in upper case
+     *
+     * @return the largest packed code with the prefix
+     *
+     * @throws IllegalArgumentException if the prefix is longer than a code or not digits and upper case letters
+     */
+    static long upperBound(CharSequence prefix) {
+        return packPrefix(prefix, 'Z');
+    }
+
+    /**
+     * Returns the specified code or prefix trimmed and in upper case.
+     *
+     * @param value the code or prefix as entered
+     *
+     * @return the normalized code or prefix
+     */
+    static String normalize(String value) {
+        return value.strip().toUpperCase(Locale.ROOT);
+    }
+
+    private static long packPrefix(CharSequence prefix, char padding) {
+        if (prefix.length() > LENGTH) {
+            throw new IllegalArgumentException("IFSC prefix must be at most " + LENGTH + " characters long: " + prefix);
+        }
+        long packed = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            char c = i < prefix.length() ? prefix.charAt(i) : padding;
+            int digit = (c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z') ? Character.digit(c, RADIX) : -1;
+            if (digit < 0) {
+                throw new IllegalArgumentException("IFSC must only contain digits and upper case letters: " + prefix);
+            }
+            packed = packed * RADIX + digit;
+        }
+        return packed;
+    }
+}
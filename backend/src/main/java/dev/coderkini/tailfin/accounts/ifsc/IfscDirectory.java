@@ -0,0 +1,355 @@
+package dev.coderkini.tailfin.accounts.ifsc;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import dev.coderkini.tailfin.accounts.domain.IfsCode;
+import dev.coderkini.tailfin.commons.text.CsvFields;
+
+/**
+ * <p>In-memory directory of the bank branches in the national IFSC master file, for exact lookups and for the
+ * prefix searches of autocompletion.</p>
+ *
+ * <p>The branches are kept in parallel arrays sorted by IFS code. Codes are packed into a {@code long[]} (see
+ * {@link IfscCodes}) so that a lookup is a binary search over primitives, and a prefix search is a binary search for
+ * the first code with the prefix followed by a sequential scan. Bank, city and state names are deduplicated into a
+ * single table referenced by index, and branch names are stored as UTF-8 in one byte array. A directory of the whole
+ * master file retains a few tens of megabytes of heap.</p>
+ *
+ * <p>The master file is configured with {@link IfscProperties#masterFile() master file} and is loaded once the
+ * application is ready, it can be reloaded with {@link #load(Resource)}. It is a CSV file with a header naming at
+ * least the {@code IFSC}, {@code BANK} and {@code BRANCH} columns, and optionally city and state columns. Lookups
+ * made while the directory is loading see the previous contents. The time taken to load and the heap retained are
+ * logged and published as the {@code tailfin.ifsc.*} metrics.</p>
+ *
+ * @see IfscBranch
+ */
+@Component
+public class IfscDirectory implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(IfscDirectory.class);
+    private static final Map<String, List<String>> COLUMN_NAMES = Map.of(
+            "ifsc", List.of("ifsc", "ifsc code"),
+            "bank", List.of("bank", "bank name"),
+            "branch", List.of("branch", "branch name"),
+            "city", List.of("city", "city1", "centre"),
+            "state", List.of("state"));
+
+    private final IfscProperties properties;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * Create a new IfscDirectory instance.
+     *
+     * @param properties reference to the {@link IfscProperties} naming the master file
+     */
+    public IfscDirectory(IfscProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Returns the branch with the specified IFS code.
+     *
+     * @param ifsc reference to the {@link IfsCode} of the branch
+     *
+     * @return the branch, or null if the directory does not list it
+     */
+    public IfscBranch find(IfsCode ifsc) {
+        long packed;
+        try {
+            packed = IfscCodes.pack(IfscCodes.normalize(ifsc.value()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        Snapshot current = snapshot;
+        int index = Arrays.binarySearch(current.codes, packed);
+        return index < 0 ? null : current.branch(index);
+    }
+
+    /**
+     * Returns the branches whose IFS code starts with the specified prefix, in the order of their codes. The first
+     * four characters of a code identify the bank, and the last six the branch within the bank.
+     *
+     * @param prefix    the prefix of the IFS codes, case-insensitive
+     * @param limit     the maximum number of branches to return
+     *
+     * @return the branches with the prefix, at most limit of them
+     *
+     * @throws IllegalArgumentException if the prefix is empty, longer than a code or contains other characters than
+     *                                  digits and letters, or the limit is not positive
+     */
+    public List<IfscBranch> findByPrefix(String prefix, int limit) {
+        String normalized = IfscCodes.normalize(prefix);
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("IFSC prefix must not be empty");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        long lowerBound = IfscCodes.lowerBound(normalized);
+        long upperBound = IfscCodes.upperBound(normalized);
+        Snapshot current = snapshot;
+        int index = Arrays.binarySearch(current.codes, lowerBound);
+        List<IfscBranch> branches = new ArrayList<>(Math.min(limit, 16));
+        for (int i = index < 0 ? -index - 1 : index;
+             i < current.codes.length && current.codes[i] <= upperBound && branches.size() < limit;
+             i++) {
+            branches.add(current.branch(i));
+        }
+        return branches;
+    }
+
+    /**
+     * Returns the statistics of the current contents of the directory.
+     *
+     * @return the statistics of the directory
+     */
+    public IfscDirectoryStats stats() {
+        return snapshot.stats;
+    }
+
+    /**
+     * Loads the configured master file once the application is ready. A missing or unreadable master file leaves
+     * the directory empty without failing the application.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void loadMasterFile() {
+        Resource masterFile = properties.masterFile();
+        if (masterFile == null || !masterFile.exists()) {
+            log.info("No IFSC master file found at {}, the IFSC directory is empty", masterFile);
+            return;
+        }
+        try {
+            load(masterFile);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to load the IFSC master file {}", masterFile, e);
+        }
+    }
+
+    /**
+     * Replaces the contents of the directory with the branches of the specified master file. Lines with an invalid
+     * IFS code, and later lines with the same code as an earlier one, are skipped.
+     *
+     * @param masterFile    the master file in CSV format
+     *
+     * @return the statistics of the loaded directory
+     *
+     * @throws IOException if the master file cannot be read or has no IFSC, bank and branch columns
+     */
+    public IfscDirectoryStats load(Resource masterFile) throws IOException {
+        long startedAt = System.nanoTime();
+        List<Row> rows = new ArrayList<>();
+        Map<String, Integer> names = new HashMap<>();
+        long rejected = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(masterFile.getInputStream(), StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            Map<String, Integer> columns = columns(header == null ? "" : header.replace("\uFEFF", ""));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = CsvFields.split(line);
+                String code = field(fields, columns, "ifsc");
+                if (code == null) {
+                    rejected++;
+                    continue;
+                }
+                try {
+                    rows.add(new Row(IfscCodes.pack(IfscCodes.normalize(code)),
+                            index(names, field(fields, columns, "bank")),
+                            field(fields, columns, "branch"),
+                            index(names, field(fields, columns, "city")),
+                            index(names, field(fields, columns, "state"))));
+                } catch (IllegalArgumentException e) {
+                    rejected++;
+                }
+            }
+        }
+        rows.sort(Comparator.comparingLong(Row::code));
+        Snapshot loaded = Snapshot.of(rows, names, rejected, startedAt);
+        snapshot = loaded;
+        IfscDirectoryStats stats = loaded.stats;
+        log.info("Loaded {} branches of {} banks from {} in {} ms, {} lines rejected, {} KiB retained",
+                stats.branches(), stats.banks(), masterFile, stats.loadTime().toMillis(), stats.rejected(),
+                stats.heapBytes() / 1024);
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("tailfin.ifsc.branches", this, directory -> directory.stats().branches())
+                .description("Branches in the IFSC directory")
+                .register(registry);
+        Gauge.builder("tailfin.ifsc.heap", this, directory -> directory.stats().heapBytes())
+                .description("Approximate heap retained by the IFSC directory")
+                .baseUnit("bytes")
+                .register(registry);
+        TimeGauge.builder("tailfin.ifsc.load.time", this, TimeUnit.NANOSECONDS,
+                        directory -> directory.stats().loadTime().toNanos())
+                .description("Time taken to load the IFSC directory")
+                .register(registry);
+    }
+
+    private static Map<String, Integer> columns(String header) throws IOException {
+        List<String> names = CsvFields.split(header);
+        Map<String, Integer> found = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim().toLowerCase(Locale.ROOT);
+            for (Map.Entry<String, List<String>> column : COLUMN_NAMES.entrySet()) {
+                if (column.getValue().contains(name)) {
+                    found.putIfAbsent(column.getKey(), i);
+                }
+            }
+        }
+        if (!found.containsKey("ifsc") || !found.containsKey("bank") || !found.containsKey("branch")) {
+            throw new IOException("IFSC master file header must name the IFSC, bank and branch columns");
+        }
+        return found;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size() || fields.get(index).isBlank()) {
+            return null;
+        }
+        return fields.get(index).trim();
+    }
+
+    private static int index(Map<String, Integer> names, String name) {
+        return name == null ? -1 : names.computeIfAbsent(name, key -> names.size());
+    }
+
+    /**
+     * A line of the master file while loading.
+     */
+    private record Row(long code, int bank, String branch, int city, int state) {
+    }
+
+    /**
+     * The immutable contents of the directory, replaced as a whole on load.
+     */
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(new long[0], new int[0], new int[0], new int[0],
+                new int[1], new byte[0], new String[0], IfscDirectoryStats.EMPTY);
+
+        private final long[] codes;
+        private final int[] banks;
+        private final int[] cities;
+        private final int[] states;
+        private final int[] branchOffsets;
+        private final byte[] branchNames;
+        private final String[] names;
+        private final IfscDirectoryStats stats;
+
+        private Snapshot(long[] codes,
+                         int[] banks,
+                         int[] cities,
+                         int[] states,
+                         int[] branchOffsets,
+                         byte[] branchNames,
+                         String[] names,
+                         IfscDirectoryStats stats) {
+            this.codes = codes;
+            this.banks = banks;
+            this.cities = cities;
+            this.states = states;
+            this.branchOffsets = branchOffsets;
+            this.branchNames = branchNames;
+            this.names = names;
+            this.stats = stats;
+        }
+
+        /**
+         * Builds the contents from rows sorted by code, keeping the first of rows with the same code.
+         */
+        private static Snapshot of(List<Row> rows, Map<String, Integer> nameIndexes, long rejected, long startedAt) {
+            int size = 0;
+            for (int i = 0; i < rows.size(); i++) {
+                if (i == 0 || rows.get(i).code() != rows.get(i - 1).code()) {
+                    size++;
+                }
+            }
+            long[] codes = new long[size];
+            int[] banks = new int[size];
+            int[] cities = new int[size];
+            int[] states = new int[size];
+            int[] branchOffsets = new int[size + 1];
+            byte[][] branches = new byte[size][];
+            int branchBytes = 0;
+            int next = 0;
+            for (int i = 0; i < rows.size(); i++) {
+                Row row = rows.get(i);
+                if (i > 0 && row.code() == rows.get(i - 1).code()) {
+                    continue;
+                }
+                codes[next] = row.code();
+                banks[next] = row.bank();
+                cities[next] = row.city();
+                states[next] = row.state();
+                branches[next] = row.branch() == null ? new byte[0] : row.branch().getBytes(StandardCharsets.UTF_8);
+                branchOffsets[next] = branchBytes;
+                branchBytes += branches[next].length;
+                next++;
+            }
+            branchOffsets[size] = branchBytes;
+            byte[] branchNames = new byte[branchBytes];
+            for (int i = 0; i < size; i++) {
+                System.arraycopy(branches[i], 0, branchNames, branchOffsets[i], branches[i].length);
+            }
+            String[] names = new String[nameIndexes.size()];
+            nameIndexes.forEach((name, index) -> names[index] = name);
+
+            long heapBytes = arrayBytes(codes.length, 8) + arrayBytes(size, 4) * 3 + arrayBytes(size + 1, 4)
+                    + arrayBytes(branchBytes, 1) + arrayBytes(names.length, 4);
+            for (String name : names) {
+                // Object header, fields and the backing array of a compact string.
+                heapBytes += 24 + arrayBytes(name.length(), 1);
+            }
+            int bankCount = (int) Arrays.stream(banks).filter(bank -> bank >= 0).distinct().count();
+            IfscDirectoryStats stats = new IfscDirectoryStats(size, bankCount, rejected + rows.size() - size,
+                    heapBytes, Duration.ofNanos(System.nanoTime() - startedAt));
+            return new Snapshot(codes, banks, cities, states, branchOffsets, branchNames, names, stats);
+        }
+
+        private IfscBranch branch(int index) {
+            int offset = branchOffsets[index];
+            int length = branchOffsets[index + 1] - offset;
+            return new IfscBranch(new IfsCode(IfscCodes.unpack(codes[index])),
+                    name(banks[index]),
+                    length == 0 ? null : new String(branchNames, offset, length, StandardCharsets.UTF_8),
+                    name(cities[index]),
+                    name(states[index]));
+        }
+
+        private String name(int index) {
+            return index < 0 ? null : names[index];
+        }
+
+        private static long arrayBytes(long length, int elementBytes) {
+            return (16 + length * elementBytes + 7) & ~7L;
+        }
+    }
+}
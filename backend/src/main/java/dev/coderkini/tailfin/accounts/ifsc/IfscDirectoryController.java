@@ -0,0 +1,76 @@
+package dev.coderkini.tailfin.accounts.ifsc;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import dev.coderkini.tailfin.accounts.domain.IfsCode;
+
+/**
+ * Exposes lookups of bank branches by IFS code, and the prefix searches used to autocomplete IFS codes.
+ *
+ * @see IfscDirectory
+ */
+@RestController
+@RequestMapping("/api/ifsc")
+public class IfscDirectoryController {
+    private final IfscDirectory directory;
+    private final IfscProperties properties;
+
+    /**
+     * Create a new IfscDirectoryController instance.
+     *
+     * @param directory     reference to the {@link IfscDirectory} holding the branches
+     * @param properties    reference to the {@link IfscProperties} holding the maximum number of results
+     */
+    public IfscDirectoryController(IfscDirectory directory, IfscProperties properties) {
+        this.directory = directory;
+        this.properties = properties;
+    }
+
+    /**
+     * Returns the branch with the specified IFS code.
+     *
+     * @param code  the IFS code, case-insensitive
+     *
+     * @return the branch
+     */
+    @GetMapping("/{code}")
+    public IfscBranch find(@PathVariable String code) {
+        IfscBranch branch;
+        try {
+            branch = directory.find(new IfsCode(IfscCodes.normalize(code)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        if (branch == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown IFSC " + code);
+        }
+        return branch;
+    }
+
+    /**
+     * Returns the branches whose IFS code starts with the specified prefix, such as a bank code.
+     *
+     * @param prefix    the prefix of the IFS codes, case-insensitive
+     * @param limit     the maximum number of branches to return, capped at the configured maximum
+     *
+     * @return the branches with the prefix, in the order of their codes
+     */
+    @GetMapping
+    public List<IfscBranch> search(@RequestParam("prefix") String prefix,
+                                   @RequestParam(value = "limit", required = false) Integer limit) {
+        int maxResults = properties.maxResults();
+        try {
+            return directory.findByPrefix(prefix, limit == null ? maxResults : Math.min(limit, maxResults));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package dev.coderkini.tailfin.accounts.ifsc;
+
+import java.time.Duration;
+
+/**
+ * Describes the contents of the {@link IfscDirectory} and what loading them cost.
+ *
+ * @param branches  The number of branches in the directory.
+ * @param banks     The number of distinct banks of the branches.
+ * @param rejected  The number of lines of the master file that were skipped, as invalid or duplicate.
+ * @param heapBytes The approximate heap retained by the directory, in bytes.
+ * @param loadTime  The time it took to read the master file and build the directory.
+ */
+public record IfscDirectoryStats(int branches, int banks, long rejected, long heapBytes, Duration loadTime) {
+    /**
+     * The statistics of a directory that has not been loaded.
+     */
+    static final IfscDirectoryStats EMPTY = new IfscDirectoryStats(0, 0, 0, 0, Duration.ZERO);
+}
@@ -0,0 +1,16 @@
+package dev.coderkini.tailfin.accounts.ifsc;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.core.io.Resource;
+
+/**
+ * Configuration of the IFSC directory, bound from the {@code tailfin.ifsc} properties.
+ *
+ * @param masterFile    The IFSC master file in CSV format, or null to leave the directory empty.
+ * @param maxResults    The maximum number of branches returned by a prefix search.
+ */
+@ConfigurationProperties("tailfin.ifsc")
+public record IfscProperties(Resource masterFile,
+                             @DefaultValue("50") int maxResults) {
+}
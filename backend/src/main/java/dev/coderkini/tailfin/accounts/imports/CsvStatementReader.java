@@ -0,0 +1,133 @@
+package dev.coderkini.tailfin.accounts.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.money.CurrencyUnit;
+import javax.money.UnknownCurrencyException;
+
+import dev.coderkini.tailfin.commons.money.Currencies;
+import dev.coderkini.tailfin.commons.text.CsvFields;
+
+/**
+ * <p>Reads bank statements in the CSV format.</p>
+ *
+ * <p>The first line must be a header naming the columns, which are matched case-insensitively against the names
+ * commonly used by banks. A statement has a date column, and either a signed amount column or separate withdrawal and
+ * deposit columns. Description, reference and currency columns are optional. Each line is an entry, fields may be
+ * quoted with double quotes.</p>
+ */
+class CsvStatementReader implements StatementReader {
+    private static final Map<String, List<String>> COLUMN_NAMES = Map.of(
+            "date", List.of("date", "transaction date", "txn date", "value date", "posted date"),
+            "description", List.of("description", "narration", "particulars", "remarks", "details"),
+            "reference", List.of("reference", "ref no", "ref no./cheque no.", "cheque no", "chq/ref number"),
+            "amount", List.of("amount", "transaction amount"),
+            "debit", List.of("debit", "withdrawal", "withdrawal amt", "withdrawal amt.", "debit amount"),
+            "credit", List.of("credit", "deposit", "deposit amt", "deposit amt.", "credit amount"),
+            "currency", List.of("currency"));
+
+    private final BufferedReader input;
+    private long lineNumber;
+    private Map<String, Integer> columns;
+
+    /**
+     * Create a new CsvStatementReader instance.
+     *
+     * @param input the statement to read
+     */
+    CsvStatementReader(BufferedReader input) {
+        this.input = input;
+    }
+
+    @Override
+    public List<StatementRecord> read(int maxRecords) throws IOException {
+        if (columns == null) {
+            readHeader();
+        }
+        List<StatementRecord> records = new ArrayList<>(maxRecords);
+        String line;
+        while (records.size() < maxRecords && (line = input.readLine()) != null) {
+            lineNumber++;
+            if (!line.isBlank()) {
+                records.add(new StatementRecord(lineNumber, line));
+            }
+        }
+        return records;
+    }
+
+    @Override
+    public StatementLine parse(StatementRecord record) {
+        List<String> fields = CsvFields.split(record.text());
+        String amountField = field(fields, "amount");
+        long amount;
+        if (!StatementValues.isBlank(amountField)) {
+            amount = StatementValues.parseAmount(amountField);
+        } else {
+            String debitField = field(fields, "debit");
+            String creditField = field(fields, "credit");
+            long debit = StatementValues.isBlank(debitField) ? 0 : StatementValues.parseAmount(debitField);
+            if (debit != 0) {
+                amount = -Math.absExact(debit);
+            } else if (!StatementValues.isBlank(creditField)) {
+                amount = Math.absExact(StatementValues.parseAmount(creditField));
+            } else {
+                throw new InvalidStatementLineException("Missing amount");
+            }
+        }
+        return new StatementLine(record.number(),
+                StatementValues.parseDate(field(fields, "date")),
+                amount,
+                currency(field(fields, "currency")),
+                blankToNull(field(fields, "reference")),
+                field(fields, "description"));
+    }
+
+    private void readHeader() throws IOException {
+        String header = input.readLine();
+        lineNumber++;
+        if (header == null) {
+            columns = Map.of();
+            return;
+        }
+        List<String> names = CsvFields.split(header.replace("\uFEFF", ""));
+        Map<String, Integer> found = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim().toLowerCase(Locale.ROOT);
+            for (Map.Entry<String, List<String>> column : COLUMN_NAMES.entrySet()) {
+                if (column.getValue().contains(name)) {
+                    found.putIfAbsent(column.getKey(), i);
+                }
+            }
+        }
+        if (!found.containsKey("date")
+                || !(found.containsKey("amount") || found.containsKey("debit") || found.containsKey("credit"))) {
+            throw new IOException("Statement header must name a date column and an amount or debit and credit columns");
+        }
+        columns = Map.copyOf(found);
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= fields.size() ? null : fields.get(index).trim();
+    }
+
+    private static CurrencyUnit currency(String code) {
+        if (code == null || code.isBlank()) {
+            return null;
+        }
+        try {
+            return Currencies.of(code);
+        } catch (UnknownCurrencyException e) {
+            throw new InvalidStatementLineException("Unknown currency " + code);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
@@ -0,0 +1,24 @@
+package dev.coderkini.tailfin.accounts.imports;
+
+import java.time.Duration;
+
+/**
+ * Represents the progress of a running statement import.
+ *
+ * @param read          The number of statement entries read so far.
+ * @param imported      The number of transactions saved so far.
+ * @param duplicates    The number of entries skipped so far because they repeat an earlier entry.
+ * @param rejected      The number of entries rejected so far.
+ * @param elapsed       The time elapsed since the import started.
+ */
+public record ImportProgress(long read, long imported, long duplicates, long rejected, Duration elapsed) {
+    /**
+     * Returns the number of statement entries processed per second.
+     *
+     * @return  The throughput of the import so far.
+     */
+    public double rowsPerSecond() {
+        long millis = elapsed.toMillis();
+        return millis == 0 ? read : read * 1000.0 / millis;
+    }
+}
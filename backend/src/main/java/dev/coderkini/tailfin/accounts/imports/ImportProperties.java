@@ -0,0 +1,27 @@
+package dev.coderkini.tailfin.accounts.imports;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of statement imports, bound from the {@code tailfin.imports} properties.
+ *
+ * @param chunkSize     The number of statement entries read and parsed as one unit of work.
+ * @param batchSize     The number of transactions saved with a single call to the repository.
+ * @param parallelism   The number of threads parsing chunks, or zero for the number of available processors.
+ * @param maxRejections The maximum number of rejected entries listed in an import report.
+ */
+@ConfigurationProperties("tailfin.imports")
+public record ImportProperties(@DefaultValue("1000") int chunkSize,
+                               @DefaultValue("1000") int batchSize,
+                               @DefaultValue("0") int parallelism,
+                               @DefaultValue("100") int maxRejections) {
+    /**
+     * Returns the number of threads parsing chunks.
+     *
+     * @return  The configured parallelism, or the number of available processors if none is configured.
+     */
+    public int effectiveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+}
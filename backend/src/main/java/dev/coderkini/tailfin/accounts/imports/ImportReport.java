@@ -0,0 +1,55 @@
+package dev.coderkini.tailfin.accounts.imports;
+
+import java.time.Duration;
+import java.util.List;
+
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+
+/**
+ * Represents the outcome of a statement import.
+ *
+ * @param accountId     The account the statement was imported into.
+ * @param format        The format of the statement.
+ * @param read          The number of statement entries read.
+ * @param imported      The number of transactions saved.
+ * @param duplicates    The number of entries skipped because they repeat an earlier entry.
+ * @param rejected      The number of entries rejected.
+ * @param rejections    The first rejected entries, up to the configured maximum.
+ * @param elapsed       The duration of the import.
+ *
+ * @see StatementImporter
+ */
+public record ImportReport(AccountId accountId,
+                           StatementFormat format,
+                           long read,
+                           long imported,
+                           long duplicates,
+                           long rejected,
+                           List<Rejection> rejections,
+                           Duration elapsed) {
+    /**
+     * Creates a new instance of {@link ImportReport}.
+     */
+    public ImportReport {
+        rejections = List.copyOf(rejections);
+    }
+
+    /**
+     * Returns the number of statement entries processed per second.
+     *
+     * @return  The throughput of the import.
+     */
+    public double rowsPerSecond() {
+        long millis = elapsed.toMillis();
+        return millis == 0 ? read : read * 1000.0 / millis;
+    }
+
+    /**
+     * Represents a statement entry that could not be imported.
+     *
+     * @param line      The position of the entry in the statement.
+     * @param reason    The reason why the entry could not be imported.
+     */
+    public record Rejection(long line, String reason) {
+    }
+}
@@ -0,0 +1,15 @@
+package dev.coderkini.tailfin.accounts.imports;
+
+/**
+ * Thrown when an entry of a bank statement cannot be parsed or fails validation.
+ */
+public class InvalidStatementLineException extends RuntimeException {
+    /**
+     * Create a new InvalidStatementLineException instance with the specified message.
+     *
+     * @param message   The reason why the entry is invalid.
+     */
+    public InvalidStatementLineException(String message) {
+        super(message);
+    }
+}
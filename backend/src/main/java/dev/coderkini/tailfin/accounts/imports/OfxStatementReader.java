@@ -0,0 +1,147 @@
+package dev.coderkini.tailfin.accounts.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.money.CurrencyUnit;
+import javax.money.UnknownCurrencyException;
+
+import dev.coderkini.tailfin.commons.money.Currencies;
+
+/**
+ * <p>Reads bank statements in the Open Financial Exchange format.</p>
+ *
+ * <p>Only the {@code <STMTTRN>} aggregates are read, together with the {@code <CURDEF>} element that precedes them.
+ * Both the SGML flavour, whose elements are not closed, and the XML flavour are supported, and the statement does not
+ * need to have line breaks between elements. At most one aggregate is held in memory besides the entries read.</p>
+ *
+ * <p>The currency in effect is recorded with every entry as it is read, so an entry is parsed with the currency
+ * declared before it however far ahead the reading has got.</p>
+ */
+class OfxStatementReader implements StatementReader {
+    private static final String START = "<STMTTRN>";
+    private static final String END = "</STMTTRN>";
+    private static final Pattern ELEMENT = Pattern.compile("<([A-Z0-9.]+)>([^<\\r\\n]*)");
+    private static final Pattern CURRENCY = Pattern.compile("<CURDEF>\\s*([A-Za-z]{3})");
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final BufferedReader input;
+    private final StringBuilder buffer = new StringBuilder();
+    private long entryNumber;
+    private boolean exhausted;
+    private CurrencyUnit currency;
+
+    /**
+     * Create a new OfxStatementReader instance.
+     *
+     * @param input the statement to read
+     */
+    OfxStatementReader(BufferedReader input) {
+        this.input = input;
+    }
+
+    @Override
+    public List<StatementRecord> read(int maxRecords) throws IOException {
+        List<StatementRecord> records = new ArrayList<>(maxRecords);
+        while (records.size() < maxRecords) {
+            int start = buffer.indexOf(START);
+            int end = start < 0 ? -1 : buffer.indexOf(END, start);
+            if (end >= 0) {
+                readCurrency(buffer.substring(0, start));
+                records.add(new StatementRecord(++entryNumber, buffer.substring(start + START.length(), end),
+                        currency));
+                buffer.delete(0, end + END.length());
+                continue;
+            }
+            if (exhausted) {
+                break;
+            }
+            if (start < 0) {
+                // keep a tail that may hold a partially read tag
+                readCurrency(buffer.toString());
+                buffer.delete(0, Math.max(0, buffer.length() - START.length()));
+            }
+            String line = input.readLine();
+            if (line == null) {
+                exhausted = true;
+            } else {
+                buffer.append(line).append('\n');
+            }
+        }
+        return records;
+    }
+
+    @Override
+    public StatementLine parse(StatementRecord record) {
+        String amount = null;
+        String postedAt = null;
+        String reference = null;
+        String name = null;
+        String memo = null;
+        Matcher element = ELEMENT.matcher(record.text());
+        while (element.find()) {
+            String value = element.group(2).trim();
+            switch (element.group(1)) {
+                case "TRNAMT" -> amount = value;
+                case "DTPOSTED" -> postedAt = value;
+                case "FITID" -> reference = value;
+                case "NAME" -> name = value;
+                case "MEMO" -> memo = value;
+                default -> {
+                    // not needed
+                }
+            }
+        }
+        if (amount == null || amount.isEmpty()) {
+            throw new InvalidStatementLineException("Missing TRNAMT");
+        }
+        if (postedAt == null || postedAt.isEmpty()) {
+            throw new InvalidStatementLineException("Missing DTPOSTED");
+        }
+        String description = name == null ? memo : memo == null || memo.equals(name) ? name : name + " " + memo;
+        return new StatementLine(record.number(),
+                parseDate(postedAt),
+                StatementValues.parseAmount(amount),
+                record.currency(),
+                reference == null || reference.isEmpty() ? null : reference,
+                description);
+    }
+
+    private void readCurrency(String text) {
+        Matcher matcher = CURRENCY.matcher(text);
+        if (matcher.find()) {
+            try {
+                currency = Currencies.of(matcher.group(1));
+            } catch (UnknownCurrencyException e) {
+                throw new InvalidStatementLineException("Unknown currency " + matcher.group(1));
+            }
+        }
+    }
+
+    /**
+     * Parses an OFX date, which starts with the date and optionally the time, followed by fractional seconds and a
+     * time zone that are ignored.
+     */
+    private static LocalDateTime parseDate(String value) {
+        String digits = value.replaceAll("[^0-9].*$", "");
+        try {
+            if (digits.length() >= 14) {
+                return LocalDateTime.parse(digits.substring(0, 14), DATE_TIME);
+            }
+            if (digits.length() >= 8) {
+                return LocalDate.parse(digits.substring(0, 8), DATE).atStartOfDay();
+            }
+        } catch (DateTimeParseException e) {
+            // reported below
+        }
+        throw new InvalidStatementLineException("Unrecognised date " + value);
+    }
+}
@@ -0,0 +1,76 @@
+package dev.coderkini.tailfin.accounts.imports;
+
+import java.io.BufferedReader;
+import java.util.function.Function;
+
+/**
+ * Enum representing the file formats bank statements can be imported from.
+ */
+public enum StatementFormat {
+    /**
+     * Comma separated values with a header row naming the columns.
+     */
+    CSV("csv", CsvStatementReader::new),
+
+    /**
+     * Open Financial Exchange, in either its SGML or its XML flavour.
+     */
+    OFX("ofx", OfxStatementReader::new);
+
+    private final String value;
+    private final Function<BufferedReader, StatementReader> readerFactory;
+
+    /**
+     * Create a new StatementFormat instance with the specified value.
+     *
+     * @param value         The value of the format, which is also the usual file extension.
+     * @param readerFactory The factory of the readers for the format.
+     */
+    StatementFormat(String value, Function<BufferedReader, StatementReader> readerFactory) {
+        this.value = value;
+        this.readerFactory = readerFactory;
+    }
+
+    /**
+     * Returns the value of the format.
+     *
+     * @return  The value of the format.
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Returns a reader of statements in this format.
+     *
+     * @param input     The statement to read.
+     *
+     * @return  The {@link StatementReader} for the statement.
+     */
+    StatementReader reader(BufferedReader input) {
+        return readerFactory.apply(input);
+    }
+
+    /**
+     * Returns the {@link StatementFormat} instance for the specified value.
+     *
+     * @param value The value of the format.
+     *
+     * @return  The {@link StatementFormat} instance for the specified value.
+     *
+     * @throws IllegalArgumentException If the specified value is not a supported format.
+     */
+    public static StatementFormat of(String value) {
+        for (StatementFormat format : StatementFormat.values()) {
+            if (format.value.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("No StatementFormat with value " + value + " found");
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -0,0 +1,72 @@
+package dev.coderkini.tailfin.accounts.imports;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+
+/**
+ * Exposes the import of bank statements into the transactions of an account.
+ *
+ * @see StatementImporter
+ */
+@RestController
+@RequestMapping("/api/accounts/{accountId}/statements")
+public class StatementImportController {
+    private final StatementImporter importer;
+
+    /**
+     * Create a new StatementImportController instance.
+     *
+     * @param importer reference to the {@link StatementImporter} running the imports
+     */
+    public StatementImportController(StatementImporter importer) {
+        this.importer = importer;
+    }
+
+    /**
+     * Imports the uploaded statement into the specified account. The format is taken from the file extension unless
+     * it is specified.
+     *
+     * @param accountId the identifier of the account
+     * @param file      the uploaded statement
+     * @param format    the format of the statement, or null to take it from the file extension
+     *
+     * @return the outcome of the import
+     *
+     * @throws IOException if the statement cannot be read
+     */
+    @PostMapping
+    public ImportReport importStatement(@PathVariable String accountId,
+                                        @RequestParam("file") MultipartFile file,
+                                        @RequestParam(value = "format", required = false) String format)
+            throws IOException {
+        AccountId id;
+        StatementFormat statementFormat;
+        try {
+            id = AccountId.fromString(accountId);
+            statementFormat = StatementFormat.of(format != null ? format : extension(file.getOriginalFilename()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        try (InputStream input = file.getInputStream()) {
+            return importer.importStatement(id, statementFormat, input);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        }
+    }
+
+    private static String extension(String filename) {
+        int dot = filename == null ? -1 : filename.lastIndexOf('.');
+        return dot < 0 ? "" : filename.substring(dot + 1);
+    }
+}
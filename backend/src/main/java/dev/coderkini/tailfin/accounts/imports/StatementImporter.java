@@ -0,0 +1,323 @@
+package dev.coderkini.tailfin.accounts.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryAmount;
+
+import jakarta.annotation.PreDestroy;
+import org.javamoney.moneta.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import dev.coderkini.tailfin.accounts.domain.Account;
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+import dev.coderkini.tailfin.accounts.domain.AccountRepository;
+import dev.coderkini.tailfin.accounts.domain.IdempotencyKey;
+import dev.coderkini.tailfin.accounts.domain.Transaction;
+import dev.coderkini.tailfin.accounts.domain.TransactionId;
+import dev.coderkini.tailfin.accounts.domain.TransactionRepository;
+import dev.coderkini.tailfin.accounts.domain.TransactionType;
+import dev.coderkini.tailfin.commons.collections.LongLongHashMap;
+import dev.coderkini.tailfin.commons.money.MinorAmount;
+import dev.coderkini.tailfin.commons.repository.BatchResult;
+
+/**
+ * <p>Imports bank statements into the transactions of an account.</p>
+ *
+ * <p>The statement is read sequentially in chunks of {@link ImportProperties#chunkSize() chunk size} entries, and the
+ * chunks are parsed and validated in parallel. Parsed chunks are taken in statement order and saved through
+ * {@link TransactionRepository#saveAll(java.util.Collection)} in batches of
+ * {@link ImportProperties#batchSize() batch size} transactions, each batch committing on its own. Only a bounded
+ * number of chunks is in flight at any time, so the memory used does not depend on the length of the statement
+ * beyond the occurrence counts of identical entries.</p>
+ *
+ * <p>Every transaction carries an {@link IdempotencyKey}, derived from the reference the bank assigned to the entry,
+ * or from the content of the entry and the number of identical entries before it in the statement. Re-importing a
+ * statement, or one that overlaps with it, therefore skips the entries that were imported before and reports them as
+ * duplicates.</p>
+ *
+ * <p>Counting the identical entries takes memory linear in the number of distinct entries without a reference, as a
+ * statement need not be in date order and an identical entry may follow at any point. The counts are kept in a
+ * {@link LongLongHashMap} keyed by the first 64 bits of the content key, 16 bytes per slot with at least three
+ * eighths of the slots used, so a statement of a million such entries takes at most about 43 MB. Entries that share
+ * the first 64 bits of their key would share a count, which still derives the same keys every time the statement is
+ * imported.</p>
+ *
+ * <p>Credits are imported as deposits into the account and debits as withdrawals from it, in the currency of the
+ * account. Entries that cannot be parsed or saved, or that are in another currency, are rejected without failing the
+ * import, and are listed in the {@link ImportReport}. The progress of a running import is logged every ten
+ * seconds.</p>
+ *
+ * @see StatementFormat
+ */
+@Service
+public class StatementImporter {
+    private static final Logger log = LoggerFactory.getLogger(StatementImporter.class);
+    private static final Duration PROGRESS_LOG_INTERVAL = Duration.ofSeconds(10);
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final ImportProperties properties;
+    private final ExecutorService parsers;
+
+    /**
+     * Create a new StatementImporter instance.
+     *
+     * @param accountRepository     reference to the {@link AccountRepository} the accounts are looked up in
+     * @param transactionRepository reference to the {@link TransactionRepository} the transactions are saved to
+     * @param properties            reference to the {@link ImportProperties} holding the chunk and batch sizes
+     */
+    public StatementImporter(AccountRepository accountRepository,
+                             TransactionRepository transactionRepository,
+                             ImportProperties properties) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.properties = properties;
+        this.parsers = Executors.newFixedThreadPool(properties.effectiveParallelism(),
+                Thread.ofPlatform().name("statement-parser-", 0).daemon().factory());
+    }
+
+    /**
+     * Imports the specified statement into the specified account, logging its progress.
+     *
+     * @param accountId reference to the {@link AccountId} of the account
+     * @param format    the format of the statement
+     * @param input     the statement, which is read as UTF-8 and not closed
+     *
+     * @return the outcome of the import
+     *
+     * @throws IOException              if the statement cannot be read
+     * @throws IllegalArgumentException if the account does not exist
+     */
+    public ImportReport importStatement(AccountId accountId, StatementFormat format, InputStream input)
+            throws IOException {
+        return importStatement(accountId, format, input, progress -> {
+        });
+    }
+
+    /**
+     * Imports the specified statement into the specified account.
+     *
+     * @param accountId reference to the {@link AccountId} of the account
+     * @param format    the format of the statement
+     * @param input     the statement, which is read as UTF-8 and not closed
+     * @param progress  the listener notified after every chunk of the statement is saved, in addition to the log
+     *
+     * @return the outcome of the import
+     *
+     * @throws IOException              if the statement cannot be read
+     * @throws IllegalArgumentException if the account does not exist
+     */
+    public ImportReport importStatement(AccountId accountId,
+                                        StatementFormat format,
+                                        InputStream input,
+                                        Consumer<ImportProgress> progress) throws IOException {
+        Account account = accountRepository.findById(accountId);
+        if (account == null) {
+            throw new IllegalArgumentException("Unknown account " + accountId.value());
+        }
+        StatementReader reader = format.reader(
+                new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+        CurrencyUnit currency = account.getCurrency();
+        Run run = new Run(accountId, format, currency, progress);
+        int maxInFlight = 2 * properties.effectiveParallelism();
+        Deque<Future<List<Parsed>>> inFlight = new ArrayDeque<>(maxInFlight);
+        try {
+            List<StatementRecord> records;
+            while (!(records = reader.read(properties.chunkSize())).isEmpty()) {
+                run.read += records.size();
+                List<StatementRecord> chunk = records;
+                inFlight.addLast(parsers.submit(() -> parse(reader, chunk, currency)));
+                if (inFlight.size() >= maxInFlight) {
+                    run.accept(await(inFlight.removeFirst()));
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                run.accept(await(inFlight.removeFirst()));
+            }
+            run.flush();
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+        ImportReport report = run.report();
+        log.info("Imported {} of {} entries of a {} statement into account {} in {} ({} rows/s), " +
+                        "{} duplicates, {} rejected",
+                report.imported(), report.read(), format, accountId.value(), report.elapsed(),
+                Math.round(report.rowsPerSecond()), report.duplicates(), report.rejected());
+        return report;
+    }
+
+    /**
+     * Stops the threads parsing statements.
+     */
+    @PreDestroy
+    void shutdown() {
+        parsers.shutdownNow();
+    }
+
+    private static List<Parsed> parse(StatementReader reader, List<StatementRecord> records, CurrencyUnit currency) {
+        List<Parsed> parsed = new ArrayList<>(records.size());
+        for (StatementRecord record : records) {
+            try {
+                StatementLine line = reader.parse(record);
+                String invalid = validate(line, currency);
+                parsed.add(invalid == null ? new Parsed(record.number(), line, null)
+                        : new Parsed(record.number(), null, invalid));
+            } catch (RuntimeException e) {
+                parsed.add(new Parsed(record.number(), null, e.getMessage()));
+            }
+        }
+        return parsed;
+    }
+
+    private static String validate(StatementLine line, CurrencyUnit currency) {
+        if (line.amount() == 0) {
+            return "Amount must not be zero";
+        }
+        if (line.postedAt() == null) {
+            return "Missing date";
+        }
+        if (line.currency() != null && !line.currency().equals(currency)) {
+            return "Currency " + line.currency().getCurrencyCode() + " differs from the currency " +
+                    currency.getCurrencyCode() + " of the account";
+        }
+        return null;
+    }
+
+    private static List<Parsed> await(Future<List<Parsed>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while parsing the statement", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to parse the statement", e.getCause());
+        }
+    }
+
+    /**
+     * Represents an entry after parsing and validation: either a line or the reason it was rejected.
+     */
+    private record Parsed(long number, StatementLine line, String rejection) {
+    }
+
+    /**
+     * Holds the state of a single import. Only used from the thread running the import.
+     */
+    private final class Run {
+        private final AccountId accountId;
+        private final StatementFormat format;
+        private final CurrencyUnit currency;
+        private final Consumer<ImportProgress> progress;
+        private final long startedAt = System.nanoTime();
+        private long loggedAt = startedAt;
+        private final LongLongHashMap occurrences = new LongLongHashMap();
+        private final List<Transaction> batch = new ArrayList<>();
+        private final List<Long> batchLines = new ArrayList<>();
+        private final List<ImportReport.Rejection> rejections = new ArrayList<>();
+
+        private long read;
+        private long imported;
+        private long duplicates;
+        private long rejected;
+
+        private Run(AccountId accountId,
+                    StatementFormat format,
+                    CurrencyUnit currency,
+                    Consumer<ImportProgress> progress) {
+            this.accountId = accountId;
+            this.format = format;
+            this.currency = currency;
+            this.progress = progress;
+        }
+
+        private void accept(List<Parsed> chunk) {
+            for (Parsed parsed : chunk) {
+                if (parsed.line() == null) {
+                    reject(parsed.number(), parsed.rejection());
+                } else {
+                    batch.add(toTransaction(parsed.line()));
+                    batchLines.add(parsed.number());
+                    if (batch.size() >= properties.batchSize()) {
+                        flush();
+                    }
+                }
+            }
+            ImportProgress current = new ImportProgress(read, imported, duplicates, rejected, elapsed());
+            long now = System.nanoTime();
+            if (now - loggedAt >= PROGRESS_LOG_INTERVAL.toNanos()) {
+                loggedAt = now;
+                log.info("Importing statement into account {}: {} read, {} imported, {} rejected, {} rows/s",
+                        accountId.value(), current.read(), current.imported(), current.rejected(),
+                        Math.round(current.rowsPerSecond()));
+            }
+            progress.accept(current);
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            BatchResult<Transaction> result = transactionRepository.saveAll(batch);
+            imported += result.saved();
+            duplicates += result.duplicates();
+            for (BatchResult.Failure<Transaction> failure : result.failures()) {
+                reject(batchLines.get((int) failure.index()), failure.reason());
+            }
+            batch.clear();
+            batchLines.clear();
+        }
+
+        private void reject(long line, String reason) {
+            rejected++;
+            if (rejections.size() < properties.maxRejections()) {
+                rejections.add(new ImportReport.Rejection(line, reason));
+            }
+        }
+
+        private Transaction toTransaction(StatementLine line) {
+            MonetaryAmount money = Money.of(BigDecimal.valueOf(Math.absExact(line.amount()), MinorAmount.SCALE),
+                    currency);
+            TransactionType type = line.amount() > 0 ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL;
+            AccountId sourceAccountId = type == TransactionType.WITHDRAWAL ? accountId : null;
+            AccountId targetAccountId = type == TransactionType.DEPOSIT ? accountId : null;
+            IdempotencyKey key;
+            if (line.reference() != null) {
+                key = IdempotencyKey.fromReference(accountId, line.reference());
+            } else {
+                IdempotencyKey content = IdempotencyKey.derive(type, sourceAccountId, targetAccountId, money,
+                        line.postedAt());
+                int occurrence = Math.toIntExact(occurrences.addTo(
+                        Long.parseUnsignedLong(content.value(), 0, 16, 16), 1) - 1);
+                key = occurrence == 0 ? content : IdempotencyKey.derive(type, sourceAccountId, targetAccountId, money,
+                        line.postedAt(), occurrence);
+            }
+            return new Transaction(TransactionId.generate(), type, sourceAccountId, targetAccountId, money,
+                    line.postedAt(), key);
+        }
+
+        private Duration elapsed() {
+            return Duration.ofNanos(System.nanoTime() - startedAt);
+        }
+
+        private ImportReport report() {
+            return new ImportReport(accountId, format, read, imported, duplicates, rejected, rejections, elapsed());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package dev.coderkini.tailfin.accounts.imports;
+
+import java.time.LocalDateTime;
+import javax.money.CurrencyUnit;
+
+/**
+ * Represents a parsed entry of a bank statement.
+ *
+ * @param number        The position of the entry in the statement, starting from one.
+ * @param postedAt      The date and time the entry was posted to the account.
+ * @param amount        The signed amount of the entry in hundredths of the major unit, as parsed by
+ *                      {@link dev.coderkini.tailfin.commons.money.MinorAmount#parse(CharSequence)}, positive for
+ *                      credits and negative for debits.
+ * @param currency      The currency of the amount, or null if the statement does not specify one.
+ * @param reference     The reference the bank assigned to the entry, or null if there is none.
+ * @param description   The description of the entry.
+ */
+record StatementLine(long number,
+                     LocalDateTime postedAt,
+                     long amount,
+                     CurrencyUnit currency,
+                     String reference,
+                     String description) {
+}
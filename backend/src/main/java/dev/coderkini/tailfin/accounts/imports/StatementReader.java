@@ -0,0 +1,36 @@
+package dev.coderkini.tailfin.accounts.imports;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * <p>Splits a bank statement into its entries and parses them.</p>
+ *
+ * <p>Reading is sequential and must happen on a single thread. Parsing does not depend on any state other than what
+ * was read before the entry, and can be run concurrently for entries that have already been read.</p>
+ *
+ * @see StatementFormat
+ */
+interface StatementReader {
+    /**
+     * Reads the next entries of the statement.
+     *
+     * @param maxRecords    The maximum number of entries to read.
+     *
+     * @return  The entries read, or an empty list once the statement is exhausted.
+     *
+     * @throws IOException If the statement cannot be read.
+     */
+    List<StatementRecord> read(int maxRecords) throws IOException;
+
+    /**
+     * Parses the specified entry.
+     *
+     * @param record    The entry to parse.
+     *
+     * @return  The parsed entry.
+     *
+     * @throws InvalidStatementLineException If the entry cannot be parsed.
+     */
+    StatementLine parse(StatementRecord record);
+}
@@ -0,0 +1,22 @@
+package dev.coderkini.tailfin.accounts.imports;
+
+import javax.money.CurrencyUnit;
+
+/**
+ * Represents the raw text of a single entry of a bank statement.
+ *
+ * @param number    The position of the entry in the statement, starting from one.
+ * @param text      The raw text of the entry.
+ * @param currency  The currency the statement declared before the entry, or null if it declared none.
+ */
+record StatementRecord(long number, String text, CurrencyUnit currency) {
+    /**
+     * Creates a new instance of {@link StatementRecord} of a statement that declares no currency outside its entries.
+     *
+     * @param number    The position of the entry in the statement, starting from one.
+     * @param text      The raw text of the entry.
+     */
+    StatementRecord(long number, String text) {
+        this(number, text, null);
+    }
+}
@@ -0,0 +1,79 @@
+package dev.coderkini.tailfin.accounts.imports;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+import dev.coderkini.tailfin.commons.money.MinorAmount;
+
+/**
+ * Parses the dates and amounts found in bank statements.
+ */
+final class StatementValues {
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+            DateTimeFormatter.ofPattern("dd-MM-yyyy"),
+            DateTimeFormatter.ofPattern("dd.MM.yyyy"),
+            DateTimeFormatter.ofPattern("dd/MM/yy"),
+            DateTimeFormatter.ofPattern("dd-MMM-yyyy"),
+            DateTimeFormatter.ofPattern("dd MMM yyyy"));
+
+    private StatementValues() {
+    }
+
+    /**
+     * Parses a date in one of the formats commonly used by bank statements.
+     *
+     * @param value the text of the date
+     *
+     * @return the start of the day of the date
+     *
+     * @throws InvalidStatementLineException if the date is not in any of the supported formats
+     */
+    static LocalDateTime parseDate(String value) {
+        String trimmed = value == null ? "" : value.trim();
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(trimmed, format).atStartOfDay();
+            } catch (DateTimeParseException e) {
+                // try the next format
+            }
+        }
+        throw new InvalidStatementLineException("Unrecognised date " + value);
+    }
+
+    /**
+     * Parses an amount into hundredths of the major unit, ignoring thousands separators and surrounding whitespace.
+     *
+     * @param value the text of the amount
+     *
+     * @return the amount in hundredths
+     *
+     * @throws InvalidStatementLineException if the text is not a number, has more than two decimal places or is out
+     *                                       of range
+     * @see MinorAmount#parse(CharSequence)
+     */
+    static long parseAmount(String value) {
+        try {
+            return MinorAmount.parse(value == null ? "" : value);
+        } catch (NumberFormatException e) {
+            throw new InvalidStatementLineException("Unrecognised amount " + value);
+        } catch (ArithmeticException e) {
+            throw new InvalidStatementLineException(e.getMessage());
+        }
+    }
+
+    /**
+     * Returns whether the specified field of a statement is missing or blank.
+     *
+     * @param value the text of the field
+     *
+     * @return true if the field has no text
+     */
+    static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,53 @@
+package dev.coderkini.tailfin.accounts.infrastructure;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * <p>Periodically checks the running balance of every account against a full recomputation from its transactions
+ * and rebuilds the balances that do not match.</p>
+ *
+ * <p>The job runs on the schedule of the {@code tailfin.balances.verification-cron} property, nightly by default.</p>
+ *
+ * @see JdbcBalanceSnapshots
+ */
+@Component
+class BalanceSnapshotVerificationJob {
+    private static final Logger log = LoggerFactory.getLogger(BalanceSnapshotVerificationJob.class);
+
+    private final JdbcBalanceSnapshots balances;
+    private final TransactionOperations transactions;
+
+    /**
+     * Create a new BalanceSnapshotVerificationJob instance.
+     *
+     * @param balances      reference to the {@link JdbcBalanceSnapshots} to verify
+     * @param transactions  reference to the {@link TransactionOperations} each rebuild runs in
+     */
+    BalanceSnapshotVerificationJob(JdbcBalanceSnapshots balances, TransactionOperations transactions) {
+        this.balances = balances;
+        this.transactions = transactions;
+    }
+
+    /**
+     * Verifies the running balances and rebuilds the ones that do not match their transactions.
+     *
+     * @return the number of balances that were rebuilt
+     */
+    @Scheduled(cron = "${tailfin.balances.verification-cron:0 0 3 * * *}")
+    int verify() {
+        List<JdbcBalanceSnapshots.BalanceMismatch> mismatches = balances.verify();
+        for (JdbcBalanceSnapshots.BalanceMismatch mismatch : mismatches) {
+            log.warn("Running balance {} of account {} does not match the computed balance {}, rebuilding",
+                    mismatch.snapshotBalance(), mismatch.accountId().value(), mismatch.computedBalance());
+            transactions.executeWithoutResult(status -> balances.rebuild(mismatch.accountId()));
+        }
+        log.info("Verified running balances, {} rebuilt", mismatches.size());
+        return mismatches.size();
+    }
+}
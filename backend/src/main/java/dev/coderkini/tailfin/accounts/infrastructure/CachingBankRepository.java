@@ -0,0 +1,270 @@
+package dev.coderkini.tailfin.accounts.infrastructure;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import dev.coderkini.tailfin.accounts.domain.Bank;
+import dev.coderkini.tailfin.accounts.domain.BankId;
+import dev.coderkini.tailfin.accounts.domain.BankRepository;
+import dev.coderkini.tailfin.accounts.domain.IfsCode;
+import dev.coderkini.tailfin.commons.jdbc.RepositoryProperties;
+import dev.coderkini.tailfin.commons.repository.PagedResult;
+import dev.coderkini.tailfin.commons.repository.QueryConstraints;
+
+/**
+ * <p>Read-through cache in front of {@link JdbcBankRepository}, as banks are reference data that is read for every
+ * account rendered and almost never changes.</p>
+ *
+ * <p>Banks are cached by id in an LRU cache of {@link RepositoryProperties#bankCacheSize() bank cache size} entries.
+ * The IFS codes and the branch names that were looked up are indexed to the ids of the cached banks, so a bank found
+ * by any of its keys is a hit for every other key, and evicting a bank drops its secondary keys with it. A branch name
+ * is only indexed once it was looked up, as branch names are not unique. Lookups that find no bank are not cached.</p>
+ *
+ * <p>Saving, updating or deleting a bank evicts it, together with its secondary keys, and again once the surrounding
+ * transaction completes so that lookups made before the change was committed are not cached. Pages of banks and search
+ * results are not cached. The cache keeps copies of the banks and hands out copies, so changing a bank found through
+ * it does not change the cached bank.</p>
+ *
+ * <p>The hits, misses, evictions and size of the cache are published as the {@code tailfin.banks.cache.*} metrics.</p>
+ *
+ * @see JdbcBankRepository
+ */
+@Primary
+@Repository
+public class CachingBankRepository implements BankRepository, MeterBinder {
+    private final BankRepository delegate;
+    private final Map<BankId, Bank> banks;
+    private final Map<IfsCode, BankId> ifsCodes = new HashMap<>();
+    private final Map<String, BankId> branchNames = new HashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long generation;
+
+    /**
+     * Create a new CachingBankRepository instance.
+     *
+     * @param delegate      reference to the {@link JdbcBankRepository} the banks are read from and written to
+     * @param properties    reference to the {@link RepositoryProperties} holding the size of the cache
+     */
+    CachingBankRepository(JdbcBankRepository delegate, RepositoryProperties properties) {
+        this.delegate = delegate;
+        int maximumSize = properties.bankCacheSize();
+        this.banks = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<BankId, Bank> eldest) {
+                if (size() <= maximumSize) {
+                    return false;
+                }
+                unindex(eldest.getValue());
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public PagedResult<Bank> findBanks(QueryConstraints<Bank> constraints) {
+        return delegate.findBanks(constraints);
+    }
+
+    @Override
+    public Bank findById(BankId id) {
+        long loadedAt;
+        synchronized (banks) {
+            Bank cached = banks.get(id);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return copy(cached);
+            }
+            loadedAt = generation;
+        }
+        misses.incrementAndGet();
+        Bank bank = delegate.findById(id);
+        cache(bank, false, loadedAt);
+        return bank;
+    }
+
+    @Override
+    public Map<BankId, Bank> findAllByIds(Collection<BankId> ids) {
+        Map<BankId, Bank> found = new HashMap<>();
+        Set<BankId> missing = new LinkedHashSet<>();
+        long loadedAt;
+        synchronized (banks) {
+            for (BankId id : ids) {
+                Bank cached = id == null ? null : banks.get(id);
+                if (cached != null) {
+                    found.put(id, copy(cached));
+                } else if (id != null) {
+                    missing.add(id);
+                }
+            }
+            loadedAt = generation;
+        }
+        hits.addAndGet(found.size());
+        if (missing.isEmpty()) {
+            return found;
+        }
+        misses.addAndGet(missing.size());
+        Map<BankId, Bank> loaded = delegate.findAllByIds(missing);
+        loaded.values().forEach(bank -> cache(bank, false, loadedAt));
+        found.putAll(loaded);
+        return found;
+    }
+
+    @Override
+    public Bank findByIfsCode(IfsCode ifsc) {
+        long loadedAt;
+        synchronized (banks) {
+            BankId id = ifsCodes.get(ifsc);
+            if (id != null) {
+                hits.incrementAndGet();
+                return copy(banks.get(id));
+            }
+            loadedAt = generation;
+        }
+        misses.incrementAndGet();
+        Bank bank = delegate.findByIfsCode(ifsc);
+        cache(bank, false, loadedAt);
+        return bank;
+    }
+
+    @Override
+    public Bank findByBranchName(String branchName) {
+        long loadedAt;
+        synchronized (banks) {
+            BankId id = branchNames.get(branchName);
+            if (id != null) {
+                hits.incrementAndGet();
+                return copy(banks.get(id));
+            }
+            loadedAt = generation;
+        }
+        misses.incrementAndGet();
+        Bank bank = delegate.findByBranchName(branchName);
+        cache(bank, true, loadedAt);
+        return bank;
+    }
+
+    @Override
+    public List<Bank> search(String text, int limit) {
+        return delegate.search(text, limit);
+    }
+
+    @Override
+    public Bank save(Bank bank) {
+        Bank saved = delegate.save(bank);
+        invalidate(saved);
+        return saved;
+    }
+
+    @Override
+    public void delete(Bank bank) {
+        delegate.delete(bank);
+        invalidate(bank);
+    }
+
+    @Override
+    public void update(Bank bank) {
+        delegate.update(bank);
+        invalidate(bank);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("tailfin.banks.cache.hits", hits, AtomicLong::get)
+                .description("Bank lookups answered from the cache")
+                .register(registry);
+        FunctionCounter.builder("tailfin.banks.cache.misses", misses, AtomicLong::get)
+                .description("Bank lookups that read the database")
+                .register(registry);
+        FunctionCounter.builder("tailfin.banks.cache.evictions", evictions, AtomicLong::get)
+                .description("Banks evicted from the cache to make room")
+                .register(registry);
+        Gauge.builder("tailfin.banks.cache.size", this, CachingBankRepository::size)
+                .description("Banks in the cache")
+                .register(registry);
+        Gauge.builder("tailfin.banks.cache.hit.ratio", this, CachingBankRepository::hitRatio)
+                .description("Share of bank lookups answered from the cache")
+                .register(registry);
+    }
+
+    private void cache(Bank bank, boolean byBranchName, long loadedAt) {
+        if (bank == null) {
+            return;
+        }
+        synchronized (banks) {
+            // A write since the lookup started may have made the bank stale.
+            if (generation != loadedAt) {
+                return;
+            }
+            banks.put(bank.getId(), copy(bank));
+            ifsCodes.put(bank.getIfsc(), bank.getId());
+            if (byBranchName) {
+                branchNames.put(bank.getBranchName(), bank.getId());
+            }
+        }
+    }
+
+    private void invalidate(Bank bank) {
+        evict(bank);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(bank);
+                }
+            });
+        }
+    }
+
+    private void evict(Bank bank) {
+        synchronized (banks) {
+            generation++;
+            Bank cached = banks.remove(bank.getId());
+            if (cached != null) {
+                unindex(cached);
+            }
+            ifsCodes.remove(bank.getIfsc());
+            // Another bank with the same branch name may now be the one found by it.
+            branchNames.remove(bank.getBranchName());
+        }
+    }
+
+    private void unindex(Bank bank) {
+        ifsCodes.remove(bank.getIfsc(), bank.getId());
+        branchNames.remove(bank.getBranchName(), bank.getId());
+    }
+
+    private double size() {
+        synchronized (banks) {
+            return banks.size();
+        }
+    }
+
+    private double hitRatio() {
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    private static Bank copy(Bank bank) {
+        return new Bank(bank.getId(), bank.getName(), bank.getBranchName(), bank.getIfsc(), bank.getCreatedAt(),
+                bank.getUpdatedAt());
+    }
+}
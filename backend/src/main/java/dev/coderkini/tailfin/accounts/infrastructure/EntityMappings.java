@@ -0,0 +1,64 @@
+package dev.coderkini.tailfin.accounts.infrastructure;
+
+import java.util.Map;
+
+import dev.coderkini.tailfin.commons.jdbc.EntityMapping;
+
+/**
+ * The whitelists of the fields of the entities of the accounts domain that queries can filter and sort on, together
+ * with the columns they are stored in.
+ */
+final class EntityMappings {
+    /**
+     * The fields of {@link dev.coderkini.tailfin.accounts.domain.Transaction} in the {@code transactions} table.
+     */
+    static final EntityMapping TRANSACTION = new EntityMapping("Transaction",
+            "transactions",
+            Map.of("id", "id",
+                    "type", "type",
+                    "sourceAccountId", "source_account_id",
+                    "targetAccountId", "target_account_id",
+                    "amount", "amount",
+                    "currency", "currency",
+                    "createdAt", "created_at",
+                    "idempotencyKey", "idempotency_key"),
+            "createdAt",
+            "id",
+            JdbcValues::toJdbc);
+
+    /**
+     * The fields of {@link dev.coderkini.tailfin.accounts.domain.Account} in the {@code accounts} table.
+     */
+    static final EntityMapping ACCOUNT = new EntityMapping("Account",
+            "accounts",
+            Map.of("id", "id",
+                    "type", "type",
+                    "bankId", "bank_id",
+                    "number", "number",
+                    "displayName", "display_name",
+                    "balance", "balance",
+                    "currency", "currency",
+                    "createdAt", "created_at",
+                    "updatedAt", "updated_at"),
+            "createdAt",
+            "id",
+            JdbcValues::toJdbc);
+
+    /**
+     * The fields of {@link dev.coderkini.tailfin.accounts.domain.Bank} in the {@code banks} table.
+     */
+    static final EntityMapping BANK = new EntityMapping("Bank",
+            "banks",
+            Map.of("id", "id",
+                    "name", "name",
+                    "branchName", "branch_name",
+                    "ifsc", "ifsc",
+                    "createdAt", "created_at",
+                    "updatedAt", "updated_at"),
+            "createdAt",
+            "id",
+            JdbcValues::toJdbc);
+
+    private EntityMappings() {
+    }
+}
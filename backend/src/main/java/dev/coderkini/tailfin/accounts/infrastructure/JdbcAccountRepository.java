@@ -0,0 +1,194 @@
+package dev.coderkini.tailfin.accounts.infrastructure;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.money.MonetaryAmount;
+
+import org.javamoney.moneta.Money;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import dev.coderkini.tailfin.accounts.domain.Account;
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+import dev.coderkini.tailfin.accounts.domain.AccountRepository;
+import dev.coderkini.tailfin.accounts.domain.AccountType;
+import dev.coderkini.tailfin.accounts.domain.BankId;
+import dev.coderkini.tailfin.commons.jdbc.JdbcPageReader;
+import dev.coderkini.tailfin.commons.jdbc.PreparedQuery;
+import dev.coderkini.tailfin.commons.jdbc.QueryCompiler;
+import dev.coderkini.tailfin.commons.jdbc.QueryTemplate;
+import dev.coderkini.tailfin.commons.money.Currencies;
+import dev.coderkini.tailfin.commons.repository.ContinuationToken;
+import dev.coderkini.tailfin.commons.repository.PagedResult;
+import dev.coderkini.tailfin.commons.repository.QueryConstraints;
+
+/**
+ * <p>JDBC implementation of {@link AccountRepository} backed by the {@code accounts} table.</p>
+ *
+ * <p>The balance of an account is the balance it was opened with, the running balance is kept by
+ * {@link JdbcBalanceSnapshots}. Lookups by account number return the oldest account with that number, as account
+ * numbers are only unique within a bank.</p>
+ *
+ * <p>Display names and account numbers are searched by substring through their trigram indexes, which serve the like
+ * filters of {@link #findAccountsByBank(BankId, QueryConstraints)} on these fields as well.</p>
+ *
+ * @see Account
+ */
+@Repository
+public class JdbcAccountRepository implements AccountRepository {
+    static final String COLUMNS = "id, type, number, bank_id, display_name, balance, currency, created_at, updated_at";
+
+    private static final RowMapper<Account> ROW_MAPPER = JdbcAccountRepository::mapRow;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final QueryCompiler queries;
+    private final JdbcPageReader pages;
+
+    /**
+     * Create a new JdbcAccountRepository instance.
+     *
+     * @param jdbc      reference to the {@link NamedParameterJdbcTemplate} used to run the queries
+     * @param queries   reference to the {@link QueryCompiler} used to compile the constraints of the queries
+     * @param pages     reference to the {@link JdbcPageReader} used to read and count the pages of the queries
+     */
+    JdbcAccountRepository(NamedParameterJdbcTemplate jdbc, QueryCompiler queries, JdbcPageReader pages) {
+        this.jdbc = jdbc;
+        this.queries = queries;
+        this.pages = pages;
+    }
+
+    @Override
+    public Account findById(AccountId id) {
+        return findOne("where id = :id", new MapSqlParameterSource("id", JdbcValues.toJdbc(id)));
+    }
+
+    @Override
+    public Map<AccountId, Account> findAllByIds(Collection<AccountId> ids) {
+        Map<AccountId, Account> accounts = new HashMap<>();
+        if (ids.isEmpty()) {
+            return accounts;
+        }
+        for (Account account : jdbc.query("select " + COLUMNS + " from accounts where id = any(:ids)",
+                new MapSqlParameterSource("ids", JdbcValues.toJdbcIds(ids)),
+                ROW_MAPPER)) {
+            accounts.put(account.getId(), account);
+        }
+        return accounts;
+    }
+
+    @Override
+    public Account findByAccountNumber(String accountNumber) {
+        return findOne("where number = :number order by created_at, id limit 1",
+                new MapSqlParameterSource("number", accountNumber));
+    }
+
+    @Override
+    public PagedResult<Account> findAccountsByBank(BankId bankId, QueryConstraints<Account> constraints) {
+        PreparedQuery prepared = queries.prepare(EntityMappings.ACCOUNT,
+                "findAccountsByBank",
+                constraints,
+                fragments -> {
+                    String from = " from accounts where bank_id = :bankId" + fragments.filters();
+                    return new QueryTemplate.Statements("select " + COLUMNS + from + fragments.seek() +
+                            fragments.orderBy() + fragments.paging(), "select count(*)" + from);
+                },
+                new MapSqlParameterSource("bankId", JdbcValues.toJdbc(bankId)));
+        return pages.read(prepared,
+                constraints,
+                ROW_MAPPER,
+                account -> new ContinuationToken(account.getCreatedAt(), account.getId().value()));
+    }
+
+    @Override
+    public List<Account> search(String text, int limit) {
+        return jdbc.query("select " + COLUMNS + " from accounts " +
+                        "where display_name ilike :pattern or number ilike :pattern " +
+                        "order by greatest(word_similarity(:text, display_name), word_similarity(:text, number)) " +
+                        "desc, id limit :limit",
+                new MapSqlParameterSource("pattern", JdbcValues.toContainsPattern(text))
+                        .addValue("text", text)
+                        .addValue("limit", limit),
+                ROW_MAPPER);
+    }
+
+    @Override
+    public Map<AccountId, MonetaryAmount> getInitialBalances() {
+        Map<AccountId, MonetaryAmount> balances = new HashMap<>();
+        jdbc.query("select id, balance, currency from accounts",
+                Map.of(),
+                rs -> {
+                    balances.put(AccountId.fromLong(rs.getLong("id")),
+                            Money.of(rs.getBigDecimal("balance"), Currencies.of(rs.getString("currency"))));
+                });
+        return balances;
+    }
+
+    @Override
+    public Account save(Account account) {
+        return jdbc.queryForObject("insert into accounts (id, type, number, bank_id, display_name, balance, " +
+                        "currency, created_at) values (:id, :type, :number, :bankId, :displayName, :balance, " +
+                        ":currency, :createdAt) returning " + COLUMNS,
+                parameters(account),
+                ROW_MAPPER);
+    }
+
+    @Override
+    public void delete(Account account) {
+        jdbc.update("delete from accounts where id = :id",
+                new MapSqlParameterSource("id", JdbcValues.toJdbc(account.getId())));
+    }
+
+    @Override
+    public void update(Account account) {
+        jdbc.update("update accounts set number = :number, bank_id = :bankId, display_name = :displayName, " +
+                "updated_at = now() where id = :id", parameters(account));
+    }
+
+    private Account findOne(String condition, MapSqlParameterSource parameters) {
+        List<Account> accounts = jdbc.query("select " + COLUMNS + " from accounts " + condition, parameters,
+                ROW_MAPPER);
+        return accounts.isEmpty() ? null : accounts.getFirst();
+    }
+
+    private static MapSqlParameterSource parameters(Account account) {
+        return new MapSqlParameterSource("id", JdbcValues.toJdbc(account.getId()))
+                .addValue("type", JdbcValues.toJdbc(account.getType()))
+                .addValue("number", account.getNumber())
+                .addValue("bankId", JdbcValues.toJdbc(account.getBankId()))
+                .addValue("displayName", account.getDisplayName())
+                .addValue("balance", account.getBalance().getNumber().numberValue(BigDecimal.class))
+                .addValue("currency", account.getBalance().getCurrency().getCurrencyCode())
+                .addValue("createdAt", JdbcValues.toJdbc(account.getCreatedAt()));
+    }
+
+    /**
+     * Maps the current row of the result set to an {@link Account}.
+     *
+     * @param rs        the result set positioned on the row to map
+     * @param rowNum    the number of the row
+     *
+     * @return reference to the mapped {@link Account}
+     *
+     * @throws SQLException if a column cannot be read
+     */
+    static Account mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Long bankId = rs.getObject("bank_id", Long.class);
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        return new Account(AccountId.fromLong(rs.getLong("id")),
+                AccountType.valueOf(rs.getString("type")),
+                bankId == null ? null : BankId.fromLong(bankId),
+                rs.getString("number"),
+                rs.getString("display_name"),
+                Money.of(rs.getBigDecimal("balance"), Currencies.of(rs.getString("currency"))),
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                updatedAt == null ? null : updatedAt.toLocalDateTime());
+    }
+}
@@ -0,0 +1,216 @@
+package dev.coderkini.tailfin.accounts.infrastructure;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import javax.money.CurrencyUnit;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+import dev.coderkini.tailfin.accounts.domain.Transaction;
+import dev.coderkini.tailfin.commons.money.MinorAmount;
+
+/**
+ * <p>Maintains the net change of the balance of every account per day and per month in the
+ * {@code account_balance_checkpoints} table.</p>
+ *
+ * <p>The balance of an account at any point in time is the sum of the monthly changes before its month, the daily
+ * changes before its day within the month and the transactions of the day itself. Each of these is bounded no matter
+ * how long the history of the account is, and a daily balance series needs one more query for the daily changes in
+ * the range.</p>
+ *
+ * @see JdbcTransactionRepository
+ */
+@Component
+class JdbcBalanceCheckpoints {
+    private static final String DAILY = "D";
+    private static final String MONTHLY = "M";
+
+    /**
+     * The balance of an account at the start of a day: the monthly changes before its month and the daily changes
+     * before it within its month.
+     */
+    private static final String OPENING_BALANCE =
+            "coalesce((select sum(net_change) from account_balance_checkpoints " +
+            "          where account_id = :accountId and period = 'M' and period_start < :month), 0) " +
+            "+ coalesce((select sum(net_change) from account_balance_checkpoints " +
+            "            where account_id = :accountId and period = 'D' " +
+            "            and period_start >= :month and period_start < :day), 0)";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * Create a new JdbcBalanceCheckpoints instance.
+     *
+     * @param jdbc reference to the {@link NamedParameterJdbcTemplate} used to run the queries
+     */
+    JdbcBalanceCheckpoints(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Applies the specified transactions to the checkpoints of their source and target accounts. Must be called in
+     * the same transaction that saves the specified transactions. The changes are summed up per checkpoint first, in
+     * minor units, and the checkpoints are updated in the order of their account, so concurrent batches cannot
+     * deadlock each other.
+     *
+     * @param transactions the saved transactions
+     *
+     * @throws ArithmeticException if an amount has more decimal places than its currency or a change overflows
+     */
+    void apply(Collection<Transaction> transactions) {
+        Map<CheckpointKey, NetChange> changes = new TreeMap<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getSourceAccountId() != null
+                    && transaction.getSourceAccountId().equals(transaction.getTargetAccountId())) {
+                continue;
+            }
+            long amount = MinorAmount.toUnits(transaction.getAmount());
+            CurrencyUnit currency = transaction.getAmount().getCurrency();
+            LocalDate day = transaction.getCreatedAt().toLocalDate();
+            if (transaction.getSourceAccountId() != null) {
+                addChanges(changes, JdbcValues.toJdbc(transaction.getSourceAccountId()), day, currency,
+                        Math.negateExact(amount));
+            }
+            if (transaction.getTargetAccountId() != null) {
+                addChanges(changes, JdbcValues.toJdbc(transaction.getTargetAccountId()), day, currency, amount);
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        jdbc.batchUpdate("insert into account_balance_checkpoints (account_id, period, period_start, net_change) " +
+                        "values (:accountId, :period, :periodStart, :netChange) " +
+                        "on conflict (account_id, period, period_start) do update " +
+                        "set net_change = account_balance_checkpoints.net_change + excluded.net_change",
+                changes.entrySet().stream()
+                        .map(change -> new MapSqlParameterSource("accountId", change.getKey().accountId())
+                                .addValue("period", change.getKey().period())
+                                .addValue("periodStart", Date.valueOf(change.getKey().periodStart()))
+                                .addValue("netChange", change.getValue().toDecimal()))
+                        .toArray(MapSqlParameterSource[]::new));
+    }
+
+    /**
+     * Computes the balance of the specified account as of the specified point in time, including the transactions
+     * created at that point in time.
+     *
+     * @param accountId reference to the {@link AccountId} of the account
+     * @param asOf      the point in time
+     *
+     * @return the balance of the account
+     */
+    BigDecimal balanceAsOf(AccountId accountId, LocalDateTime asOf) {
+        LocalDate day = asOf.toLocalDate();
+        MapSqlParameterSource parameters = openingParameters(accountId, day)
+                .addValue("dayStart", Timestamp.valueOf(day.atStartOfDay()))
+                .addValue("asOf", Timestamp.valueOf(asOf));
+        return jdbc.queryForObject("select (" + OPENING_BALANCE + ") " +
+                        "+ coalesce((select sum(amount) from transactions where target_account_id = :accountId " +
+                        "            and created_at >= :dayStart and created_at <= :asOf), 0) " +
+                        "- coalesce((select sum(amount) from transactions where source_account_id = :accountId " +
+                        "            and created_at >= :dayStart and created_at <= :asOf), 0)",
+                parameters,
+                BigDecimal.class);
+    }
+
+    /**
+     * Computes the closing balance of the specified account for every day in the specified range.
+     *
+     * @param accountId reference to the {@link AccountId} of the account
+     * @param startDate the first day of the range
+     * @param endDate   the last day of the range
+     * @param currency  the currency of the account
+     *
+     * @return the closing balance of every day in the range, keyed by the day
+     */
+    SortedMap<LocalDate, MinorAmount> closingBalances(AccountId accountId,
+                                                      LocalDate startDate,
+                                                      LocalDate endDate,
+                                                      CurrencyUnit currency) {
+        MapSqlParameterSource parameters = openingParameters(accountId, startDate)
+                .addValue("endDate", Date.valueOf(endDate));
+        long balance = MinorAmount.toUnits(jdbc.queryForObject("select " + OPENING_BALANCE, parameters,
+                BigDecimal.class), currency);
+
+        // Indexed by the offset of the day from the start of the range.
+        int days = Math.max(0, Math.toIntExact(ChronoUnit.DAYS.between(startDate, endDate) + 1));
+        long[] changes = new long[days];
+        jdbc.query("select period_start, net_change from account_balance_checkpoints " +
+                        "where account_id = :accountId and period = 'D' " +
+                        "and period_start >= :day and period_start <= :endDate",
+                parameters,
+                rs -> {
+                    int offset = (int) ChronoUnit.DAYS.between(startDate, rs.getDate("period_start").toLocalDate());
+                    changes[offset] = MinorAmount.toUnits(rs.getBigDecimal("net_change"), currency);
+                });
+
+        SortedMap<LocalDate, MinorAmount> balances = new TreeMap<>();
+        for (int offset = 0; offset < days; offset++) {
+            balance = MinorAmount.add(balance, changes[offset]);
+            balances.put(startDate.plusDays(offset), new MinorAmount(balance, currency));
+        }
+        return balances;
+    }
+
+    private static MapSqlParameterSource openingParameters(AccountId accountId, LocalDate day) {
+        return new MapSqlParameterSource("accountId", JdbcValues.toJdbc(accountId))
+                .addValue("month", Date.valueOf(day.withDayOfMonth(1)))
+                .addValue("day", Date.valueOf(day));
+    }
+
+    private static void addChanges(Map<CheckpointKey, NetChange> changes,
+                                   long accountId,
+                                   LocalDate day,
+                                   CurrencyUnit currency,
+                                   long netChange) {
+        changes.computeIfAbsent(new CheckpointKey(accountId, DAILY, day), key -> new NetChange(currency))
+                .add(netChange);
+        changes.computeIfAbsent(new CheckpointKey(accountId, MONTHLY, day.withDayOfMonth(1)),
+                        key -> new NetChange(currency))
+                .add(netChange);
+    }
+
+    private record CheckpointKey(long accountId, String period, LocalDate periodStart)
+            implements Comparable<CheckpointKey> {
+        private static final Comparator<CheckpointKey> ORDER = Comparator.comparingLong(CheckpointKey::accountId)
+                .thenComparing(CheckpointKey::period)
+                .thenComparing(CheckpointKey::periodStart);
+
+        @Override
+        public int compareTo(CheckpointKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    /**
+     * The net change of a checkpoint in minor units of the currency of its account, summed up in place.
+     */
+    private static final class NetChange {
+        private final CurrencyUnit currency;
+        private long units;
+
+        private NetChange(CurrencyUnit currency) {
+            this.currency = currency;
+        }
+
+        private void add(long amount) {
+            units = MinorAmount.add(units, amount);
+        }
+
+        private BigDecimal toDecimal() {
+            return MinorAmount.toDecimal(units, currency);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package dev.coderkini.tailfin.accounts.infrastructure;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.money.MonetaryAmount;
+
+import io.hypersistence.tsid.TSID;
+import org.javamoney.moneta.Money;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+import dev.coderkini.tailfin.accounts.domain.Transaction;
+import dev.coderkini.tailfin.commons.collections.LongLongHashMap;
+import dev.coderkini.tailfin.commons.money.Currencies;
+import dev.coderkini.tailfin.commons.money.MinorAmount;
+
+/**
+ * <p>Maintains the running balance of every account in the {@code account_balances} table.</p>
+ *
+ * <p>A transaction is debited from its source account and credited to its target account. The balances are updated
+ * by the same unit of work that saves the transaction, so reading the balance of an account is a single primary key
+ * lookup no matter how many transactions the account has.</p>
+ *
+ * <p>Balances are recomputed from the transactions and the net changes of the partitions that were detached from the
+ * {@code transactions} table, see {@link TransactionPartitions}.</p>
+ *
+ * @see JdbcTransactionRepository
+ * @see BalanceSnapshotVerificationJob
+ */
+@Component
+class JdbcBalanceSnapshots {
+    private static final String COMPUTED_BALANCES = """
+            select account_id, min(currency) as currency, sum(amount) as balance
+            from (select source_account_id as account_id, currency, -amount as amount
+                  from transactions
+                  where source_account_id is not null
+                  union all
+                  select target_account_id, currency, amount
+                  from transactions
+                  where target_account_id is not null
+                  union all
+                  select account_id, currency, net_change
+                  from archived_account_balances) t
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * Create a new JdbcBalanceSnapshots instance.
+     *
+     * @param jdbc reference to the {@link NamedParameterJdbcTemplate} used to run the queries
+     */
+    JdbcBalanceSnapshots(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Applies the specified transactions to the balances of their source and target accounts. Must be called in the
+     * same transaction that saves the specified transactions. The changes are summed up per account first, in minor
+     * units, and the balances are updated in the order of their account, so concurrent batches cannot deadlock each
+     * other. The first running balance of an account takes the currency of the account, like {@link #lock(Collection)}
+     * inserts it, so a transaction in another currency cannot create a balance in its own currency.
+     *
+     * @param transactions the saved transactions
+     *
+     * @throws IllegalStateException if the currency of a transaction differs from the currency of an account
+     * @throws ArithmeticException   if an amount has more decimal places than its currency or a change overflows
+     */
+    void apply(Collection<Transaction> transactions) {
+        Map<String, LongLongHashMap> changesByCurrency = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            long amount = MinorAmount.toUnits(transaction.getAmount());
+            LongLongHashMap changes = changesByCurrency.computeIfAbsent(
+                    transaction.getAmount().getCurrency().getCurrencyCode(), currency -> new LongLongHashMap());
+            if (transaction.getSourceAccountId() != null) {
+                changes.addTo(transaction.getSourceAccountId().toLong(), Math.negateExact(amount));
+            }
+            if (transaction.getTargetAccountId() != null) {
+                changes.addTo(transaction.getTargetAccountId().toLong(), amount);
+            }
+        }
+        List<BalanceChange> changes = new ArrayList<>();
+        changesByCurrency.forEach((currency, amounts) -> amounts.forEach(
+                (accountId, amount) -> changes.add(new BalanceChange(accountId, currency, amount))));
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        Collections.sort(changes);
+        MapSqlParameterSource[] parameters = changes.stream()
+                .map(change -> new MapSqlParameterSource("accountId", change.accountId())
+                        .addValue("amount", MinorAmount.toDecimal(change.amount(), Currencies.of(change.currency())))
+                        .addValue("currency", change.currency()))
+                .toArray(MapSqlParameterSource[]::new);
+        int[] updated = jdbc.batchUpdate("insert into account_balances (account_id, balance, currency) " +
+                        "select a.id, :amount, a.currency from accounts a " +
+                        "where a.id = :accountId and a.currency = :currency " +
+                        "on conflict (account_id) do update " +
+                        "set balance = account_balances.balance + excluded.balance, updated_at = now() " +
+                        "where account_balances.currency = excluded.currency",
+                parameters);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                throw new IllegalStateException("Currency " + changes.get(i).currency() +
+                        " does not match the currency of account " + TSID.from(changes.get(i).accountId()));
+            }
+        }
+    }
+
+    /**
+     * Returns the running balance of the specified account.
+     *
+     * @param accountId reference to the {@link AccountId} of the account
+     *
+     * @return the balance of the account, or null if the account has no transactions
+     */
+    MonetaryAmount find(AccountId accountId) {
+        List<MonetaryAmount> balances = jdbc.query(
+                "select balance, currency from account_balances where account_id = :accountId",
+                new MapSqlParameterSource("accountId", JdbcValues.toJdbc(accountId)),
+                (rs, rowNum) -> Money.of(rs.getBigDecimal("balance"), Currencies.of(rs.getString("currency"))));
+        return balances.isEmpty() ? null : balances.getFirst();
+    }
+
+    /**
+     * Returns the running balance of every account, read with a single query.
+     *
+     * @return the balance of every account with transactions, keyed by the account
+     */
+    Map<AccountId, MonetaryAmount> findAll() {
+        Map<AccountId, MonetaryAmount> balances = new HashMap<>();
+        jdbc.query("select account_id, balance, currency from account_balances", rs -> {
+            balances.put(AccountId.fromLong(rs.getLong("account_id")),
+                    Money.of(rs.getBigDecimal("balance"), Currencies.of(rs.getString("currency"))));
+        });
+        return balances;
+    }
+
+    /**
+     * Returns the running balances of the specified accounts, read with a single query.
+     *
+     * @param accountIds the accounts whose balances to read
+     *
+     * @return the balances keyed by the account, accounts without transactions are absent
+     */
+    Map<AccountId, MonetaryAmount> findAll(Collection<AccountId> accountIds) {
+        Map<AccountId, MonetaryAmount> balances = new HashMap<>();
+        jdbc.query("select account_id, balance, currency from account_balances where account_id = any(:ids)",
+                new MapSqlParameterSource("ids", JdbcValues.toJdbcIds(accountIds)),
+                rs -> {
+                    balances.put(AccountId.fromLong(rs.getLong("account_id")),
+                            Money.of(rs.getBigDecimal("balance"), Currencies.of(rs.getString("currency"))));
+                });
+        return balances;
+    }
+
+    /**
+     * Locks the running balances of the specified accounts until the end of the current transaction, in the order of
+     * their accounts, like {@link #apply(Collection)} updates them. Must be called in a transaction.
+     *
+     * <p>Accounts without transactions have no running balance yet, and a {@code for update} that finds no row locks
+     * nothing. A zero balance is inserted for them first, so that their first transactions are serialized as well;
+     * concurrent inserts of the same balance wait for each other and then do nothing.</p>
+     *
+     * @param accountIds the accounts whose balances to lock
+     *
+     * @return the locked balances keyed by the account, accounts that do not exist are absent
+     */
+    Map<AccountId, MonetaryAmount> lock(Collection<AccountId> accountIds) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("ids", JdbcValues.toJdbcIds(accountIds));
+        jdbc.update("insert into account_balances (account_id, balance, currency) " +
+                        "select id, 0, currency from accounts where id = any(:ids) order by id " +
+                        "on conflict (account_id) do nothing",
+                parameters);
+        Map<AccountId, MonetaryAmount> balances = new HashMap<>();
+        jdbc.query("select account_id, balance, currency from account_balances " +
+                        "where account_id = any(:ids) order by account_id for update",
+                parameters,
+                rs -> {
+                    balances.put(AccountId.fromLong(rs.getLong("account_id")),
+                            Money.of(rs.getBigDecimal("balance"), Currencies.of(rs.getString("currency"))));
+                });
+        return balances;
+    }
+
+    /**
+     * Compares every running balance against a full recomputation from the transactions. The comparison runs as a
+     * single statement and therefore against a consistent view of both tables. A zero running balance of an account
+     * without transactions, as inserted by {@link #lock(Collection)}, matches.
+     *
+     * @return the accounts whose running balance does not match their transactions
+     */
+    List<BalanceMismatch> verify() {
+        return jdbc.query("with computed as (" + COMPUTED_BALANCES + " group by account_id) " +
+                        "select coalesce(s.account_id, c.account_id) as account_id, " +
+                        "       s.balance as snapshot_balance, c.balance as computed_balance " +
+                        "from account_balances s full join computed c on c.account_id = s.account_id " +
+                        "where coalesce(s.balance, 0) <> coalesce(c.balance, 0)",
+                (rs, rowNum) -> new BalanceMismatch(JdbcValues.toAccountId(rs.getLong("account_id")),
+                        rs.getBigDecimal("snapshot_balance"),
+                        rs.getBigDecimal("computed_balance")));
+    }
+
+    /**
+     * Replaces the running balance of the specified account with a full recomputation from its transactions. Must
+     * be called in a transaction. The running balance is locked before the transactions are summed up, so
+     * transactions saved concurrently are applied on top of the recomputed balance once it is committed.
+     *
+     * @param accountId reference to the {@link AccountId} of the account
+     */
+    void rebuild(AccountId accountId) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("accountId", JdbcValues.toJdbc(accountId));
+        jdbc.queryForList("select account_id from account_balances where account_id = :accountId for update",
+                parameters,
+                Long.class);
+        MonetaryAmount computed = compute(accountId);
+        if (computed == null) {
+            jdbc.update("delete from account_balances where account_id = :accountId", parameters);
+            return;
+        }
+        parameters.addValue("balance", computed.getNumber().numberValue(BigDecimal.class))
+                .addValue("currency", computed.getCurrency().getCurrencyCode());
+        jdbc.update("insert into account_balances (account_id, balance, currency) " +
+                        "values (:accountId, :balance, :currency) " +
+                        "on conflict (account_id) do update " +
+                        "set balance = excluded.balance, currency = excluded.currency, updated_at = now()",
+                parameters);
+    }
+
+    /**
+     * Computes the balance of the specified account by summing up all of its transactions.
+     *
+     * @param accountId reference to the {@link AccountId} of the account
+     *
+     * @return the balance of the account, or null if the account has no transactions
+     */
+    MonetaryAmount compute(AccountId accountId) {
+        List<MonetaryAmount> balances = jdbc.query("""
+                        select currency, sum(amount) as balance
+                        from (select currency, -amount as amount from transactions
+                              where source_account_id = :accountId
+                              union all
+                              select currency, amount from transactions
+                              where target_account_id = :accountId
+                              union all
+                              select currency, net_change from archived_account_balances
+                              where account_id = :accountId) t
+                        group by currency""",
+                new MapSqlParameterSource("accountId", JdbcValues.toJdbc(accountId)),
+                (rs, rowNum) -> Money.of(rs.getBigDecimal("balance"), Currencies.of(rs.getString("currency"))));
+        return balances.isEmpty() ? null : balances.getFirst();
+    }
+
+    private record BalanceChange(long accountId, String currency, long amount) implements Comparable<BalanceChange> {
+        @Override
+        public int compareTo(BalanceChange other) {
+            int compared = Long.compare(accountId, other.accountId);
+            return compared != 0 ? compared : currency.compareTo(other.currency);
+        }
+    }
+
+    /**
+     * An account whose running balance does not match the sum of its transactions.
+     *
+     * @param accountId         reference to the {@link AccountId} of the account
+     * @param snapshotBalance   the running balance, or null if there is none
+     * @param computedBalance   the balance computed from the transactions, or null if there are none
+     */
+    record BalanceMismatch(AccountId accountId, BigDecimal snapshotBalance, BigDecimal computedBalance) {
+    }
+}
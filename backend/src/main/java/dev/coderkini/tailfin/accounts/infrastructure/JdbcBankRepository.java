@@ -0,0 +1,173 @@
+package dev.coderkini.tailfin.accounts.infrastructure;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import dev.coderkini.tailfin.accounts.domain.Bank;
+import dev.coderkini.tailfin.accounts.domain.BankId;
+import dev.coderkini.tailfin.accounts.domain.BankRepository;
+import dev.coderkini.tailfin.accounts.domain.IfsCode;
+import dev.coderkini.tailfin.commons.jdbc.JdbcPageReader;
+import dev.coderkini.tailfin.commons.jdbc.PreparedQuery;
+import dev.coderkini.tailfin.commons.jdbc.QueryCompiler;
+import dev.coderkini.tailfin.commons.jdbc.QueryTemplate;
+import dev.coderkini.tailfin.commons.repository.ContinuationToken;
+import dev.coderkini.tailfin.commons.repository.PagedResult;
+import dev.coderkini.tailfin.commons.repository.QueryConstraints;
+
+/**
+ * <p>JDBC implementation of {@link BankRepository} backed by the {@code banks} table.</p>
+ *
+ * <p>Lookups by branch name return the oldest bank with that branch name, as branch names are not unique. The
+ * repository is used through {@link CachingBankRepository}.</p>
+ *
+ * <p>Names and branch names are searched by substring through their trigram indexes, which serve the like filters of
+ * {@link #findBanks(QueryConstraints)} on these fields as well.</p>
+ *
+ * @see Bank
+ * @see CachingBankRepository
+ */
+@Repository
+public class JdbcBankRepository implements BankRepository {
+    static final String COLUMNS = "id, name, branch_name, ifsc, created_at, updated_at";
+
+    private static final RowMapper<Bank> ROW_MAPPER = JdbcBankRepository::mapRow;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final QueryCompiler queries;
+    private final JdbcPageReader pages;
+
+    /**
+     * Create a new JdbcBankRepository instance.
+     *
+     * @param jdbc      reference to the {@link NamedParameterJdbcTemplate} used to run the queries
+     * @param queries   reference to the {@link QueryCompiler} used to compile the constraints of the queries
+     * @param pages     reference to the {@link JdbcPageReader} used to read and count the pages of the queries
+     */
+    JdbcBankRepository(NamedParameterJdbcTemplate jdbc, QueryCompiler queries, JdbcPageReader pages) {
+        this.jdbc = jdbc;
+        this.queries = queries;
+        this.pages = pages;
+    }
+
+    @Override
+    public PagedResult<Bank> findBanks(QueryConstraints<Bank> constraints) {
+        PreparedQuery prepared = queries.prepare(EntityMappings.BANK,
+                "findBanks",
+                constraints,
+                fragments -> {
+                    String from = " from banks where true" + fragments.filters();
+                    return new QueryTemplate.Statements("select " + COLUMNS + from + fragments.seek() +
+                            fragments.orderBy() + fragments.paging(), "select count(*)" + from);
+                },
+                new MapSqlParameterSource());
+        return pages.read(prepared,
+                constraints,
+                ROW_MAPPER,
+                bank -> new ContinuationToken(bank.getCreatedAt(), bank.getId().value()));
+    }
+
+    @Override
+    public Bank findById(BankId id) {
+        return findOne("where id = :id", new MapSqlParameterSource("id", JdbcValues.toJdbc(id)));
+    }
+
+    @Override
+    public Map<BankId, Bank> findAllByIds(Collection<BankId> ids) {
+        Map<BankId, Bank> banks = new HashMap<>();
+        if (ids.isEmpty()) {
+            return banks;
+        }
+        for (Bank bank : jdbc.query("select " + COLUMNS + " from banks where id = any(:ids)",
+                new MapSqlParameterSource("ids", JdbcValues.toJdbcIds(ids)),
+                ROW_MAPPER)) {
+            banks.put(bank.getId(), bank);
+        }
+        return banks;
+    }
+
+    @Override
+    public Bank findByIfsCode(IfsCode ifsc) {
+        return findOne("where ifsc = :ifsc", new MapSqlParameterSource("ifsc", JdbcValues.toJdbc(ifsc)));
+    }
+
+    @Override
+    public Bank findByBranchName(String branchName) {
+        return findOne("where branch_name = :branchName order by created_at, id limit 1",
+                new MapSqlParameterSource("branchName", branchName));
+    }
+
+    @Override
+    public List<Bank> search(String text, int limit) {
+        return jdbc.query("select " + COLUMNS + " from banks " +
+                        "where name ilike :pattern or branch_name ilike :pattern " +
+                        "order by greatest(word_similarity(:text, name), word_similarity(:text, branch_name)) " +
+                        "desc, id limit :limit",
+                new MapSqlParameterSource("pattern", JdbcValues.toContainsPattern(text))
+                        .addValue("text", text)
+                        .addValue("limit", limit),
+                ROW_MAPPER);
+    }
+
+    @Override
+    public Bank save(Bank bank) {
+        return jdbc.queryForObject("insert into banks (id, name, branch_name, ifsc) " +
+                        "values (:id, :name, :branchName, :ifsc) returning " + COLUMNS,
+                parameters(bank),
+                ROW_MAPPER);
+    }
+
+    @Override
+    public void delete(Bank bank) {
+        jdbc.update("delete from banks where id = :id",
+                new MapSqlParameterSource("id", JdbcValues.toJdbc(bank.getId())));
+    }
+
+    @Override
+    public void update(Bank bank) {
+        jdbc.update("update banks set name = :name, branch_name = :branchName, ifsc = :ifsc, updated_at = now() " +
+                "where id = :id", parameters(bank));
+    }
+
+    private Bank findOne(String condition, MapSqlParameterSource parameters) {
+        List<Bank> banks = jdbc.query("select " + COLUMNS + " from banks " + condition, parameters, ROW_MAPPER);
+        return banks.isEmpty() ? null : banks.getFirst();
+    }
+
+    private static MapSqlParameterSource parameters(Bank bank) {
+        return new MapSqlParameterSource("id", JdbcValues.toJdbc(bank.getId()))
+                .addValue("name", bank.getName())
+                .addValue("branchName", bank.getBranchName())
+                .addValue("ifsc", JdbcValues.toJdbc(bank.getIfsc()));
+    }
+
+    /**
+     * Maps the current row of the result set to a {@link Bank}.
+     *
+     * @param rs        the result set positioned on the row to map
+     * @param rowNum    the number of the row
+     *
+     * @return reference to the mapped {@link Bank}
+     *
+     * @throws SQLException if a column cannot be read
+     */
+    static Bank mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        return new Bank(BankId.fromLong(rs.getLong("id")),
+                rs.getString("name"),
+                rs.getString("branch_name"),
+                new IfsCode(rs.getString("ifsc")),
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                updatedAt == null ? null : updatedAt.toLocalDateTime());
+    }
+}
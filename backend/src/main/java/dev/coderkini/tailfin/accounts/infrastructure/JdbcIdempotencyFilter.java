@@ -0,0 +1,167 @@
+package dev.coderkini.tailfin.accounts.infrastructure;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.support.SqlArrayValue;
+import org.springframework.stereotype.Component;
+
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+import dev.coderkini.tailfin.accounts.domain.IdempotencyKey;
+import dev.coderkini.tailfin.accounts.domain.Transaction;
+import dev.coderkini.tailfin.commons.collections.BloomFilter;
+import dev.coderkini.tailfin.commons.jdbc.JdbcCursorTemplate;
+import dev.coderkini.tailfin.commons.jdbc.RepositoryProperties;
+
+/**
+ * <p>Looks up which idempotency keys have already been saved, keeping a {@link BloomFilter} of the saved keys of the
+ * most recently used accounts in memory so that keys that were definitely not saved skip the database.</p>
+ *
+ * <p>A transaction is filed under its source account, or its target account if it has no source. The filter of an
+ * account is loaded from the database on first use and sized for twice the keys the account has, and is reloaded once
+ * more keys are added than it was sized for. At most
+ * {@link RepositoryProperties#idempotencyFilterAccounts() idempotency filter accounts} filters are kept.</p>
+ *
+ * <p>The filters are only an optimisation: keys saved by other instances, or concurrently with the loading of a
+ * filter, are missed by it. Every key is claimed in {@code transaction_idempotency_keys} by the statement inserting
+ * its transaction, whose primary key is what rejects a key saved before, whatever the creation date of either
+ * transaction. The keys that pass a filter are looked up in that table too.</p>
+ *
+ * @see IdempotencyKey
+ * @see JdbcTransactionRepository
+ */
+@Component
+class JdbcIdempotencyFilter {
+    private static final Logger log = LoggerFactory.getLogger(JdbcIdempotencyFilter.class);
+    private static final int MIN_EXPECTED_KEYS = 1024;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final JdbcCursorTemplate cursors;
+    private final double falsePositiveProbability;
+    private final Map<Long, BloomFilter> filters;
+
+    /**
+     * Create a new JdbcIdempotencyFilter instance.
+     *
+     * @param jdbc          reference to the {@link NamedParameterJdbcTemplate} used to look up keys
+     * @param cursors       reference to the {@link JdbcCursorTemplate} used to load the keys of an account
+     * @param properties    reference to the {@link RepositoryProperties} holding the sizes of the filters
+     */
+    JdbcIdempotencyFilter(NamedParameterJdbcTemplate jdbc,
+                          JdbcCursorTemplate cursors,
+                          RepositoryProperties properties) {
+        this.jdbc = jdbc;
+        this.cursors = cursors;
+        this.falsePositiveProbability = properties.idempotencyFilterFalsePositiveProbability();
+        int maxAccounts = properties.idempotencyFilterAccounts();
+        this.filters = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, BloomFilter> eldest) {
+                return size() > maxAccounts;
+            }
+        };
+    }
+
+    /**
+     * Returns the idempotency keys of the specified transactions that have already been saved. Only the keys that the
+     * filters cannot rule out are looked up in the database, with a single query binding them as one array, so that
+     * the number of keys is not bounded by the number of bind parameters of a statement.
+     *
+     * @param transactions the transactions to check
+     *
+     * @return the keys that have already been saved
+     */
+    Set<IdempotencyKey> findSaved(Collection<Transaction> transactions) {
+        List<String> candidates = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            IdempotencyKey key = transaction.getIdempotencyKey();
+            AccountId accountId = accountOf(transaction);
+            if (key != null && accountId != null && filter(accountId).mightContain(key.value())) {
+                candidates.add(key.value());
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        Set<IdempotencyKey> saved = new HashSet<>();
+        jdbc.query("select idempotency_key from transaction_idempotency_keys where idempotency_key = any(:keys)",
+                new MapSqlParameterSource("keys", new SqlArrayValue("varchar", candidates.toArray())),
+                rs -> {
+                    saved.add(new IdempotencyKey(rs.getString("idempotency_key")));
+                });
+        log.debug("{} of {} idempotency keys passed the filters, {} were saved",
+                candidates.size(), transactions.size(), saved.size());
+        return saved;
+    }
+
+    /**
+     * Adds the idempotency keys of the specified saved transactions to the filters that are loaded.
+     *
+     * @param transactions the saved transactions
+     */
+    void added(Collection<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            IdempotencyKey key = transaction.getIdempotencyKey();
+            AccountId accountId = accountOf(transaction);
+            if (key == null || accountId == null) {
+                continue;
+            }
+            BloomFilter filter;
+            synchronized (filters) {
+                filter = filters.get(JdbcValues.toJdbc(accountId));
+            }
+            if (filter != null) {
+                filter.add(key.value());
+            }
+        }
+    }
+
+    private BloomFilter filter(AccountId accountId) {
+        Long id = JdbcValues.toJdbc(accountId);
+        synchronized (filters) {
+            BloomFilter filter = filters.get(id);
+            if (filter != null && !filter.isSaturated()) {
+                return filter;
+            }
+        }
+        // Loaded outside the lock, a concurrent load of the same account merely wastes work.
+        BloomFilter loaded = load(id);
+        synchronized (filters) {
+            filters.put(id, loaded);
+        }
+        return loaded;
+    }
+
+    private BloomFilter load(long accountId) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("accountId", accountId);
+        String keys = " from transactions where source_account_id = :accountId and idempotency_key is not null " +
+                "union all select idempotency_key from transactions where target_account_id = :accountId " +
+                "and source_account_id is null and idempotency_key is not null";
+        Long count = jdbc.queryForObject("select count(*) from (select idempotency_key" + keys + ") k",
+                parameters,
+                Long.class);
+        BloomFilter filter = new BloomFilter(Math.max(MIN_EXPECTED_KEYS, 2 * count), falsePositiveProbability);
+        try (Stream<String> saved = cursors.queryForStream("select idempotency_key" + keys,
+                parameters,
+                (rs, rowNum) -> rs.getString("idempotency_key"))) {
+            saved.forEach(filter::add);
+        }
+        return filter;
+    }
+
+    private static AccountId accountOf(Transaction transaction) {
+        return transaction.getSourceAccountId() != null
+                ? transaction.getSourceAccountId()
+                : transaction.getTargetAccountId();
+    }
+}
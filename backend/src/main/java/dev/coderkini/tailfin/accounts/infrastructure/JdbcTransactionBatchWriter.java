@@ -0,0 +1,369 @@
+package dev.coderkini.tailfin.accounts.infrastructure;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.stereotype.Component;
+
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+import dev.coderkini.tailfin.accounts.domain.Transaction;
+import dev.coderkini.tailfin.commons.collections.LongHashSet;
+import dev.coderkini.tailfin.commons.jdbc.RepositoryProperties;
+import dev.coderkini.tailfin.commons.money.MinorAmount;
+import dev.coderkini.tailfin.commons.repository.BatchResult;
+
+/**
+ * <p>Inserts batches of transactions, reporting the transactions that cannot be inserted instead of failing the whole
+ * batch.</p>
+ *
+ * <p>Batches below the {@link RepositoryProperties#copyThreshold() copy threshold} are inserted with JDBC batches of
+ * {@link RepositoryProperties#batchSize() batch size} rows, each in a savepoint of its own. When a JDBC batch fails
+ * its rows are retried one at a time to single out the failing ones. Larger batches are streamed into a temporary
+ * staging table with {@code COPY} and moved into the {@code transactions} table with a single statement that skips
+ * duplicates and transactions of unknown accounts. Transactions whose amount does not fit the {@code amount} column
+ * are reported up front, as a numeric overflow would fail the whole {@code COPY}.</p>
+ *
+ * <p>Transactions in another currency than their source or target account are reported as failures too, up front
+ * for JDBC batches and by joining the staging table with the {@code accounts} table for {@code COPY}, rather than
+ * failing the update of the running balances once they are inserted.</p>
+ *
+ * <p>Transactions whose idempotency key has already been claimed in {@code transaction_idempotency_keys}, including
+ * by a concurrent batch, are not inserted and are reported as duplicates rather than failures.</p>
+ *
+ * <p>Must be called in a transaction, which the savepoints and the staging table are part of. The savepoints are set
+ * directly on the JDBC connection of the transaction rather than through nested transactions, which the
+ * {@code JpaTransactionManager} only supports when nested transactions are explicitly allowed.</p>
+ *
+ * @see JdbcTransactionRepository#saveAll(java.util.Collection)
+ */
+@Component
+class JdbcTransactionBatchWriter {
+    private static final String INSERT = JdbcTransactionRepository.INSERT;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    /**
+     * The digits before the decimal point that fit the {@code numeric(19, 2)} amounts of the {@code transactions}
+     * table.
+     */
+    private static final int AMOUNT_INTEGER_DIGITS = 19 - MinorAmount.SCALE;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final DataSource dataSource;
+    private final SQLExceptionTranslator exceptionTranslator;
+    private final int batchSize;
+    private final int copyThreshold;
+
+    /**
+     * Create a new JdbcTransactionBatchWriter instance.
+     *
+     * @param jdbc                  reference to the {@link NamedParameterJdbcTemplate} used to run the statements
+     * @param dataSource            reference to the {@link DataSource} the transactions are written to
+     * @param properties            reference to the {@link RepositoryProperties} holding the batch sizes
+     */
+    JdbcTransactionBatchWriter(NamedParameterJdbcTemplate jdbc,
+                               DataSource dataSource,
+                               RepositoryProperties properties) {
+        this.jdbc = jdbc;
+        this.dataSource = dataSource;
+        this.exceptionTranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+        this.batchSize = properties.batchSize();
+        this.copyThreshold = properties.copyThreshold();
+    }
+
+    /**
+     * Inserts the specified transactions.
+     *
+     * @param transactions  the transactions to insert
+     * @param saved         the list to which the inserted transactions are added
+     * @param duplicates    the list to which the transactions whose idempotency key was already saved are added
+     *
+     * @return the transactions that could not be inserted
+     */
+    List<BatchResult.Failure<Transaction>> write(List<Transaction> transactions,
+                                                 List<Transaction> saved,
+                                                 List<Transaction> duplicates) {
+        List<BatchResult.Failure<Transaction>> failures = new ArrayList<>();
+        List<Row> rows = new ArrayList<>(transactions.size());
+        boolean copy = transactions.size() >= copyThreshold;
+        // Copied transactions are checked against the currencies of their accounts by the statements moving them.
+        Map<Long, String> currencies = copy ? Map.of() : accountCurrencies(transactions);
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            String invalid = validate(transaction, currencies);
+            if (invalid != null) {
+                failures.add(new BatchResult.Failure<>(i, transaction, invalid));
+            } else {
+                rows.add(new Row(i, transaction));
+            }
+        }
+
+        if (copy) {
+            copy(rows, saved, duplicates, failures);
+        } else {
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                insert(rows.subList(from, Math.min(from + batchSize, rows.size())), saved, duplicates, failures);
+            }
+        }
+        failures.sort((a, b) -> Long.compare(a.index(), b.index()));
+        return failures;
+    }
+
+    private void insert(List<Row> rows,
+                        List<Transaction> saved,
+                        List<Transaction> duplicates,
+                        List<BatchResult.Failure<Transaction>> failures) {
+        try {
+            int[] inserted = inSavepoint(() -> jdbc.batchUpdate(INSERT, rows.stream()
+                    .map(row -> JdbcTransactionRepository.parameters(row.transaction()))
+                    .toArray(MapSqlParameterSource[]::new)));
+            for (int i = 0; i < rows.size(); i++) {
+                (inserted[i] == 0 ? duplicates : saved).add(rows.get(i).transaction());
+            }
+        } catch (DataAccessException batchFailure) {
+            for (Row row : rows) {
+                try {
+                    int inserted = inSavepoint(() ->
+                            jdbc.update(INSERT, JdbcTransactionRepository.parameters(row.transaction())));
+                    (inserted == 0 ? duplicates : saved).add(row.transaction());
+                } catch (DataAccessException e) {
+                    failures.add(new BatchResult.Failure<>(row.index(), row.transaction(),
+                            NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+                }
+            }
+        }
+    }
+
+    private void copy(List<Row> rows,
+                      List<Transaction> saved,
+                      List<Transaction> duplicates,
+                      List<BatchResult.Failure<Transaction>> failures) {
+        jdbc.getJdbcOperations().execute("create temporary table if not exists transactions_staging " +
+                "(like transactions including defaults, batch_index integer not null) on commit delete rows");
+        jdbc.getJdbcOperations().execute("truncate transactions_staging");
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn("copy transactions_staging (" +
+                    JdbcTransactionRepository.COLUMNS + ", batch_index) from stdin with (format csv)");
+            try {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream(COPY_BUFFER_SIZE);
+                for (Row row : rows) {
+                    buffer.writeBytes(csv(row));
+                    if (buffer.size() >= COPY_BUFFER_SIZE) {
+                        copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+                        buffer.reset();
+                    }
+                }
+                copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+                copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        } catch (SQLException e) {
+            throw translate("CopyTransactions", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+
+        String accepted = accepted("s");
+        Map<Long, String> rejected = new HashMap<>();
+        jdbc.query("select s.id, " + otherCurrency("s") + " from transactions_staging s where not (" + accepted + ")",
+                Map.of(),
+                rs -> {
+                    rejected.put(rs.getLong(1), rs.getBoolean(2)
+                            ? "Currency does not match the currency of the source or target account"
+                            : "Unknown source or target account");
+                });
+        // The keys are claimed first, as in JdbcTransactionRepository.INSERT, and only the staged transactions whose
+        // key was claimed by this statement, or that have none, are moved. Of the accepted transactions sharing a key
+        // only the first of the batch is moved, like a JDBC batch keeps the first.
+        LongHashSet inserted = new LongHashSet(rows.size());
+        jdbc.query("with claimed as (insert into transaction_idempotency_keys (idempotency_key) " +
+                        "select distinct s.idempotency_key from transactions_staging s " +
+                        "where s.idempotency_key is not null and " + accepted +
+                        " on conflict do nothing returning idempotency_key) " +
+                        "insert into transactions (" + JdbcTransactionRepository.COLUMNS + ") " +
+                        "select distinct on (s.id) " + JdbcTransactionRepository.COLUMNS +
+                        " from transactions_staging s where " + accepted +
+                        " and (s.idempotency_key is null " +
+                        "or s.idempotency_key in (select idempotency_key from claimed) " +
+                        "and s.batch_index = (select min(f.batch_index) from transactions_staging f " +
+                        "where f.idempotency_key = s.idempotency_key and " + accepted("f") + ")) " +
+                        "on conflict do nothing returning id",
+                Map.of(),
+                rs -> {
+                    inserted.add(rs.getLong(1));
+                });
+        for (Row row : rows) {
+            long id = row.transaction().getId().toLong();
+            if (inserted.remove(id)) {
+                saved.add(row.transaction());
+            } else if (rejected.containsKey(id)) {
+                failures.add(new BatchResult.Failure<>(row.index(), row.transaction(), rejected.get(id)));
+            } else {
+                duplicates.add(row.transaction());
+            }
+        }
+    }
+
+    /**
+     * Returns the condition that the staged transaction of the specified alias refers to known accounts of its own
+     * currency.
+     */
+    private static String accepted(String staged) {
+        return "(" + staged + ".source_account_id is null " +
+                "or exists (select 1 from accounts a where a.id = " + staged + ".source_account_id)) " +
+                "and (" + staged + ".target_account_id is null " +
+                "or exists (select 1 from accounts a where a.id = " + staged + ".target_account_id)) " +
+                "and not " + otherCurrency(staged);
+    }
+
+    private static String otherCurrency(String staged) {
+        return "exists (select 1 from accounts a where a.id in (" + staged + ".source_account_id, " + staged +
+                ".target_account_id) and a.currency <> " + staged + ".currency)";
+    }
+
+    /**
+     * Runs the specified statements in a savepoint of the current transaction, rolling back to the savepoint if they
+     * fail so that the transaction can go on.
+     */
+    private <T> T inSavepoint(Supplier<T> statements) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            if (!DataSourceUtils.isConnectionTransactional(connection, dataSource)) {
+                throw new IllegalStateException("Transactions must be written in a transaction");
+            }
+            Savepoint savepoint;
+            try {
+                savepoint = connection.setSavepoint();
+            } catch (SQLException e) {
+                throw translate("SetSavepoint", e);
+            }
+            T result;
+            try {
+                result = statements.get();
+            } catch (RuntimeException failure) {
+                try {
+                    connection.rollback(savepoint);
+                } catch (SQLException e) {
+                    failure.addSuppressed(e);
+                }
+                throw failure;
+            }
+            try {
+                connection.releaseSavepoint(savepoint);
+            } catch (SQLException e) {
+                throw translate("ReleaseSavepoint", e);
+            }
+            return result;
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private RuntimeException translate(String task, SQLException e) {
+        DataAccessException exception = exceptionTranslator.translate(task, null, e);
+        return exception != null ? exception : new IllegalStateException(e);
+    }
+
+    private static byte[] csv(Row row) {
+        Transaction transaction = row.transaction();
+        StringBuilder line = new StringBuilder(96)
+                .append(transaction.getId().toLong()).append(',')
+                .append(transaction.getType().getValue()).append(',');
+        if (transaction.getSourceAccountId() != null) {
+            line.append(transaction.getSourceAccountId().toLong());
+        }
+        line.append(',');
+        if (transaction.getTargetAccountId() != null) {
+            line.append(transaction.getTargetAccountId().toLong());
+        }
+        return line.append(',')
+                .append(transaction.getAmount().getNumber().numberValue(BigDecimal.class).toPlainString()).append(',')
+                .append(transaction.getAmount().getCurrency().getCurrencyCode()).append(',')
+                .append(transaction.getCreatedAt()).append(',')
+                .append(transaction.getIdempotencyKey() == null ? ""
+                        : '"' + transaction.getIdempotencyKey().value().replace("\"", "\"\"") + '"')
+                .append(',').append(row.index())
+                .append('\n')
+                .toString()
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Map<Long, String> accountCurrencies(List<Transaction> transactions) {
+        List<AccountId> accountIds = new ArrayList<>(2 * transactions.size());
+        for (Transaction transaction : transactions) {
+            accountIds.add(transaction.getSourceAccountId());
+            accountIds.add(transaction.getTargetAccountId());
+        }
+        Map<Long, String> currencies = new HashMap<>();
+        jdbc.query("select id, currency from accounts where id = any(:ids)",
+                new MapSqlParameterSource("ids", JdbcValues.toJdbcIds(accountIds)),
+                rs -> {
+                    currencies.put(rs.getLong("id"), rs.getString("currency"));
+                });
+        return currencies;
+    }
+
+    /**
+     * Returns why the specified transaction cannot be inserted, or null if it can. Accounts missing from the
+     * specified currencies are not checked.
+     */
+    private static String validate(Transaction transaction, Map<Long, String> currencies) {
+        if (transaction.getId() == null) {
+            return "Missing id";
+        }
+        if (transaction.getType() == null) {
+            return "Missing type";
+        }
+        if (transaction.getAmount() == null) {
+            return "Missing amount";
+        }
+        BigDecimal amount = transaction.getAmount().getNumber().numberValue(BigDecimal.class).stripTrailingZeros();
+        if (amount.scale() > MinorAmount.SCALE) {
+            return "Amount has more than " + MinorAmount.SCALE + " decimal places";
+        }
+        if (amount.precision() - amount.scale() > AMOUNT_INTEGER_DIGITS) {
+            return "Amount has more than " + AMOUNT_INTEGER_DIGITS + " digits before the decimal point";
+        }
+        if (transaction.getCreatedAt() == null) {
+            return "Missing creation date";
+        }
+        if (transaction.getSourceAccountId() == null && transaction.getTargetAccountId() == null) {
+            return "Missing source and target account";
+        }
+        String currency = transaction.getAmount().getCurrency().getCurrencyCode();
+        AccountId[] accountIds = {transaction.getSourceAccountId(), transaction.getTargetAccountId()};
+        for (AccountId accountId : accountIds) {
+            String accountCurrency = accountId == null ? null : currencies.get(accountId.toLong());
+            if (accountCurrency != null && !accountCurrency.equals(currency)) {
+                return "Currency " + currency + " does not match the currency " + accountCurrency + " of account " +
+                        accountId.value();
+            }
+        }
+        return null;
+    }
+
+    private record Row(int index, Transaction transaction) {
+    }
+}
@@ -0,0 +1,360 @@
+package dev.coderkini.tailfin.accounts.infrastructure;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryAmount;
+
+import org.javamoney.moneta.Money;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+import dev.coderkini.tailfin.accounts.domain.IdempotencyKey;
+import dev.coderkini.tailfin.accounts.domain.Transaction;
+import dev.coderkini.tailfin.accounts.domain.TransactionId;
+import dev.coderkini.tailfin.accounts.domain.TransactionRepository;
+import dev.coderkini.tailfin.accounts.domain.TransactionType;
+import dev.coderkini.tailfin.commons.jdbc.PreparedQuery;
+import dev.coderkini.tailfin.commons.jdbc.QueryCompiler;
+import dev.coderkini.tailfin.commons.jdbc.QueryTemplate;
+import dev.coderkini.tailfin.commons.jdbc.JdbcCursorTemplate;
+import dev.coderkini.tailfin.commons.jdbc.JdbcPageReader;
+import dev.coderkini.tailfin.commons.money.Currencies;
+import dev.coderkini.tailfin.commons.repository.BatchResult;
+import dev.coderkini.tailfin.commons.repository.ContinuationToken;
+import dev.coderkini.tailfin.commons.repository.PagedResult;
+import dev.coderkini.tailfin.commons.repository.PaginationMode;
+import dev.coderkini.tailfin.commons.repository.QueryConstraints;
+
+/**
+ * <p>{@link TransactionRepository} backed by the {@code transactions} table.</p>
+ *
+ * <p>A transaction belongs to both its source and its target account. Queries by account are split into one branch
+ * per side so that each branch is a range scan on the matching {@code (account, created_at, id)} index, which keeps
+ * keyset paginated pages equally cheap no matter how far the client has scrolled.</p>
+ *
+ * <p>Saving a transaction updates the running balances and the balance checkpoints of its accounts in the same unit of
+ * work, see {@link JdbcBalanceSnapshots} and {@link JdbcBalanceCheckpoints}.</p>
+ *
+ * <p>Batches of transactions are saved by {@link JdbcTransactionBatchWriter}, and the balances are then updated once
+ * for the whole batch.</p>
+ *
+ * <p>Saving is idempotent: a transaction whose {@link IdempotencyKey} has already been saved is skipped, which the
+ * primary key of the {@code transaction_idempotency_keys} table enforces, see {@link #INSERT}. Batches are checked
+ * against {@link JdbcIdempotencyFilter} first, so that re-importing an overlapping statement does not even attempt to
+ * insert the transactions seen before.</p>
+ *
+ * <p>The table is partitioned by the month of {@code created_at}, see {@link TransactionPartitions}. Date range queries
+ * bound {@code created_at} in both branches, and keyset paginated pages bound it by the continuation token, so only the
+ * partitions in range are scanned.</p>
+ *
+ * <p>{@link #streamByAccountId(AccountId)} streams its rows lazily from a server-side cursor. Pages are read and
+ * counted by {@link JdbcPageReader} from a server-side cursor as well, which streams offset paginated pages counted
+ * exactly and reads the others up to their lookahead row.</p>
+ *
+ * @see Transaction
+ * @see QueryCompiler
+ * @see JdbcCursorTemplate
+ */
+@Repository
+public class JdbcTransactionRepository implements TransactionRepository {
+    static final String COLUMNS =
+            "id, type, source_account_id, target_account_id, amount, currency, created_at, idempotency_key";
+
+    /**
+     * Inserts a transaction unless a transaction with the same idempotency key has already been saved, in which case no
+     * row is inserted. The key is claimed in {@code transaction_idempotency_keys} by the same statement, and the
+     * transaction is only inserted if the claim was. Unique indexes of the partitioned {@code transactions} table have
+     * to include {@code created_at}, so they cannot catch a key saved with another creation date. A concurrent insert
+     * of the same key waits for the claim of the other one to commit or roll back.
+     */
+    static final String INSERT = "with claimed as (insert into transaction_idempotency_keys (idempotency_key) " +
+            "select cast(:idempotencyKey as varchar) where cast(:idempotencyKey as varchar) is not null " +
+            "on conflict do nothing returning idempotency_key) " +
+            "insert into transactions (" + COLUMNS + ") select cast(:id as bigint), cast(:type as varchar), " +
+            "cast(:sourceAccountId as bigint), cast(:targetAccountId as bigint), cast(:amount as numeric), " +
+            "cast(:currency as char(3)), cast(:createdAt as timestamp), cast(:idempotencyKey as varchar) " +
+            "where cast(:idempotencyKey as varchar) is null or exists (select 1 from claimed)";
+
+    private static final RowMapper<Transaction> ROW_MAPPER = JdbcTransactionRepository::mapRow;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final JdbcCursorTemplate cursors;
+    private final QueryCompiler queries;
+    private final JdbcPageReader pages;
+    private final JdbcBalanceSnapshots balances;
+    private final JdbcBalanceCheckpoints checkpoints;
+    private final JdbcTransactionBatchWriter batchWriter;
+    private final JdbcIdempotencyFilter idempotencyFilter;
+
+    /**
+     * Create a new JdbcTransactionRepository instance.
+     *
+     * @param jdbc      reference to the {@link NamedParameterJdbcTemplate} used to run the queries
+     * @param cursors   reference to the {@link JdbcCursorTemplate} used to stream the results of the queries
+     * @param queries   reference to the {@link QueryCompiler} used to compile the constraints of the queries
+     * @param pages     reference to the {@link JdbcPageReader} used to read and count the pages of the queries
+     * @param balances      reference to the {@link JdbcBalanceSnapshots} holding the running balance of every account
+     * @param checkpoints   reference to the {@link JdbcBalanceCheckpoints} holding the balance changes of every account
+     * @param batchWriter   reference to the {@link JdbcTransactionBatchWriter} used to save batches of transactions
+     * @param idempotencyFilter reference to the {@link JdbcIdempotencyFilter} used to skip saved transactions
+     */
+    JdbcTransactionRepository(NamedParameterJdbcTemplate jdbc,
+                              JdbcCursorTemplate cursors,
+                              QueryCompiler queries,
+                              JdbcPageReader pages,
+                              JdbcBalanceSnapshots balances,
+                              JdbcBalanceCheckpoints checkpoints,
+                              JdbcTransactionBatchWriter batchWriter,
+                              JdbcIdempotencyFilter idempotencyFilter) {
+        this.jdbc = jdbc;
+        this.cursors = cursors;
+        this.queries = queries;
+        this.pages = pages;
+        this.balances = balances;
+        this.checkpoints = checkpoints;
+        this.batchWriter = batchWriter;
+        this.idempotencyFilter = idempotencyFilter;
+    }
+
+    @Override
+    public Transaction findById(TransactionId id) {
+        List<Transaction> transactions = jdbc.query("select " + COLUMNS + " from transactions where id = :id",
+                new MapSqlParameterSource("id", JdbcValues.toJdbc(id)),
+                ROW_MAPPER);
+        return transactions.isEmpty() ? null : transactions.getFirst();
+    }
+
+    @Override
+    public PagedResult<Transaction> findAll(QueryConstraints<Transaction> constraints) {
+        return findPage("findAll", "", new MapSqlParameterSource(), constraints, false);
+    }
+
+    @Override
+    public PagedResult<Transaction> findByAccountId(AccountId accountId, QueryConstraints<Transaction> constraints) {
+        return findPage("findByAccountId",
+                "",
+                new MapSqlParameterSource("accountId", JdbcValues.toJdbc(accountId)),
+                constraints,
+                true);
+    }
+
+    @Override
+    public PagedResult<Transaction> findByAccountAndDateRange(AccountId accountId,
+                                                              LocalDateTime startDate,
+                                                              LocalDateTime endDate,
+                                                              QueryConstraints<Transaction> constraints) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("accountId", JdbcValues.toJdbc(accountId))
+                .addValue("startDate", Timestamp.valueOf(startDate))
+                .addValue("endDate", Timestamp.valueOf(endDate));
+        return findPage("findByAccountAndDateRange",
+                " and created_at >= :startDate and created_at < :endDate",
+                parameters,
+                constraints,
+                true);
+    }
+
+    @Override
+    public Stream<Transaction> streamByAccountId(AccountId accountId) {
+        return cursors.queryForStream("select * from (select " + COLUMNS + " from transactions" +
+                        " where source_account_id = :accountId union all select " + COLUMNS + " from transactions" +
+                        " where target_account_id = :accountId and source_account_id is distinct from :accountId) t" +
+                        " order by created_at, id",
+                new MapSqlParameterSource("accountId", JdbcValues.toJdbc(accountId)),
+                ROW_MAPPER);
+    }
+
+    @Override
+    @Transactional
+    public void save(Transaction transaction) {
+        if (jdbc.update(INSERT, parameters(transaction)) == 0) {
+            return;
+        }
+        balances.apply(List.of(transaction));
+        checkpoints.apply(List.of(transaction));
+        idempotencyFilter.added(List.of(transaction));
+    }
+
+    @Override
+    @Transactional
+    public BatchResult<Transaction> saveAll(Collection<Transaction> transactions) {
+        Set<IdempotencyKey> seen = new HashSet<>(idempotencyFilter.findSaved(transactions));
+        List<Transaction> unseen = new ArrayList<>(transactions.size());
+        List<Integer> positions = new ArrayList<>(transactions.size());
+        long duplicates = 0;
+        int position = 0;
+        for (Transaction transaction : transactions) {
+            IdempotencyKey key = transaction.getIdempotencyKey();
+            if (key != null && !seen.add(key)) {
+                duplicates++;
+            } else {
+                unseen.add(transaction);
+                positions.add(position);
+            }
+            position++;
+        }
+
+        List<Transaction> saved = new ArrayList<>(unseen.size());
+        List<Transaction> skipped = new ArrayList<>();
+        List<BatchResult.Failure<Transaction>> failures = new ArrayList<>();
+        for (BatchResult.Failure<Transaction> failure : batchWriter.write(unseen, saved, skipped)) {
+            failures.add(new BatchResult.Failure<>(positions.get((int) failure.index()), failure.item(),
+                    failure.reason()));
+        }
+        balances.apply(saved);
+        checkpoints.apply(saved);
+        idempotencyFilter.added(saved);
+        return new BatchResult<>(saved.size(), duplicates + skipped.size(), failures);
+    }
+
+    @Override
+    public MonetaryAmount getAccountBalance(AccountId accountId) {
+        MonetaryAmount balance = balances.find(accountId);
+        return balance == null ? Money.zero(currencyOf(accountId)) : balance;
+    }
+
+    @Override
+    public Map<AccountId, MonetaryAmount> getAccountBalances() {
+        return balances.findAll();
+    }
+
+    @Override
+    public Map<AccountId, MonetaryAmount> getAccountBalances(Collection<AccountId> accountIds) {
+        return accountIds.isEmpty() ? Map.of() : balances.findAll(accountIds);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<AccountId, MonetaryAmount> lockAccountBalances(Collection<AccountId> accountIds) {
+        return accountIds.isEmpty() ? Map.of() : balances.lock(accountIds);
+    }
+
+    @Override
+    public MonetaryAmount getAccountBalance(AccountId accountId, LocalDateTime asOf) {
+        return Money.of(checkpoints.balanceAsOf(accountId, asOf), currencyOf(accountId));
+    }
+
+    @Override
+    public SortedMap<LocalDate, MonetaryAmount> getBalanceHistory(AccountId accountId,
+                                                                  LocalDate startDate,
+                                                                  LocalDate endDate) {
+        CurrencyUnit currency = currencyOf(accountId);
+        SortedMap<LocalDate, MonetaryAmount> history = new TreeMap<>();
+        checkpoints.closingBalances(accountId, startDate, endDate, currency)
+                .forEach((day, balance) -> history.put(day, balance.toMonetaryAmount()));
+        return history;
+    }
+
+    /**
+     * Returns the parameters to insert the specified transaction with.
+     *
+     * @param transaction reference to the {@link Transaction} to insert
+     *
+     * @return the parameters for the insert statement
+     */
+    static MapSqlParameterSource parameters(Transaction transaction) {
+        return new MapSqlParameterSource("id", JdbcValues.toJdbc(transaction.getId()))
+                .addValue("type", transaction.getType().getValue())
+                .addValue("sourceAccountId", JdbcValues.toJdbc(transaction.getSourceAccountId()))
+                .addValue("targetAccountId", JdbcValues.toJdbc(transaction.getTargetAccountId()))
+                .addValue("amount", transaction.getAmount().getNumber().numberValue(BigDecimal.class))
+                .addValue("currency", transaction.getAmount().getCurrency().getCurrencyCode())
+                .addValue("createdAt", Timestamp.valueOf(transaction.getCreatedAt()))
+                .addValue("idempotencyKey", JdbcValues.toJdbc(transaction.getIdempotencyKey()));
+    }
+
+    /**
+     * Maps the current row of the result set to a {@link Transaction}.
+     *
+     * @param rs        the result set positioned on the row to map
+     * @param rowNum    the number of the row
+     *
+     * @return reference to the mapped {@link Transaction}
+     *
+     * @throws SQLException if a column cannot be read
+     */
+    static Transaction mapRow(ResultSet rs, int rowNum) throws SQLException {
+        String idempotencyKey = rs.getString("idempotency_key");
+        return new Transaction(TransactionId.fromLong(rs.getLong("id")),
+                TransactionType.of(rs.getString("type")),
+                JdbcValues.toAccountId(rs.getObject("source_account_id", Long.class)),
+                JdbcValues.toAccountId(rs.getObject("target_account_id", Long.class)),
+                Money.of(rs.getBigDecimal("amount"), Currencies.of(rs.getString("currency"))),
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                idempotencyKey == null ? null : new IdempotencyKey(idempotencyKey));
+    }
+
+    private static QueryTemplate.Statements render(String conditions,
+                                                  QueryTemplate.Fragments fragments,
+                                                  boolean byAccount) {
+        String where = conditions + fragments.filters();
+        String seek = fragments.seek();
+        String orderBy = fragments.orderBy();
+        String paging = fragments.paging();
+        if (!byAccount) {
+            String from = " from transactions where true" + where;
+            return new QueryTemplate.Statements("select " + COLUMNS + from + seek + orderBy + paging,
+                    "select count(*)" + from);
+        }
+
+        String source = " from transactions where source_account_id = :accountId" + where;
+        String target = " from transactions where target_account_id = :accountId" +
+                " and source_account_id is distinct from :accountId" + where;
+        String sql;
+        if (fragments.mode() == PaginationMode.KEYSET) {
+            // Keyset pagination: each branch only needs to produce one page worth of rows for the merged page.
+            sql = "select * from ((select " + COLUMNS + source + seek + orderBy + paging + ") union all (" +
+                    "select " + COLUMNS + target + seek + orderBy + paging + ")) t" + orderBy + paging;
+        } else {
+            sql = "select * from (select " + COLUMNS + source + " union all select " + COLUMNS + target + ") t" +
+                    orderBy + paging;
+        }
+        return new QueryTemplate.Statements(sql,
+                "select (select count(*)" + source + ") + (select count(*)" + target + ")");
+    }
+
+    private CurrencyUnit currencyOf(AccountId accountId) {
+        MonetaryAmount balance = balances.find(accountId);
+        if (balance != null) {
+            return balance.getCurrency();
+        }
+        List<String> currencies = jdbc.queryForList("select currency from accounts where id = :accountId",
+                new MapSqlParameterSource("accountId", JdbcValues.toJdbc(accountId)),
+                String.class);
+        return currencies.isEmpty() ? Currencies.DEFAULT : Currencies.of(currencies.getFirst());
+    }
+
+    private PagedResult<Transaction> findPage(String query,
+                                              String conditions,
+                                              MapSqlParameterSource parameters,
+                                              QueryConstraints<Transaction> constraints,
+                                              boolean byAccount) {
+        PreparedQuery prepared = queries.prepare(EntityMappings.TRANSACTION,
+                query,
+                constraints,
+                fragments -> render(conditions, fragments, byAccount),
+                parameters);
+        return pages.read(prepared,
+                constraints,
+                ROW_MAPPER,
+                transaction -> new ContinuationToken(transaction.getCreatedAt(), transaction.getId().value()));
+    }
+}
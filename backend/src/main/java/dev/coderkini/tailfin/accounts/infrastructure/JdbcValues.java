@@ -0,0 +1,101 @@
+package dev.coderkini.tailfin.accounts.infrastructure;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Objects;
+import javax.money.MonetaryAmount;
+
+import io.hypersistence.tsid.TSID;
+import org.springframework.jdbc.core.support.SqlArrayValue;
+
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+import dev.coderkini.tailfin.accounts.domain.AccountType;
+import dev.coderkini.tailfin.accounts.domain.BankId;
+import dev.coderkini.tailfin.accounts.domain.IdempotencyKey;
+import dev.coderkini.tailfin.accounts.domain.IfsCode;
+import dev.coderkini.tailfin.accounts.domain.TransactionId;
+import dev.coderkini.tailfin.accounts.domain.TransactionType;
+
+/**
+ * Converts domain values to the values stored in the database.
+ */
+final class JdbcValues {
+    private JdbcValues() {
+    }
+
+    /**
+     * Returns the value to bind to a statement for the specified domain value.
+     *
+     * @param value the domain value
+     *
+     * @return the value to bind to a statement
+     */
+    static Object toJdbc(Object value) {
+        return switch (value) {
+            case null -> null;
+            case AccountId id -> id.toLong();
+            case BankId id -> id.toLong();
+            case TransactionId id -> id.toLong();
+            case TSID tsid -> tsid.toLong();
+            case TransactionType type -> type.getValue();
+            case AccountType type -> type.name();
+            case IfsCode ifsc -> ifsc.value();
+            case IdempotencyKey key -> key.value();
+            case MonetaryAmount amount -> amount.getNumber().numberValue(BigDecimal.class);
+            case LocalDateTime dateTime -> Timestamp.valueOf(dateTime);
+            default -> value;
+        };
+    }
+
+    /**
+     * Returns the {@code bigint[]} to bind to a statement for the specified identifiers, to be compared with
+     * {@code = any(...)}. Duplicates and nulls are left out.
+     *
+     * @param ids the identifiers
+     *
+     * @return the array to bind to a statement
+     */
+    static SqlArrayValue toJdbcIds(Collection<?> ids) {
+        return new SqlArrayValue("bigint", ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(JdbcValues::toJdbc)
+                .toArray());
+    }
+
+    /**
+     * Returns the {@code like} pattern matching the values that contain the specified text, with the wildcards and the
+     * escape character of the text escaped so they match literally.
+     *
+     * @param text the text to search for
+     *
+     * @return the pattern to bind to a statement
+     */
+    static String toContainsPattern(String text) {
+        return "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    /**
+     * Returns the value to bind to a statement for the specified identifier, or null if there is none.
+     *
+     * @param id reference to the {@link AccountId} to convert
+     *
+     * @return the value of the identifier, or null
+     */
+    static Long toJdbc(AccountId id) {
+        return id == null ? null : id.toLong();
+    }
+
+    /**
+     * Returns the {@link AccountId} for the specified value read from the database.
+     *
+     * @param value the stored value, may be null
+     *
+     * @return reference to the {@link AccountId}, or null
+     */
+    static AccountId toAccountId(Long value) {
+        return value == null ? null : AccountId.fromLong(value);
+    }
+}
@@ -0,0 +1,17 @@
+package dev.coderkini.tailfin.accounts.infrastructure;
+
+import java.time.YearMonth;
+
+/**
+ * Represents a monthly partition of the {@code transactions} table.
+ *
+ * @param name          The name of the partition table.
+ * @param schema        The schema of the partition table, {@code archive} once it is archived.
+ * @param month         The month whose transactions the partition holds, or null for the default partition.
+ * @param attached      Whether the partition is attached to the {@code transactions} table.
+ * @param estimatedRows The number of rows in the partition as estimated by the database statistics.
+ *
+ * @see TransactionPartitions
+ */
+public record TransactionPartition(String name, String schema, YearMonth month, boolean attached, long estimatedRows) {
+}
@@ -0,0 +1,80 @@
+package dev.coderkini.tailfin.accounts.infrastructure;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * <p>Creates the partitions of the {@code transactions} table ahead of the months they are needed in, so that new
+ * transactions never land in the default partition. Back-dated transactions of months that have no partition still
+ * do, so partitions are also created for the months held by the default partition, which moves them out of it.</p>
+ *
+ * <p>Runs once the application is ready, and then on the schedule of the {@code tailfin.partitions.maintenance-cron}
+ * property, daily by default. The number of months created ahead of the current month is set with the
+ * {@code tailfin.partitions.months-ahead} property.</p>
+ *
+ * @see TransactionPartitions
+ */
+@Component
+class TransactionPartitionMaintenance {
+    private static final Logger log = LoggerFactory.getLogger(TransactionPartitionMaintenance.class);
+
+    private final TransactionPartitions partitions;
+    private final int monthsAhead;
+
+    /**
+     * Create a new TransactionPartitionMaintenance instance.
+     *
+     * @param partitions    reference to the {@link TransactionPartitions} to maintain
+     * @param monthsAhead   the number of months to create partitions for ahead of the current month
+     */
+    TransactionPartitionMaintenance(TransactionPartitions partitions,
+                                    @Value("${tailfin.partitions.months-ahead:3}") int monthsAhead) {
+        this.partitions = partitions;
+        this.monthsAhead = monthsAhead;
+    }
+
+    /**
+     * Creates the partitions of the current month and the months ahead of it that do not exist yet, and of the months
+     * held by the default partition.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${tailfin.partitions.maintenance-cron:0 0 2 * * *}")
+    void createPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            create(current.plusMonths(i));
+        }
+        log.debug("Transactions partitions exist up to {}", current.plusMonths(monthsAhead));
+
+        List<YearMonth> backDated;
+        try {
+            backDated = partitions.defaultMonths();
+        } catch (RuntimeException e) {
+            log.error("Could not list the months held by the default transactions partition", e);
+            return;
+        }
+        for (YearMonth month : backDated) {
+            if (create(month)) {
+                log.info("Moved the back-dated transactions of {} out of the default partition", month);
+            }
+        }
+    }
+
+    private boolean create(YearMonth month) {
+        try {
+            partitions.create(month);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Could not create the transactions partition for {}", month, e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package dev.coderkini.tailfin.accounts.infrastructure;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * <p>Manages the monthly partitions of the {@code transactions} table.</p>
+ *
+ * <p>Partitions are named {@code transactions_yyyy_mm} and hold the transactions created in their month. A partition
+ * that is detached no longer takes part in any query of {@link JdbcTransactionRepository}, but its net change on every
+ * account is recorded in {@code archived_account_balances} first, so the running balances remain verifiable. Archived
+ * partitions are moved to the {@code archive} schema, from where they can be dumped and dropped. The idempotency keys
+ * of detached partitions stay claimed in {@code transaction_idempotency_keys}, so their transactions are not imported
+ * again.</p>
+ *
+ * @see TransactionPartitionMaintenance
+ * @see TransactionPartitionsEndpoint
+ */
+@Component
+class TransactionPartitions {
+    private static final Logger log = LoggerFactory.getLogger(TransactionPartitions.class);
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final String ARCHIVE_SCHEMA = "archive";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * Create a new TransactionPartitions instance.
+     *
+     * @param jdbc reference to the {@link NamedParameterJdbcTemplate} used to run the statements
+     */
+    TransactionPartitions(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Returns the partitions of the {@code transactions} table, attached or not, ordered by their month.
+     *
+     * @return the partitions
+     */
+    List<TransactionPartition> list() {
+        return jdbc.query("""
+                        select n.nspname, c.relname, c.relispartition, greatest(c.reltuples, 0)::bigint as rows
+                        from pg_class c
+                        join pg_namespace n on n.oid = c.relnamespace
+                        where c.relkind = 'r'
+                          and n.nspname in (current_schema(), 'archive')
+                          and (c.relname ~ '^transactions_[0-9]{4}_[0-9]{2}$' or c.relname = 'transactions_default')
+                        order by c.relname""",
+                Map.of(),
+                (rs, rowNum) -> new TransactionPartition(rs.getString("relname"),
+                        rs.getString("nspname"),
+                        monthOf(rs.getString("relname")),
+                        rs.getBoolean("relispartition"),
+                        rs.getLong("rows")));
+    }
+
+    /**
+     * Creates the partition of the specified month, unless it exists.
+     *
+     * @param month the month of the partition
+     *
+     * @return the name of the partition
+     */
+    String create(YearMonth month) {
+        return jdbc.queryForObject("select create_transactions_partition(:monthStart)",
+                new MapSqlParameterSource("monthStart", Date.valueOf(month.atDay(1))),
+                String.class);
+    }
+
+    /**
+     * Returns the months of the transactions held by the default partition that have no partition at all. The
+     * transactions of detached or archived months stay there until their partition is attached again.
+     *
+     * @return the months, in order
+     */
+    List<YearMonth> defaultMonths() {
+        return jdbc.query("""
+                        select month
+                        from (select distinct date_trunc('month', created_at)::date as month
+                              from transactions_default) m
+                        where to_regclass('transactions_' || to_char(month, 'YYYY_MM')) is null
+                          and to_regclass('archive.transactions_' || to_char(month, 'YYYY_MM')) is null
+                        order by month""",
+                Map.of(),
+                (rs, rowNum) -> YearMonth.from(rs.getDate("month").toLocalDate()));
+    }
+
+    /**
+     * Detaches the partition of the specified month from the {@code transactions} table, recording its net change on
+     * every account first.
+     *
+     * @param month the month of the partition
+     *
+     * @return the detached partition
+     *
+     * @throws IllegalArgumentException if the month has not ended yet, or its partition is not attached
+     */
+    @Transactional
+    TransactionPartition detach(YearMonth month) {
+        if (!month.isBefore(YearMonth.now())) {
+            throw new IllegalArgumentException("Only partitions of past months can be detached, not " + month);
+        }
+        TransactionPartition partition = find(month);
+        if (partition == null || !partition.attached()) {
+            throw new IllegalArgumentException("No attached transactions partition for " + month);
+        }
+        String name = partition.name();
+        jdbc.update("insert into archived_account_balances (account_id, partition_name, net_change, currency) " +
+                        "select account_id, :partitionName, sum(amount), min(currency) " +
+                        "from (select source_account_id as account_id, currency, -amount as amount from " + name +
+                        "      where source_account_id is not null " +
+                        "      union all " +
+                        "      select target_account_id, currency, amount from " + name +
+                        "      where target_account_id is not null) t " +
+                        "group by account_id",
+                new MapSqlParameterSource("partitionName", name));
+        jdbc.getJdbcOperations().execute("alter table transactions detach partition " + name);
+        log.info("Detached transactions partition {} with about {} rows", name, partition.estimatedRows());
+        return find(month);
+    }
+
+    /**
+     * Detaches the partition of the specified month, unless it is detached, and moves it to the {@code archive}
+     * schema.
+     *
+     * @param month the month of the partition
+     *
+     * @return the archived partition
+     *
+     * @throws IllegalArgumentException if the month has not ended yet, or it has no partition
+     */
+    @Transactional
+    TransactionPartition archive(YearMonth month) {
+        TransactionPartition partition = find(month);
+        if (partition == null) {
+            throw new IllegalArgumentException("No transactions partition for " + month);
+        }
+        if (partition.attached()) {
+            partition = detach(month);
+        }
+        if (!ARCHIVE_SCHEMA.equals(partition.schema())) {
+            jdbc.getJdbcOperations().execute("alter table " + partition.name() + " set schema " + ARCHIVE_SCHEMA);
+            log.info("Archived transactions partition {}", partition.name());
+        }
+        return find(month);
+    }
+
+    /**
+     * Attaches the detached or archived partition of the specified month to the {@code transactions} table again,
+     * removing its recorded net changes, and moves the transactions of the month saved in the meantime from the
+     * default partition into it.
+     *
+     * @param month the month of the partition
+     *
+     * @return the attached partition
+     *
+     * @throws IllegalArgumentException if the month has no partition
+     */
+    @Transactional
+    TransactionPartition attach(YearMonth month) {
+        TransactionPartition partition = find(month);
+        if (partition == null) {
+            throw new IllegalArgumentException("No transactions partition for " + month);
+        }
+        if (partition.attached()) {
+            return partition;
+        }
+        String name = partition.name();
+        if (ARCHIVE_SCHEMA.equals(partition.schema())) {
+            jdbc.getJdbcOperations().execute("alter table " + ARCHIVE_SCHEMA + "." + name +
+                    " set schema " + jdbc.queryForObject("select current_schema()", Map.of(), String.class));
+        }
+        // Transactions of the month saved while it was detached are in the default partition, which has to give them
+        // up before the partition can be attached.
+        LocalDate from = month.atDay(1);
+        String range = "created_at >= '" + from + "' and created_at < '" + from.plusMonths(1) + "'";
+        jdbc.getJdbcOperations().execute("alter table transactions detach partition transactions_default");
+        jdbc.getJdbcOperations().execute("alter table transactions attach partition " + name +
+                " for values from ('" + from + "') to ('" + from.plusMonths(1) + "')");
+        int moved = jdbc.update("with moved as (delete from transactions_default where " + range +
+                        " returning " + JdbcTransactionRepository.COLUMNS + ") " +
+                        "insert into transactions (" + JdbcTransactionRepository.COLUMNS + ") " +
+                        "select " + JdbcTransactionRepository.COLUMNS + " from moved",
+                Map.of());
+        jdbc.getJdbcOperations().execute("alter table transactions attach partition transactions_default default");
+        jdbc.update("delete from archived_account_balances where partition_name = :partitionName",
+                new MapSqlParameterSource("partitionName", name));
+        log.info("Attached transactions partition {}, moving {} rows from the default partition into it", name,
+                moved);
+        return find(month);
+    }
+
+    private TransactionPartition find(YearMonth month) {
+        String name = "transactions_" + month.format(SUFFIX);
+        return list().stream()
+                .filter(partition -> partition.name().equals(name))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static YearMonth monthOf(String name) {
+        return name.equals("transactions_default")
+                ? null
+                : YearMonth.parse(name.substring("transactions_".length()), SUFFIX);
+    }
+}
@@ -0,0 +1,71 @@
+package dev.coderkini.tailfin.accounts.infrastructure;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * <p>Actuator endpoint to inspect the monthly partitions of the {@code transactions} table, and to detach, archive or
+ * re-attach them.</p>
+ *
+ * <p>{@code GET /actuator/transactionpartitions} lists the partitions. {@code POST /actuator/transactionpartitions/
+ * {month}} with a body of {@code {"action": "detach"}}, {@code "archive"} or {@code "attach"} operates on the
+ * partition of the month, given as {@code yyyy-MM}.</p>
+ *
+ * @see TransactionPartitions
+ */
+@Component
+@Endpoint(id = "transactionpartitions")
+class TransactionPartitionsEndpoint {
+    private final TransactionPartitions partitions;
+
+    /**
+     * Create a new TransactionPartitionsEndpoint instance.
+     *
+     * @param partitions reference to the {@link TransactionPartitions} to operate on
+     */
+    TransactionPartitionsEndpoint(TransactionPartitions partitions) {
+        this.partitions = partitions;
+    }
+
+    /**
+     * Lists the partitions.
+     *
+     * @return the partitions, ordered by their month
+     */
+    @ReadOperation
+    public List<TransactionPartition> partitions() {
+        return partitions.list();
+    }
+
+    /**
+     * Detaches, archives or attaches the partition of the specified month.
+     *
+     * @param month     the month of the partition, as {@code yyyy-MM}
+     * @param action    one of {@code detach}, {@code archive} and {@code attach}
+     *
+     * @return the partition after the operation, or a bad request response if the arguments are invalid
+     */
+    @WriteOperation
+    public WebEndpointResponse<Object> operate(@Selector String month, String action) {
+        try {
+            YearMonth yearMonth = YearMonth.parse(month);
+            TransactionPartition partition = switch (action) {
+                case "detach" -> partitions.detach(yearMonth);
+                case "archive" -> partitions.archive(yearMonth);
+                case "attach" -> partitions.attach(yearMonth);
+                default -> throw new IllegalArgumentException("Unknown action " + action);
+            };
+            return new WebEndpointResponse<>(partition);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return new WebEndpointResponse<>(e.getMessage(), WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+    }
+}
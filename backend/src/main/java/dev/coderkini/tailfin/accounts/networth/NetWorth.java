@@ -0,0 +1,34 @@
+package dev.coderkini.tailfin.accounts.networth;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Represents the total of the balances of a set of accounts, converted to a single currency.
+ *
+ * @param currency  The currency of the total.
+ * @param total     The sum of the converted balances of every currency.
+ * @param holdings  The balances per currency, in the order of their currency code.
+ *
+ * @see NetWorthService
+ */
+public record NetWorth(String currency, BigDecimal total, List<Holding> holdings) {
+    /**
+     * Creates a new instance of {@link NetWorth}.
+     */
+    public NetWorth {
+        holdings = List.copyOf(holdings);
+    }
+
+    /**
+     * Represents the balances of the accounts in one currency.
+     *
+     * @param currency  The currency of the accounts.
+     * @param accounts  The number of accounts in the currency.
+     * @param balance   The sum of the balances of the accounts, in their currency.
+     * @param rate      The exchange rate the sum was converted at.
+     * @param converted The sum of the balances converted to the currency of the total.
+     */
+    public record Holding(String currency, int accounts, BigDecimal balance, BigDecimal rate, BigDecimal converted) {
+    }
+}
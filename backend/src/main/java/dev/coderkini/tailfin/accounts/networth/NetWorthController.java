@@ -0,0 +1,59 @@
+package dev.coderkini.tailfin.accounts.networth;
+
+import javax.money.CurrencyUnit;
+import javax.money.UnknownCurrencyException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import dev.coderkini.tailfin.commons.money.Currencies;
+import dev.coderkini.tailfin.commons.money.ExchangeRates;
+
+/**
+ * Exposes the net worth held across all accounts, converted to a single currency.
+ *
+ * @see NetWorthService
+ */
+@RestController
+@RequestMapping("/api/net-worth")
+public class NetWorthController {
+    private final NetWorthService netWorthService;
+    private final ExchangeRates exchangeRates;
+
+    /**
+     * Create a new NetWorthController instance.
+     *
+     * @param netWorthService   reference to the {@link NetWorthService} computing the net worth
+     * @param exchangeRates     reference to the {@link ExchangeRates} holding the base currency
+     */
+    public NetWorthController(NetWorthService netWorthService, ExchangeRates exchangeRates) {
+        this.netWorthService = netWorthService;
+        this.exchangeRates = exchangeRates;
+    }
+
+    /**
+     * Returns the net worth in the specified currency.
+     *
+     * @param currency  the code of the currency of the net worth, the base currency of the exchange rates if absent
+     *
+     * @return the net worth
+     */
+    @GetMapping
+    public NetWorth netWorth(@RequestParam(value = "currency", required = false) String currency) {
+        CurrencyUnit unit;
+        try {
+            unit = currency == null ? exchangeRates.baseCurrency() : Currencies.of(currency);
+        } catch (UnknownCurrencyException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown currency " + currency, e);
+        }
+        try {
+            return netWorthService.netWorth(unit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage(), e);
+        }
+    }
+}
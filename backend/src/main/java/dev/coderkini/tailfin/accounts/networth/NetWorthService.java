@@ -0,0 +1,132 @@
+package dev.coderkini.tailfin.accounts.networth;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryAmount;
+
+import org.springframework.stereotype.Service;
+
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+import dev.coderkini.tailfin.accounts.domain.AccountRepository;
+import dev.coderkini.tailfin.accounts.domain.TransactionRepository;
+import dev.coderkini.tailfin.commons.money.ExchangeRates;
+import dev.coderkini.tailfin.commons.money.MinorAmount;
+
+/**
+ * <p>Computes the net worth held in accounts of different currencies. The balance of an account is the initial
+ * balance it was opened with plus the running balance of its transactions, so accounts without transactions count
+ * with their initial balance.</p>
+ *
+ * <p>The balances are summed up per currency in minor units first, and each sum is then converted once at the rate
+ * of its currency, so the cost of the conversions depends on the number of currencies and not on the number of
+ * accounts. The rates are taken from the local {@link ExchangeRates} table.</p>
+ *
+ * @see NetWorth
+ */
+@Service
+public class NetWorthService {
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final ExchangeRates exchangeRates;
+
+    /**
+     * Create a new NetWorthService instance.
+     *
+     * @param accountRepository     reference to the {@link AccountRepository} holding the initial balances
+     * @param transactionRepository reference to the {@link TransactionRepository} holding the running balances
+     * @param exchangeRates         reference to the {@link ExchangeRates} used to convert between currencies
+     */
+    public NetWorthService(AccountRepository accountRepository,
+                           TransactionRepository transactionRepository,
+                           ExchangeRates exchangeRates) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.exchangeRates = exchangeRates;
+    }
+
+    /**
+     * Returns the net worth of every account in the specified currency.
+     *
+     * @param currency  the currency of the net worth
+     *
+     * @return the net worth
+     *
+     * @throws IllegalArgumentException if there is no exchange rate for the currency or a currency of an account
+     * @throws ArithmeticException      if a balance has more decimal places than its currency or a sum overflows
+     */
+    public NetWorth netWorth(CurrencyUnit currency) {
+        Map<AccountId, MonetaryAmount> runningBalances = transactionRepository.getAccountBalances();
+        Map<CurrencyUnit, Sum> sums = new TreeMap<>();
+        accountRepository.getInitialBalances().forEach((accountId, initialBalance) -> {
+            sums.computeIfAbsent(initialBalance.getCurrency(), unit -> new Sum())
+                    .add(MinorAmount.toUnits(initialBalance));
+            MonetaryAmount runningBalance = runningBalances.get(accountId);
+            if (runningBalance != null) {
+                sums.computeIfAbsent(runningBalance.getCurrency(), unit -> new Sum())
+                        .include(MinorAmount.toUnits(runningBalance));
+            }
+        });
+        return convert(sums, currency);
+    }
+
+    /**
+     * Returns the total of the specified balances in the specified currency.
+     *
+     * @param balances  the balances of the accounts
+     * @param currency  the currency of the total
+     *
+     * @return the total of the balances
+     *
+     * @throws IllegalArgumentException if there is no exchange rate for the currency or a currency of a balance
+     * @throws ArithmeticException      if a balance has more decimal places than its currency or a sum overflows
+     */
+    public NetWorth total(Collection<? extends MonetaryAmount> balances, CurrencyUnit currency) {
+        Map<CurrencyUnit, Sum> sums = new TreeMap<>();
+        for (MonetaryAmount balance : balances) {
+            sums.computeIfAbsent(balance.getCurrency(), unit -> new Sum()).add(MinorAmount.toUnits(balance));
+        }
+        return convert(sums, currency);
+    }
+
+    /**
+     * Converts the sums of every currency once and adds them up.
+     */
+    private NetWorth convert(Map<CurrencyUnit, Sum> sums, CurrencyUnit currency) {
+        long total = 0;
+        List<NetWorth.Holding> holdings = new ArrayList<>(sums.size());
+        for (Map.Entry<CurrencyUnit, Sum> entry : sums.entrySet()) {
+            MinorAmount balance = new MinorAmount(entry.getValue().units, entry.getKey());
+            BigDecimal rate = exchangeRates.rate(entry.getKey(), currency);
+            MinorAmount converted = ExchangeRates.convert(balance, currency, rate);
+            total = MinorAmount.add(total, converted.units());
+            holdings.add(new NetWorth.Holding(entry.getKey().getCurrencyCode(), entry.getValue().accounts,
+                    balance.toDecimal(), rate, converted.toDecimal()));
+        }
+        return new NetWorth(currency.getCurrencyCode(), MinorAmount.toDecimal(total, currency), holdings);
+    }
+
+    /**
+     * The running sum of the balances in one currency.
+     */
+    private static final class Sum {
+        private long units;
+        private int accounts;
+
+        private void add(long balance) {
+            include(balance);
+            accounts++;
+        }
+
+        /**
+         * Adds to the sum without counting another account, for the running balance of an account already counted.
+         */
+        private void include(long balance) {
+            units = MinorAmount.add(units, balance);
+        }
+    }
+}
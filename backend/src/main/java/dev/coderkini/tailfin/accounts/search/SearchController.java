@@ -0,0 +1,49 @@
+package dev.coderkini.tailfin.accounts.search;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Exposes the search of accounts and banks by the text they contain.
+ *
+ * @see SearchService
+ */
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+    private final SearchService searchService;
+    private final SearchProperties properties;
+
+    /**
+     * Create a new SearchController instance.
+     *
+     * @param searchService reference to the {@link SearchService} running the searches
+     * @param properties    reference to the {@link SearchProperties} holding the maximum number of results
+     */
+    public SearchController(SearchService searchService, SearchProperties properties) {
+        this.searchService = searchService;
+        this.properties = properties;
+    }
+
+    /**
+     * Returns the accounts and banks containing the specified text.
+     *
+     * @param query the text to search for, case-insensitive
+     * @param limit the maximum number of accounts, and of banks, to return, capped at the configured maximum
+     *
+     * @return the matching accounts and banks, most similar first
+     */
+    @GetMapping
+    public SearchResults search(@RequestParam("q") String query,
+                                @RequestParam(value = "limit", required = false) Integer limit) {
+        try {
+            return searchService.search(query, limit == null ? properties.maxResults() : limit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package dev.coderkini.tailfin.accounts.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the search of accounts and banks, bound from the {@code tailfin.search} properties.
+ *
+ * @param maxResults    The maximum number of accounts, and of banks, returned by a search.
+ * @param minLength     The minimum number of characters of the searched text. Shorter texts have no trigram to look
+ *                      up, so their search would read the whole trigram index.
+ */
+@ConfigurationProperties("tailfin.search")
+public record SearchProperties(@DefaultValue("20") int maxResults,
+                               @DefaultValue("3") int minLength) {
+}
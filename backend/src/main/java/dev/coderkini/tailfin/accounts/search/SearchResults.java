@@ -0,0 +1,44 @@
+package dev.coderkini.tailfin.accounts.search;
+
+import java.util.List;
+
+/**
+ * Represents the accounts and banks matching a searched text.
+ *
+ * @param accounts  The accounts whose display name or number contains the text, most similar first.
+ * @param banks     The banks whose name or branch name contains the text, most similar first.
+ *
+ * @see SearchService
+ */
+public record SearchResults(List<AccountMatch> accounts, List<BankMatch> banks) {
+    /**
+     * Creates a new instance of {@link SearchResults}.
+     */
+    public SearchResults {
+        accounts = List.copyOf(accounts);
+        banks = List.copyOf(banks);
+    }
+
+    /**
+     * Represents an account matching the searched text.
+     *
+     * @param id            The id of the account.
+     * @param type          The type of the account.
+     * @param number        The account number.
+     * @param displayName   The display name of the account.
+     * @param bankId        The id of the bank of the account, or null if it has none.
+     */
+    public record AccountMatch(String id, String type, String number, String displayName, String bankId) {
+    }
+
+    /**
+     * Represents a bank matching the searched text.
+     *
+     * @param id            The id of the bank.
+     * @param name          The name of the bank.
+     * @param branchName    The name of the branch.
+     * @param ifsc          The IFS code of the branch.
+     */
+    public record BankMatch(String id, String name, String branchName, String ifsc) {
+    }
+}
@@ -0,0 +1,78 @@
+package dev.coderkini.tailfin.accounts.search;
+
+import org.springframework.stereotype.Service;
+
+import dev.coderkini.tailfin.accounts.domain.Account;
+import dev.coderkini.tailfin.accounts.domain.AccountRepository;
+import dev.coderkini.tailfin.accounts.domain.Bank;
+import dev.coderkini.tailfin.accounts.domain.BankRepository;
+
+/**
+ * <p>Searches accounts by display name and number, and banks by name and branch name, for a text they contain.</p>
+ *
+ * <p>The searches are substring searches that ignore case, served by the trigram indexes of the searched columns so
+ * they stay index scans on large tables, and rank the matches by the word similarity of the best matching column to
+ * the text.</p>
+ *
+ * @see SearchResults
+ */
+@Service
+public class SearchService {
+    private final AccountRepository accountRepository;
+    private final BankRepository bankRepository;
+    private final SearchProperties properties;
+
+    /**
+     * Create a new SearchService instance.
+     *
+     * @param accountRepository reference to the {@link AccountRepository} holding the accounts
+     * @param bankRepository    reference to the {@link BankRepository} holding the banks
+     * @param properties        reference to the {@link SearchProperties} holding the limits of a search
+     */
+    public SearchService(AccountRepository accountRepository,
+                         BankRepository bankRepository,
+                         SearchProperties properties) {
+        this.accountRepository = accountRepository;
+        this.bankRepository = bankRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * Returns the accounts and banks containing the specified text.
+     *
+     * @param text  the text to search for, matched literally and ignoring case
+     * @param limit the maximum number of accounts, and of banks, to return, capped at the configured maximum
+     *
+     * @return the matching accounts and banks, most similar first
+     *
+     * @throws IllegalArgumentException if the text is shorter than the configured minimum or the limit is not positive
+     */
+    public SearchResults search(String text, int limit) {
+        String trimmed = text == null ? "" : text.strip();
+        if (trimmed.length() < properties.minLength()) {
+            throw new IllegalArgumentException("Search text must have at least " + properties.minLength() +
+                    " characters");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Search limit must be positive");
+        }
+        int capped = Math.min(limit, properties.maxResults());
+        return new SearchResults(accountRepository.search(trimmed, capped).stream().map(SearchService::match).toList(),
+                bankRepository.search(trimmed, capped).stream().map(SearchService::match).toList());
+    }
+
+    private static SearchResults.AccountMatch match(Account account) {
+        return new SearchResults.AccountMatch(account.getId().value().toString(),
+                account.getType().name(),
+                account.getNumber(),
+                account.getDisplayName(),
+                account.getBankId() == null ? null : account.getBankId().value().toString());
+    }
+
+    private static SearchResults.BankMatch match(Bank bank) {
+        return new SearchResults.BankMatch(bank.getId().value().toString(),
+                bank.getName(),
+                bank.getBranchName(),
+                bank.getIfsc().value());
+    }
+}
@@ -0,0 +1,15 @@
+package dev.coderkini.tailfin.accounts.transfers;
+
+/**
+ * Thrown when a transfer would overdraw an account that cannot be overdrawn.
+ */
+public class InsufficientFundsException extends RuntimeException {
+    /**
+     * Create a new InsufficientFundsException instance with the specified message.
+     *
+     * @param message   The account, its balance and the amount that could not be transferred.
+     */
+    public InsufficientFundsException(String message) {
+        super(message);
+    }
+}
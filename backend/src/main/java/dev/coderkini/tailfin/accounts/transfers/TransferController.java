@@ -0,0 +1,108 @@
+package dev.coderkini.tailfin.accounts.transfers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import javax.money.UnknownCurrencyException;
+
+import org.javamoney.moneta.Money;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+import dev.coderkini.tailfin.accounts.domain.Transaction;
+import dev.coderkini.tailfin.commons.money.Currencies;
+
+/**
+ * Exposes the posting of transfers between accounts.
+ *
+ * @see TransferService
+ */
+@RestController
+@RequestMapping("/api/transfers")
+public class TransferController {
+    private final TransferService transferService;
+
+    /**
+     * Create a new TransferController instance.
+     *
+     * @param transferService   reference to the {@link TransferService} posting the transfers
+     */
+    public TransferController(TransferService transferService) {
+        this.transferService = transferService;
+    }
+
+    /**
+     * Transfers an amount from one account to another.
+     *
+     * @param request   the accounts and the amount of the transfer
+     *
+     * @return the posted transfer
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public TransferReceipt transfer(@RequestBody TransferRequest request) {
+        Transaction transaction;
+        try {
+            if (request.sourceAccountId() == null || request.targetAccountId() == null || request.amount() == null
+                    || request.currency() == null) {
+                throw new IllegalArgumentException("A transfer needs a source account, a target account, an amount " +
+                        "and a currency");
+            }
+            transaction = transferService.transfer(AccountId.fromString(request.sourceAccountId()),
+                    AccountId.fromString(request.targetAccountId()),
+                    Money.of(request.amount(), Currencies.of(request.currency())));
+        } catch (UnknownCurrencyException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown currency " + request.currency(), e);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (InsufficientFundsException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        } catch (CannotAcquireLockException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
+        }
+        return new TransferReceipt(transaction.getId().value().toString(),
+                request.sourceAccountId(),
+                request.targetAccountId(),
+                transaction.getAmount().getNumber().numberValue(BigDecimal.class),
+                transaction.getAmount().getCurrency().getCurrencyCode(),
+                transaction.getCreatedAt());
+    }
+
+    /**
+     * Represents a transfer to post.
+     *
+     * @param sourceAccountId   The id of the account to debit.
+     * @param targetAccountId   The id of the account to credit.
+     * @param amount            The amount to transfer.
+     * @param currency          The currency of the amount, which must be the currency of both accounts.
+     */
+    public record TransferRequest(String sourceAccountId,
+                                  String targetAccountId,
+                                  BigDecimal amount,
+                                  String currency) {
+    }
+
+    /**
+     * Represents a posted transfer.
+     *
+     * @param id                The id of the transaction of the transfer.
+     * @param sourceAccountId   The id of the debited account.
+     * @param targetAccountId   The id of the credited account.
+     * @param amount            The transferred amount.
+     * @param currency          The currency of the amount.
+     * @param createdAt         When the transfer was posted.
+     */
+    public record TransferReceipt(String id,
+                                  String sourceAccountId,
+                                  String targetAccountId,
+                                  BigDecimal amount,
+                                  String currency,
+                                  LocalDateTime createdAt) {
+    }
+}
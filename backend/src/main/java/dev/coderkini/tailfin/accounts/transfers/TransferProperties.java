@@ -0,0 +1,18 @@
+package dev.coderkini.tailfin.accounts.transfers;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the transfers between accounts, bound from the {@code tailfin.transfers} properties.
+ *
+ * @param lockStripes   The number of in-process locks the accounts are striped over, rounded up to a power of two.
+ *                      Transfers between accounts of different stripes never wait for each other.
+ * @param lockTimeout   How long a transfer waits for the locks of its accounts before it fails.
+ */
+@ConfigurationProperties("tailfin.transfers")
+public record TransferProperties(@DefaultValue("1024") int lockStripes,
+                                 @DefaultValue("5s") Duration lockTimeout) {
+}
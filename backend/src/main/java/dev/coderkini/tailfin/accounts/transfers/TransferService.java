@@ -0,0 +1,207 @@
+package dev.coderkini.tailfin.accounts.transfers;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import javax.money.MonetaryAmount;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import dev.coderkini.tailfin.accounts.domain.Account;
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+import dev.coderkini.tailfin.accounts.domain.AccountRepository;
+import dev.coderkini.tailfin.accounts.domain.AccountType;
+import dev.coderkini.tailfin.accounts.domain.Transaction;
+import dev.coderkini.tailfin.accounts.domain.TransactionId;
+import dev.coderkini.tailfin.accounts.domain.TransactionRepository;
+import dev.coderkini.tailfin.accounts.domain.TransactionType;
+import dev.coderkini.tailfin.commons.concurrent.StripedLocks;
+import dev.coderkini.tailfin.commons.money.MinorAmount;
+
+/**
+ * <p>Posts transfers between two accounts: a single {@link TransactionType#TRANSFER} transaction that debits the
+ * source account and credits the target account in the same unit of work, so the total of the balances never
+ * changes and no transfer is ever half posted.</p>
+ *
+ * <p>A transfer must not overdraw its source account, unless the account is a credit card or a loan, whose balances
+ * are what is owed. The balance of an account is its initial balance plus the running balance of its
+ * transactions. Checking the balance and posting the transfer have to happen atomically, so every transfer holds
+ * the locks of both of its accounts while it posts:</p>
+ *
+ * <ul>
+ *     <li>In-process, the accounts are striped over {@link TransferProperties#lockStripes() lock stripes} with
+ *     {@link StripedLocks}, acquired in the order of their stripes. Transfers of the same accounts wait for each other
+ *     without holding a connection, and transfers of unrelated accounts never contend, except for the rare accounts
+ *     that share a stripe.</li>
+ *     <li>In the database, the balances of both accounts are locked in the order of their accounts with
+ *     {@link TransactionRepository#lockAccountBalances(java.util.Collection)}, which keeps transfers posted by other
+ *     instances of the application consistent as well.</li>
+ * </ul>
+ *
+ * <p>As both sets of locks are always acquired in the same global order, two transfers in opposite directions between
+ * the same accounts cannot deadlock. The locks are released once the transfer is committed, in a transaction of its
+ * own, so the next transfer of the same accounts sees its balances.</p>
+ *
+ * <p>The posted and rejected transfers and the contended and timed out lock acquisitions are published as the
+ * {@code tailfin.transfers.*} metrics.</p>
+ */
+@Service
+public class TransferService implements MeterBinder {
+    private static final Set<AccountType> OVERDRAWABLE = EnumSet.of(AccountType.CREDIT_CARD, AccountType.LOAN);
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactions;
+    private final StripedLocks locks;
+    private final TransferProperties properties;
+    private final LongAdder posted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Create a new TransferService instance.
+     *
+     * @param accountRepository     reference to the {@link AccountRepository} holding the accounts
+     * @param transactionRepository reference to the {@link TransactionRepository} the transfers are posted to
+     * @param transactionManager    reference to the {@link PlatformTransactionManager} each transfer is posted with
+     * @param properties            reference to the {@link TransferProperties} holding the stripes and timeout of the
+     *                              locks
+     */
+    public TransferService(AccountRepository accountRepository,
+                           TransactionRepository transactionRepository,
+                           PlatformTransactionManager transactionManager,
+                           TransferProperties properties) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.locks = new StripedLocks(properties.lockStripes());
+        this.properties = properties;
+    }
+
+    /**
+     * Transfers the specified amount from the source account to the target account.
+     *
+     * @param sourceAccountId   the account to debit
+     * @param targetAccountId   the account to credit
+     * @param amount            the amount to transfer, in the currency of both accounts
+     *
+     * @return the posted transaction
+     *
+     * @throws IllegalArgumentException                             if an account does not exist, the accounts are
+     *                                                              the same, the amount is not positive, has more than
+     *                                                              two decimal places or is not in the currency of
+     *                                                              both accounts
+     * @throws InsufficientFundsException                           if the transfer would overdraw the source account
+     * @throws org.springframework.dao.CannotAcquireLockException   if the accounts could not be locked in time
+     */
+    public Transaction transfer(AccountId sourceAccountId, AccountId targetAccountId, MonetaryAmount amount) {
+        if (sourceAccountId == null || targetAccountId == null || amount == null) {
+            throw new IllegalArgumentException("A transfer needs a source account, a target account and an amount");
+        }
+        if (sourceAccountId.equals(targetAccountId)) {
+            throw new IllegalArgumentException("Cannot transfer from account " + sourceAccountId.value() +
+                    " to itself");
+        }
+        MinorAmount units;
+        try {
+            units = MinorAmount.of(amount);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid transfer amount " + amount, e);
+        }
+        if (units.signum() <= 0) {
+            throw new IllegalArgumentException("Transfer amount must be positive, got " + amount);
+        }
+
+        StripedLocks.Held held;
+        try {
+            held = locks.lock(properties.lockTimeout(), sourceAccountId.toLong(), targetAccountId.toLong());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotAcquireLockException("Interrupted while locking accounts " + sourceAccountId.value() +
+                    " and " + targetAccountId.value(), e);
+        }
+        if (held == null) {
+            throw new CannotAcquireLockException("Could not lock accounts " + sourceAccountId.value() + " and " +
+                    targetAccountId.value() + " within " + properties.lockTimeout());
+        }
+        try (held) {
+            Transaction transaction = transactions.execute(status ->
+                    post(sourceAccountId, targetAccountId, amount, units));
+            posted.increment();
+            return transaction;
+        } catch (IllegalArgumentException | InsufficientFundsException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Posts a transfer while its accounts are locked in-process, within the transaction of the transfer.
+     */
+    private Transaction post(AccountId sourceAccountId,
+                             AccountId targetAccountId,
+                             MonetaryAmount amount,
+                             MinorAmount units) {
+        Map<AccountId, Account> accounts = accountRepository.findAllByIds(List.of(sourceAccountId, targetAccountId));
+        Account source = existing(accounts, sourceAccountId);
+        Account target = existing(accounts, targetAccountId);
+        for (Account account : List.of(source, target)) {
+            if (!account.getCurrency().equals(amount.getCurrency())) {
+                throw new IllegalArgumentException("Cannot transfer " + amount.getCurrency() + " to or from account " +
+                        account.getId().value() + " in " + account.getCurrency());
+            }
+        }
+
+        // The balance of an account is the initial balance it was opened with plus the running balance of its
+        // transactions.
+        MonetaryAmount runningBalance = transactionRepository.lockAccountBalances(
+                List.of(sourceAccountId, targetAccountId)).get(sourceAccountId);
+        MinorAmount available = MinorAmount.of(source.getBalance());
+        if (runningBalance != null) {
+            available = available.plus(MinorAmount.of(runningBalance));
+        }
+        if (!OVERDRAWABLE.contains(source.getType()) && available.compareTo(units) < 0) {
+            throw new InsufficientFundsException("Account " + sourceAccountId.value() + " has a balance of " +
+                    available + ", cannot transfer " + amount);
+        }
+
+        Transaction transaction = new Transaction(TransactionId.generate(), TransactionType.TRANSFER, sourceAccountId,
+                targetAccountId, units.toMonetaryAmount(), LocalDateTime.now());
+        transactionRepository.save(transaction);
+        return transaction;
+    }
+
+    private static Account existing(Map<AccountId, Account> accounts, AccountId id) {
+        Account account = accounts.get(id);
+        if (account == null) {
+            throw new IllegalArgumentException("Unknown account " + id.value());
+        }
+        return account;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("tailfin.transfers.posted", posted, LongAdder::sum)
+                .description("Transfers posted")
+                .register(registry);
+        FunctionCounter.builder("tailfin.transfers.rejected", rejected, LongAdder::sum)
+                .description("Transfers rejected for an unknown account, a currency mismatch or insufficient funds")
+                .register(registry);
+        FunctionCounter.builder("tailfin.transfers.lock.contended", locks, StripedLocks::contended)
+                .description("Account lock stripes that were held by another transfer when a transfer needed them")
+                .register(registry);
+        FunctionCounter.builder("tailfin.transfers.lock.timeouts", locks, StripedLocks::timeouts)
+                .description("Transfers that gave up waiting for the locks of their accounts")
+                .register(registry);
+    }
+}
@@ -0,0 +1,125 @@
+package dev.coderkini.tailfin.commons.collections;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>A space-efficient probabilistic set of strings. {@link #mightContain(String)} never returns false for a string
+ * that was added, and returns true for a string that was not added with about the false positive probability the
+ * filter was sized for, as long as no more strings than expected were added.</p>
+ *
+ * <p>Strings cannot be removed. The filter is thread-safe and does not lock.</p>
+ */
+public final class BloomFilter {
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final long expectedInsertions;
+    private final AtomicLong insertions = new AtomicLong();
+
+    /**
+     * Creates a new instance of {@link BloomFilter}.
+     *
+     * @param expectedInsertions        The number of strings the filter is sized for.
+     * @param falsePositiveProbability  The false positive probability once the expected number of strings is added.
+     *
+     * @throws IllegalArgumentException If the expected insertions are not positive or the probability is not
+     *                                  between zero and one.
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException("Expected insertions must be positive");
+        }
+        if (!(falsePositiveProbability > 0 && falsePositiveProbability < 1)) {
+            throw new IllegalArgumentException("False positive probability must be between 0 and 1");
+        }
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (LN2 * LN2));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (optimalBits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bits = wordCount * 64L;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * LN2));
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    /**
+     * Adds the specified string to the filter.
+     *
+     * @param value The string to add.
+     */
+    public void add(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            while (((current = words.get(word)) & mask) == 0) {
+                if (words.compareAndSet(word, current, current | mask)) {
+                    break;
+                }
+            }
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * Returns whether the specified string might have been added to the filter.
+     *
+     * @param value The string to look up.
+     *
+     * @return  false if the string was definitely not added, true if it might have been.
+     */
+    public boolean mightContain(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether more strings were added than the filter was sized for, in which case its false positive
+     * probability is higher than requested.
+     *
+     * @return  true if the filter is saturated.
+     */
+    public boolean isSaturated() {
+        return insertions.get() > expectedInsertions;
+    }
+
+    /**
+     * Returns the number of strings added to the filter, counting strings added more than once every time.
+     *
+     * @return  The number of insertions.
+     */
+    public long insertions() {
+        return insertions.get();
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes of the string, finished with a mixing step so that every bit of the result
+     * depends on every byte of the string.
+     */
+    private static long hash(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,193 @@
+package dev.coderkini.tailfin.commons.collections;
+
+import java.util.function.LongConsumer;
+
+/**
+ * <p>A set of primitive longs, stored in an open-addressing table with linear probing. Compared with a
+ * {@code HashSet<Long>}, it stores each element in eight bytes of a single array instead of a boxed {@link Long} and
+ * a map entry, which suits the sets of ids used to deduplicate and look up large numbers of rows.</p>
+ *
+ * <p>The set is not thread-safe.</p>
+ *
+ * @see LongObjectHashMap
+ */
+public class LongHashSet {
+    private long[] keys;
+    private boolean hasZero;
+    private int assigned;
+    private int mask;
+    private int resizeAt;
+
+    /**
+     * Creates a new, empty instance of {@link LongHashSet}.
+     */
+    public LongHashSet() {
+        this(0);
+    }
+
+    /**
+     * Creates a new, empty instance of {@link LongHashSet} that holds the specified number of elements without being
+     * resized.
+     *
+     * @param expectedSize  The expected number of elements.
+     */
+    public LongHashSet(int expectedSize) {
+        allocate(LongHashing.capacity(expectedSize));
+    }
+
+    /**
+     * Adds the specified element to the set.
+     *
+     * @param key   The element to add.
+     *
+     * @return  true if the set did not contain the element.
+     */
+    public boolean add(long key) {
+        if (key == 0) {
+            boolean added = !hasZero;
+            hasZero = true;
+            return added;
+        }
+        int slot = LongHashing.slot(key, mask);
+        long existing;
+        while ((existing = keys[slot]) != 0) {
+            if (existing == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        if (++assigned >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the set contains the specified element.
+     *
+     * @param key   The element to look up.
+     *
+     * @return  true if the set contains the element.
+     */
+    public boolean contains(long key) {
+        return key == 0 ? hasZero : find(key) >= 0;
+    }
+
+    /**
+     * Removes the specified element from the set.
+     *
+     * @param key   The element to remove.
+     *
+     * @return  true if the set contained the element.
+     */
+    public boolean remove(long key) {
+        if (key == 0) {
+            boolean removed = hasZero;
+            hasZero = false;
+            return removed;
+        }
+        int slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+        shiftDown(slot);
+        assigned--;
+        return true;
+    }
+
+    /**
+     * Returns the number of elements in the set.
+     *
+     * @return  The number of elements.
+     */
+    public int size() {
+        return assigned + (hasZero ? 1 : 0);
+    }
+
+    /**
+     * Returns whether the set is empty.
+     *
+     * @return  true if the set has no elements.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Passes every element of the set to the specified action, in no particular order.
+     *
+     * @param action    The action to perform on the elements.
+     */
+    public void forEach(LongConsumer action) {
+        if (hasZero) {
+            action.accept(0);
+        }
+        for (long key : keys) {
+            if (key != 0) {
+                action.accept(key);
+            }
+        }
+    }
+
+    /**
+     * Returns the elements of the set, in no particular order.
+     *
+     * @return  A new array holding the elements.
+     */
+    public long[] toArray() {
+        long[] elements = new long[size()];
+        int[] next = {0};
+        forEach(key -> elements[next[0]++] = key);
+        return elements;
+    }
+
+    private int find(long key) {
+        int slot = LongHashing.slot(key, mask);
+        long existing;
+        while ((existing = keys[slot]) != 0) {
+            if (existing == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Closes the gap left at the specified slot by moving back the keys after it that probed past it.
+     */
+    private void shiftDown(int gap) {
+        int slot = (gap + 1) & mask;
+        long key;
+        while ((key = keys[slot]) != 0) {
+            int ideal = LongHashing.slot(key, mask);
+            if (((slot - ideal) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = key;
+                gap = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[gap] = 0;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = LongHashing.resizeAt(capacity);
+    }
+
+    private void rehash(int capacity) {
+        long[] previous = keys;
+        allocate(capacity);
+        for (long key : previous) {
+            if (key != 0) {
+                int slot = LongHashing.slot(key, mask);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package dev.coderkini.tailfin.commons.collections;
+
+/**
+ * Sizing and hashing shared by the open-addressing collections keyed by primitive longs. Tables have a power of two
+ * capacity and are kept at most three quarters full.
+ */
+final class LongHashing {
+    static final float LOAD_FACTOR = 0.75f;
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private LongHashing() {
+    }
+
+    /**
+     * Returns the capacity of a table that holds the specified number of keys without being resized.
+     */
+    static int capacity(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative");
+        }
+        long minimum = Math.max(4, (long) Math.ceil(expectedSize / (double) LOAD_FACTOR));
+        if (minimum > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Expected size is too large: " + expectedSize);
+        }
+        return (int) Long.highestOneBit(minimum - 1) << 1;
+    }
+
+    /**
+     * Returns the number of keys from which a table of the specified capacity is resized.
+     */
+    static int resizeAt(int capacity) {
+        return Math.min(capacity - 1, (int) (capacity * LOAD_FACTOR));
+    }
+
+    /**
+     * Returns the slot of the specified key in a table with the specified mask. TSIDs keep their randomness in the
+     * low bits and their timestamp in the high bits, so both halves are mixed in.
+     */
+    static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
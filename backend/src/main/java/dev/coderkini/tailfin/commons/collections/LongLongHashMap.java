@@ -0,0 +1,200 @@
+package dev.coderkini.tailfin.commons.collections;
+
+/**
+ * <p>A map from primitive longs to primitive longs, stored in parallel open-addressing tables with linear probing, for
+ * aggregating counts and sums per id without boxing keys or values.</p>
+ *
+ * <p>The map is not thread-safe.</p>
+ *
+ * @see LongObjectHashMap
+ */
+public class LongLongHashMap {
+    private long[] keys;
+    private long[] values;
+    private boolean hasZero;
+    private long zeroValue;
+    private int assigned;
+    private int mask;
+    private int resizeAt;
+
+    /**
+     * Creates a new, empty instance of {@link LongLongHashMap}.
+     */
+    public LongLongHashMap() {
+        this(0);
+    }
+
+    /**
+     * Creates a new, empty instance of {@link LongLongHashMap} that holds the specified number of entries without
+     * being resized.
+     *
+     * @param expectedSize  The expected number of entries.
+     */
+    public LongLongHashMap(int expectedSize) {
+        allocate(LongHashing.capacity(expectedSize));
+    }
+
+    /**
+     * Returns the value of the specified key.
+     *
+     * @param key           The key to look up.
+     * @param defaultValue  The value to return if the map has no entry for the key.
+     *
+     * @return  The value of the key, or the default value.
+     */
+    public long get(long key, long defaultValue) {
+        if (key == 0) {
+            return hasZero ? zeroValue : defaultValue;
+        }
+        int slot = find(key);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+    /**
+     * Returns whether the map has an entry for the specified key.
+     *
+     * @param key   The key to look up.
+     *
+     * @return  true if the map has an entry for the key.
+     */
+    public boolean containsKey(long key) {
+        return key == 0 ? hasZero : find(key) >= 0;
+    }
+
+    /**
+     * Associates the specified value with the specified key.
+     *
+     * @param key   The key.
+     * @param value The value.
+     */
+    public void put(long key, long value) {
+        int slot = insert(key);
+        if (slot < 0) {
+            zeroValue = value;
+        } else {
+            values[slot] = value;
+        }
+    }
+
+    /**
+     * Adds the specified amount to the value of the specified key, which starts from zero.
+     *
+     * @param key       The key.
+     * @param amount    The amount to add.
+     *
+     * @return  The new value of the key.
+     *
+     * @throws ArithmeticException if the new value overflows a long, in which case the map is not changed: neither
+     *                              the value nor, for an absent key, the entry is added.
+     */
+    public long addTo(long key, long amount) {
+        long value = Math.addExact(get(key, 0), amount);
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return  The number of entries.
+     */
+    public int size() {
+        return assigned + (hasZero ? 1 : 0);
+    }
+
+    /**
+     * Passes every entry of the map to the specified action, in no particular order.
+     *
+     * @param action    The action to perform on the entries.
+     */
+    public void forEach(EntryConsumer action) {
+        if (hasZero) {
+            action.accept(0, zeroValue);
+        }
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                action.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /**
+     * Returns the slot of the specified key, adding an entry with a zero value if there is none, or -1 for the zero
+     * key which is kept outside the table.
+     */
+    private int insert(long key) {
+        if (key == 0) {
+            if (!hasZero) {
+                hasZero = true;
+                zeroValue = 0;
+            }
+            return -1;
+        }
+        int slot = LongHashing.slot(key, mask);
+        long existing;
+        while ((existing = keys[slot]) != 0) {
+            if (existing == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (assigned + 1 >= resizeAt) {
+            rehash(keys.length << 1);
+            return insert(key);
+        }
+        keys[slot] = key;
+        values[slot] = 0;
+        assigned++;
+        return slot;
+    }
+
+    private int find(long key) {
+        int slot = LongHashing.slot(key, mask);
+        long existing;
+        while ((existing = keys[slot]) != 0) {
+            if (existing == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = LongHashing.resizeAt(capacity);
+    }
+
+    private void rehash(int capacity) {
+        long[] previousKeys = keys;
+        long[] previousValues = values;
+        allocate(capacity);
+        for (int i = 0; i < previousKeys.length; i++) {
+            long key = previousKeys[i];
+            if (key != 0) {
+                int slot = LongHashing.slot(key, mask);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = previousValues[i];
+            }
+        }
+    }
+
+    /**
+     * Performs an action on an entry of a {@link LongLongHashMap}.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        /**
+         * Performs the action on the specified entry.
+         *
+         * @param key   The key of the entry.
+         * @param value The value of the entry.
+         */
+        void accept(long key, long value);
+    }
+}
@@ -0,0 +1,254 @@
+package dev.coderkini.tailfin.commons.collections;
+
+import java.util.function.LongFunction;
+
+/**
+ * <p>A map from primitive longs to objects, stored in parallel open-addressing tables with linear probing. Compared
+ * with a {@code HashMap<Long, V>}, or a map keyed by a record wrapping a {@link io.hypersistence.tsid.TSID}, it
+ * stores each key in eight bytes of a single array instead of a key object and a map entry, which suits the in-memory
+ * indexes and caches of large numbers of rows keyed by id.</p>
+ *
+ * <p>Null values are not supported, {@link #get(long)} returns null for absent keys. The map is not thread-safe.</p>
+ *
+ * @param <V>   The type of values.
+ *
+ * @see LongHashSet
+ * @see LongLongHashMap
+ */
+public class LongObjectHashMap<V> {
+    private long[] keys;
+    private Object[] values;
+    private V zeroValue;
+    private int assigned;
+    private int mask;
+    private int resizeAt;
+
+    /**
+     * Creates a new, empty instance of {@link LongObjectHashMap}.
+     */
+    public LongObjectHashMap() {
+        this(0);
+    }
+
+    /**
+     * Creates a new, empty instance of {@link LongObjectHashMap} that holds the specified number of entries without
+     * being resized.
+     *
+     * @param expectedSize  The expected number of entries.
+     */
+    public LongObjectHashMap(int expectedSize) {
+        allocate(LongHashing.capacity(expectedSize));
+    }
+
+    /**
+     * Returns the value of the specified key.
+     *
+     * @param key   The key to look up.
+     *
+     * @return  The value of the key, or null if the map has no entry for it.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+        int slot = find(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    /**
+     * Returns whether the map has an entry for the specified key.
+     *
+     * @param key   The key to look up.
+     *
+     * @return  true if the map has an entry for the key.
+     */
+    public boolean containsKey(long key) {
+        return key == 0 ? zeroValue != null : find(key) >= 0;
+    }
+
+    /**
+     * Associates the specified value with the specified key.
+     *
+     * @param key   The key.
+     * @param value The value, not null.
+     *
+     * @return  The previous value of the key, or null if it had none.
+     *
+     * @throws IllegalArgumentException If the value is null.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value must not be null");
+        }
+        if (key == 0) {
+            V previous = zeroValue;
+            zeroValue = value;
+            return previous;
+        }
+        int slot = LongHashing.slot(key, mask);
+        long existing;
+        while ((existing = keys[slot]) != 0) {
+            if (existing == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++assigned >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value of the specified key, computing and adding it if the map has no entry for the key.
+     *
+     * @param key       The key.
+     * @param function  The function computing the value of an absent key, which must not return null.
+     *
+     * @return  The value of the key.
+     */
+    public V computeIfAbsent(long key, LongFunction<? extends V> function) {
+        V value = get(key);
+        if (value == null) {
+            value = function.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Removes the entry of the specified key.
+     *
+     * @param key   The key.
+     *
+     * @return  The value of the removed entry, or null if the map had no entry for the key.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == 0) {
+            V previous = zeroValue;
+            zeroValue = null;
+            return previous;
+        }
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        V previous = (V) values[slot];
+        shiftDown(slot);
+        assigned--;
+        return previous;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return  The number of entries.
+     */
+    public int size() {
+        return assigned + (zeroValue != null ? 1 : 0);
+    }
+
+    /**
+     * Returns whether the map is empty.
+     *
+     * @return  true if the map has no entries.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Passes every entry of the map to the specified action, in no particular order.
+     *
+     * @param action    The action to perform on the entries.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> action) {
+        if (zeroValue != null) {
+            action.accept(0, zeroValue);
+        }
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                action.accept(keys[slot], (V) values[slot]);
+            }
+        }
+    }
+
+    private int find(long key) {
+        int slot = LongHashing.slot(key, mask);
+        long existing;
+        while ((existing = keys[slot]) != 0) {
+            if (existing == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Closes the gap left at the specified slot by moving back the entries after it that probed past it.
+     */
+    private void shiftDown(int gap) {
+        int slot = (gap + 1) & mask;
+        long key;
+        while ((key = keys[slot]) != 0) {
+            int ideal = LongHashing.slot(key, mask);
+            if (((slot - ideal) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = key;
+                values[gap] = values[slot];
+                gap = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[gap] = 0;
+        values[gap] = null;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = LongHashing.resizeAt(capacity);
+    }
+
+    private void rehash(int capacity) {
+        long[] previousKeys = keys;
+        Object[] previousValues = values;
+        allocate(capacity);
+        for (int i = 0; i < previousKeys.length; i++) {
+            long key = previousKeys[i];
+            if (key != 0) {
+                int slot = LongHashing.slot(key, mask);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = previousValues[i];
+            }
+        }
+    }
+
+    /**
+     * Performs an action on an entry of a {@link LongObjectHashMap}.
+     *
+     * @param <V>   The type of values.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        /**
+         * Performs the action on the specified entry.
+         *
+         * @param key   The key of the entry.
+         * @param value The value of the entry.
+         */
+        void accept(long key, V value);
+    }
+}
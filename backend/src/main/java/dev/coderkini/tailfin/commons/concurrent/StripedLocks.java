@@ -0,0 +1,177 @@
+package dev.coderkini.tailfin.commons.concurrent;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>A fixed set of locks that keys of type {@code long}, such as the ids of accounts, are hashed onto, so work on
+ * the same key is serialized without keeping a lock per key, and work on keys of different stripes never contends.
+ * Two keys share a stripe with a probability of one in {@link #stripes()}.</p>
+ *
+ * <p>{@link #lock(Duration, long...)} acquires the stripes of all of its keys, in the ascending order of their
+ * stripes, each stripe once. As every caller acquires stripes in the same order, callers holding several stripes
+ * cannot deadlock each other. The stripes are {@link ReentrantLock}s rather than monitors, so virtual threads waiting
+ * for a stripe are parked and not pinned to their carrier.</p>
+ *
+ * <pre>{@code
+ * StripedLocks.Held held = locks.lock(timeout, source.toLong(), target.toLong());
+ * if (held == null) {
+ *     throw new CannotAcquireLockException("...");
+ * }
+ * try (held) {
+ *     ...
+ * }
+ * }</pre>
+ */
+public final class StripedLocks {
+    private static final int MAX_STRIPES = 1 << 16;
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    /**
+     * Creates a new instance of {@link StripedLocks}.
+     *
+     * @param stripes   The minimum number of stripes, rounded up to a power of two.
+     *
+     * @throws IllegalArgumentException if the number of stripes is not positive or larger than 65536.
+     */
+    public StripedLocks(int stripes) {
+        if (stripes < 1 || stripes > MAX_STRIPES) {
+            throw new IllegalArgumentException("Stripes must be between 1 and " + MAX_STRIPES + ", got " + stripes);
+        }
+        int size = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the number of stripes.
+     *
+     * @return  The number of stripes, a power of two.
+     */
+    public int stripes() {
+        return locks.length;
+    }
+
+    /**
+     * Returns the stripe the specified key is hashed onto. TSIDs keep their randomness in the low bits and their
+     * timestamp in the high bits, so both halves are mixed in.
+     *
+     * @param key   The key.
+     *
+     * @return  The index of the stripe of the key.
+     */
+    public int stripeOf(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Acquires the stripes of the specified keys, waiting at most the specified time for all of them.
+     *
+     * @param timeout   How long to wait for the stripes altogether.
+     * @param keys      The keys to lock.
+     *
+     * @return  The stripes held, to be closed by the caller to release them, or null if they could not be acquired in
+     *          time, in which case none is held.
+     *
+     * @throws InterruptedException     if the thread was interrupted while waiting, in which case none is held.
+     * @throws IllegalArgumentException if there are no keys.
+     */
+    public Held lock(Duration timeout, long... keys) throws InterruptedException {
+        if (keys.length == 0) {
+            throw new IllegalArgumentException("At least one key must be locked");
+        }
+        int[] stripes = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            stripes[i] = stripeOf(keys[i]);
+        }
+        stripes = Arrays.stream(stripes).sorted().distinct().toArray();
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        int acquired = 0;
+        try {
+            for (int stripe : stripes) {
+                ReentrantLock lock = locks[stripe];
+                if (!lock.tryLock()) {
+                    contended.increment();
+                    if (!lock.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                        timeouts.increment();
+                        return null;
+                    }
+                }
+                acquired++;
+            }
+        } finally {
+            if (acquired < stripes.length) {
+                unlock(stripes, acquired);
+            }
+        }
+        acquisitions.increment();
+        return new Held(stripes);
+    }
+
+    /**
+     * Returns the number of successful calls of {@link #lock(Duration, long...)}.
+     *
+     * @return  The number of acquisitions.
+     */
+    public long acquisitions() {
+        return acquisitions.sum();
+    }
+
+    /**
+     * Returns the number of times a stripe was held by another thread when it was to be acquired.
+     *
+     * @return  The number of contended stripe acquisitions.
+     */
+    public long contended() {
+        return contended.sum();
+    }
+
+    /**
+     * Returns the number of calls of {@link #lock(Duration, long...)} that gave up waiting.
+     *
+     * @return  The number of timeouts.
+     */
+    public long timeouts() {
+        return timeouts.sum();
+    }
+
+    private void unlock(int[] stripes, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            locks[stripes[i]].unlock();
+        }
+    }
+
+    /**
+     * The stripes held by a successful call of {@link #lock(Duration, long...)}, released in the reverse order they
+     * were acquired in when closed. Must be closed by the thread that acquired them.
+     */
+    public final class Held implements AutoCloseable {
+        private final int[] stripes;
+        private boolean released;
+
+        private Held(int[] stripes) {
+            this.stripes = stripes;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                unlock(stripes, stripes.length);
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * <p>Admits a bounded number of callers to the connection pool at a time, so that thousands of virtual threads
+ * serving requests at once queue here instead of all waiting inside the pool.</p>
+ *
+ * <p>A caller takes one of {@code maxConcurrency} permits before it borrows a connection and gives it back when it
+ * closes the connection. Permits are handed out first come first served, and a caller that does not get one within the
+ * admission timeout fails with {@link SQLTransientConnectionException}, which Spring translates to a
+ * {@link org.springframework.jdbc.CannotGetJdbcConnectionException}, instead of waiting for the much longer timeout of
+ * the pool. With the default of one permit per pooled connection, a caller that was admitted never waits in the
+ * pool.</p>
+ *
+ * <p>The admitted callers, the waiting callers, the time spent waiting and the rejected callers are published as the
+ * {@code tailfin.datasource.admission.*} metrics. The statements created on the admitted connections are counted by
+ * {@link StatementCounter} and bounded by the {@link StatementScope} of their thread, if it has one.</p>
+ *
+ * @see ConnectionAdmission
+ */
+public class AdmissionControlledDataSource extends DelegatingDataSource implements MeterBinder {
+    private final int maxConcurrency;
+    private final long timeoutNanos;
+    private final Semaphore permits;
+    private final AtomicLong rejections = new AtomicLong();
+    private Timer waits;
+
+    /**
+     * Creates a new instance of {@link AdmissionControlledDataSource}.
+     *
+     * @param target            The data source to borrow the connections from.
+     * @param maxConcurrency    The number of connections that may be borrowed at the same time.
+     * @param timeout           How long a caller waits for a permit before it fails.
+     *
+     * @throws IllegalArgumentException if the maximum concurrency is not positive or the timeout is negative.
+     */
+    public AdmissionControlledDataSource(DataSource target, int maxConcurrency, Duration timeout) {
+        super(target);
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Maximum concurrency must be positive, got " + maxConcurrency);
+        }
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("Admission timeout must not be negative, got " + timeout);
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.timeoutNanos = timeout.toNanos();
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        admit();
+        return admitted(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        admit();
+        return admitted(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * Returns the number of connections that may be borrowed at the same time.
+     *
+     * @return  The maximum concurrency.
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        waits = Timer.builder("tailfin.datasource.admission.wait")
+                .description("Time spent waiting to be admitted to the connection pool")
+                .register(registry);
+        Gauge.builder("tailfin.datasource.admission.active", this, dataSource -> dataSource.maxConcurrency -
+                        dataSource.permits.availablePermits())
+                .description("Callers admitted to the connection pool")
+                .register(registry);
+        Gauge.builder("tailfin.datasource.admission.pending", permits, Semaphore::getQueueLength)
+                .description("Callers waiting to be admitted to the connection pool")
+                .register(registry);
+        FunctionCounter.builder("tailfin.datasource.admission.rejections", rejections, AtomicLong::get)
+                .description("Callers that timed out waiting to be admitted to the connection pool")
+                .register(registry);
+    }
+
+    private void admit() throws SQLException {
+        long start = System.nanoTime();
+        boolean admitted;
+        try {
+            admitted = permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+        Timer timer = waits;
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!admitted) {
+            rejections.incrementAndGet();
+            throw new SQLTransientConnectionException("Timed out after " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) +
+                    "ms waiting for one of " + maxConcurrency + " database connections, " + permits.getQueueLength() +
+                    " callers waiting");
+        }
+    }
+
+    private Connection admitted(ConnectionSource source) throws SQLException {
+        Connection connection;
+        try {
+            connection = source.get();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[] {ConnectionProxy.class},
+                (proxy, method, args) -> invoke(connection, released, proxy, method, args));
+    }
+
+    private Object invoke(Connection connection, AtomicBoolean released, Object proxy, Method method, Object[] args)
+            throws Throwable {
+        switch (method.getName()) {
+            case "getTargetConnection":
+                return connection;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "Admitted connection [" + connection + "]";
+            case "close":
+                try {
+                    connection.close();
+                } finally {
+                    // Closing a connection twice must not give back its permit twice.
+                    if (released.compareAndSet(false, true)) {
+                        permits.release();
+                    }
+                }
+                return null;
+            case "createStatement", "prepareStatement", "prepareCall":
+                StatementCounter.increment();
+                Statement statement;
+                try {
+                    statement = (Statement) method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+                StatementScope.created(statement);
+                return statement;
+            default:
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,291 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * <p>A {@link Stream} that closes itself, and with it the resources registered through {@link #onClose(Runnable)},
+ * as soon as a terminal operation completes or fails.</p>
+ *
+ * <p>Intermediate operations return a stream that closes itself in the same way. Mapping to a primitive stream is not
+ * supported, as a short-circuiting operation on it would leave the resources open: map to boxed values instead. The
+ * {@link #iterator()} and {@link #spliterator()} escape hatches are not closed automatically and the stream must then
+ * be closed by the caller.</p>
+ *
+ * @param <T>   The type of the stream elements.
+ */
+final class ClosingStream<T> implements Stream<T> {
+    private final Stream<T> delegate;
+
+    private ClosingStream(Stream<T> delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Returns a stream that closes the specified stream once a terminal operation completes.
+     *
+     * @param stream    The stream to wrap.
+     * @param <T>       The type of the stream elements.
+     *
+     * @return  The wrapping stream.
+     */
+    static <T> Stream<T> of(Stream<T> stream) {
+        return stream instanceof ClosingStream<T> ? stream : new ClosingStream<>(stream);
+    }
+
+    private <R> R terminal(Supplier<R> operation) {
+        try (Stream<T> stream = delegate) {
+            return operation.get();
+        }
+    }
+
+    private void terminalAction(Runnable operation) {
+        try (Stream<T> stream = delegate) {
+            operation.run();
+        }
+    }
+
+    private UnsupportedOperationException primitiveStream(String operation) {
+        return new UnsupportedOperationException(
+                operation + " would not close the stream, map to boxed values instead");
+    }
+
+    @Override
+    public Stream<T> filter(Predicate<? super T> predicate) {
+        return new ClosingStream<>(delegate.filter(predicate));
+    }
+
+    @Override
+    public <R> Stream<R> map(Function<? super T, ? extends R> mapper) {
+        return new ClosingStream<>(delegate.map(mapper));
+    }
+
+    @Override
+    public IntStream mapToInt(ToIntFunction<? super T> mapper) {
+        throw primitiveStream("mapToInt");
+    }
+
+    @Override
+    public LongStream mapToLong(ToLongFunction<? super T> mapper) {
+        throw primitiveStream("mapToLong");
+    }
+
+    @Override
+    public DoubleStream mapToDouble(ToDoubleFunction<? super T> mapper) {
+        throw primitiveStream("mapToDouble");
+    }
+
+    @Override
+    public <R> Stream<R> flatMap(Function<? super T, ? extends Stream<? extends R>> mapper) {
+        return new ClosingStream<>(delegate.flatMap(mapper));
+    }
+
+    @Override
+    public IntStream flatMapToInt(Function<? super T, ? extends IntStream> mapper) {
+        throw primitiveStream("flatMapToInt");
+    }
+
+    @Override
+    public LongStream flatMapToLong(Function<? super T, ? extends LongStream> mapper) {
+        throw primitiveStream("flatMapToLong");
+    }
+
+    @Override
+    public DoubleStream flatMapToDouble(Function<? super T, ? extends DoubleStream> mapper) {
+        throw primitiveStream("flatMapToDouble");
+    }
+
+    @Override
+    public <R> Stream<R> mapMulti(BiConsumer<? super T, ? super Consumer<R>> mapper) {
+        return new ClosingStream<>(delegate.mapMulti(mapper));
+    }
+
+    @Override
+    public Stream<T> distinct() {
+        return new ClosingStream<>(delegate.distinct());
+    }
+
+    @Override
+    public Stream<T> sorted() {
+        return new ClosingStream<>(delegate.sorted());
+    }
+
+    @Override
+    public Stream<T> sorted(Comparator<? super T> comparator) {
+        return new ClosingStream<>(delegate.sorted(comparator));
+    }
+
+    @Override
+    public Stream<T> peek(Consumer<? super T> action) {
+        return new ClosingStream<>(delegate.peek(action));
+    }
+
+    @Override
+    public Stream<T> limit(long maxSize) {
+        return new ClosingStream<>(delegate.limit(maxSize));
+    }
+
+    @Override
+    public Stream<T> skip(long n) {
+        return new ClosingStream<>(delegate.skip(n));
+    }
+
+    @Override
+    public Stream<T> takeWhile(Predicate<? super T> predicate) {
+        return new ClosingStream<>(delegate.takeWhile(predicate));
+    }
+
+    @Override
+    public Stream<T> dropWhile(Predicate<? super T> predicate) {
+        return new ClosingStream<>(delegate.dropWhile(predicate));
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        terminalAction(() -> delegate.forEach(action));
+    }
+
+    @Override
+    public void forEachOrdered(Consumer<? super T> action) {
+        terminalAction(() -> delegate.forEachOrdered(action));
+    }
+
+    @Override
+    public Object[] toArray() {
+        return terminal(() -> delegate.toArray());
+    }
+
+    @Override
+    public <A> A[] toArray(IntFunction<A[]> generator) {
+        return terminal(() -> delegate.toArray(generator));
+    }
+
+    @Override
+    public T reduce(T identity, BinaryOperator<T> accumulator) {
+        return terminal(() -> delegate.reduce(identity, accumulator));
+    }
+
+    @Override
+    public Optional<T> reduce(BinaryOperator<T> accumulator) {
+        return terminal(() -> delegate.reduce(accumulator));
+    }
+
+    @Override
+    public <U> U reduce(U identity, BiFunction<U, ? super T, U> accumulator, BinaryOperator<U> combiner) {
+        return terminal(() -> delegate.reduce(identity, accumulator, combiner));
+    }
+
+    @Override
+    public <R> R collect(Supplier<R> supplier, BiConsumer<R, ? super T> accumulator, BiConsumer<R, R> combiner) {
+        return terminal(() -> delegate.collect(supplier, accumulator, combiner));
+    }
+
+    @Override
+    public <R, A> R collect(Collector<? super T, A, R> collector) {
+        return terminal(() -> delegate.collect(collector));
+    }
+
+    @Override
+    public List<T> toList() {
+        return terminal(() -> delegate.toList());
+    }
+
+    @Override
+    public Optional<T> min(Comparator<? super T> comparator) {
+        return terminal(() -> delegate.min(comparator));
+    }
+
+    @Override
+    public Optional<T> max(Comparator<? super T> comparator) {
+        return terminal(() -> delegate.max(comparator));
+    }
+
+    @Override
+    public long count() {
+        return terminal(() -> delegate.count());
+    }
+
+    @Override
+    public boolean anyMatch(Predicate<? super T> predicate) {
+        return terminal(() -> delegate.anyMatch(predicate));
+    }
+
+    @Override
+    public boolean allMatch(Predicate<? super T> predicate) {
+        return terminal(() -> delegate.allMatch(predicate));
+    }
+
+    @Override
+    public boolean noneMatch(Predicate<? super T> predicate) {
+        return terminal(() -> delegate.noneMatch(predicate));
+    }
+
+    @Override
+    public Optional<T> findFirst() {
+        return terminal(() -> delegate.findFirst());
+    }
+
+    @Override
+    public Optional<T> findAny() {
+        return terminal(() -> delegate.findAny());
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return delegate.iterator();
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return delegate.spliterator();
+    }
+
+    @Override
+    public boolean isParallel() {
+        return delegate.isParallel();
+    }
+
+    @Override
+    public Stream<T> sequential() {
+        return new ClosingStream<>(delegate.sequential());
+    }
+
+    @Override
+    public Stream<T> parallel() {
+        return new ClosingStream<>(delegate.parallel());
+    }
+
+    @Override
+    public Stream<T> unordered() {
+        return new ClosingStream<>(delegate.unordered());
+    }
+
+    @Override
+    public Stream<T> onClose(Runnable closeHandler) {
+        return new ClosingStream<>(delegate.onClose(closeHandler));
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
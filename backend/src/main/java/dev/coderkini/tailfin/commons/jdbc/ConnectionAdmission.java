@@ -0,0 +1,62 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.sql.DataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * <p>Puts every pooled {@link DataSource} of the application behind an {@link AdmissionControlledDataSource}, so
+ * every repository, job and migration borrows its connections through the same admission queue.</p>
+ *
+ * <p>The number of callers admitted at a time is {@link RepositoryProperties#maxConcurrentConnections() max concurrent
+ * connections}, or the maximum size of the pool when that is 0. A data source that is not a Hikari pool is only
+ * wrapped when the maximum is set explicitly.</p>
+ *
+ * @see AdmissionControlledDataSource
+ */
+@Component
+public class ConnectionAdmission implements BeanPostProcessor, MeterBinder {
+    private final ObjectProvider<RepositoryProperties> properties;
+    private final List<AdmissionControlledDataSource> dataSources = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a new instance of {@link ConnectionAdmission}.
+     *
+     * @param properties    The repository configuration holding the maximum concurrency and the admission timeout,
+     *                      looked up lazily as post processors are created before the other beans.
+     */
+    public ConnectionAdmission(ObjectProvider<RepositoryProperties> properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof AdmissionControlledDataSource) {
+            return bean;
+        }
+        RepositoryProperties repository = properties.getObject();
+        int maxConcurrency = repository.maxConcurrentConnections();
+        if (maxConcurrency == 0 && bean instanceof HikariDataSource hikari) {
+            maxConcurrency = hikari.getMaximumPoolSize();
+        }
+        if (maxConcurrency < 1) {
+            return bean;
+        }
+        AdmissionControlledDataSource admitted = new AdmissionControlledDataSource(dataSource, maxConcurrency,
+                repository.connectionAdmissionTimeout());
+        dataSources.add(admitted);
+        return admitted;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        dataSources.forEach(dataSource -> dataSource.bindTo(registry));
+    }
+}
@@ -0,0 +1,74 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Describes how the fields of an entity map to the columns of its table, which is the whitelist of the fields that
+ * {@link QueryCompiler} lets queries filter and sort on.
+ *
+ * @param entity            The name of the entity.
+ * @param table             The table the entity is stored in.
+ * @param columns           The mapping of the fields that can be queried to their (qualified) column names.
+ * @param timestampField    The field holding the creation timestamp used for keyset pagination, or null if the entity
+ *                          cannot be paginated by keyset.
+ * @param idField           The field holding the time-ordered identifier, used as the tie-breaker of every order.
+ * @param valueConverter    The function that converts filter values to values that can be bound to a statement.
+ *
+ * @see QueryCompiler
+ */
+public record EntityMapping(String entity,
+                            String table,
+                            Map<String, String> columns,
+                            String timestampField,
+                            String idField,
+                            Function<Object, Object> valueConverter) {
+    private static final Set<String> MAPPED_FIELDS = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a new instance of {@link EntityMapping}.
+     *
+     * @throws IllegalArgumentException If the timestamp or the id field is not one of the mapped fields.
+     */
+    public EntityMapping {
+        columns = Map.copyOf(columns);
+        if (timestampField != null && !columns.containsKey(timestampField)) {
+            throw new IllegalArgumentException("Unknown timestamp field " + timestampField + " of " + entity);
+        }
+        if (!columns.containsKey(idField)) {
+            throw new IllegalArgumentException("Unknown id field " + idField + " of " + entity);
+        }
+        MAPPED_FIELDS.addAll(columns.keySet());
+    }
+
+    /**
+     * Returns whether the specified field is mapped by any of the entity mappings created so far, which bounds the
+     * field names worth telling apart in metrics to the whitelisted ones.
+     *
+     * @param field The name of the field.
+     *
+     * @return  true if an entity mapping has the field.
+     */
+    static boolean isMapped(String field) {
+        return field != null && MAPPED_FIELDS.contains(field);
+    }
+
+    /**
+     * Returns the column of the specified field.
+     *
+     * @param field The name of the field.
+     *
+     * @return  The column of the field.
+     *
+     * @throws IllegalArgumentException If the field is not whitelisted.
+     */
+    public String column(String field) {
+        String column = field == null ? null : columns.get(field);
+        if (column == null) {
+            throw new IllegalArgumentException("Unknown field " + field + " of " + entity);
+        }
+        return column;
+    }
+}
@@ -0,0 +1,244 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import dev.coderkini.tailfin.commons.repository.FilterOperator;
+
+/**
+ * <p>Compares the shapes of constraints that queries were actually prepared with, as observed by
+ * {@link QueryCompiler#observedShapes()}, with the indexes in the catalog of the database, and reports the shapes that
+ * no index serves and the indexes that no query used.</p>
+ *
+ * <p>A shape is served by an index of its table whose leading column is one of the columns the shape filters by
+ * equality ({@code =}, {@code in}, {@code is null}), or, when it has none, one of the columns it filters by range
+ * ({@code <}, {@code >}), or, when it has none either, a trigram index of one of the columns it filters by
+ * {@code like}, as a btree index only serves patterns with a literal prefix. The other operators cannot narrow an
+ * index scan, and shapes without filters that can are left out, as their order is served by the indexes of the fixed
+ * conditions of their query. For a shape that is not served, the advisor suggests an index on its equality columns
+ * followed by its first range column or else its sort columns, or a trigram index on its first {@code like} column.
+ * The fixed conditions a repository adds to a query, such as the account of {@code findByAccountId}, are not part of
+ * the shape, so the suggestions are candidates to review and not a plan to apply.</p>
+ *
+ * <p>An index is unused when it is neither a primary key nor unique and has not been scanned since the statistics of
+ * the database were last reset. The scans of a partitioned index are the scans of the indexes of its partitions.</p>
+ *
+ * @see IndexAdvisorEndpoint
+ */
+@Component
+public class IndexAdvisor {
+    private static final Set<FilterOperator> EQUALITY = EnumSet.of(FilterOperator.EQUALS, FilterOperator.IN,
+            FilterOperator.IS_NULL);
+    private static final Set<FilterOperator> RANGE = EnumSet.of(FilterOperator.GREATER_THAN,
+            FilterOperator.GREATER_THAN_OR_EQUALS, FilterOperator.LESS_THAN, FilterOperator.LESS_THAN_OR_EQUALS);
+
+    private static final String BTREE = "btree";
+    private static final String TRIGRAM = "gin";
+
+    private static final int MAX_IDENTIFIER_LENGTH = 63;
+
+    private static final String INDEXES = """
+            select t.relname as table_name,
+                   i.relname as index_name,
+                   t.relkind = 'p' as partitioned,
+                   am.amname as method,
+                   ix.indisprimary or ix.indisunique as constraining,
+                   array(select a.attname::text
+                         from unnest(ix.indkey::int2[]) with ordinality as k(attnum, position)
+                         join pg_attribute a on a.attrelid = t.oid and a.attnum = k.attnum
+                         order by k.position) as columns,
+                   coalesce(s.idx_scan, 0) + coalesce((select sum(p.idx_scan)
+                                                       from pg_inherits h
+                                                       join pg_stat_user_indexes p on p.indexrelid = h.inhrelid
+                                                       where h.inhparent = ix.indexrelid), 0) as scans
+            from pg_index ix
+            join pg_class i on i.oid = ix.indexrelid
+            join pg_class t on t.oid = ix.indrelid
+            join pg_am am on am.oid = i.relam
+            join pg_namespace n on n.oid = t.relnamespace
+            left join pg_stat_user_indexes s on s.indexrelid = ix.indexrelid
+            where n.nspname = current_schema()
+              and t.relkind in ('r', 'p')
+              and not t.relispartition
+              and t.relname = any(:tables)
+            order by t.relname, i.relname""";
+
+    private final QueryCompiler compiler;
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * Creates a new instance of {@link IndexAdvisor}.
+     *
+     * @param compiler  The compiler that observes the shapes of the queries.
+     * @param jdbc      The template used to read the catalog.
+     */
+    public IndexAdvisor(QueryCompiler compiler, NamedParameterJdbcTemplate jdbc) {
+        this.compiler = compiler;
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Compares the observed shapes with the indexes of the tables they query.
+     *
+     * @return  The shapes no index serves, the indexes no query used and a candidate migration adding the missing
+     *          indexes.
+     */
+    public IndexReport report() {
+        List<ObservedShape> shapes = compiler.observedShapes();
+        Set<String> tables = new TreeSet<>();
+        shapes.forEach(shape -> tables.add(shape.table()));
+        List<IndexReport.Index> indexes = tables.isEmpty() ? List.of() : jdbc.query(INDEXES,
+                new MapSqlParameterSource("tables", new SqlArray("text", new ArrayList<>(tables))),
+                IndexAdvisor::mapIndex);
+
+        Map<String, IndexReport.MissingIndex> missing = new LinkedHashMap<>();
+        for (ObservedShape shape : shapes) {
+            List<String> leading = leadingColumns(shape);
+            List<String> searched = leading.isEmpty() ? searchedColumns(shape) : List.of();
+            boolean served = indexes.stream().anyMatch(index -> index.table().equals(shape.table())
+                    && !index.columns().isEmpty()
+                    && (leading.contains(index.columns().getFirst())
+                    || index.method().equals(TRIGRAM) && searched.contains(index.columns().getFirst())));
+            if (served || leading.isEmpty() && searched.isEmpty()) {
+                continue;
+            }
+            boolean trigram = leading.isEmpty();
+            List<String> columns = trigram ? List.of(searched.getFirst()) : suggestedColumns(shape);
+            String name = indexName(shape.table(), trigram ? List.of(searched.getFirst(), "trgm") : columns);
+            IndexReport.MissingIndex previous = missing.get(name);
+            List<String> queries = new ArrayList<>(previous == null ? List.of() : previous.queries());
+            if (!queries.contains(shape.query())) {
+                queries.add(shape.query());
+            }
+            missing.put(name, new IndexReport.MissingIndex(name, shape.table(), columns, trigram ? TRIGRAM : BTREE,
+                    (previous == null ? 0 : previous.uses()) + shape.count(), queries));
+        }
+        List<IndexReport.Index> unused = indexes.stream()
+                .filter(index -> !index.constraining() && index.scans() == 0)
+                .toList();
+        List<IndexReport.MissingIndex> missingIndexes = new ArrayList<>(missing.values());
+        return new IndexReport(shapes, missingIndexes, unused, migration(missingIndexes, unused, indexes));
+    }
+
+    /**
+     * Returns the columns an index must lead with to serve the specified shape.
+     */
+    private static List<String> leadingColumns(ObservedShape shape) {
+        Set<String> equality = new LinkedHashSet<>();
+        Set<String> range = new LinkedHashSet<>();
+        for (ObservedShape.Filter filter : shape.filters()) {
+            if (EQUALITY.contains(filter.operator())) {
+                equality.add(filter.column());
+            } else if (RANGE.contains(filter.operator())) {
+                range.add(filter.column());
+            }
+        }
+        if (!equality.isEmpty()) {
+            return List.copyOf(equality);
+        }
+        return List.copyOf(range);
+    }
+
+    /**
+     * Returns the columns the specified shape filters by {@code like}, which a trigram index on one of them serves.
+     */
+    private static List<String> searchedColumns(ObservedShape shape) {
+        Set<String> searched = new LinkedHashSet<>();
+        for (ObservedShape.Filter filter : shape.filters()) {
+            if (filter.operator() == FilterOperator.LIKE) {
+                searched.add(filter.column());
+            }
+        }
+        return List.copyOf(searched);
+    }
+
+    /**
+     * Returns the columns of the btree index suggested for the specified shape.
+     */
+    private static List<String> suggestedColumns(ObservedShape shape) {
+        Set<String> columns = new LinkedHashSet<>();
+        String range = null;
+        for (ObservedShape.Filter filter : shape.filters()) {
+            if (EQUALITY.contains(filter.operator())) {
+                columns.add(filter.column());
+            } else if (range == null && RANGE.contains(filter.operator())) {
+                range = filter.column();
+            }
+        }
+        if (range != null) {
+            columns.add(range);
+        } else {
+            columns.addAll(shape.sortColumns());
+        }
+        return List.copyOf(columns);
+    }
+
+    private static String indexName(String table, List<String> columns) {
+        String name = table + "_" + String.join("_", columns);
+        // Longer identifiers are truncated by PostgreSQL, which could make two suggestions collide.
+        int maxLength = MAX_IDENTIFIER_LENGTH - "_idx".length();
+        return (name.length() > maxLength ? name.substring(0, maxLength) : name) + "_idx";
+    }
+
+    private static String migration(List<IndexReport.MissingIndex> missing,
+                                     List<IndexReport.Index> unused,
+                                     List<IndexReport.Index> indexes) {
+        StringBuilder sql = new StringBuilder();
+        sql.append("-- Candidate indexes suggested from the observed query shapes, to be reviewed before it is\n")
+                .append("-- added as the next versioned migration. Indexes on partitioned tables cannot be created\n")
+                .append("-- concurrently, the others can be by moving them to a migration of their own.\n");
+        for (IndexReport.MissingIndex index : missing) {
+            sql.append('\n')
+                    .append("-- ").append(index.uses()).append(" queries: ").append(String.join(", ", index.queries()))
+                    .append('\n')
+                    .append("create index if not exists ").append(index.name())
+                    .append(" on ").append(index.table());
+            if (index.method().equals(TRIGRAM)) {
+                sql.append(" using gin (").append(index.columns().getFirst()).append(" gin_trgm_ops);\n");
+            } else {
+                sql.append(" (").append(String.join(", ", index.columns())).append(");\n");
+            }
+        }
+        if (!unused.isEmpty()) {
+            sql.append("\n-- Not scanned since the statistics were last reset, to be dropped after checking every\n")
+                    .append("-- environment:\n");
+            for (IndexReport.Index index : unused) {
+                sql.append("-- drop index if exists ").append(index.name()).append(";\n");
+            }
+        }
+        if (missing.isEmpty() && unused.isEmpty()) {
+            sql.append("\n-- Every observed shape is served by one of the ").append(indexes.size())
+                    .append(" indexes.\n");
+        }
+        return sql.toString();
+    }
+
+    private static IndexReport.Index mapIndex(ResultSet rs, int rowNum) throws SQLException {
+        Array columns = rs.getArray("columns");
+        try {
+            return new IndexReport.Index(rs.getString("index_name"),
+                    rs.getString("table_name"),
+                    Arrays.asList((String[]) columns.getArray()),
+                    rs.getString("method"),
+                    rs.getBoolean("partitioned"),
+                    rs.getBoolean("constraining"),
+                    rs.getLong("scans"));
+        } finally {
+            columns.free();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * <p>Actuator endpoint to review the indexes against the shapes of the queries actually made.</p>
+ *
+ * <p>{@code GET /actuator/indexadvisor} returns the observed shapes, the missing and the unused indexes and a
+ * candidate migration. {@code DELETE /actuator/indexadvisor} forgets the observed shapes, for instance after an index
+ * was added.</p>
+ *
+ * @see IndexAdvisor
+ */
+@Component
+@Endpoint(id = "indexadvisor")
+class IndexAdvisorEndpoint {
+    private final IndexAdvisor advisor;
+    private final QueryCompiler compiler;
+
+    /**
+     * Creates a new instance of {@link IndexAdvisorEndpoint}.
+     *
+     * @param advisor   The advisor comparing the shapes with the indexes.
+     * @param compiler  The compiler that observes the shapes.
+     */
+    IndexAdvisorEndpoint(IndexAdvisor advisor, QueryCompiler compiler) {
+        this.advisor = advisor;
+        this.compiler = compiler;
+    }
+
+    /**
+     * Compares the observed shapes with the indexes.
+     *
+     * @return  The report of the missing and unused indexes.
+     */
+    @ReadOperation
+    public IndexReport report() {
+        return advisor.report();
+    }
+
+    /**
+     * Forgets the observed shapes.
+     */
+    @DeleteOperation
+    public void clear() {
+        compiler.clearObservedShapes();
+    }
+}
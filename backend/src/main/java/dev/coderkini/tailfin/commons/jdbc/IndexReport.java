@@ -0,0 +1,79 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import java.util.List;
+
+/**
+ * Represents the outcome of comparing the observed shapes of queries with the indexes of the tables they query.
+ *
+ * @param shapes        The observed shapes, most used first.
+ * @param missing       The indexes suggested for the shapes that no index serves, most used first.
+ * @param unused        The indexes that were not scanned since the statistics were last reset.
+ * @param migration     A candidate migration creating the missing indexes, with the unused indexes listed in comments.
+ *
+ * @see IndexAdvisor
+ */
+public record IndexReport(List<ObservedShape> shapes,
+                          List<MissingIndex> missing,
+                          List<Index> unused,
+                          String migration) {
+    /**
+     * Creates a new instance of {@link IndexReport}.
+     */
+    public IndexReport {
+        shapes = List.copyOf(shapes);
+        missing = List.copyOf(missing);
+        unused = List.copyOf(unused);
+    }
+
+    /**
+     * Represents an index suggested for shapes that no index serves.
+     *
+     * @param name      The suggested name of the index.
+     * @param table     The table of the index.
+     * @param columns   The columns of the index.
+     * @param method    The access method of the index, {@code gin} for a trigram index of its only column and
+     *                  {@code btree} otherwise.
+     * @param uses      The number of queries prepared with the shapes the index would serve.
+     * @param queries   The names of the queries the index would serve.
+     */
+    public record MissingIndex(String name,
+                               String table,
+                               List<String> columns,
+                               String method,
+                               long uses,
+                               List<String> queries) {
+        /**
+         * Creates a new instance of {@link MissingIndex}.
+         */
+        public MissingIndex {
+            columns = List.copyOf(columns);
+            queries = List.copyOf(queries);
+        }
+    }
+
+    /**
+     * Represents an index in the catalog.
+     *
+     * @param name          The name of the index.
+     * @param table         The table of the index.
+     * @param columns       The columns of the index, without the columns of expressions.
+     * @param method        The access method of the index, such as {@code btree} or {@code gin}.
+     * @param partitioned   Whether the table is partitioned.
+     * @param constraining  Whether the index backs a primary key or a unique constraint.
+     * @param scans         The number of scans of the index since the statistics were last reset.
+     */
+    public record Index(String name,
+                        String table,
+                        List<String> columns,
+                        String method,
+                        boolean partitioned,
+                        boolean constraining,
+                        long scans) {
+        /**
+         * Creates a new instance of {@link Index}.
+         */
+        public Index {
+            columns = List.copyOf(columns);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.sql.DataSource;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.PreparedStatementCreatorFactory;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.stereotype.Component;
+
+/**
+ * <p>Runs queries whose rows are streamed from a server-side database cursor instead of being loaded into memory.</p>
+ *
+ * <p>The query only runs once a terminal operation is invoked on the returned stream, rows are then fetched from the
+ * database {@link RepositoryProperties#fetchSize() fetch size} rows at a time. The statement and the connection are
+ * released as soon as the terminal operation completes, so callers can walk through millions of rows in constant
+ * heap. A stream that is consumed through its iterator or spliterator must be closed by the caller.</p>
+ *
+ * <p>PostgreSQL only uses a cursor when auto-commit is disabled. When the query does not take part in a surrounding
+ * transaction, the stream runs in a read-only transaction of its own which ends when the stream is closed.</p>
+ *
+ * @see RepositoryProperties
+ */
+@Component
+public class JdbcCursorTemplate {
+    private final DataSource dataSource;
+    private final int fetchSize;
+    private final SQLExceptionTranslator exceptionTranslator;
+
+    /**
+     * Creates a new instance of {@link JdbcCursorTemplate}.
+     *
+     * @param dataSource    The data source to obtain connections from.
+     * @param properties    The repository configuration holding the fetch size.
+     */
+    public JdbcCursorTemplate(DataSource dataSource, RepositoryProperties properties) {
+        this.dataSource = dataSource;
+        this.fetchSize = properties.fetchSize();
+        this.exceptionTranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+    }
+
+    /**
+     * Returns a lazy stream of the rows returned by the specified query.
+     *
+     * @param sql           The query with named parameters.
+     * @param parameters    The values of the named parameters.
+     * @param rowMapper     The mapper that turns each row into an item.
+     * @param <T>           The type of the items.
+     *
+     * @return  The lazy stream of items.
+     */
+    public <T> Stream<T> queryForStream(String sql, SqlParameterSource parameters, RowMapper<T> rowMapper) {
+        ParsedSql parsedSql = NamedParameterUtils.parseSqlStatement(sql);
+        String sqlToUse = NamedParameterUtils.substituteNamedParameters(parsedSql, parameters);
+        PreparedStatementCreatorFactory factory = new PreparedStatementCreatorFactory(sqlToUse,
+                NamedParameterUtils.buildSqlParameterList(parsedSql, parameters));
+        PreparedStatementCreator creator = factory.newPreparedStatementCreator(
+                NamedParameterUtils.buildValueArray(parsedSql, parameters, null));
+
+        Cursor<T> cursor = new Cursor<>(sqlToUse, creator, rowMapper);
+        return ClosingStream.of(StreamSupport.stream(cursor, false).onClose(cursor::close));
+    }
+
+    /**
+     * A spliterator over the rows of a query that opens the cursor on the first advance and releases it once the
+     * rows are exhausted or the stream is closed.
+     */
+    private final class Cursor<T> extends Spliterators.AbstractSpliterator<T> {
+        private final String sql;
+        private final PreparedStatementCreator creator;
+        private final RowMapper<T> rowMapper;
+
+        private Connection connection;
+        private PreparedStatement statement;
+        private ResultSet resultSet;
+        private boolean restoreAutoCommit;
+        private boolean closed;
+        private int rowNum;
+
+        private Cursor(String sql, PreparedStatementCreator creator, RowMapper<T> rowMapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.sql = sql;
+            this.creator = creator;
+            this.rowMapper = rowMapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed) {
+                return false;
+            }
+            try {
+                if (resultSet == null) {
+                    open();
+                }
+                if (!resultSet.next()) {
+                    close();
+                    return false;
+                }
+                action.accept(rowMapper.mapRow(resultSet, rowNum++));
+                return true;
+            } catch (SQLException e) {
+                close();
+                throw translate(e);
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        private void open() throws SQLException {
+            connection = DataSourceUtils.getConnection(dataSource);
+            if (connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+                restoreAutoCommit = true;
+            }
+            statement = creator.createPreparedStatement(connection);
+            statement.setFetchSize(fetchSize);
+            resultSet = statement.executeQuery();
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            JdbcUtils.closeResultSet(resultSet);
+            JdbcUtils.closeStatement(statement);
+            if (connection == null) {
+                return;
+            }
+            try {
+                if (restoreAutoCommit) {
+                    connection.commit();
+                    connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                throw translate(e);
+            } finally {
+                DataSourceUtils.releaseConnection(connection, dataSource);
+            }
+        }
+
+        private DataAccessException translate(SQLException e) {
+            DataAccessException exception = exceptionTranslator.translate("StreamingQuery", sql, e);
+            return exception != null ? exception : new UncategorizedSQLException("StreamingQuery", sql, e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import dev.coderkini.tailfin.commons.repository.ContinuationToken;
+import dev.coderkini.tailfin.commons.repository.CountStrategy;
+import dev.coderkini.tailfin.commons.repository.PagedResult;
+import dev.coderkini.tailfin.commons.repository.PaginationMode;
+import dev.coderkini.tailfin.commons.repository.QueryConstraints;
+
+/**
+ * <p>Reads a page of a {@link PreparedQuery} into a {@link PagedResult}, counting its items with the
+ * {@link CountStrategy} of the constraints.</p>
+ *
+ * <p>Every page is read from a server-side cursor. Offset paginated pages counted exactly stream their rows lazily.
+ * Keyset paginated pages, and pages whose total is not counted exactly, fetch one row more than their limit to tell
+ * whether there is a next page: their rows are read from the cursor up to that lookahead row, after which the cursor
+ * is closed right away rather than left open until the page is consumed. Totals that are not exact are
+ * corrected with what the page saw, so that a page is never reported beyond the last one.</p>
+ *
+ * <p>The count and the page statements that are slow are kept by {@link SlowQueryLog}. A streamed page is timed until
+ * its stream is closed.</p>
+ *
+ * @see QueryCompiler
+ * @see QueryCounter
+ * @see SlowQueryLog
+ */
+@Component
+public class JdbcPageReader {
+    private final JdbcCursorTemplate cursors;
+    private final QueryCounter counter;
+    private final SlowQueryLog slowQueries;
+
+    /**
+     * Creates a new instance of {@link JdbcPageReader}.
+     *
+     * @param cursors       The template used to read the pages.
+     * @param counter       The counter of the items of the queries.
+     * @param slowQueries   The log the slow queries are kept in.
+     */
+    public JdbcPageReader(JdbcCursorTemplate cursors,
+                          QueryCounter counter,
+                          SlowQueryLog slowQueries) {
+        this.cursors = cursors;
+        this.counter = counter;
+        this.slowQueries = slowQueries;
+    }
+
+    /**
+     * Reads the page of the specified query.
+     *
+     * @param query         The prepared query.
+     * @param constraints   The constraints the query was prepared for.
+     * @param rowMapper     The mapper of the rows to items.
+     * @param tokenOf       Returns the continuation token of an item, used in keyset pagination mode.
+     * @param <T>           The type of items.
+     *
+     * @return  The page of items.
+     */
+    public <T> PagedResult<T> read(PreparedQuery query,
+                                   QueryConstraints<T> constraints,
+                                   RowMapper<T> rowMapper,
+                                   Function<T, ContinuationToken> tokenOf) {
+        long start = System.nanoTime();
+        long totalItems = counter.count(constraints.getCountStrategy(), query.countSql(), query.parameters());
+        if (constraints.getCountStrategy() != CountStrategy.HAS_MORE && query.countSql() != null) {
+            slowQueries.record(query.query() + " count", query.countSql(), query.parameters(),
+                    System.nanoTime() - start, false);
+        }
+        if (!constraints.isLookahead()) {
+            long opened = System.nanoTime();
+            return new PagedResult<>(cursors.queryForStream(query.sql(), query.parameters(), rowMapper)
+                    .onClose(() -> slowQueries.record(query.query(), query.sql(), query.parameters(),
+                            System.nanoTime() - opened, true)),
+                    constraints,
+                    totalItems);
+        }
+
+        start = System.nanoTime();
+        List<T> items = new ArrayList<>(constraints.getLimit());
+        boolean hasMore;
+        try (Stream<T> rows = cursors.queryForStream(query.sql(), query.parameters(), rowMapper)) {
+            Iterator<T> iterator = rows.iterator();
+            while (items.size() < constraints.getLimit() && iterator.hasNext()) {
+                items.add(iterator.next());
+            }
+            // The lookahead row is read to tell whether there is a next page, but left out of the page.
+            hasMore = iterator.hasNext();
+        }
+        slowQueries.record(query.query(), query.sql(), query.parameters(), System.nanoTime() - start, false);
+        String continuationToken = null;
+        if (hasMore && constraints.getPaginationMode() == PaginationMode.KEYSET) {
+            continuationToken = tokenOf.apply(items.getLast()).encode();
+        }
+        if (constraints.getCountStrategy() != CountStrategy.EXACT && totalItems != PagedResult.UNKNOWN_TOTAL
+                && constraints.getPaginationMode() != PaginationMode.KEYSET) {
+            // A stale or estimated total must at least agree with what this page saw.
+            long seen = (long) constraints.getOffset() * constraints.getLimit() + items.size();
+            totalItems = hasMore ? Math.max(totalItems, seen + 1) : seen;
+        }
+        return new PagedResult<>(items.stream(), constraints, totalItems, continuationToken, hasMore);
+    }
+}
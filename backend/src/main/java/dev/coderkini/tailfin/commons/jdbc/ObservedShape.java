@@ -0,0 +1,46 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import java.util.List;
+
+import dev.coderkini.tailfin.commons.repository.FilterOperator;
+import dev.coderkini.tailfin.commons.repository.PaginationMode;
+
+/**
+ * Represents a shape of constraints that queries were prepared with, in terms of the columns of the table they query,
+ * together with the number of queries prepared with it.
+ *
+ * @param entity            The name of the entity queried.
+ * @param table             The table queried.
+ * @param query             The name of the query.
+ * @param filters           The filtered columns with their operators, in the order they were given.
+ * @param sortColumns       The columns the rows are ordered by, without the tie-breaking id column.
+ * @param paginationMode    The pagination mode.
+ * @param count             The number of queries prepared with the shape.
+ *
+ * @see QueryCompiler#observedShapes()
+ * @see IndexAdvisor
+ */
+public record ObservedShape(String entity,
+                            String table,
+                            String query,
+                            List<Filter> filters,
+                            List<String> sortColumns,
+                            PaginationMode paginationMode,
+                            long count) {
+    /**
+     * Creates a new instance of {@link ObservedShape}.
+     */
+    public ObservedShape {
+        filters = List.copyOf(filters);
+        sortColumns = List.copyOf(sortColumns);
+    }
+
+    /**
+     * Represents a filtered column of a shape.
+     *
+     * @param column    The filtered column.
+     * @param operator  The operator the column is filtered with.
+     */
+    public record Filter(String column, FilterOperator operator) {
+    }
+}
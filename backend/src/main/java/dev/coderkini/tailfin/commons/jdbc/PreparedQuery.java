@@ -0,0 +1,16 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+/**
+ * Represents the statements of a query together with the values bound to their named parameters.
+ *
+ * @param query         The name of the query, unique per template of the entity.
+ * @param sql           The statement that selects the items.
+ * @param countSql      The statement that counts the items regardless of paging, or null if there is none.
+ * @param parameters    The values of the named parameters of both statements.
+ *
+ * @see QueryCompiler
+ */
+public record PreparedQuery(String query, String sql, String countSql, MapSqlParameterSource parameters) {
+}
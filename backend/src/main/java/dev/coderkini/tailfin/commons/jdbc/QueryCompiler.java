@@ -0,0 +1,410 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.stereotype.Component;
+
+import dev.coderkini.tailfin.commons.repository.ContinuationToken;
+import dev.coderkini.tailfin.commons.repository.FilterDefinition;
+import dev.coderkini.tailfin.commons.repository.FilterOperator;
+import dev.coderkini.tailfin.commons.repository.PaginationMode;
+import dev.coderkini.tailfin.commons.repository.QueryConstraints;
+import dev.coderkini.tailfin.commons.repository.SortDirection;
+
+/**
+ * <p>Compiles {@link QueryConstraints} into statements with named parameters, once per shape of constraints.</p>
+ *
+ * <p>The shape of constraints is what determines the text of the statements: the entity and the query they are
+ * applied to, the fields and operators of the filters, the sorting, the pagination mode and whether they continue
+ * from a previous page. Limits, offsets and filter values are not part of the shape, they are bound as parameters.
+ * Compiled shapes are kept in an LRU cache of {@link RepositoryProperties#queryCacheSize() query cache size} entries,
+ * so that preparing a query is a cache lookup and the binding of its parameters. Since the text of the statements
+ * depends only on the shape, the statements are also reused by the prepared statement cache of the driver.</p>
+ *
+ * <p>Only the fields whitelisted by the {@link EntityMapping} of the entity can be filtered and sorted on, any other
+ * field is rejected. {@link FilterOperator#IN} and {@link FilterOperator#NOT_IN} filters are bound as a single array
+ * parameter, so that lists of any length share the same statement. In offset pagination mode the offset of the
+ * constraints is the number of the page to fetch.</p>
+ *
+ * <p>In keyset pagination mode items are ordered by the timestamp field with the id field as a tie-breaker, newest
+ * first unless the timestamp field is explicitly sorted in ascending order. One item more than the limit is fetched
+ * whenever the constraints {@link QueryConstraints#isLookahead() look ahead}, so that the caller can tell whether there
+ * is a next page.</p>
+ *
+ * <p>The hits, misses and evictions of the cache are published as the {@code tailfin.query.cache.*} metrics. The
+ * number of queries prepared per shape, in terms of the filtered and sorted columns, is kept for
+ * {@link IndexAdvisor}, for at most as many distinct shapes as the cache holds.</p>
+ *
+ * @see EntityMapping
+ * @see QueryTemplate
+ * @see ContinuationToken
+ */
+@Component
+public class QueryCompiler implements MeterBinder {
+    private final Map<Shape, Compiled> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final Map<ObservedShape, LongAdder> observed = new ConcurrentHashMap<>();
+    private final int maximumObserved;
+
+    /**
+     * Creates a new instance of {@link QueryCompiler}.
+     *
+     * @param properties    The repository configuration holding the size of the cache.
+     */
+    public QueryCompiler(RepositoryProperties properties) {
+        int maximumSize = properties.queryCacheSize();
+        this.maximumObserved = maximumSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Shape, Compiled> eldest) {
+                if (size() > maximumSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Prepares a query for the specified constraints, compiling the statements of their shape unless they are cached.
+     *
+     * @param mapping       The mapping of the entity the query selects.
+     * @param query         The name of the query, unique per template of the entity.
+     * @param constraints   The constraints to apply to the query.
+     * @param template      The template that assembles the statements of the query from the rendered fragments.
+     * @param parameters    The parameters of the template, to which the parameters of the constraints are added.
+     *
+     * @return  The statements of the query with their parameters.
+     *
+     * @throws IllegalArgumentException If the constraints refer to a field that is not whitelisted, or cannot be
+     *                                  applied in their pagination mode.
+     */
+    public PreparedQuery prepare(EntityMapping mapping,
+                                 String query,
+                                 QueryConstraints<?> constraints,
+                                 QueryTemplate template,
+                                 MapSqlParameterSource parameters) {
+        Shape shape = Shape.of(mapping, query, constraints);
+        Compiled compiled;
+        synchronized (cache) {
+            compiled = cache.get(shape);
+        }
+        if (compiled != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            compiled = compile(mapping, shape, template);
+            synchronized (cache) {
+                cache.put(shape, compiled);
+            }
+        }
+        bind(mapping, shape, constraints, parameters);
+        observe(compiled.observed());
+        return new PreparedQuery(query, compiled.sql(), compiled.countSql(), parameters);
+    }
+
+    /**
+     * Returns the number of queries whose shape was found in the cache.
+     *
+     * @return  The number of cache hits.
+     */
+    public long hits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of queries whose shape had to be compiled.
+     *
+     * @return  The number of cache misses.
+     */
+    public long misses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of compiled shapes in the cache.
+     *
+     * @return  The size of the cache.
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Returns the shapes that queries were prepared with since the start or since they were last cleared.
+     *
+     * @return  The shapes with the number of queries prepared with each, most used first.
+     */
+    public List<ObservedShape> observedShapes() {
+        List<ObservedShape> shapes = new ArrayList<>(observed.size());
+        observed.forEach((shape, count) -> shapes.add(new ObservedShape(shape.entity(), shape.table(), shape.query(),
+                shape.filters(), shape.sortColumns(), shape.paginationMode(), count.sum())));
+        shapes.sort(Comparator.comparingLong(ObservedShape::count).reversed());
+        return shapes;
+    }
+
+    /**
+     * Forgets the shapes that queries were prepared with.
+     */
+    public void clearObservedShapes() {
+        observed.clear();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("tailfin.query.cache.hits", this, QueryCompiler::hits)
+                .description("Queries whose compiled statements were found in the cache")
+                .register(registry);
+        FunctionCounter.builder("tailfin.query.cache.misses", this, QueryCompiler::misses)
+                .description("Queries whose statements had to be compiled")
+                .register(registry);
+        FunctionCounter.builder("tailfin.query.cache.evictions", evictions, AtomicLong::get)
+                .description("Compiled statements evicted from the cache")
+                .register(registry);
+        Gauge.builder("tailfin.query.cache.size", this, QueryCompiler::size)
+                .description("Compiled statements in the cache")
+                .register(registry);
+    }
+
+    private void observe(ObservedShape shape) {
+        LongAdder count = observed.get(shape);
+        if (count == null) {
+            if (observed.size() >= maximumObserved) {
+                return;
+            }
+            count = observed.computeIfAbsent(shape, key -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    private static Compiled compile(EntityMapping mapping, Shape shape, QueryTemplate template) {
+        StringBuilder filters = new StringBuilder();
+        for (int i = 0; i < shape.filters().size(); i++) {
+            FilterShape filter = shape.filters().get(i);
+            String column = mapping.column(filter.field());
+            String parameter = ":filter" + i;
+            filters.append(" and ");
+            switch (filter.operator()) {
+                case IS_NULL, IS_NOT_NULL -> filters.append(column).append(' ').append(filter.operator().getValue());
+                case IN -> filters.append(filter.arrayType().isEmpty() ? "false"
+                        : column + " = any(" + parameter + ")");
+                case NOT_IN -> filters.append(filter.arrayType().isEmpty() ? "true"
+                        : column + " <> all(" + parameter + ")");
+                default -> filters.append(column).append(' ').append(filter.operator().getValue())
+                        .append(' ').append(parameter);
+            }
+        }
+
+        String seek = "";
+        String orderBy;
+        String paging;
+        if (shape.paginationMode() == PaginationMode.KEYSET) {
+            boolean ascending = keysetDirection(mapping, shape) == SortDirection.ASCENDING;
+            String timestamp = mapping.column(mapping.timestampField());
+            String id = mapping.column(mapping.idField());
+            if (shape.seek()) {
+                // The redundant bound on the timestamp alone lets the planner prune partitions and index ranges,
+                // which it cannot do from the row comparison.
+                seek = " and " + timestamp + (ascending ? " >= " : " <= ") + ":keysetCreatedAt" +
+                        " and (" + timestamp + ", " + id + (ascending ? ") > (" : ") < (") +
+                        ":keysetCreatedAt, :keysetId)";
+            }
+            String direction = ascending ? " asc" : " desc";
+            orderBy = " order by " + timestamp + direction + ", " + id + direction;
+            paging = " limit :limit";
+        } else {
+            orderBy = renderOrderBy(mapping, shape);
+            paging = " limit :limit offset :offset";
+        }
+
+        QueryTemplate.Statements statements = template.render(
+                new QueryTemplate.Fragments(filters.toString(), seek, orderBy, paging, shape.paginationMode()));
+        return new Compiled(statements.sql(), statements.countSql(), observedShape(mapping, shape));
+    }
+
+    private static ObservedShape observedShape(EntityMapping mapping, Shape shape) {
+        List<ObservedShape.Filter> filters = new ArrayList<>(shape.filters().size());
+        for (FilterShape filter : shape.filters()) {
+            filters.add(new ObservedShape.Filter(mapping.column(filter.field()), filter.operator()));
+        }
+        List<String> sortColumns = new ArrayList<>();
+        if (shape.paginationMode() == PaginationMode.KEYSET) {
+            sortColumns.add(mapping.column(mapping.timestampField()));
+        } else {
+            for (Map.Entry<String, SortDirection> sort : shape.sorting()) {
+                if (!sort.getKey().equals(mapping.idField())) {
+                    sortColumns.add(mapping.column(sort.getKey()));
+                }
+            }
+            if (shape.sorting().isEmpty() && mapping.timestampField() != null) {
+                sortColumns.add(mapping.column(mapping.timestampField()));
+            }
+        }
+        return new ObservedShape(mapping.entity(), mapping.table(), shape.query(), filters, sortColumns,
+                shape.paginationMode(), 0);
+    }
+
+    private static String renderOrderBy(EntityMapping mapping, Shape shape) {
+        StringJoiner orderBy = new StringJoiner(", ", " order by ", "");
+        String idDirection = " desc";
+        for (Map.Entry<String, SortDirection> sort : shape.sorting()) {
+            String direction = sort.getValue() == SortDirection.DEFAULT ? "" : " " + sort.getValue().getValue();
+            if (sort.getKey().equals(mapping.idField())) {
+                idDirection = direction;
+                continue;
+            }
+            orderBy.add(mapping.column(sort.getKey()) + direction);
+        }
+        if (shape.sorting().isEmpty() && mapping.timestampField() != null) {
+            orderBy.add(mapping.column(mapping.timestampField()) + " desc");
+        }
+        orderBy.add(mapping.column(mapping.idField()) + idDirection);
+        return orderBy.toString();
+    }
+
+    private static SortDirection keysetDirection(EntityMapping mapping, Shape shape) {
+        if (mapping.timestampField() == null) {
+            throw new IllegalArgumentException("Keyset pagination is not supported for " + mapping.entity());
+        }
+        SortDirection direction = SortDirection.DEFAULT;
+        for (Map.Entry<String, SortDirection> sort : shape.sorting()) {
+            if (sort.getKey().equals(mapping.timestampField())) {
+                direction = sort.getValue();
+            } else if (!sort.getKey().equals(mapping.idField())) {
+                throw new IllegalArgumentException("Cannot sort by " + sort.getKey() + " in keyset pagination mode");
+            }
+        }
+        return direction == SortDirection.ASCENDING ? SortDirection.ASCENDING : SortDirection.DESCENDING;
+    }
+
+    private static void bind(EntityMapping mapping,
+                             Shape shape,
+                             QueryConstraints<?> constraints,
+                             MapSqlParameterSource parameters) {
+        int index = 0;
+        for (FilterDefinition<?> filter : constraints.getFilters()) {
+            FilterShape filterShape = shape.filters().get(index);
+            String parameter = "filter" + index++;
+            switch (filter.operator()) {
+                case IS_NULL, IS_NOT_NULL -> {
+                    // no value
+                }
+                case IN, NOT_IN -> {
+                    if (!filterShape.arrayType().isEmpty()) {
+                        parameters.addValue(parameter,
+                                new SqlArray(filterShape.arrayType(), convertAll(mapping, filter.value())));
+                    }
+                }
+                default -> parameters.addValue(parameter, mapping.valueConverter().apply(filter.value()));
+            }
+        }
+
+        if (shape.paginationMode() == PaginationMode.KEYSET) {
+            ContinuationToken token = constraints.getContinuationToken();
+            if (token != null) {
+                parameters.addValue("keysetCreatedAt", Timestamp.valueOf(token.createdAt()));
+                parameters.addValue("keysetId", token.id().toLong());
+            }
+        } else {
+            parameters.addValue("offset", constraints.getOffset() * constraints.getLimit());
+        }
+        parameters.addValue("limit", constraints.isLookahead() ? constraints.getLimit() + 1 : constraints.getLimit());
+    }
+
+    private static List<Object> convertAll(EntityMapping mapping, Object value) {
+        if (!(value instanceof Collection<?> values)) {
+            throw new IllegalArgumentException("The value of an in filter must be a collection");
+        }
+        List<Object> converted = new ArrayList<>(values.size());
+        for (Object element : values) {
+            converted.add(mapping.valueConverter().apply(element));
+        }
+        return converted;
+    }
+
+    /**
+     * Returns the name of the database array type for the values of an in filter, or an empty string if there are no
+     * values.
+     */
+    private static String arrayType(EntityMapping mapping, Object value) {
+        if (!(value instanceof Collection<?> values)) {
+            throw new IllegalArgumentException("The value of an in filter must be a collection");
+        }
+        if (values.isEmpty()) {
+            return "";
+        }
+        Object first = mapping.valueConverter().apply(values.iterator().next());
+        return switch (first) {
+            case Long l -> "bigint";
+            case Integer i -> "integer";
+            case BigDecimal d -> "numeric";
+            case Timestamp t -> "timestamp";
+            case Date d -> "date";
+            case Boolean b -> "boolean";
+            case String s -> "text";
+            case null -> throw new IllegalArgumentException("The values of an in filter cannot be null");
+            default -> throw new IllegalArgumentException("Cannot filter by a list of " +
+                    first.getClass().getSimpleName());
+        };
+    }
+
+    /**
+     * The shape of a filter: its field, operator, and for in filters the array type of its values.
+     */
+    private record FilterShape(String field, FilterOperator operator, String arrayType) {
+    }
+
+    /**
+     * The shape of constraints applied to a query, which determines the text of its statements.
+     */
+    private record Shape(String entity,
+                         String query,
+                         List<FilterShape> filters,
+                         List<Map.Entry<String, SortDirection>> sorting,
+                         PaginationMode paginationMode,
+                         boolean seek) {
+        static Shape of(EntityMapping mapping, String query, QueryConstraints<?> constraints) {
+            List<FilterShape> filters = new ArrayList<>(constraints.getFilters().size());
+            for (FilterDefinition<?> filter : constraints.getFilters()) {
+                boolean in = filter.operator() == FilterOperator.IN || filter.operator() == FilterOperator.NOT_IN;
+                filters.add(new FilterShape(filter.field(), filter.operator(),
+                        in ? arrayType(mapping, filter.value()) : null));
+            }
+            List<Map.Entry<String, SortDirection>> sorting = new ArrayList<>(constraints.getSorting().size());
+            for (Map.Entry<String, SortDirection> sort : constraints.getSorting().entrySet()) {
+                sorting.add(Map.entry(sort.getKey(), sort.getValue()));
+            }
+            return new Shape(mapping.entity(), query, filters, sorting, constraints.getPaginationMode(),
+                    constraints.getPaginationMode() == PaginationMode.KEYSET
+                            && constraints.getContinuationToken() != null);
+        }
+    }
+
+    /**
+     * The statements compiled for a shape, and the shape in terms of columns under which its use is counted.
+     */
+    private record Compiled(String sql, String countSql, ObservedShape observed) {
+    }
+}
@@ -0,0 +1,134 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.stereotype.Component;
+
+import dev.coderkini.tailfin.commons.repository.CountStrategy;
+import dev.coderkini.tailfin.commons.repository.PagedResult;
+
+/**
+ * <p>Obtains the total number of items matching a query with the {@link CountStrategy} of its constraints.</p>
+ *
+ * <p>Cached counts are kept for {@link RepositoryProperties#countCacheTtl() count cache TTL} in an LRU cache of
+ * {@link RepositoryProperties#countCacheSize() count cache size} entries, keyed by the count statement and the values
+ * of the parameters it uses. Estimated counts are read from the plan of the count statement: the rows the planner
+ * expects to feed into each {@code count(*)} aggregate.</p>
+ *
+ * @see PreparedQuery#countSql()
+ */
+@Component
+public class QueryCounter {
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final long ttlNanos;
+    private final Map<CacheKey, CachedCount> cache;
+
+    /**
+     * Creates a new instance of {@link QueryCounter}.
+     *
+     * @param jdbc          The template used to run the count statements.
+     * @param properties    The repository configuration holding the TTL and the size of the cache.
+     */
+    public QueryCounter(NamedParameterJdbcTemplate jdbc, RepositoryProperties properties) {
+        this.jdbc = jdbc;
+        this.ttlNanos = properties.countCacheTtl().toNanos();
+        int maximumSize = properties.countCacheSize();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedCount> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Counts the items of a query.
+     *
+     * @param strategy      The strategy to count with.
+     * @param countSql      The statement that counts the items of the query with {@code count(*)}.
+     * @param parameters    The values of the named parameters of the statement.
+     *
+     * @return  The total number of items, or {@link PagedResult#UNKNOWN_TOTAL} for {@link CountStrategy#HAS_MORE}.
+     */
+    public long count(CountStrategy strategy, String countSql, MapSqlParameterSource parameters) {
+        return switch (strategy) {
+            case EXACT -> exact(countSql, parameters);
+            case CACHED -> cached(countSql, parameters);
+            case ESTIMATED -> estimated(countSql, parameters);
+            case HAS_MORE -> PagedResult.UNKNOWN_TOTAL;
+        };
+    }
+
+    private long exact(String countSql, MapSqlParameterSource parameters) {
+        Long count = jdbc.queryForObject(countSql, parameters, Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private long cached(String countSql, MapSqlParameterSource parameters) {
+        // Only the parameters used by the statement are part of the key, the paging parameters are not.
+        CacheKey key = new CacheKey(countSql, Arrays.asList(NamedParameterUtils.buildValueArray(
+                NamedParameterUtils.parseSqlStatement(countSql), parameters, null)));
+        long now = System.nanoTime();
+        synchronized (cache) {
+            CachedCount cached = cache.get(key);
+            if (cached != null && now - cached.countedAt() < ttlNanos) {
+                return cached.count();
+            }
+        }
+        long count = exact(countSql, parameters);
+        synchronized (cache) {
+            cache.put(key, new CachedCount(count, now));
+        }
+        return count;
+    }
+
+    private long estimated(String countSql, MapSqlParameterSource parameters) {
+        String plan = jdbc.queryForObject("explain (format json) " + countSql, parameters, String.class);
+        try {
+            return estimate(JSON.readTree(plan).get(0).get("Plan"));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable query plan " + plan, e);
+        }
+    }
+
+    /**
+     * Returns the number of rows the planner expects to be counted by the aggregates in the specified plan node.
+     * Rows of parallel plans are estimated per process, and are multiplied by the processes taking part.
+     */
+    private static long estimate(JsonNode node) {
+        long rows = 0;
+        String type = node.path("Node Type").asText();
+        String partialMode = node.path("Partial Mode").asText("Simple");
+        for (Iterator<JsonNode> children = node.path("Plans").elements(); children.hasNext(); ) {
+            JsonNode child = children.next();
+            boolean outer = "Outer".equals(child.path("Parent Relationship").asText());
+            if (type.equals("Aggregate") && !partialMode.equals("Finalize") && outer) {
+                rows += child.path("Plan Rows").asLong();
+            } else {
+                rows += estimate(child);
+            }
+        }
+        if (type.equals("Gather") || type.equals("Gather Merge")) {
+            rows *= node.path("Workers Planned").asLong() + 1;
+        }
+        return rows;
+    }
+
+    private record CacheKey(String countSql, List<Object> values) {
+    }
+
+    private record CachedCount(long count, long countedAt) {
+    }
+}
@@ -0,0 +1,42 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import dev.coderkini.tailfin.commons.repository.PaginationMode;
+
+/**
+ * Assembles the statements of a query from the fragments {@link QueryCompiler} renders for a shape of constraints.
+ * A template must be a pure function of the fragments, as its output is cached per shape.
+ *
+ * @see QueryCompiler
+ */
+@FunctionalInterface
+public interface QueryTemplate {
+    /**
+     * Assembles the statements of the query.
+     *
+     * @param fragments The rendered fragments.
+     *
+     * @return  The statements of the query.
+     */
+    Statements render(Fragments fragments);
+
+    /**
+     * The fragments rendered from a shape of constraints, each of which is either empty or starts with a space.
+     *
+     * @param filters   The filter conditions, as a sequence of {@code and} conditions.
+     * @param seek      The condition that seeks past the continuation token, as an {@code and} condition.
+     * @param orderBy   The {@code order by} clause.
+     * @param paging    The {@code limit} and {@code offset} clauses.
+     * @param mode      The pagination mode of the constraints.
+     */
+    record Fragments(String filters, String seek, String orderBy, String paging, PaginationMode mode) {
+    }
+
+    /**
+     * The statements of a query.
+     *
+     * @param sql       The statement that selects the items.
+     * @param countSql  The statement that counts the items regardless of paging, or null if there is none.
+     */
+    record Statements(String sql, String countSql) {
+    }
+}
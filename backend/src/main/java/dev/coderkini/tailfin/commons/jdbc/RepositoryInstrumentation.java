@@ -0,0 +1,61 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import java.lang.reflect.Method;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.ClassUtils;
+
+/**
+ * <p>Instruments every {@link Repository @Repository} bean with {@link RepositoryMetricsInterceptor}, so the calls of
+ * its repository methods are timed and counted without touching the repositories themselves.</p>
+ *
+ * <p>The repository methods of a bean are the methods of the interfaces it implements whose name ends in
+ * {@code Repository}, such as {@code AccountRepository}, so that methods of other interfaces, like
+ * {@link io.micrometer.core.instrument.binder.MeterBinder#bindTo(MeterRegistry)}, are left alone. A repository that
+ * delegates to another repository, like the bank cache, is measured at both levels, tagged by the class of each.</p>
+ *
+ * <p>The interceptor is added in front of the advice a bean already has, such as the exception translation of
+ * {@code @Repository} beans, and the beans are proxied by class, as some are injected by their class.</p>
+ */
+@Component
+public class RepositoryInstrumentation extends AbstractAdvisingBeanPostProcessor {
+    /**
+     * Creates a new instance of {@link RepositoryInstrumentation}.
+     *
+     * @param registries    The registry the metrics are recorded in, looked up lazily as post processors are created
+     *                      before the other beans.
+     */
+    public RepositoryInstrumentation(ObjectProvider<MeterRegistry> registries) {
+        this.advisor = new DefaultPointcutAdvisor(new RepositoryMethods(),
+                new RepositoryMetricsInterceptor(registries));
+        setBeforeExistingAdvisors(true);
+        setProxyTargetClass(true);
+    }
+
+    /**
+     * Matches the repository methods of the {@code @Repository} beans.
+     */
+    private static final class RepositoryMethods extends StaticMethodMatcherPointcut {
+        RepositoryMethods() {
+            setClassFilter(clazz -> AnnotatedElementUtils.hasAnnotation(clazz, Repository.class));
+        }
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(targetClass)) {
+                if (type.getSimpleName().endsWith("Repository")
+                        && ClassUtils.hasMethod(type, method.getName(), method.getParameterTypes())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+import dev.coderkini.tailfin.commons.repository.BatchResult;
+import dev.coderkini.tailfin.commons.repository.PagedResult;
+import dev.coderkini.tailfin.commons.repository.QueryConstraints;
+import dev.coderkini.tailfin.commons.repository.SortDirection;
+
+/**
+ * <p>Records the latency, the rows and the statements of every call of a repository method, tagged by the repository,
+ * the method and the shape of the {@link QueryConstraints} it was called with.</p>
+ *
+ * <p>The shape is tagged as the filtered fields with their operators, in the order of their fields, the sorted fields
+ * with their directions, in the order they are sorted by, and the page size, pagination mode and count strategy.
+ * Filter values are never tagged. Callers choose the field names, so to keep the number of meters bounded, fields that
+ * no {@link EntityMapping} whitelists are all tagged {@value #OTHER}, repeated fields are tagged once, and page sizes
+ * above {@value #MAX_LIMIT_TAG} are tagged together. Calls without constraints are tagged {@code none} for each of
+ * these, so every meter has the same tags.</p>
+ *
+ * <p>The rows of a call are the size of a returned collection or map, the number of items read from a returned
+ * {@link PagedResult} or {@link Stream}, the saved items of a {@link BatchResult}, and one or none for a single item.
+ * The statements of a call are counted with {@link StatementCounter} when the call returns, so they include the
+ * statements of nested repository calls made by the same thread.</p>
+ *
+ * <p>Pages and streams whose rows were already read when the call returns are recorded right away. Those that read
+ * their rows lazily from a cursor of {@link JdbcCursorTemplate}, offset paginated pages counted exactly and streams,
+ * are recorded once they are closed, so that the latency covers the reading of the rows as well. Their statements
+ * are the ones counted when the call returned plus the statement of the cursor, whichever thread reads the rows. A
+ * lazy page or stream that is never closed is not recorded.</p>
+ *
+ * <p>The metrics are {@code tailfin.repository.calls}, a timer with a percentile histogram,
+ * {@code tailfin.repository.rows} and {@code tailfin.repository.statements}.</p>
+ *
+ * @see RepositoryInstrumentation
+ */
+class RepositoryMetricsInterceptor implements MethodInterceptor {
+    static final int MAX_LIMIT_TAG = 1000;
+    static final String OTHER = "other";
+
+    private static final String NONE = "none";
+
+    private final ObjectProvider<MeterRegistry> registries;
+    private volatile MeterRegistry registry;
+
+    /**
+     * Creates a new instance of {@link RepositoryMetricsInterceptor}.
+     *
+     * @param registries    The registry the metrics are recorded in, looked up on the first call.
+     */
+    RepositoryMetricsInterceptor(ObjectProvider<MeterRegistry> registries) {
+        this.registries = registries;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MeterRegistry meters = registry();
+        if (meters == null) {
+            return invocation.proceed();
+        }
+        long statementsBefore = StatementCounter.current();
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            record(meters, tags(invocation).and("outcome", "error", "exception", e.getClass().getSimpleName()), start,
+                    StatementCounter.current() - statementsBefore);
+            throw e;
+        }
+        long statements = StatementCounter.current() - statementsBefore;
+        // Tagged after the call, so the entity mappings used by the repository have been created.
+        Tags tags = tags(invocation);
+        Tags success = tags.and("outcome", "success", "exception", NONE);
+        if (isLazy(result)) {
+            // The cursor prepares its statement once the rows are read, possibly on another thread.
+            return counted(result, rows(meters, tags), () -> record(meters, success, start, statements + 1));
+        }
+        record(meters, success, start, statements);
+        return invocation.getMethod().getReturnType() == void.class ? result : rows(meters, tags, result);
+    }
+
+    private MeterRegistry registry() {
+        MeterRegistry meters = registry;
+        if (meters == null) {
+            meters = registries.getIfAvailable();
+            registry = meters;
+        }
+        return meters;
+    }
+
+    private static boolean isLazy(Object result) {
+        return switch (result) {
+            case PagedResult<?> page -> page.items() instanceof ClosingStream<?>;
+            case Stream<?> stream -> stream instanceof ClosingStream<?>;
+            case null, default -> false;
+        };
+    }
+
+    private static void record(MeterRegistry meters, Tags tags, long start, long statements) {
+        Timer.builder("tailfin.repository.calls")
+                .description("Latency of repository calls")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meters)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("tailfin.repository.statements")
+                .description("Statements prepared by repository calls")
+                .tags(tags)
+                .register(meters)
+                .record(statements);
+    }
+
+    private static DistributionSummary rows(MeterRegistry meters, Tags tags) {
+        return DistributionSummary.builder("tailfin.repository.rows")
+                .description("Rows returned by repository calls")
+                .tags(tags)
+                .register(meters);
+    }
+
+    private static Object rows(MeterRegistry meters, Tags tags, Object result) {
+        DistributionSummary rows = rows(meters, tags);
+        return switch (result) {
+            case null -> {
+                rows.record(0);
+                yield null;
+            }
+            case Collection<?> collection -> {
+                rows.record(collection.size());
+                yield collection;
+            }
+            case Map<?, ?> map -> {
+                rows.record(map.size());
+                yield map;
+            }
+            case BatchResult<?> batch -> {
+                rows.record(batch.saved());
+                yield batch;
+            }
+            case PagedResult<?> page -> read(page, rows);
+            case Stream<?> stream -> read(stream, rows);
+            case Number number -> number;
+            case Boolean bool -> bool;
+            default -> {
+                rows.record(1);
+                yield result;
+            }
+        };
+    }
+
+    /**
+     * Returns the specified lazy page or stream, counting the rows read from it and recording them and the call once it
+     * is closed.
+     */
+    private static Object counted(Object result, DistributionSummary rows, Runnable call) {
+        return switch (result) {
+            case PagedResult<?> page -> counted(page, rows, call);
+            case Stream<?> stream -> counted(stream, rows, call);
+            default -> throw new IllegalArgumentException("Not a page or a stream: " + result);
+        };
+    }
+
+    private static <T> PagedResult<T> read(PagedResult<T> page, DistributionSummary rows) {
+        return new PagedResult<>(read(page.items(), rows), page.constraints(), page.totalItems(),
+                page.continuationToken(), page.hasMore());
+    }
+
+    /**
+     * Returns the items of the specified stream, whose rows were already read, recording how many there are.
+     */
+    private static <T> Stream<T> read(Stream<T> items, DistributionSummary rows) {
+        List<T> read = items.toList();
+        rows.record(read.size());
+        return read.stream().onClose(items::close);
+    }
+
+    private static <T> PagedResult<T> counted(PagedResult<T> page, DistributionSummary rows, Runnable call) {
+        return new PagedResult<>(counted(page.items(), rows, call), page.constraints(), page.totalItems(),
+                page.continuationToken(), page.hasMore());
+    }
+
+    private static <T> Stream<T> counted(Stream<T> items, DistributionSummary rows, Runnable call) {
+        AtomicLong read = new AtomicLong();
+        return items.peek(item -> read.incrementAndGet()).onClose(() -> {
+            rows.record(read.get());
+            call.run();
+        });
+    }
+
+    private static Tags tags(MethodInvocation invocation) {
+        Object target = invocation.getThis();
+        String repository = target == null
+                ? invocation.getMethod().getDeclaringClass().getSimpleName()
+                : AopUtils.getTargetClass(target).getSimpleName();
+        QueryConstraints<?> constraints = null;
+        for (Object argument : invocation.getArguments()) {
+            if (argument instanceof QueryConstraints<?> found) {
+                constraints = found;
+            }
+        }
+        return Tags.of(Tag.of("repository", repository), Tag.of("method", invocation.getMethod().getName()))
+                .and(shape(constraints));
+    }
+
+    /**
+     * Returns the tags of the shape of the specified constraints.
+     *
+     * @param constraints   The constraints of a call, or null if it has none.
+     *
+     * @return  The tags of the shape.
+     */
+    static Tags shape(QueryConstraints<?> constraints) {
+        if (constraints == null) {
+            return Tags.of("filters", NONE, "sort", NONE, "limit", NONE, "pagination", NONE, "count", NONE);
+        }
+        String filterTag = constraints.getFilters().isEmpty() ? NONE : constraints.getFilters().stream()
+                .map(filter -> field(filter.field()) + ":" + filter.operator())
+                .sorted()
+                .distinct()
+                .collect(Collectors.joining(","));
+        Map<String, SortDirection> sorting = constraints.getSorting();
+        String sortTag = sorting.isEmpty() ? NONE : sorting.entrySet().stream()
+                .map(sort -> field(sort.getKey()) + ":" + sort.getValue())
+                .distinct()
+                .collect(Collectors.joining(","));
+        int limit = constraints.getLimit();
+        return Tags.of("filters", filterTag,
+                "sort", sortTag,
+                "limit", limit > MAX_LIMIT_TAG ? MAX_LIMIT_TAG + "+" : Integer.toString(limit),
+                "pagination", constraints.getPaginationMode().name(),
+                "count", constraints.getCountStrategy().name());
+    }
+
+    private static String field(String field) {
+        return EntityMapping.isMapped(field) ? field : OTHER;
+    }
+}
@@ -0,0 +1,45 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the JDBC backed repositories, bound from the {@code tailfin.repository} properties.
+ *
+ * @param fetchSize                   The number of rows fetched from the database at a time when streaming query
+ *                                    results.
+ * @param batchSize                   The number of rows written to the database in a single JDBC batch.
+ * @param copyThreshold               The number of rows from which a batch write is streamed with {@code COPY}
+ *                                    instead.
+ * @param queryCacheSize              The number of compiled query shapes kept by {@link QueryCompiler}.
+ * @param countCacheTtl               How long a {@link dev.coderkini.tailfin.commons.repository.CountStrategy#CACHED
+ *                                    cached} count is reused.
+ * @param countCacheSize              The number of cached counts kept by {@link QueryCounter}.
+ * @param bankCacheSize               The number of banks kept by the read-through bank cache.
+ * @param idempotencyFilterAccounts   The number of accounts whose idempotency keys are kept in in-memory filters.
+ * @param idempotencyFilterFalsePositiveProbability
+ *                                    The false positive probability of the in-memory idempotency key filters.
+ * @param maxConcurrentConnections    The number of connections that may be borrowed from the pool at the same time,
+ *                                    or 0 for the maximum size of the pool. See {@link AdmissionControlledDataSource}.
+ * @param connectionAdmissionTimeout  How long a caller waits for its turn to borrow a connection before the call
+ *                                    fails.
+ * @param slowQueryThreshold          How long a query must take to be kept by {@link SlowQueryLog}.
+ * @param slowQueryLogSize            The number of slow queries kept by {@link SlowQueryLog}.
+ */
+@ConfigurationProperties("tailfin.repository")
+public record RepositoryProperties(@DefaultValue("500") int fetchSize,
+                                   @DefaultValue("500") int batchSize,
+                                   @DefaultValue("5000") int copyThreshold,
+                                   @DefaultValue("1024") int queryCacheSize,
+                                   @DefaultValue("30s") Duration countCacheTtl,
+                                   @DefaultValue("1024") int countCacheSize,
+                                   @DefaultValue("10000") int bankCacheSize,
+                                   @DefaultValue("10000") int idempotencyFilterAccounts,
+                                   @DefaultValue("0.01") double idempotencyFilterFalsePositiveProbability,
+                                   @DefaultValue("0") int maxConcurrentConnections,
+                                   @DefaultValue("5s") Duration connectionAdmissionTimeout,
+                                   @DefaultValue("200ms") Duration slowQueryThreshold,
+                                   @DefaultValue("100") int slowQueryLogSize) {
+}
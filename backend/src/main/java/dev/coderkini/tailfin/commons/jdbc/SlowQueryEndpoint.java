@@ -0,0 +1,68 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * <p>Actuator endpoint to inspect the slow queries kept by {@link SlowQueryLog}.</p>
+ *
+ * <p>{@code GET /actuator/slowqueries} lists the slow queries, slowest first. {@code GET /actuator/slowqueries/{id}}
+ * runs the query with the id again with {@code EXPLAIN (ANALYZE, BUFFERS)} and returns the lines of its plan.
+ * {@code DELETE /actuator/slowqueries} drops the queries kept.</p>
+ *
+ * @see SlowQueryLog
+ */
+@Component
+@Endpoint(id = "slowqueries")
+class SlowQueryEndpoint {
+    private final SlowQueryLog slowQueries;
+
+    /**
+     * Creates a new instance of {@link SlowQueryEndpoint}.
+     *
+     * @param slowQueries   The log of the slow queries.
+     */
+    SlowQueryEndpoint(SlowQueryLog slowQueries) {
+        this.slowQueries = slowQueries;
+    }
+
+    /**
+     * Lists the slow queries.
+     *
+     * @return  The slow queries, slowest first.
+     */
+    @ReadOperation
+    public List<SlowQueryLog.SlowQuery> slowQueries() {
+        return slowQueries.slowest();
+    }
+
+    /**
+     * Explains the slow query with the specified id.
+     *
+     * @param id    The id of the query.
+     *
+     * @return  The lines of the plan, or a not found response if the query is not kept.
+     */
+    @ReadOperation
+    public WebEndpointResponse<Object> explain(@Selector long id) {
+        try {
+            return new WebEndpointResponse<>(slowQueries.explain(id));
+        } catch (IllegalArgumentException e) {
+            return new WebEndpointResponse<>(e.getMessage(), WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+    }
+
+    /**
+     * Drops the slow queries kept.
+     */
+    @DeleteOperation
+    public void clear() {
+        slowQueries.clear();
+    }
+}
@@ -0,0 +1,187 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * <p>Keeps the slowest queries compiled from {@link dev.coderkini.tailfin.commons.repository.QueryConstraints} that
+ * took at least the {@link RepositoryProperties#slowQueryThreshold() slow query threshold}, so a regression can be
+ * looked at without a profiler or database-wide statement logging.</p>
+ *
+ * <p>The queries are kept in a min-heap of {@link RepositoryProperties#slowQueryLogSize() slow query log size}
+ * entries ordered by their duration. Once it is full, a slower query replaces the fastest one kept and a query no
+ * slower than that is dropped, so a burst of queries just over the threshold cannot push out the outliers until
+ * {@link #clear()} is called. Each entry holds the statement, the types of its parameters and its timing. The values
+ * of the parameters are kept as well, but only to run {@code EXPLAIN (ANALYZE, BUFFERS)} on the query on demand, and
+ * are never handed out. The plan is taken in a read-only transaction that is rolled back.</p>
+ *
+ * @see SlowQueryEndpoint
+ */
+@Component
+public class SlowQueryLog {
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate readOnly;
+    private final long thresholdNanos;
+    private final int size;
+    private final PriorityQueue<Entry> entries;
+    private final AtomicLong ids = new AtomicLong();
+
+    /**
+     * Creates a new instance of {@link SlowQueryLog}.
+     *
+     * @param jdbc                  The template used to explain the queries.
+     * @param transactionManager    The transaction manager used to explain the queries in a rolled back transaction.
+     * @param properties            The repository configuration holding the threshold and the size of the log.
+     */
+    public SlowQueryLog(NamedParameterJdbcTemplate jdbc,
+                        PlatformTransactionManager transactionManager,
+                        RepositoryProperties properties) {
+        if (properties.slowQueryLogSize() < 1) {
+            throw new IllegalArgumentException("Slow query log size must be positive");
+        }
+        this.jdbc = jdbc;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.thresholdNanos = properties.slowQueryThreshold().toNanos();
+        this.size = properties.slowQueryLogSize();
+        this.entries = new PriorityQueue<>(size, Comparator.comparingDouble(entry -> entry.query().millis()));
+    }
+
+    /**
+     * Keeps the specified query if it took at least the threshold and is slower than the fastest query kept once the
+     * log is full.
+     *
+     * @param query         The name of the query.
+     * @param sql           The statement that was run.
+     * @param parameters    The values of the named parameters of the statement.
+     * @param nanos         How long the statement took, in nanoseconds.
+     * @param streamed      Whether the rows were streamed to the caller, in which case the time includes the time the
+     *                      caller spent on the rows.
+     */
+    public void record(String query, String sql, MapSqlParameterSource parameters, long nanos, boolean streamed) {
+        if (nanos < thresholdNanos) {
+            return;
+        }
+        SlowQuery slowQuery = new SlowQuery(ids.incrementAndGet(), query, sql, shapes(parameters),
+                nanos / (double) TimeUnit.MILLISECONDS.toNanos(1), streamed, Instant.now());
+        Entry entry = new Entry(slowQuery, new MapSqlParameterSource(parameters.getValues()));
+        synchronized (entries) {
+            if (entries.size() < size) {
+                entries.add(entry);
+            } else if (entries.peek().query().millis() < slowQuery.millis()) {
+                entries.poll();
+                entries.add(entry);
+            }
+        }
+    }
+
+    /**
+     * Returns the queries kept.
+     *
+     * @return  The queries, slowest first.
+     */
+    public List<SlowQuery> slowest() {
+        List<SlowQuery> queries = new ArrayList<>(size);
+        synchronized (entries) {
+            for (Entry entry : entries) {
+                queries.add(entry.query());
+            }
+        }
+        queries.sort(Comparator.comparingDouble(SlowQuery::millis).reversed());
+        return queries;
+    }
+
+    /**
+     * Runs the specified query again with {@code EXPLAIN (ANALYZE, BUFFERS)}.
+     *
+     * @param id    The id of the query.
+     *
+     * @return  The lines of the plan.
+     *
+     * @throws IllegalArgumentException if the query is not kept (anymore).
+     */
+    public List<String> explain(long id) {
+        Entry entry = null;
+        synchronized (entries) {
+            for (Entry candidate : entries) {
+                if (candidate.query().id() == id) {
+                    entry = candidate;
+                }
+            }
+        }
+        if (entry == null) {
+            throw new IllegalArgumentException("No slow query " + id);
+        }
+        Entry explained = entry;
+        return readOnly.execute(status -> {
+            status.setRollbackOnly();
+            return jdbc.queryForList("explain (analyze, buffers) " + explained.query().sql(), explained.parameters(),
+                    String.class);
+        });
+    }
+
+    /**
+     * Drops the queries kept.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private static Map<String, String> shapes(MapSqlParameterSource parameters) {
+        Map<String, String> shapes = new TreeMap<>();
+        parameters.getValues().forEach((name, value) -> shapes.put(name, shape(value)));
+        return shapes;
+    }
+
+    private static String shape(Object value) {
+        return switch (value) {
+            case null -> "null";
+            case SqlArray array -> array.typeName() + "[" + array.elements().size() + "]";
+            case Collection<?> collection -> "list[" + collection.size() + "]";
+            default -> value.getClass().getSimpleName();
+        };
+    }
+
+    /**
+     * Represents a slow query.
+     *
+     * @param id            The id of the query, used to explain it.
+     * @param query         The name of the query.
+     * @param sql           The statement that was run.
+     * @param parameters    The types of the values of the named parameters of the statement, by their name.
+     * @param millis        How long the statement took, in milliseconds.
+     * @param streamed      Whether the rows were streamed to the caller, in which case the time includes the time the
+     *                      caller spent on the rows.
+     * @param capturedAt    When the statement finished.
+     */
+    public record SlowQuery(long id,
+                            String query,
+                            String sql,
+                            Map<String, String> parameters,
+                            double millis,
+                            boolean streamed,
+                            Instant capturedAt) {
+    }
+
+    /**
+     * A slow query together with the values of its parameters.
+     */
+    private record Entry(SlowQuery query, MapSqlParameterSource parameters) {
+    }
+}
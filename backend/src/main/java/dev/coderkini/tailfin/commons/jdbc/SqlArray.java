@@ -0,0 +1,27 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.springframework.jdbc.core.SqlTypeValue;
+
+/**
+ * A list of values bound to a single parameter as a database array. Unlike a collection, which is expanded into one
+ * placeholder per element, an array keeps the text of the statement the same for lists of any length. Arrays are equal
+ * when their type and elements are equal, so they can be part of cache keys.
+ *
+ * @param typeName  The name of the database type of the elements.
+ * @param elements  The elements of the array.
+ */
+record SqlArray(String typeName, List<Object> elements) implements SqlTypeValue {
+    SqlArray {
+        elements = List.copyOf(elements);
+    }
+
+    @Override
+    public void setTypeValue(PreparedStatement ps, int paramIndex, int sqlType, String typeName)
+            throws SQLException {
+        ps.setArray(paramIndex, ps.getConnection().createArrayOf(this.typeName, elements.toArray()));
+    }
+}
@@ -0,0 +1,32 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+/**
+ * <p>Counts the JDBC statements prepared by the current thread, so that the number of statements a repository call
+ * issued is the difference of the count before and after the call.</p>
+ *
+ * <p>Statements are counted by {@link AdmissionControlledDataSource} as they are created on its connections. A
+ * statement prepared once and executed as a batch counts once. Statements on connections that were not borrowed
+ * through it are not counted.</p>
+ */
+public final class StatementCounter {
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private StatementCounter() {
+    }
+
+    /**
+     * Returns the number of statements the current thread has prepared so far.
+     *
+     * @return  The number of statements.
+     */
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    /**
+     * Counts a statement prepared by the current thread.
+     */
+    static void increment() {
+        COUNT.get()[0]++;
+    }
+}
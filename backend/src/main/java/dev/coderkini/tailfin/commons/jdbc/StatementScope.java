@@ -0,0 +1,115 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Bounds the JDBC statements that a thread creates while it is bound to the scope, so that work running in the
+ * database can be stopped from another thread, which interrupting the thread does not do.</p>
+ *
+ * <p>Every statement created within the scope gets a query timeout of the time left until the deadline of the scope,
+ * rounded up to whole seconds as JDBC requires, and {@link #cancel()} cancels the statements that are still running.
+ * Once the scope is cancelled, creating a statement within it fails with {@link SQLTimeoutException}.</p>
+ *
+ * <p>Statements are seen by {@link AdmissionControlledDataSource} as they are created on its connections, like
+ * {@link StatementCounter} counts them. Statements on connections that were not borrowed through it are not
+ * bounded.</p>
+ */
+public final class StatementScope {
+    private static final Logger log = LoggerFactory.getLogger(StatementScope.class);
+    private static final ThreadLocal<StatementScope> CURRENT = new ThreadLocal<>();
+
+    private final List<Statement> statements = new ArrayList<>();
+    private long deadlineNanos;
+    private boolean cancelled;
+
+    /**
+     * Binds the scope to the current thread until the returned binding is closed.
+     *
+     * @param timeoutNanos  The time the statements of the scope may take from now, in nanoseconds.
+     *
+     * @return  The binding, to be closed by the same thread.
+     */
+    public Binding bind(long timeoutNanos) {
+        synchronized (this) {
+            deadlineNanos = System.nanoTime() + timeoutNanos;
+        }
+        StatementScope previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Cancels the statements of the scope that are still running, and fails the statements created within it from now
+     * on. May be called by any thread.
+     */
+    public void cancel() {
+        List<Statement> running;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            running = List.copyOf(statements);
+            statements.clear();
+        }
+        for (Statement statement : running) {
+            try {
+                statement.cancel();
+            } catch (SQLException | RuntimeException e) {
+                log.debug("Could not cancel statement {}", statement, e);
+            }
+        }
+    }
+
+    /**
+     * Bounds the specified statement by the scope bound to the current thread, if there is one.
+     *
+     * @param statement The statement created by the current thread.
+     *
+     * @throws SQLTimeoutException  if the scope has been cancelled.
+     * @throws SQLException         if the query timeout cannot be set.
+     */
+    static void created(Statement statement) throws SQLException {
+        StatementScope scope = CURRENT.get();
+        if (scope != null) {
+            scope.add(statement);
+        }
+    }
+
+    private synchronized void add(Statement statement) throws SQLException {
+        if (cancelled) {
+            statement.close();
+            throw new SQLTimeoutException("Statements of the call were cancelled");
+        }
+        long remainingNanos = Math.max(0, deadlineNanos - System.nanoTime());
+        statement.setQueryTimeout((int) Math.max(1, Math.min(Integer.MAX_VALUE,
+                TimeUnit.NANOSECONDS.toSeconds(remainingNanos + TimeUnit.SECONDS.toNanos(1) - 1))));
+        statements.add(statement);
+    }
+
+    /**
+     * The binding of a {@link StatementScope} to a thread.
+     */
+    @FunctionalInterface
+    public interface Binding extends AutoCloseable {
+        /**
+         * Unbinds the scope from the thread it was bound to.
+         */
+        @Override
+        void close();
+    }
+}
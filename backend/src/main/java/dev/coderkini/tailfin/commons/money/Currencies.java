@@ -0,0 +1,52 @@
+package dev.coderkini.tailfin.commons.money;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.money.CurrencyUnit;
+import javax.money.Monetary;
+import javax.money.UnknownCurrencyException;
+
+/**
+ * <p>A cache of the {@link CurrencyUnit currency units} by their code.</p>
+ *
+ * <p>{@link Monetary#getCurrency(String, String...)} goes through the chain of currency providers every time it is
+ * called, which shows up when it is called for every row read or every account created. The few currencies in use are
+ * looked up once and then answered from memory. Unknown codes are not cached.</p>
+ */
+public final class Currencies {
+    private static final Map<String, CurrencyUnit> CURRENCIES = new ConcurrentHashMap<>();
+
+    /**
+     * The currency of accounts and amounts that do not specify one.
+     */
+    public static final CurrencyUnit DEFAULT = of("INR");
+
+    private Currencies() {
+    }
+
+    /**
+     * Returns the currency with the specified code. The code is trimmed and matched case-insensitively, so codes
+     * read from fixed-width columns and statements can be passed as they are.
+     *
+     * @param code  The ISO 4217 code of the currency.
+     *
+     * @return  The currency.
+     *
+     * @throws UnknownCurrencyException if there is no currency with the code.
+     */
+    public static CurrencyUnit of(String code) {
+        CurrencyUnit currency = CURRENCIES.get(code);
+        if (currency != null) {
+            return currency;
+        }
+        // Only normalized codes are cached, so the cache holds one entry per currency in use.
+        String normalized = code.trim().toUpperCase(Locale.ROOT);
+        currency = CURRENCIES.get(normalized);
+        if (currency == null) {
+            currency = Monetary.getCurrency(normalized);
+            CURRENCIES.putIfAbsent(normalized, currency);
+        }
+        return currency;
+    }
+}
@@ -0,0 +1,221 @@
+package dev.coderkini.tailfin.commons.money;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.money.CurrencyUnit;
+import javax.money.UnknownCurrencyException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import dev.coderkini.tailfin.commons.text.CsvFields;
+
+/**
+ * <p>A table of exchange rates loaded from a local file, for converting amounts between currencies without calling
+ * out to a rate provider.</p>
+ *
+ * <p>The table is configured with {@link MoneyProperties#exchangeRates() exchange rates} and is loaded once the
+ * application is ready, it can be reloaded with {@link #load(Resource)}. It is a CSV file with a header naming the
+ * {@code currency} and {@code rate} columns, where the rate is the value of one unit of the currency in the
+ * {@link MoneyProperties#baseCurrency() base currency}. Rates between two other currencies are derived through the
+ * base currency once and then cached until the table is reloaded. Conversions made while the table is loading use the
+ * previous rates.</p>
+ *
+ * @see MinorAmount
+ */
+@Component
+public class ExchangeRates {
+    private static final Logger log = LoggerFactory.getLogger(ExchangeRates.class);
+    private static final MathContext PRECISION = MathContext.DECIMAL64;
+
+    private final MoneyProperties properties;
+    private final CurrencyUnit baseCurrency;
+    private volatile Snapshot snapshot;
+
+    /**
+     * Create a new ExchangeRates instance, holding no rates until the table is loaded.
+     *
+     * @param properties    reference to the {@link MoneyProperties} holding the base currency and the rate table
+     */
+    public ExchangeRates(MoneyProperties properties) {
+        this.properties = properties;
+        this.baseCurrency = Currencies.of(properties.baseCurrency());
+        this.snapshot = new Snapshot(Map.of(baseCurrency, BigDecimal.ONE));
+    }
+
+    /**
+     * Returns the currency the rates are quoted in.
+     *
+     * @return the base currency
+     */
+    public CurrencyUnit baseCurrency() {
+        return baseCurrency;
+    }
+
+    /**
+     * Returns the rate to convert amounts in one currency to another, which is the value of one unit of the source
+     * currency in the target currency.
+     *
+     * @param from  the currency to convert from
+     * @param to    the currency to convert to
+     *
+     * @return the exchange rate
+     *
+     * @throws IllegalArgumentException if the table has no rate for either currency
+     */
+    public BigDecimal rate(CurrencyUnit from, CurrencyUnit to) {
+        if (from.equals(to)) {
+            return BigDecimal.ONE;
+        }
+        return snapshot.rate(from, to);
+    }
+
+    /**
+     * Converts the specified amount to the specified currency, rounding half-even to the minor unit.
+     *
+     * @param amount    the amount to convert
+     * @param to        the currency to convert to
+     *
+     * @return the converted amount
+     *
+     * @throws IllegalArgumentException if the table has no rate for either currency
+     * @throws ArithmeticException      if the converted amount does not fit in a long
+     */
+    public MinorAmount convert(MinorAmount amount, CurrencyUnit to) {
+        return convert(amount, to, rate(amount.currency(), to));
+    }
+
+    /**
+     * Converts the specified amount to the specified currency at the specified rate, rounding half-even to the minor
+     * unit. Used to convert many amounts at a rate that was looked up once.
+     *
+     * @param amount    the amount to convert
+     * @param to        the currency to convert to
+     * @param rate      the value of one unit of the currency of the amount in the target currency
+     *
+     * @return the converted amount
+     *
+     * @throws ArithmeticException if the converted amount does not fit in a long
+     */
+    public static MinorAmount convert(MinorAmount amount, CurrencyUnit to, BigDecimal rate) {
+        if (rate.compareTo(BigDecimal.ONE) == 0 && MinorAmount.scale(amount.currency()) == MinorAmount.scale(to)) {
+            return new MinorAmount(amount.units(), to);
+        }
+        BigDecimal converted = amount.toDecimal().multiply(rate)
+                .setScale(MinorAmount.scale(to), RoundingMode.HALF_EVEN);
+        return new MinorAmount(MinorAmount.toUnits(converted, to), to);
+    }
+
+    /**
+     * Loads the configured rate table once the application is ready. A missing or unreadable table leaves only the
+     * base currency convertible without failing the application.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void loadRateTable() {
+        Resource exchangeRates = properties.exchangeRates();
+        if (exchangeRates == null || !exchangeRates.exists()) {
+            log.info("No exchange rate table found at {}, only {} amounts can be converted", exchangeRates,
+                    baseCurrency.getCurrencyCode());
+            return;
+        }
+        try {
+            load(exchangeRates);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to load the exchange rate table {}", exchangeRates, e);
+        }
+    }
+
+    /**
+     * Replaces the rates with the rates of the specified table. Lines with an unknown currency or a rate that is not
+     * a positive number are skipped, and the rate of the base currency is always one.
+     *
+     * @param exchangeRates the rate table in CSV format
+     *
+     * @return the number of currencies that can be converted
+     *
+     * @throws IOException if the table cannot be read or has no currency and rate columns
+     */
+    public int load(Resource exchangeRates) throws IOException {
+        Map<CurrencyUnit, BigDecimal> rates = new HashMap<>();
+        long rejected = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(exchangeRates.getInputStream(), StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            List<String> names = CsvFields.split(header == null ? "" : header.replace("\uFEFF", ""));
+            int currencyColumn = -1;
+            int rateColumn = -1;
+            for (int i = 0; i < names.size(); i++) {
+                String name = names.get(i).trim().toLowerCase(Locale.ROOT);
+                if (name.equals("currency") && currencyColumn < 0) {
+                    currencyColumn = i;
+                } else if (name.equals("rate") && rateColumn < 0) {
+                    rateColumn = i;
+                }
+            }
+            if (currencyColumn < 0 || rateColumn < 0) {
+                throw new IOException("Exchange rate table header must name the currency and rate columns");
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = CsvFields.split(line);
+                try {
+                    BigDecimal rate = new BigDecimal(fields.get(rateColumn).trim());
+                    if (rate.signum() <= 0) {
+                        rejected++;
+                        continue;
+                    }
+                    rates.put(Currencies.of(fields.get(currencyColumn)), rate);
+                } catch (IndexOutOfBoundsException | NumberFormatException | UnknownCurrencyException e) {
+                    rejected++;
+                }
+            }
+        }
+        rates.put(baseCurrency, BigDecimal.ONE);
+        snapshot = new Snapshot(rates);
+        log.info("Loaded the exchange rates of {} currencies to {} from {}, {} lines rejected", rates.size(),
+                baseCurrency.getCurrencyCode(), exchangeRates, rejected);
+        return rates.size();
+    }
+
+    /**
+     * The immutable rates of a table, replaced as a whole on load, together with the rates derived from them.
+     */
+    private static final class Snapshot {
+        private final Map<CurrencyUnit, BigDecimal> rates;
+        private final Map<CurrencyUnit, Map<CurrencyUnit, BigDecimal>> crossRates = new ConcurrentHashMap<>();
+
+        private Snapshot(Map<CurrencyUnit, BigDecimal> rates) {
+            this.rates = Map.copyOf(rates);
+        }
+
+        private BigDecimal rate(CurrencyUnit from, CurrencyUnit to) {
+            return crossRates.computeIfAbsent(from, currency -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(to, currency -> rateOf(from).divide(rateOf(to), PRECISION));
+        }
+
+        private BigDecimal rateOf(CurrencyUnit currency) {
+            BigDecimal rate = rates.get(currency);
+            if (rate == null) {
+                throw new IllegalArgumentException("No exchange rate for " + currency.getCurrencyCode());
+            }
+            return rate;
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package dev.coderkini.tailfin.commons.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryAmount;
+
+import org.javamoney.moneta.Money;
+
+/**
+ * <p>A fixed-point amount of money, held as a signed number of minor units of its currency. The
+ * {@link #scale(CurrencyUnit) scale} of the minor units is the default number of fraction digits of the currency, so
+ * one minor unit is a paisa for INR, a yen for JPY and a fils, a thousandth of a dinar, for BHD.</p>
+ *
+ * <p>Summing amounts held as {@link MonetaryAmount} allocates a new {@link BigDecimal} and a new amount for every
+ * addition, which dominates balance computations and rollups over many transactions. These use the static methods on
+ * plain longs instead, which allocate nothing, and convert to and from {@link MonetaryAmount} once at the boundary.
+ * Every operation checks for overflow and throws {@link ArithmeticException} instead of wrapping around, and amounts
+ * with more decimal places than their currency are rejected instead of rounded.</p>
+ *
+ * @param units     The amount in minor units of the currency.
+ * @param currency  The currency of the amount.
+ */
+public record MinorAmount(long units, CurrencyUnit currency) implements Comparable<MinorAmount> {
+    /**
+     * The number of decimal places of the {@code numeric(19, 2)} columns amounts are stored in, which is also the
+     * scale of currencies that have no default number of fraction digits.
+     */
+    public static final int SCALE = 2;
+
+    /**
+     * Creates a new instance of {@link MinorAmount}.
+     */
+    public MinorAmount {
+        Objects.requireNonNull(currency, "Currency must not be null");
+    }
+
+    /**
+     * Returns a zero amount of the specified currency.
+     *
+     * @param currency  The currency of the amount.
+     *
+     * @return  The zero amount.
+     */
+    public static MinorAmount zero(CurrencyUnit currency) {
+        return new MinorAmount(0, currency);
+    }
+
+    /**
+     * Returns the number of decimal places of the minor units of the specified currency.
+     *
+     * @param currency  The currency.
+     *
+     * @return  The default number of fraction digits of the currency, or {@link #SCALE} if it has none.
+     */
+    public static int scale(CurrencyUnit currency) {
+        int digits = currency.getDefaultFractionDigits();
+        return digits < 0 ? SCALE : digits;
+    }
+
+    /**
+     * Returns the specified amount in minor units.
+     *
+     * @param amount    The amount to convert.
+     *
+     * @return  The amount in minor units.
+     *
+     * @throws ArithmeticException if the amount has more decimal places than its currency or does not fit in a long.
+     */
+    public static MinorAmount of(MonetaryAmount amount) {
+        return new MinorAmount(toUnits(amount), amount.getCurrency());
+    }
+
+    /**
+     * Returns the number of minor units of the specified amount.
+     *
+     * @param amount    The amount to convert.
+     *
+     * @return  The number of minor units.
+     *
+     * @throws ArithmeticException if the amount has more decimal places than its currency or does not fit in a long.
+     */
+    public static long toUnits(MonetaryAmount amount) {
+        return toUnits(amount.getNumber().numberValue(BigDecimal.class), amount.getCurrency());
+    }
+
+    /**
+     * Returns the number of minor units of the specified currency of the specified decimal amount.
+     *
+     * @param amount    The decimal amount to convert.
+     * @param currency  The currency of the amount.
+     *
+     * @return  The number of minor units.
+     *
+     * @throws ArithmeticException if the amount has more decimal places than the currency or does not fit in a long.
+     */
+    public static long toUnits(BigDecimal amount, CurrencyUnit currency) {
+        int scale = scale(currency);
+        if (amount.scale() == scale) {
+            return amount.unscaledValue().longValueExact();
+        }
+        BigDecimal scaled;
+        try {
+            scaled = amount.setScale(scale, RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException e) {
+            throw new ArithmeticException("Amount " + amount.toPlainString() + " has more than " + scale +
+                    " decimal places for " + currency.getCurrencyCode());
+        }
+        return scaled.unscaledValue().longValueExact();
+    }
+
+    /**
+     * Returns the specified number of minor units of the specified currency as a decimal amount.
+     *
+     * @param units     The number of minor units.
+     * @param currency  The currency of the minor units.
+     *
+     * @return  The decimal amount, with the scale of the currency.
+     */
+    public static BigDecimal toDecimal(long units, CurrencyUnit currency) {
+        return BigDecimal.valueOf(units, scale(currency));
+    }
+
+    /**
+     * Parses a decimal amount into hundredths of the major unit, {@link #SCALE} decimal places whatever the currency,
+     * without going through {@link BigDecimal}. The text consists of an optional sign, the digits of the major units
+     * and optionally a decimal point followed by the digits of the minor units. Surrounding whitespace and thousands
+     * separators are ignored, as are trailing zeros after the second decimal place.
+     *
+     * @param text  The text of the amount.
+     *
+     * @return  The number of hundredths.
+     *
+     * @throws NumberFormatException    if the text is not a decimal amount.
+     * @throws ArithmeticException      if the amount has more than two decimal places or does not fit in a long.
+     */
+    public static long parse(CharSequence text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        boolean negative = false;
+        if (start < end && (text.charAt(start) == '-' || text.charAt(start) == '+')) {
+            negative = text.charAt(start) == '-';
+            start++;
+        }
+
+        // Accumulated negatively, so the most negative amount can be parsed as well.
+        long units = 0;
+        int digits = 0;
+        int decimals = -1;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == ',' && decimals < 0) {
+                continue;
+            }
+            if (c == '.' && decimals < 0) {
+                decimals = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Not an amount: " + text);
+            }
+            digits++;
+            if (decimals >= 0 && ++decimals > SCALE) {
+                if (c != '0') {
+                    throw new ArithmeticException("Amount " + text.toString().trim() + " has more than " + SCALE +
+                            " decimal places");
+                }
+                continue;
+            }
+            try {
+                units = Math.subtractExact(Math.multiplyExact(units, 10), c - '0');
+            } catch (ArithmeticException e) {
+                throw new ArithmeticException("Amount " + text.toString().trim() + " is out of range");
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Not an amount: " + text);
+        }
+        for (int i = Math.max(decimals, 0); i < SCALE; i++) {
+            try {
+                units = Math.multiplyExact(units, 10);
+            } catch (ArithmeticException e) {
+                throw new ArithmeticException("Amount " + text.toString().trim() + " is out of range");
+            }
+        }
+        if (negative) {
+            return units;
+        }
+        if (units == Long.MIN_VALUE) {
+            throw new ArithmeticException("Amount " + text.toString().trim() + " is out of range");
+        }
+        return -units;
+    }
+
+    /**
+     * Returns the sum of the specified numbers of minor units.
+     *
+     * @param augend    The first number of minor units.
+     * @param addend    The second number of minor units.
+     *
+     * @return  The sum.
+     *
+     * @throws ArithmeticException if the sum does not fit in a long.
+     */
+    public static long add(long augend, long addend) {
+        return Math.addExact(augend, addend);
+    }
+
+    /**
+     * Returns the difference of the specified numbers of minor units.
+     *
+     * @param minuend       The number of minor units to subtract from.
+     * @param subtrahend    The number of minor units to subtract.
+     *
+     * @return  The difference.
+     *
+     * @throws ArithmeticException if the difference does not fit in a long.
+     */
+    public static long subtract(long minuend, long subtrahend) {
+        return Math.subtractExact(minuend, subtrahend);
+    }
+
+    /**
+     * Returns this amount plus the specified amount.
+     *
+     * @param other The amount to add, in the same currency.
+     *
+     * @return  The sum.
+     *
+     * @throws IllegalArgumentException if the amounts are in different currencies.
+     * @throws ArithmeticException      if the sum does not fit in a long.
+     */
+    public MinorAmount plus(MinorAmount other) {
+        requireSameCurrency(other);
+        return new MinorAmount(Math.addExact(units, other.units), currency);
+    }
+
+    /**
+     * Returns this amount minus the specified amount.
+     *
+     * @param other The amount to subtract, in the same currency.
+     *
+     * @return  The difference.
+     *
+     * @throws IllegalArgumentException if the amounts are in different currencies.
+     * @throws ArithmeticException      if the difference does not fit in a long.
+     */
+    public MinorAmount minus(MinorAmount other) {
+        requireSameCurrency(other);
+        return new MinorAmount(Math.subtractExact(units, other.units), currency);
+    }
+
+    /**
+     * Returns this amount multiplied by the specified factor.
+     *
+     * @param factor    The factor to multiply by.
+     *
+     * @return  The product.
+     *
+     * @throws ArithmeticException if the product does not fit in a long.
+     */
+    public MinorAmount times(long factor) {
+        return new MinorAmount(Math.multiplyExact(units, factor), currency);
+    }
+
+    /**
+     * Returns the negation of this amount.
+     *
+     * @return  The negated amount.
+     *
+     * @throws ArithmeticException if the negation does not fit in a long.
+     */
+    public MinorAmount negate() {
+        return new MinorAmount(Math.negateExact(units), currency);
+    }
+
+    /**
+     * Returns the absolute value of this amount.
+     *
+     * @return  The absolute amount.
+     *
+     * @throws ArithmeticException if the absolute value does not fit in a long.
+     */
+    public MinorAmount abs() {
+        return units < 0 ? negate() : this;
+    }
+
+    /**
+     * Returns the sign of this amount.
+     *
+     * @return  -1, 0 or 1 as this amount is negative, zero or positive.
+     */
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    /**
+     * Returns this amount as a decimal amount with the scale of its currency.
+     *
+     * @return  The decimal amount.
+     */
+    public BigDecimal toDecimal() {
+        return toDecimal(units, currency);
+    }
+
+    /**
+     * Returns this amount as a {@link MonetaryAmount}, for use at the API boundary.
+     *
+     * @return  The monetary amount.
+     */
+    public MonetaryAmount toMonetaryAmount() {
+        return Money.of(toDecimal(), currency);
+    }
+
+    @Override
+    public int compareTo(MinorAmount other) {
+        requireSameCurrency(other);
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public String toString() {
+        return currency.getCurrencyCode() + " " + toDecimal().toPlainString();
+    }
+
+    private void requireSameCurrency(MinorAmount other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency " + other.currency.getCurrencyCode() +
+                    " does not match " + currency.getCurrencyCode());
+        }
+    }
+}
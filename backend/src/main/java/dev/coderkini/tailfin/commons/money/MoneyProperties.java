@@ -0,0 +1,16 @@
+package dev.coderkini.tailfin.commons.money;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.core.io.Resource;
+
+/**
+ * Configuration of currencies and exchange rates, bound from the {@code tailfin.money} properties.
+ *
+ * @param baseCurrency  The currency the exchange rates are quoted in, and that totals are reported in by default.
+ * @param exchangeRates The exchange rate table in CSV format, or null to convert nothing but the base currency.
+ */
+@ConfigurationProperties("tailfin.money")
+public record MoneyProperties(@DefaultValue("INR") String baseCurrency,
+                              Resource exchangeRates) {
+}
@@ -0,0 +1,139 @@
+package dev.coderkini.tailfin.commons.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * <p>A loader that collects the keys of the items it is asked for and loads them in batches, so that looking up the
+ * related items of a list of items takes one query instead of one query per item.</p>
+ *
+ * <p>Keys are either deferred with {@link #defer(Object)}, or requested with {@link #load(Object)} and
+ * {@link #loadAll(Collection)}. A request loads the requested keys together with every deferred key that is not
+ * loaded yet, in batches of at most the maximum batch size. Items are loaded once, later requests for a key are
+ * answered from memory, including keys that were not found. A loader is meant to live for one request and is not
+ * thread-safe.</p>
+ *
+ * @param <K>   The type of keys.
+ * @param <V>   The type of items.
+ */
+public class BatchLoader<K, V> {
+    private final int maxBatchSize;
+    private final Function<Collection<K>, Map<K, V>> loader;
+    private final Map<K, V> loaded = new HashMap<>();
+    private final Set<K> pending = new LinkedHashSet<>();
+
+    private long batches;
+
+    /**
+     * Creates a new instance of {@link BatchLoader}.
+     *
+     * @param maxBatchSize  The maximum number of keys loaded at a time.
+     * @param loader        The function that loads a batch of keys, returning the items found by their key.
+     */
+    public BatchLoader(int maxBatchSize, Function<Collection<K>, Map<K, V>> loader) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Maximum batch size must be positive");
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.loader = loader;
+    }
+
+    /**
+     * Defers the loading of the specified key until the next request.
+     *
+     * @param key   The key to load, ignored if null.
+     *
+     * @return  this loader.
+     */
+    public BatchLoader<K, V> defer(K key) {
+        if (key != null && !loaded.containsKey(key)) {
+            pending.add(key);
+        }
+        return this;
+    }
+
+    /**
+     * Defers the loading of the specified keys until the next request.
+     *
+     * @param keys  The keys to load, nulls are ignored.
+     *
+     * @return  this loader.
+     */
+    public BatchLoader<K, V> deferAll(Collection<? extends K> keys) {
+        keys.forEach(this::defer);
+        return this;
+    }
+
+    /**
+     * Returns the item with the specified key, loading it together with the deferred keys if it was not loaded yet.
+     *
+     * @param key   The key of the item.
+     *
+     * @return  The item, or null if there is none or the key is null.
+     */
+    public V load(K key) {
+        if (key == null) {
+            return null;
+        }
+        if (!loaded.containsKey(key)) {
+            pending.add(key);
+            dispatch();
+        }
+        return loaded.get(key);
+    }
+
+    /**
+     * Returns the items with the specified keys, loading the keys that were not loaded yet together with the deferred
+     * keys.
+     *
+     * @param keys  The keys of the items.
+     *
+     * @return  The items found by their key, keys without an item are absent.
+     */
+    public Map<K, V> loadAll(Collection<? extends K> keys) {
+        deferAll(keys);
+        dispatch();
+        Map<K, V> items = new HashMap<>();
+        for (K key : keys) {
+            V item = key == null ? null : loaded.get(key);
+            if (item != null) {
+                items.put(key, item);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Loads all the deferred keys.
+     */
+    public void dispatch() {
+        while (!pending.isEmpty()) {
+            List<K> batch = new ArrayList<>(Math.min(pending.size(), maxBatchSize));
+            for (Iterator<K> keys = pending.iterator(); keys.hasNext() && batch.size() < maxBatchSize; ) {
+                batch.add(keys.next());
+                keys.remove();
+            }
+            Map<K, V> items = loader.apply(batch);
+            batches++;
+            for (K key : batch) {
+                loaded.put(key, items.get(key));
+            }
+        }
+    }
+
+    /**
+     * Returns the number of batches loaded so far, which is the number of queries the loader ran.
+     *
+     * @return  The number of batches loaded.
+     */
+    public long getBatches() {
+        return batches;
+    }
+}
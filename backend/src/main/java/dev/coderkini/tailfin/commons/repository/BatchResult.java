@@ -0,0 +1,77 @@
+package dev.coderkini.tailfin.commons.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the outcome of saving a batch of items, where items that could not be saved do not prevent the others
+ * from being saved. Items that had already been saved are skipped and counted as duplicates, not as failures.
+ *
+ * @param <T>           The type of items in the batch.
+ * @param saved         The number of items that were saved.
+ * @param duplicates    The number of items that were skipped because they had already been saved.
+ * @param failures      The items that could not be saved, in the order they appeared in the batch.
+ *
+ * @see BatchingSink
+ */
+public record BatchResult<T>(long saved, long duplicates, List<Failure<T>> failures) {
+    /**
+     * Creates a new instance of {@link BatchResult}.
+     *
+     * @param saved         The number of items that were saved.
+     * @param duplicates    The number of items that were skipped because they had already been saved.
+     * @param failures      The items that could not be saved, in the order they appeared in the batch.
+     */
+    public BatchResult {
+        failures = List.copyOf(failures);
+    }
+
+    /**
+     * Returns an empty {@link BatchResult}.
+     *
+     * @param <T>   The type of items in the batch.
+     *
+     * @return  A {@link BatchResult} with no saved items, no duplicates and no failures.
+     */
+    public static <T> BatchResult<T> empty() {
+        return new BatchResult<>(0, 0, List.of());
+    }
+
+    /**
+     * Returns true if every item of the batch was either saved or had already been saved.
+     *
+     * @return  true if there are no failures.
+     */
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * Returns the combination of this result with the result of a subsequent batch. The indexes of the failures of
+     * the subsequent batch are shifted by the specified number of items that preceded it.
+     *
+     * @param other     The result of the subsequent batch.
+     * @param preceding The number of items that preceded the subsequent batch.
+     *
+     * @return  The combined {@link BatchResult}.
+     */
+    public BatchResult<T> merge(BatchResult<T> other, long preceding) {
+        List<Failure<T>> merged = new ArrayList<>(failures.size() + other.failures.size());
+        merged.addAll(failures);
+        for (Failure<T> failure : other.failures) {
+            merged.add(new Failure<>(failure.index() + preceding, failure.item(), failure.reason()));
+        }
+        return new BatchResult<>(saved + other.saved, duplicates + other.duplicates, merged);
+    }
+
+    /**
+     * Represents an item of a batch that could not be saved.
+     *
+     * @param <T>       The type of the item.
+     * @param index     The position of the item in the batch.
+     * @param item      The item that could not be saved.
+     * @param reason    The reason why the item could not be saved.
+     */
+    public record Failure<T>(long index, T item, String reason) {
+    }
+}
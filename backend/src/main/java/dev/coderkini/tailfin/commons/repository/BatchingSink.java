@@ -0,0 +1,79 @@
+package dev.coderkini.tailfin.commons.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * <p>A sink that collects items into batches of a fixed size and saves every full batch as a whole.</p>
+ *
+ * <p>Items that are still buffered are saved when the sink is closed. The outcome of all the batches saved by the
+ * sink is available from {@link #getResult()}, with failure indexes counted from the first item accepted by the
+ * sink. A sink is not thread-safe.</p>
+ *
+ * @param <T>   The type of items to save.
+ *
+ * @see BatchResult
+ */
+public class BatchingSink<T> implements Consumer<T>, AutoCloseable {
+    private final int batchSize;
+    private final Function<List<T>, BatchResult<T>> writer;
+    private final List<T> buffer;
+
+    private BatchResult<T> result = BatchResult.empty();
+    private long flushed;
+
+    /**
+     * Creates a new instance of {@link BatchingSink}.
+     *
+     * @param batchSize The number of items to save at a time.
+     * @param writer    The function that saves a batch of items.
+     */
+    public BatchingSink(int batchSize, Function<List<T>, BatchResult<T>> writer) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.batchSize = batchSize;
+        this.writer = writer;
+        this.buffer = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public void accept(T item) {
+        buffer.add(item);
+        if (buffer.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Saves the buffered items.
+     */
+    public void flush() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        List<T> batch = List.copyOf(buffer);
+        buffer.clear();
+        result = result.merge(writer.apply(batch), flushed);
+        flushed += batch.size();
+    }
+
+    /**
+     * Returns the outcome of the batches saved so far.
+     *
+     * @return  The combined {@link BatchResult} of the saved batches.
+     */
+    public BatchResult<T> getResult() {
+        return result;
+    }
+
+    /**
+     * Saves the buffered items.
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+}
@@ -0,0 +1,93 @@
+package dev.coderkini.tailfin.commons.repository;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Objects;
+
+import io.hypersistence.tsid.TSID;
+
+/**
+ * <p>Represents the position of the last item of a page in a keyset paginated query.</p>
+ *
+ * <p>Keyset pagination orders items by their creation timestamp and uses the time-ordered {@link TSID} of the item
+ * as a tie-breaker. The next page is fetched by seeking past this position instead of skipping over the rows of all
+ * the previous pages, which keeps the cost of every page the same no matter how deep the client has scrolled.</p>
+ *
+ * <p>Clients only ever see the token in its {@link #encode() encoded} form, which must be treated as opaque.</p>
+ *
+ * @param createdAt     reference to the {@link LocalDateTime} when the last item of the page was created.
+ * @param id            reference to the {@link TSID} of the last item of the page.
+ *
+ * @see QueryConstraints#after(ContinuationToken)
+ * @see PagedResult#continuationToken()
+ */
+public record ContinuationToken(LocalDateTime createdAt, TSID id) {
+    private static final byte VERSION = 1;
+    private static final int ENCODED_LENGTH = Byte.BYTES + Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    /**
+     * Create a new ContinuationToken instance with the specified position.
+     *
+     * @param createdAt     reference to the {@link LocalDateTime} when the last item of the page was created.
+     * @param id            reference to the {@link TSID} of the last item of the page.
+     */
+    public ContinuationToken {
+        Objects.requireNonNull(createdAt, "createdAt cannot be null");
+        Objects.requireNonNull(id, "id cannot be null");
+    }
+
+    /**
+     * Returns the opaque, URL safe string representation of this token.
+     *
+     * @return  the encoded token.
+     */
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_LENGTH)
+                .put(VERSION)
+                .putLong(createdAt.toEpochSecond(ZoneOffset.UTC))
+                .putInt(createdAt.getNano())
+                .putLong(id.toLong());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Returns the {@link ContinuationToken} represented by the specified encoded value.
+     *
+     * @param value     The encoded token as returned by {@link #encode()}.
+     *
+     * @return  The decoded {@link ContinuationToken}.
+     *
+     * @throws IllegalArgumentException If the specified value is not a valid continuation token.
+     */
+    public static ContinuationToken decode(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Continuation token cannot be null");
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed continuation token " + value, e);
+        }
+        if (bytes.length != ENCODED_LENGTH || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Malformed continuation token " + value);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+        long epochSecond = buffer.getLong();
+        int nano = buffer.getInt();
+        long id = buffer.getLong();
+        try {
+            return new ContinuationToken(LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC), TSID.from(id));
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Malformed continuation token " + value, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
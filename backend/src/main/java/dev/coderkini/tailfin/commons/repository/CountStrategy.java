@@ -0,0 +1,32 @@
+package dev.coderkini.tailfin.commons.repository;
+
+/**
+ * Enum representing how the {@link PagedResult#totalItems() total number of items} matching a query is obtained.
+ *
+ * @see QueryConstraints#count(CountStrategy)
+ * @see PagedResult
+ */
+public enum CountStrategy {
+    /**
+     * The items are counted exactly with every page.
+     */
+    EXACT,
+
+    /**
+     * The items are counted exactly, and the count is reused for the same query until it expires. The total may be
+     * stale by the items added or removed since it was counted.
+     */
+    CACHED,
+
+    /**
+     * The total is the number of items the database planner estimates the query to return, which costs no more than
+     * planning the query. The total may be off by the error of the planner statistics.
+     */
+    ESTIMATED,
+
+    /**
+     * The items are not counted, one item more than the limit is fetched to tell whether there is a next page. The
+     * total is {@link PagedResult#UNKNOWN_TOTAL unknown}, and so is the last page.
+     */
+    HAS_MORE
+}
@@ -0,0 +1,206 @@
+package dev.coderkini.tailfin.commons.repository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.QueryTimeoutException;
+
+import dev.coderkini.tailfin.commons.jdbc.StatementScope;
+
+/**
+ * <p>Runs a group of independent repository calls at the same time and waits for all of them, so the group takes as
+ * long as its slowest call instead of the sum of its calls. Obtained from {@link RepositoryExecutor#fanOut()}.</p>
+ *
+ * <p>Calls are forked with {@link #fork(Supplier, Duration)}, each with a deadline of its own that starts when the
+ * call starts running, so time spent waiting for a thread of the executor does not count against it. The group is
+ * awaited with {@link #join()}. The first call that fails or misses its deadline fails the whole group: the calls not
+ * started yet never start, the calls still running are interrupted and their JDBC statements cancelled through their
+ * {@link StatementScope}, and {@link #join()} throws the failure, a missed deadline as {@link QueryTimeoutException}.
+ * Every statement of a call also gets a query timeout of the time left until its deadline, so the database stops it
+ * even if the cancel does not get through. Closing the group cancels the calls that are still running and waits for
+ * them to stop, so none outlives the try-with-resources block that forked it:</p>
+ *
+ * <pre>{@code
+ * try (FanOut fanOut = executor.fanOut()) {
+ *     FanOut.Call<Account> account = fanOut.fork(() -> accountRepository.findById(id), timeout);
+ *     FanOut.Call<MonetaryAmount> balance = fanOut.fork(() -> transactionRepository.getAccountBalance(id), timeout);
+ *     fanOut.join();
+ *     return new AccountView(account.get(), balance.get());
+ * }
+ * }</pre>
+ *
+ * <p>This follows the shape of {@code StructuredTaskScope.ShutdownOnFailure}, which is still a preview API in Java
+ * 21. A group is meant to be forked and joined by one thread.</p>
+ */
+public final class FanOut implements AutoCloseable {
+    private final AsyncTaskExecutor executor;
+    private final List<Call<?>> calls = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    FanOut(AsyncTaskExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Starts a call of the group.
+     *
+     * @param call      The repository call to run.
+     * @param timeout   How long the call may take before it fails the group.
+     * @param <T>       The type of result of the call.
+     *
+     * @return  The handle to the result of the call, available once the group is joined.
+     *
+     * @throws IllegalArgumentException if the timeout is not positive.
+     */
+    public <T> Call<T> fork(Supplier<T> call, Duration timeout) {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout must be positive, got " + timeout);
+        }
+        Call<T> forked = new Call<>();
+        calls.add(forked);
+        if (failure.get() != null) {
+            forked.cancel();
+            return forked;
+        }
+        long timeoutNanos = timeout.toNanos();
+        forked.settled = forked.result.whenComplete((value, e) -> {
+            if (e != null) {
+                fail(e instanceof TimeoutException
+                        ? new QueryTimeoutException("Repository call timed out after " +
+                                TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + "ms", e)
+                        : e);
+            }
+        });
+        forked.task = executor.submit(() -> forked.run(call, timeoutNanos));
+        if (failure.get() != null) {
+            // The group failed while the call was being submitted.
+            forked.cancel();
+        }
+        return forked;
+    }
+
+    /**
+     * Waits for every call of the group to complete.
+     *
+     * @throws QueryTimeoutException    if a call missed its deadline.
+     * @throws RuntimeException         the failure of the first call that failed.
+     */
+    public void join() {
+        try {
+            // Waits for the failures to be recorded, not just for the results, whose waiters may run first.
+            CompletableFuture.allOf(calls.stream().map(call -> call.settled).toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException | CancellationException e) {
+            // The first failure is rethrown below, not the one that happened to complete first.
+        }
+        Throwable first = failure.get();
+        if (first instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (first instanceof Error error) {
+            throw error;
+        }
+        if (first != null) {
+            throw new IllegalStateException("Repository call failed", first);
+        }
+    }
+
+    /**
+     * Cancels the calls of the group that are still running and waits for them to stop.
+     */
+    @Override
+    public void close() {
+        calls.forEach(Call::cancel);
+        calls.forEach(Call::await);
+    }
+
+    private void fail(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (failure.compareAndSet(null, cause)) {
+            // Runs on the thread of a call or of its timeout, which must not wait for the calls to stop.
+            calls.forEach(Call::cancel);
+        }
+    }
+
+    /**
+     * The handle to the result of a call of a {@link FanOut}.
+     *
+     * @param <T>   The type of result of the call.
+     */
+    public static final class Call<T> {
+        private static final int NEW = 0;
+        private static final int RUNNING = 1;
+        private static final int DONE = 2;
+
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final CompletableFuture<Void> stopped = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(NEW);
+        private final StatementScope statements = new StatementScope();
+        private volatile CompletableFuture<T> settled = result;
+        private volatile Future<?> task;
+
+        private Call() {
+        }
+
+        /**
+         * Returns the result of the call.
+         *
+         * @return  The result of the call.
+         *
+         * @throws IllegalStateException if the group was not joined or the call did not succeed.
+         */
+        public T get() {
+            if (!result.isDone() || result.isCompletedExceptionally()) {
+                throw new IllegalStateException("Call has not completed successfully");
+            }
+            return result.join();
+        }
+
+        /**
+         * Runs the call on the thread of the executor, unless it was cancelled before it started, with its deadline
+         * starting now.
+         */
+        private void run(Supplier<T> call, long timeoutNanos) {
+            if (!state.compareAndSet(NEW, RUNNING)) {
+                return;
+            }
+            try (StatementScope.Binding ignored = statements.bind(timeoutNanos)) {
+                result.orTimeout(timeoutNanos, TimeUnit.NANOSECONDS);
+                result.complete(call.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                state.set(DONE);
+                stopped.complete(null);
+            }
+        }
+
+        private void cancel() {
+            result.cancel(false);
+            if (state.compareAndSet(NEW, DONE)) {
+                // The call never starts, which its task checks once the executor gets to it.
+                stopped.complete(null);
+            } else if (state.get() == RUNNING) {
+                statements.cancel();
+                Future<?> running = task;
+                if (running != null) {
+                    running.cancel(true);
+                }
+            }
+        }
+
+        private void await() {
+            stopped.join();
+        }
+    }
+}
@@ -1,30 +1,106 @@
 package dev.coderkini.tailfin.commons.repository;
 
-import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.stream.Stream;
 
 /**
- * Represents a paged result of items with the specified constraints and total.
+ * <p>Represents a paged result of items with the specified constraints and total.</p>
+ *
+ * <p>How the total is obtained depends on the {@link CountStrategy} of the constraints. It is exact for
+ * {@link CountStrategy#EXACT}, possibly stale for {@link CountStrategy#CACHED}, approximate for
+ * {@link CountStrategy#ESTIMATED} and {@link #UNKNOWN_TOTAL unknown} for {@link CountStrategy#HAS_MORE}. Whether there is
+ * a next page is exact in every case, as one item more than the limit is fetched unless the total is exact.</p>
+ *
+ * <p>The items may be read lazily from the underlying store as the stream is consumed, in which case the stream holds
+ * on to resources of the store until a terminal operation completes or the stream is closed. Items can be consumed
+ * only once.</p>
  *
  * @param <T>               The type of items in the result.
  * @param items             The items in the current page.
  * @param constraints       The constraints used to fetch the items.
- * @param totalItems        The total number of items that match the constraints.
+ * @param totalItems        The total number of items that match the constraints, or {@link #UNKNOWN_TOTAL} if they
+ *                          were not counted.
+ * @param continuationToken The opaque token of the last item in the current page when the constraints are in keyset
+ *                          pagination mode and there are more items to fetch, null otherwise.
+ * @param hasMore           Whether there are more items to fetch after the current page.
  */
-public record PagedResult<T>(Stream<T> items, QueryConstraints<T> constraints, long totalItems) {
+public record PagedResult<T>(Stream<T> items,
+                             QueryConstraints<T> constraints,
+                             long totalItems,
+                             String continuationToken,
+                             boolean hasMore) {
+    /**
+     * The total of a result whose items were not counted.
+     */
+    public static final long UNKNOWN_TOTAL = -1;
+
+    /**
+     * Creates a new instance of {@link PagedResult} for offset paginated constraints with an exact total.
+     *
+     * @param items             The items in the current page.
+     * @param constraints       The constraints used to fetch the items.
+     * @param totalItems        The total number of items that match the constraints.
+     */
+    public PagedResult(Stream<T> items, QueryConstraints<T> constraints, long totalItems) {
+        this(items, constraints, totalItems, null,
+                (constraints.getOffset() + 1L) * constraints.getLimit() < totalItems);
+    }
+
+    /**
+     * Creates a new instance of {@link PagedResult} for keyset paginated constraints.
+     *
+     * @param items             The items in the current page.
+     * @param constraints       The constraints used to fetch the items.
+     * @param totalItems        The total number of items that match the constraints, or {@link #UNKNOWN_TOTAL}.
+     * @param continuationToken The opaque token of the last item in the current page if there are more items to
+     *                          fetch, null otherwise.
+     */
+    public PagedResult(Stream<T> items, QueryConstraints<T> constraints, long totalItems, String continuationToken) {
+        this(items, constraints, totalItems, continuationToken, continuationToken != null);
+    }
+
     /**
      * Returns an instance of {@link QueryConstraints} that can be used to fetch the next page of items.
      *
      * @return  an instance of {@link QueryConstraints} that can be used to fetch the next page of items.
+     *
+     * @throws NoSuchElementException If the constraints are in keyset pagination mode and this is the last page.
      */
     public QueryConstraints<T> nextPage() {
+        if (constraints.getPaginationMode() == PaginationMode.KEYSET) {
+            if (continuationToken == null) {
+                throw new NoSuchElementException("There are no more pages to fetch");
+            }
+            return constraints.after(ContinuationToken.decode(continuationToken));
+        }
         return constraints.nextPage();
     }
 
+    /**
+     * Returns true if there are more items to fetch after the current page.
+     *
+     * @return  true if there are more items to fetch after the current page.
+     */
+    public boolean hasNextPage() {
+        return hasMore;
+    }
+
+    /**
+     * Returns true if the total number of items is known, exactly or approximately depending on the
+     * {@link CountStrategy}.
+     *
+     * @return  true unless the items were not counted.
+     */
+    public boolean isTotalKnown() {
+        return totalItems != UNKNOWN_TOTAL;
+    }
+
     /**
      * Returns an instance of {@link QueryConstraints} that can be used to fetch the previous page of items.
      *
      * @return an instance of {@link QueryConstraints} that can be used to fetch the previous page of items.
+     *
+     * @throws UnsupportedOperationException If the constraints are in keyset pagination mode.
      */
     public QueryConstraints<T> previousPage() {
         return constraints.previousPage();
@@ -42,23 +118,31 @@ public record PagedResult<T>(Stream<T> items, QueryConstraints<T> constraints, l
     /**
      * <p>Returns an instance of {@link QueryConstraints} that can be used to fetch the last page of items.</p>
      *
-     * <p>The last page is calculated by dividing the total number of items matching the constraints with the maximum
-     * number of items limit on the constraints.</p>
-     *
+     * <p>The last page is the last page that holds any of the total number of items matching the constraints, or the
+     * first page if there are none. With an approximate total the last page is approximate as well, with a cached
+     * total it may be stale.</p>
      *
      * @return an instance of {@link QueryConstraints} that can be used to fetch the last page of items.
+     *
+     * @throws UnsupportedOperationException If the constraints are in keyset pagination mode, or the total is unknown.
      */
     public QueryConstraints<T> lastPage() {
-        long lastPage = totalItems / constraints.getLimit();
+        if (!isTotalKnown()) {
+            throw new UnsupportedOperationException("The last page is unknown when items are not counted");
+        }
+        long lastPage = totalItems == 0 ? 0 : (totalItems - 1) / constraints.getLimit();
         return constraints.toPage(lastPage);
     }
 
     /**
-     * Returns an instance of {@link QueryConstraints} that can be used to fetch the specified page of items.
+     * Returns an instance of {@link QueryConstraints} that can be used to fetch the specified page of items. Pages
+     * past the last page are empty.
      *
      * @param pageNumber   The page number to fetch.
      *
      * @return an instance of {@link QueryConstraints} that can be used to fetch the specified page of items.
+     *
+     * @throws UnsupportedOperationException If the constraints are in keyset pagination mode.
      */
     public QueryConstraints<T> toPage(long pageNumber) {
         return constraints.toPage(pageNumber);
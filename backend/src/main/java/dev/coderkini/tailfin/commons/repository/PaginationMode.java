@@ -0,0 +1,19 @@
+package dev.coderkini.tailfin.commons.repository;
+
+/**
+ * Enum representing how the items of a query are split into pages.
+ *
+ * @see QueryConstraints
+ * @see ContinuationToken
+ */
+public enum PaginationMode {
+    /**
+     * Pages are addressed by number and the rows of all the previous pages are skipped over.
+     */
+    OFFSET,
+
+    /**
+     * Pages are fetched by seeking past the {@link ContinuationToken} of the last item of the previous page.
+     */
+    KEYSET
+}
@@ -1,16 +1,26 @@
 package dev.coderkini.tailfin.commons.repository;
 
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
 /**
  * Represents constraints for querying items from a repository.
  *
+ * <p>Constraints are paged either by offset, where the offset is the number of the page to fetch, or by keyset, where
+ * the next page is fetched by seeking past the {@link ContinuationToken} of the last item of the previous page.</p>
+ *
+ * <p>The total number of items is counted exactly with every page unless another {@link CountStrategy} is selected.</p>
+ *
  * @param <T>   The type of items to query.
  *
  * @see SortDirection
  * @see FilterDefinition
  * @see FilterOperator
+ * @see PaginationMode
+ * @see ContinuationToken
+ * @see CountStrategy
  */
 public class QueryConstraints<T> {
     /**
@@ -28,6 +38,9 @@ public class QueryConstraints<T> {
 
     private int limit = DEFAULT_LIMIT;
     private long offset = DEFAULT_OFFSET;
+    private PaginationMode paginationMode = PaginationMode.OFFSET;
+    private ContinuationToken continuationToken;
+    private CountStrategy countStrategy = CountStrategy.EXACT;
 
     /**
      * Creates a new instance of {@link QueryConstraints} with default limit and offset and no filters or sorting.
@@ -36,7 +49,7 @@ public class QueryConstraints<T> {
      * @see #DEFAULT_OFFSET
      */
     QueryConstraints() {
-        this(Map.of(), Set.of());
+        this(new LinkedHashMap<>(), new LinkedHashSet<>());
     }
 
     /**
@@ -55,18 +68,33 @@ public class QueryConstraints<T> {
     }
 
     /**
-     * Creates a new instance of {@link QueryConstraints} with the sorting, filters copied from specified constraints
-     * and specified limit, and offset.
+     * Creates a new instance of {@link QueryConstraints} with copies of the sorting and filters of the specified
+     * constraints and the specified limit and offset, so that changing either instance leaves the other unchanged.
      *
      * @param constraints   The constraints to copy.
      * @param limit         The maximum number of items to return.
      * @param offset        The offset from the beginning of the result set.
      */
     QueryConstraints(QueryConstraints<T> constraints, int limit, long offset) {
-        this.sorting = constraints.sorting;
+        this.sorting = new LinkedHashMap<>(constraints.sorting);
         this.limit = limit;
         this.offset = offset;
-        this.filters = constraints.filters;
+        this.filters = new LinkedHashSet<>(constraints.filters);
+        this.paginationMode = constraints.paginationMode;
+        this.countStrategy = constraints.countStrategy;
+    }
+
+    /**
+     * Creates a new instance of {@link QueryConstraints} in keyset pagination mode with the sorting, filters and limit
+     * copied from specified constraints and the specified continuation token.
+     *
+     * @param constraints           The constraints to copy.
+     * @param continuationToken     The position to continue from, or null to start from the first item.
+     */
+    QueryConstraints(QueryConstraints<T> constraints, ContinuationToken continuationToken) {
+        this(constraints, constraints.limit, DEFAULT_OFFSET);
+        this.paginationMode = PaginationMode.KEYSET;
+        this.continuationToken = continuationToken;
     }
 
     /**
@@ -93,7 +121,7 @@ public class QueryConstraints<T> {
     }
 
     /**
-     * Sets the limit and offset for the query.
+     * Sets the limit and offset for the query. In keyset pagination mode only the limit is used.
      *
      * @param limit     The maximum number of items to return.
      * @param offset    The offset from the beginning of the result set.
@@ -106,6 +134,32 @@ public class QueryConstraints<T> {
         return this;
     }
 
+    /**
+     * Switches the query to keyset pagination, starting from the first item.
+     *
+     * @return  The updated {@link QueryConstraints} instance.
+     *
+     * @see ContinuationToken
+     */
+    public QueryConstraints<T> keyset() {
+        this.paginationMode = PaginationMode.KEYSET;
+        this.offset = DEFAULT_OFFSET;
+        this.continuationToken = null;
+        return this;
+    }
+
+    /**
+     * Selects how the total number of items matching the query is obtained.
+     *
+     * @param countStrategy The {@link CountStrategy} to use.
+     *
+     * @return  The updated {@link QueryConstraints} instance.
+     */
+    public QueryConstraints<T> count(CountStrategy countStrategy) {
+        this.countStrategy = countStrategy;
+        return this;
+    }
+
     /**
      * Adds a filter to the query on the specified field with the specified operator and value.
      *
@@ -155,16 +209,70 @@ public class QueryConstraints<T> {
      *
      * @return      The filters to apply to the query.
      */
-    public Set<? super FilterDefinition<?>> getFilters() {
+    public Set<FilterDefinition<?>> getFilters() {
         return filters;
     }
 
+    /**
+     * Returns the mode in which the query is paginated.
+     *
+     * @return  The {@link PaginationMode} of the query.
+     */
+    public PaginationMode getPaginationMode() {
+        return paginationMode;
+    }
+
+    /**
+     * Returns how the total number of items matching the query is obtained.
+     *
+     * @return  The {@link CountStrategy} of the query.
+     */
+    public CountStrategy getCountStrategy() {
+        return countStrategy;
+    }
+
+    /**
+     * Returns true if one item more than the limit is to be fetched, to tell whether there is a next page without
+     * relying on the total number of items. This is the case in keyset pagination mode, and whenever the total is not
+     * counted exactly.
+     *
+     * @return  true if one item more than the limit is to be fetched.
+     */
+    public boolean isLookahead() {
+        return paginationMode == PaginationMode.KEYSET || countStrategy != CountStrategy.EXACT;
+    }
+
+    /**
+     * Returns the position after which items are to be returned when the query is in keyset pagination mode.
+     *
+     * @return  The {@link ContinuationToken} to continue from, or null when fetching the first page.
+     */
+    public ContinuationToken getContinuationToken() {
+        return continuationToken;
+    }
+
+    /**
+     * Returns a new instance of {@link QueryConstraints} in keyset pagination mode that continues after the specified
+     * position.
+     *
+     * @param continuationToken     The {@link ContinuationToken} of the last item of the previous page.
+     *
+     * @return  A new instance of {@link QueryConstraints}.
+     */
+    public QueryConstraints<T> after(ContinuationToken continuationToken) {
+        return new QueryConstraints<>(this, continuationToken);
+    }
+
     /**
      * Returns a new instance of {@link QueryConstraints} with the limit and offset incremented by one.
      *
      * @return A new instance of {@link QueryConstraints}.
+     *
+     * @throws UnsupportedOperationException If the query is in keyset pagination mode, in which case the next page is
+     *                                       fetched using {@link PagedResult#nextPage()}.
      */
     public QueryConstraints<T> nextPage() {
+        requireOffsetPagination();
         return new QueryConstraints<>(this, limit, offset + 1L);
     }
 
@@ -172,17 +280,24 @@ public class QueryConstraints<T> {
      * Returns a new instance of {@link QueryConstraints} with the limit and offset decremented by one.
      *
      * @return  A new instance of {@link QueryConstraints}.
+     *
+     * @throws UnsupportedOperationException If the query is in keyset pagination mode.
      */
     public QueryConstraints<T> previousPage() {
+        requireOffsetPagination();
         return new QueryConstraints<>(this, limit, offset - 1L);
     }
 
     /**
-     * Returns a new instance of {@link QueryConstraints} with the limit and offset set to the default values.
+     * Returns a new instance of {@link QueryConstraints} with the limit and offset set to the default values. In keyset
+     * pagination mode the continuation token is cleared instead.
      *
      * @return  A new instance of {@link QueryConstraints}.
      */
     public QueryConstraints<T> firstPage() {
+        if (paginationMode == PaginationMode.KEYSET) {
+            return new QueryConstraints<>(this, (ContinuationToken) null);
+        }
         return new QueryConstraints<>(this, limit, DEFAULT_OFFSET);
     }
 
@@ -191,8 +306,17 @@ public class QueryConstraints<T> {
      *
      * @param pageNumber    The page number to return.
      * @return            A new instance of {@link QueryConstraints}.
+     *
+     * @throws UnsupportedOperationException If the query is in keyset pagination mode.
      */
     public QueryConstraints<T> toPage(long pageNumber) {
+        requireOffsetPagination();
         return new QueryConstraints<>(this, limit, pageNumber);
     }
+
+    private void requireOffsetPagination() {
+        if (paginationMode == PaginationMode.KEYSET) {
+            throw new UnsupportedOperationException("Pages cannot be addressed by number in keyset pagination mode");
+        }
+    }
 }
@@ -0,0 +1,71 @@
+package dev.coderkini.tailfin.commons.repository;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * <p>Runs repository calls asynchronously on the application task executor, so a caller can issue independent queries
+ * at the same time and join their results.</p>
+ *
+ * <p>With {@code spring.threads.virtual.enabled} every call runs on a virtual thread of its own, which is parked
+ * instead of blocking a platform thread while it waits for the database. Without it, the calls share the bounded pool
+ * of the executor. Either way the number of calls talking to the database at once is bounded by the connection pool,
+ * see {@link dev.coderkini.tailfin.commons.jdbc.AdmissionControlledDataSource}.</p>
+ *
+ * <p>Calls do not run within the transaction or the request scope of the caller, so they must not rely on
+ * request-scoped beans or on seeing uncommitted writes of the caller.</p>
+ */
+@Component
+public class RepositoryExecutor {
+    private final AsyncTaskExecutor executor;
+
+    /**
+     * Creates a new instance of {@link RepositoryExecutor}.
+     *
+     * @param executor  The executor the calls run on.
+     */
+    public RepositoryExecutor(
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Runs a repository call asynchronously.
+     *
+     * @param call  The call to run.
+     * @param <T>   The type of result of the call.
+     *
+     * @return  The future result of the call, completed exceptionally if the call throws.
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> call) {
+        return executor.submitCompletable(call::get);
+    }
+
+    /**
+     * Starts a group of repository calls that run at the same time and fail together.
+     *
+     * @return  The new group, to be closed once its calls are joined.
+     */
+    public FanOut fanOut() {
+        return new FanOut(executor);
+    }
+
+    /**
+     * Runs a repository call without a result asynchronously.
+     *
+     * @param call  The call to run.
+     *
+     * @return  The future completed once the call returns, completed exceptionally if the call throws.
+     */
+    public CompletableFuture<Void> run(Runnable call) {
+        return executor.submitCompletable(() -> {
+            call.run();
+            return null;
+        });
+    }
+}
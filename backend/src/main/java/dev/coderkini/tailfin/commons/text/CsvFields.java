@@ -0,0 +1,47 @@
+package dev.coderkini.tailfin.commons.text;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits lines of comma separated values into their fields.
+ */
+public final class CsvFields {
+    private CsvFields() {
+    }
+
+    /**
+     * Splits a line into its fields, honouring double quoted fields with embedded commas and doubled quotes.
+     *
+     * @param line  The line to split.
+     *
+     * @return  The fields of the line, unquoted and not trimmed.
+     */
+    public static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,41 @@
+create table banks
+(
+    id          bigint       not null primary key,
+    name        varchar(255) not null,
+    branch_name varchar(255) not null,
+    ifsc        char(11)     not null unique,
+    created_at  timestamp    not null default now(),
+    updated_at  timestamp
+);
+
+create table accounts
+(
+    id           bigint         not null primary key,
+    type         varchar(32)    not null,
+    number       varchar(64),
+    bank_id      bigint references banks (id),
+    display_name varchar(255),
+    balance      numeric(19, 2) not null default 0,
+    currency     char(3)        not null default 'INR',
+    created_at   timestamp      not null default now(),
+    updated_at   timestamp
+);
+
+create index accounts_bank_id_idx on accounts (bank_id, id);
+create index accounts_number_idx on accounts (number);
+
+create table transactions
+(
+    id                bigint         not null primary key,
+    type              varchar(2)     not null,
+    source_account_id bigint references accounts (id),
+    target_account_id bigint references accounts (id),
+    amount            numeric(19, 2) not null,
+    currency          char(3)        not null,
+    created_at        timestamp      not null
+);
+
+-- Keyset pagination seeks on (created_at, id), per account side and across all accounts.
+create index transactions_source_keyset_idx on transactions (source_account_id, created_at, id);
+create index transactions_target_keyset_idx on transactions (target_account_id, created_at, id);
+create index transactions_keyset_idx on transactions (created_at, id);
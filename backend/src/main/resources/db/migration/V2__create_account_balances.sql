@@ -0,0 +1,19 @@
+-- Running balance of every account that has transactions, maintained in the same unit of work as the transactions.
+create table account_balances
+(
+    account_id bigint         not null primary key references accounts (id),
+    balance    numeric(19, 2) not null,
+    currency   char(3)        not null,
+    updated_at timestamp      not null default now()
+);
+
+insert into account_balances (account_id, balance, currency)
+select account_id, sum(amount), min(currency)
+from (select source_account_id as account_id, currency, -amount as amount
+      from transactions
+      where source_account_id is not null
+      union all
+      select target_account_id, currency, amount
+      from transactions
+      where target_account_id is not null) t
+group by account_id;
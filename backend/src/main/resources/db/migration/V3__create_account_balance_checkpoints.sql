@@ -0,0 +1,28 @@
+-- Net change of the balance of every account per day ('D') and per month ('M'). The balance of an account at any
+-- point in time is the sum of the monthly changes before its month, the daily changes before its day within the
+-- month and the transactions of the day itself.
+create table account_balance_checkpoints
+(
+    account_id   bigint         not null references accounts (id),
+    period       char(1)        not null,
+    period_start date           not null,
+    net_change   numeric(19, 2) not null,
+    primary key (account_id, period, period_start)
+);
+
+insert into account_balance_checkpoints (account_id, period, period_start, net_change)
+select account_id, 'D', created_at::date, sum(amount)
+from (select source_account_id as account_id, created_at, -amount as amount
+      from transactions
+      where source_account_id is not null
+      union all
+      select target_account_id, created_at, amount
+      from transactions
+      where target_account_id is not null) t
+group by account_id, created_at::date;
+
+insert into account_balance_checkpoints (account_id, period, period_start, net_change)
+select account_id, 'M', date_trunc('month', period_start)::date, sum(net_change)
+from account_balance_checkpoints
+where period = 'D'
+group by account_id, date_trunc('month', period_start)::date;
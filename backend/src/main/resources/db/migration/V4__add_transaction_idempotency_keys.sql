@@ -0,0 +1,6 @@
+-- Saving a transaction whose idempotency key has already been saved is a no-op. Transactions saved before keys were
+-- introduced have none and are never considered duplicates.
+alter table transactions
+    add column idempotency_key varchar(64);
+
+create unique index transactions_idempotency_key_idx on transactions (idempotency_key);
@@ -0,0 +1,71 @@
+-- Range-partitions the transactions by the month of created_at. Queries that bound created_at only scan the partitions
+-- of the months in range. The primary key and the unique idempotency key index have to include the partition key.
+alter table transactions rename to transactions_unpartitioned;
+alter index transactions_source_keyset_idx rename to transactions_unpartitioned_source_keyset_idx;
+alter index transactions_target_keyset_idx rename to transactions_unpartitioned_target_keyset_idx;
+alter index transactions_keyset_idx rename to transactions_unpartitioned_keyset_idx;
+alter index transactions_idempotency_key_idx rename to transactions_unpartitioned_idempotency_key_idx;
+
+create table transactions
+(
+    id                bigint         not null,
+    type              varchar(2)     not null,
+    source_account_id bigint references accounts (id),
+    target_account_id bigint references accounts (id),
+    amount            numeric(19, 2) not null,
+    currency          char(3)        not null,
+    created_at        timestamp      not null,
+    idempotency_key   varchar(64),
+    primary key (id, created_at)
+) partition by range (created_at);
+
+create index transactions_source_keyset_idx on transactions (source_account_id, created_at, id);
+create index transactions_target_keyset_idx on transactions (target_account_id, created_at, id);
+create index transactions_keyset_idx on transactions (created_at, id);
+create unique index transactions_idempotency_key_idx on transactions (idempotency_key, created_at);
+
+-- Catches transactions of months whose partition has not been created yet. TransactionPartitionMaintenance creates
+-- partitions ahead of time, but back-dated transactions, of months before the first partition or of detached months,
+-- land here until the partition of their month is created, see V8.
+create table transactions_default partition of transactions default;
+
+-- Creates the partition of the month starting at the specified date, unless it exists. Partitions are named
+-- transactions_yyyy_mm.
+create function create_transactions_partition(month_start date) returns text
+    language plpgsql as
+$$
+declare
+    partition_name text := 'transactions_' || to_char(month_start, 'YYYY_MM');
+begin
+    if to_regclass(partition_name) is null then
+        execute format('create table %I partition of transactions for values from (%L) to (%L)',
+                       partition_name, month_start, (month_start + interval '1 month')::date);
+    end if;
+    return partition_name;
+end;
+$$;
+
+select create_transactions_partition(month::date)
+from generate_series(date_trunc('month', coalesce((select min(created_at) from transactions_unpartitioned), now())),
+                     date_trunc('month', now()) + interval '3 months',
+                     interval '1 month') month;
+
+insert into transactions (id, type, source_account_id, target_account_id, amount, currency, created_at,
+                          idempotency_key)
+select id, type, source_account_id, target_account_id, amount, currency, created_at, idempotency_key
+from transactions_unpartitioned;
+
+drop table transactions_unpartitioned;
+
+-- Detached partitions are moved here when archived, together with the net change they had on every account so that
+-- balances can still be verified against the transactions that remain.
+create schema if not exists archive;
+
+create table archived_account_balances
+(
+    account_id     bigint         not null references accounts (id),
+    partition_name varchar(63)    not null,
+    net_change     numeric(19, 2) not null,
+    currency       char(3)        not null,
+    primary key (account_id, partition_name)
+);
@@ -0,0 +1,10 @@
+-- Trigram indexes on the text columns that are searched by substring. A btree index only serves like patterns that
+-- start with a literal prefix, a trigram index serves like and ilike patterns wherever their wildcards are, so the
+-- like filters of the repositories and the ranked searches stay index scans on large tables. Patterns with less than
+-- three characters between their wildcards have no trigram to look up and still scan the whole index.
+create extension if not exists pg_trgm;
+
+create index accounts_display_name_trgm_idx on accounts using gin (display_name gin_trgm_ops);
+create index accounts_number_trgm_idx on accounts using gin (number gin_trgm_ops);
+create index banks_name_trgm_idx on banks using gin (name gin_trgm_ops);
+create index banks_branch_name_trgm_idx on banks using gin (branch_name gin_trgm_ops);
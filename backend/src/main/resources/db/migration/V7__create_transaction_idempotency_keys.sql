@@ -0,0 +1,13 @@
+-- Unique indexes of the partitioned transactions table have to include created_at, so they cannot stop a key from
+-- being saved twice with different creation dates. Every saved key is claimed here first, in the same transaction as
+-- the transaction it belongs to, and a transaction is only inserted if its key was claimed. Keys stay claimed when
+-- their partition is detached or archived.
+create table transaction_idempotency_keys
+(
+    idempotency_key varchar(64) primary key
+);
+
+insert into transaction_idempotency_keys (idempotency_key)
+select distinct idempotency_key
+from transactions
+where idempotency_key is not null;
@@ -0,0 +1,37 @@
+-- Back-dated transactions of months that have no partition land in transactions_default. A partition cannot be
+-- created for a month the default partition holds rows of, so the default partition is detached while the partition
+-- is created, its rows of that month are moved into it, and it is attached again.
+create or replace function create_transactions_partition(month_start date) returns text
+    language plpgsql as
+$$
+declare
+    partition_name text := 'transactions_' || to_char(month_start, 'YYYY_MM');
+    month_end      date := (month_start + interval '1 month')::date;
+begin
+    if to_regclass(partition_name) is not null then
+        return partition_name;
+    end if;
+    if not exists (select 1
+                   from transactions_default
+                   where created_at >= month_start
+                     and created_at < month_end) then
+        execute format('create table %I partition of transactions for values from (%L) to (%L)',
+                       partition_name, month_start, month_end);
+        return partition_name;
+    end if;
+
+    alter table transactions detach partition transactions_default;
+    execute format('create table %I partition of transactions for values from (%L) to (%L)',
+                   partition_name, month_start, month_end);
+    with moved as (
+        delete from transactions_default
+            where created_at >= month_start and created_at < month_end
+            returning id, type, source_account_id, target_account_id, amount, currency, created_at, idempotency_key)
+    insert into transactions (id, type, source_account_id, target_account_id, amount, currency, created_at,
+                              idempotency_key)
+    select id, type, source_account_id, target_account_id, amount, currency, created_at, idempotency_key
+    from moved;
+    alter table transactions attach partition transactions_default default;
+    return partition_name;
+end;
+$$;
@@ -0,0 +1,102 @@
+package dev.coderkini.tailfin.accounts.ifsc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IfscCodesTest {
+    private static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    @Test
+    void unpacksWhatItPacks() {
+        for (String code : List.of("HDFC0000001", "SBIN0001234", "ICIC0ABC123", "00000000000", "ZZZZZZZZZZZ")) {
+            assertEquals(code, IfscCodes.unpack(IfscCodes.pack(code)));
+        }
+        for (String code : randomCodes(10_000)) {
+            assertEquals(code, IfscCodes.unpack(IfscCodes.pack(code)));
+        }
+    }
+
+    @Test
+    void packsTheExtremesIntoNonNegativeLongs() {
+        assertEquals(0, IfscCodes.pack("00000000000"));
+        assertEquals(pow(36, 11) - 1, IfscCodes.pack("ZZZZZZZZZZZ"));
+    }
+
+    @Test
+    void packedCodesSortLikeTheCodes() {
+        List<String> codes = randomCodes(10_000);
+        List<String> byCode = new ArrayList<>(codes);
+        byCode.sort(null);
+        List<String> byPacked = new ArrayList<>(codes);
+        byPacked.sort((a, b) -> Long.compare(IfscCodes.pack(a), IfscCodes.pack(b)));
+
+        assertEquals(byCode, byPacked);
+    }
+
+    @Test
+    void prefixBoundsEncloseExactlyTheCodesWithThePrefix() {
+        long lower = IfscCodes.lowerBound("HDFC0");
+        long upper = IfscCodes.upperBound("HDFC0");
+
+        for (String code : List.of("HDFC0000000", "HDFC0000001", "HDFC0ZZZZZZ")) {
+            long packed = IfscCodes.pack(code);
+            assertTrue(packed >= lower && packed <= upper, code);
+        }
+        for (String code : List.of("HDFBZZZZZZZ", "HDFC1000000", "HDFA0000000", "HDF00000000")) {
+            long packed = IfscCodes.pack(code);
+            assertFalse(packed >= lower && packed <= upper, code);
+        }
+        assertEquals(IfscCodes.pack("HDFC0000000"), lower);
+        assertEquals(IfscCodes.pack("HDFC0ZZZZZZ"), upper);
+    }
+
+    @Test
+    void emptyPrefixBoundsEveryCode() {
+        assertEquals(IfscCodes.pack("00000000000"), IfscCodes.lowerBound(""));
+        assertEquals(IfscCodes.pack("ZZZZZZZZZZZ"), IfscCodes.upperBound(""));
+    }
+
+    @Test
+    void rejectsCodesOfTheWrongLengthOrWithOtherCharacters() {
+        assertThrows(IllegalArgumentException.class, () -> IfscCodes.pack("HDFC000001"));
+        assertThrows(IllegalArgumentException.class, () -> IfscCodes.pack("HDFC00000001"));
+        assertThrows(IllegalArgumentException.class, () -> IfscCodes.pack("hdfc0000001"));
+        assertThrows(IllegalArgumentException.class, () -> IfscCodes.pack("HDFC-000001"));
+        assertThrows(IllegalArgumentException.class, () -> IfscCodes.lowerBound("HDFC00000001"));
+        assertThrows(IllegalArgumentException.class, () -> IfscCodes.upperBound("hd"));
+    }
+
+    @Test
+    void normalizesToTrimmedUpperCase() {
+        assertEquals("HDFC0000001", IfscCodes.normalize("  hdfc0000001 "));
+    }
+
+    private static List<String> randomCodes(int count) {
+        SplittableRandom random = new SplittableRandom(36);
+        List<String> codes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder code = new StringBuilder(IfscCodes.LENGTH);
+            for (int j = 0; j < IfscCodes.LENGTH; j++) {
+                code.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            codes.add(code.toString());
+        }
+        return codes;
+    }
+
+    private static long pow(long base, int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= base;
+        }
+        return result;
+    }
+}
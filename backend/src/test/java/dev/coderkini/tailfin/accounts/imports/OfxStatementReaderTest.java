@@ -0,0 +1,52 @@
+package dev.coderkini.tailfin.accounts.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import dev.coderkini.tailfin.commons.money.Currencies;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OfxStatementReaderTest {
+    private static final String STATEMENT = """
+            <OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS>
+            <STMTTRN><TRNAMT>-10.00<DTPOSTED>20240301<FITID>1</STMTTRN>
+            </STMTRS><STMTRS><CURDEF>INR
+            <STMTTRN><TRNAMT>-20.00<DTPOSTED>20240302<FITID>2</STMTTRN>
+            </STMTRS><STMTRS><CURDEF>USD
+            <STMTTRN><TRNAMT>-30.00<DTPOSTED>20240303<FITID>3</STMTTRN>
+            <STMTTRN><TRNAMT>-40.00<DTPOSTED>20240304<FITID>4</STMTTRN>
+            </STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>
+            """;
+
+    @Test
+    void parsesEntriesWithTheCurrencyDeclaredBeforeThemAfterReadingAhead() throws IOException {
+        OfxStatementReader reader = new OfxStatementReader(new BufferedReader(new StringReader(STATEMENT)));
+        List<StatementRecord> records = reader.read(100);
+
+        // Every entry has been read, and the last currency declared, before the first one is parsed.
+        List<StatementLine> lines = records.stream().map(reader::parse).toList();
+        assertEquals(4, lines.size());
+        assertNull(lines.get(0).currency());
+        assertEquals(Currencies.of("INR"), lines.get(1).currency());
+        assertEquals(Currencies.of("USD"), lines.get(2).currency());
+        assertEquals(Currencies.of("USD"), lines.get(3).currency());
+    }
+
+    @Test
+    void parsesEntriesReadInSeveralChunks() throws IOException {
+        OfxStatementReader reader = new OfxStatementReader(new BufferedReader(new StringReader(STATEMENT)));
+        List<StatementRecord> first = reader.read(2);
+        List<StatementRecord> second = reader.read(2);
+
+        assertEquals(Currencies.of("INR"), reader.parse(first.get(1)).currency());
+        assertEquals(Currencies.of("USD"), reader.parse(second.get(0)).currency());
+        assertEquals(List.of(1L, 2L, 3L, 4L), List.of(first.get(0).number(), first.get(1).number(),
+                second.get(0).number(), second.get(1).number()));
+    }
+}
@@ -0,0 +1,260 @@
+package dev.coderkini.tailfin.accounts.imports;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.stream.Stream;
+import javax.money.MonetaryAmount;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.Test;
+
+import dev.coderkini.tailfin.accounts.domain.Account;
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+import dev.coderkini.tailfin.accounts.domain.AccountRepository;
+import dev.coderkini.tailfin.accounts.domain.AccountType;
+import dev.coderkini.tailfin.accounts.domain.BankId;
+import dev.coderkini.tailfin.accounts.domain.IdempotencyKey;
+import dev.coderkini.tailfin.accounts.domain.Transaction;
+import dev.coderkini.tailfin.accounts.domain.TransactionId;
+import dev.coderkini.tailfin.accounts.domain.TransactionRepository;
+import dev.coderkini.tailfin.accounts.domain.TransactionType;
+import dev.coderkini.tailfin.commons.money.Currencies;
+import dev.coderkini.tailfin.commons.repository.BatchResult;
+import dev.coderkini.tailfin.commons.repository.PagedResult;
+import dev.coderkini.tailfin.commons.repository.QueryConstraints;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementImporterTest {
+    private static final String STATEMENT = """
+            date,description,amount
+            01/03/2024,Coffee,-120.50
+            01/03/2024,Coffee,-120.50
+            02/03/2024,Salary,50000.00
+            01/03/2024,Coffee,-120.50
+            """;
+
+    @Test
+    void repeatedIdenticalEntriesGetOccurrenceSuffixedKeys() throws IOException {
+        AccountId accountId = AccountId.generate();
+        List<IdempotencyKey> keys = importKeys(accountId, STATEMENT);
+
+        MonetaryAmount coffee = Money.of(new BigDecimal("120.50"), Currencies.DEFAULT);
+        LocalDateTime first = LocalDate.of(2024, 3, 1).atStartOfDay();
+        LocalDateTime second = LocalDate.of(2024, 3, 2).atStartOfDay();
+        assertEquals(List.of(
+                        IdempotencyKey.derive(TransactionType.WITHDRAWAL, accountId, null, coffee, first),
+                        IdempotencyKey.derive(TransactionType.WITHDRAWAL, accountId, null, coffee, first, 1),
+                        IdempotencyKey.derive(TransactionType.DEPOSIT, null, accountId,
+                                Money.of(new BigDecimal("50000.00"), Currencies.DEFAULT), second),
+                        IdempotencyKey.derive(TransactionType.WITHDRAWAL, accountId, null, coffee, first, 2)),
+                keys);
+    }
+
+    @Test
+    void reimportingAStatementDerivesTheSameKeys() throws IOException {
+        AccountId accountId = AccountId.generate();
+
+        assertEquals(importKeys(accountId, STATEMENT), importKeys(accountId, STATEMENT));
+    }
+
+    @Test
+    void rejectsEntriesInAnotherCurrencyWithoutFailingTheImport() throws IOException {
+        RecordingTransactionRepository repository = new RecordingTransactionRepository();
+        ImportReport report = importStatement(repository, AccountId.generate(), """
+                date,description,amount,currency
+                01/03/2024,Coffee,-120.50,INR
+                01/03/2024,Books,-35.00,USD
+                02/03/2024,Salary,50000.00,
+                """);
+
+        assertEquals(3, report.read());
+        assertEquals(2, report.imported());
+        assertEquals(1, report.rejected());
+        assertEquals(3, report.rejections().getFirst().line(), "The header is the first line");
+        assertTrue(report.rejections().getFirst().reason().contains("USD"));
+        assertTrue(repository.saved.stream().allMatch(
+                transaction -> transaction.getAmount().getCurrency().equals(Currencies.DEFAULT)));
+    }
+
+    @Test
+    void rejectsImportsIntoUnknownAccounts() {
+        RecordingTransactionRepository repository = new RecordingTransactionRepository();
+        StatementImporter importer = new StatementImporter(new SingleAccountRepository(null), repository,
+                new ImportProperties(2, 2, 2, 100));
+        try {
+            assertThrows(IllegalArgumentException.class, () -> importer.importStatement(AccountId.generate(),
+                    StatementFormat.CSV, new ByteArrayInputStream(STATEMENT.getBytes(StandardCharsets.UTF_8))));
+        } finally {
+            importer.shutdown();
+        }
+        assertTrue(repository.saved.isEmpty());
+    }
+
+    private static List<IdempotencyKey> importKeys(AccountId accountId, String statement) throws IOException {
+        RecordingTransactionRepository repository = new RecordingTransactionRepository();
+        importStatement(repository, accountId, statement);
+        return repository.saved.stream().map(Transaction::getIdempotencyKey).toList();
+    }
+
+    private static ImportReport importStatement(TransactionRepository repository,
+                                                AccountId accountId,
+                                                String statement) throws IOException {
+        // Chunks and batches of two entries, so identical entries are counted across both.
+        Account account = new Account(accountId, AccountType.SAVINGS, Currencies.DEFAULT);
+        StatementImporter importer = new StatementImporter(new SingleAccountRepository(account), repository,
+                new ImportProperties(2, 2, 2, 100));
+        try {
+            return importer.importStatement(accountId, StatementFormat.CSV,
+                    new ByteArrayInputStream(statement.getBytes(StandardCharsets.UTF_8)));
+        } finally {
+            importer.shutdown();
+        }
+    }
+
+    /**
+     * Holds the account imported into, or no account at all, the other queries are not supported.
+     */
+    private static final class SingleAccountRepository implements AccountRepository {
+        private final Account account;
+
+        SingleAccountRepository(Account account) {
+            this.account = account;
+        }
+
+        @Override
+        public Account findById(AccountId id) {
+            return account != null && account.getId().equals(id) ? account : null;
+        }
+
+        @Override
+        public Map<AccountId, Account> findAllByIds(Collection<AccountId> ids) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Account findByAccountNumber(String accountNumber) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PagedResult<Account> findAccountsByBank(BankId bankId, QueryConstraints<Account> constraints) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Account> search(String text, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<AccountId, MonetaryAmount> getInitialBalances() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Account save(Account account) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void delete(Account account) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void update(Account account) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Records the transactions saved by an import, the other queries are not supported.
+     */
+    private static final class RecordingTransactionRepository implements TransactionRepository {
+        private final List<Transaction> saved = new ArrayList<>();
+
+        @Override
+        public BatchResult<Transaction> saveAll(Collection<Transaction> transactions) {
+            saved.addAll(transactions);
+            return new BatchResult<>(transactions.size(), 0, List.of());
+        }
+
+        @Override
+        public Transaction findById(TransactionId id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PagedResult<Transaction> findAll(QueryConstraints<Transaction> constraints) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PagedResult<Transaction> findByAccountId(AccountId accountId,
+                                                        QueryConstraints<Transaction> constraints) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PagedResult<Transaction> findByAccountAndDateRange(AccountId accountId,
+                                                                  LocalDateTime startDate,
+                                                                  LocalDateTime endDate,
+                                                                  QueryConstraints<Transaction> constraints) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Stream<Transaction> streamByAccountId(AccountId accountId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void save(Transaction transaction) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MonetaryAmount getAccountBalance(AccountId accountId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<AccountId, MonetaryAmount> getAccountBalances() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<AccountId, MonetaryAmount> getAccountBalances(Collection<AccountId> accountIds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<AccountId, MonetaryAmount> lockAccountBalances(Collection<AccountId> accountIds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MonetaryAmount getAccountBalance(AccountId accountId, LocalDateTime asOf) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SortedMap<LocalDate, MonetaryAmount> getBalanceHistory(AccountId accountId,
+                                                                      LocalDate startDate,
+                                                                      LocalDate endDate) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package dev.coderkini.tailfin.accounts.infrastructure;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import dev.coderkini.tailfin.accounts.domain.Bank;
+import dev.coderkini.tailfin.accounts.domain.BankId;
+import dev.coderkini.tailfin.accounts.domain.IfsCode;
+import dev.coderkini.tailfin.commons.jdbc.RepositoryProperties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CachingBankRepositoryTest {
+    private final StoredBanks stored = new StoredBanks();
+    private final CachingBankRepository banks = new CachingBankRepository(stored, properties(2));
+    private final Bank hdfc = stored.add(new Bank(BankId.generate(), "HDFC Bank", "Fort", new IfsCode("HDFC0000001")));
+    private final Bank sbi = stored.add(new Bank(BankId.generate(), "State Bank", "Andheri",
+            new IfsCode("SBIN0001234")));
+    private final Bank icici = stored.add(new Bank(BankId.generate(), "ICICI", "Powai", new IfsCode("ICIC0000042")));
+
+    @Test
+    void aBankFoundByAnyKeyIsAHitForEveryOtherKey() {
+        banks.findById(hdfc.getId());
+        banks.findById(hdfc.getId());
+        banks.findByIfsCode(hdfc.getIfsc());
+        assertEquals(1, stored.reads);
+
+        banks.findByBranchName("Andheri");
+        banks.findById(sbi.getId());
+        banks.findByBranchName("Andheri");
+        assertEquals(2, stored.reads);
+    }
+
+    @Test
+    void handsOutCopies() {
+        banks.findById(hdfc.getId()).setName("Changed");
+
+        assertEquals("HDFC Bank", banks.findById(hdfc.getId()).getName());
+    }
+
+    @Test
+    void updatingABankEvictsItByEveryKey() {
+        banks.findById(hdfc.getId());
+        banks.update(renamed(hdfc, "HDFC"));
+
+        assertEquals("HDFC", banks.findByIfsCode(hdfc.getIfsc()).getName());
+        assertEquals(2, stored.reads);
+    }
+
+    @Test
+    void deletingABankEvictsIt() {
+        banks.findByIfsCode(hdfc.getIfsc());
+        banks.delete(hdfc);
+
+        assertNull(banks.findById(hdfc.getId()));
+        assertNull(banks.findByIfsCode(hdfc.getIfsc()));
+    }
+
+    @Test
+    void savingABankEvictsIt() {
+        banks.findById(hdfc.getId());
+        banks.save(renamed(hdfc, "HDFC"));
+
+        assertEquals("HDFC", banks.findById(hdfc.getId()).getName());
+    }
+
+    @Test
+    void lookupsRacingWithAWriteAreNotCached() {
+        stored.duringNextRead = () -> banks.update(renamed(hdfc, "HDFC"));
+        banks.findById(hdfc.getId());
+
+        banks.findById(hdfc.getId());
+        assertEquals(2, stored.reads);
+    }
+
+    @Test
+    void evictsAgainOnceTheTransactionOfAWriteCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            banks.update(renamed(hdfc, "HDFC"));
+            // Another transaction reads the bank before the update is committed, which caches the old name.
+            stored.add(hdfc);
+            assertEquals("HDFC Bank", banks.findById(hdfc.getId()).getName());
+            stored.add(renamed(hdfc, "HDFC"));
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations,
+                    TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals("HDFC", banks.findById(hdfc.getId()).getName());
+    }
+
+    @Test
+    void evictingTheLeastRecentlyUsedBankDropsItsSecondaryKeys() {
+        banks.findByIfsCode(hdfc.getIfsc());
+        banks.findById(sbi.getId());
+        banks.findById(icici.getId());
+        assertEquals(3, stored.reads);
+
+        banks.findByIfsCode(hdfc.getIfsc());
+        assertEquals(4, stored.reads);
+    }
+
+    @Test
+    void batchLookupsOnlyReadTheMissingBanks() {
+        banks.findById(hdfc.getId());
+
+        Map<BankId, Bank> found = banks.findAllByIds(List.of(hdfc.getId(), sbi.getId()));
+        assertEquals(2, found.size());
+        assertEquals(List.of(sbi.getId()), stored.lastBatch);
+
+        banks.findById(sbi.getId());
+        assertEquals(2, stored.reads);
+    }
+
+    @Test
+    void lookupsThatFindNoBankAreNotCached() {
+        BankId unknown = BankId.generate();
+        assertNull(banks.findById(unknown));
+        assertNull(banks.findById(unknown));
+
+        assertEquals(2, stored.reads);
+    }
+
+    private static Bank renamed(Bank bank, String name) {
+        return new Bank(bank.getId(), name, bank.getBranchName(), bank.getIfsc());
+    }
+
+    private static RepositoryProperties properties(int bankCacheSize) {
+        return new RepositoryProperties(500, 500, 5000, 1024, Duration.ofSeconds(30), 1024, bankCacheSize,
+                10_000, 0.01, 0, Duration.ofSeconds(5), Duration.ofMillis(200), 100);
+    }
+
+    /**
+     * Keeps banks in memory in place of the database and counts the banks read, the other queries are not supported.
+     */
+    private static final class StoredBanks extends JdbcBankRepository {
+        private final Map<BankId, Bank> banks = new HashMap<>();
+        private int reads;
+        private List<BankId> lastBatch;
+        private Runnable duringNextRead;
+
+        StoredBanks() {
+            super(null, null, null);
+        }
+
+        Bank add(Bank bank) {
+            banks.put(bank.getId(), bank);
+            return bank;
+        }
+
+        @Override
+        public Bank findById(BankId id) {
+            return read(banks.get(id));
+        }
+
+        @Override
+        public Map<BankId, Bank> findAllByIds(Collection<BankId> ids) {
+            lastBatch = List.copyOf(ids);
+            Map<BankId, Bank> found = new HashMap<>();
+            for (BankId id : ids) {
+                Bank bank = read(banks.get(id));
+                if (bank != null) {
+                    found.put(id, bank);
+                }
+            }
+            return found;
+        }
+
+        @Override
+        public Bank findByIfsCode(IfsCode ifsc) {
+            return read(banks.values().stream().filter(bank -> bank.getIfsc().equals(ifsc)).findFirst().orElse(null));
+        }
+
+        @Override
+        public Bank findByBranchName(String branchName) {
+            return read(banks.values().stream()
+                    .filter(bank -> bank.getBranchName().equals(branchName))
+                    .findFirst()
+                    .orElse(null));
+        }
+
+        @Override
+        public Bank save(Bank bank) {
+            return add(bank);
+        }
+
+        @Override
+        public void update(Bank bank) {
+            add(bank);
+        }
+
+        @Override
+        public void delete(Bank bank) {
+            banks.remove(bank.getId());
+        }
+
+        private Bank read(Bank bank) {
+            reads++;
+            if (duringNextRead != null) {
+                Runnable write = duringNextRead;
+                duringNextRead = null;
+                write.run();
+            }
+            return bank == null ? null : new Bank(bank.getId(), bank.getName(), bank.getBranchName(), bank.getIfsc());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package dev.coderkini.tailfin.accounts.infrastructure;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import dev.coderkini.tailfin.accounts.domain.Account;
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+import dev.coderkini.tailfin.accounts.domain.AccountRepository;
+import dev.coderkini.tailfin.accounts.domain.AccountType;
+import dev.coderkini.tailfin.accounts.domain.Transaction;
+import dev.coderkini.tailfin.accounts.domain.TransactionId;
+import dev.coderkini.tailfin.accounts.domain.TransactionRepository;
+import dev.coderkini.tailfin.accounts.domain.TransactionType;
+import dev.coderkini.tailfin.commons.money.Currencies;
+import dev.coderkini.tailfin.commons.money.MinorAmount;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * <p>Checks the daily and monthly checkpoints of {@link JdbcBalanceCheckpoints} and the balances computed from them
+ * against transactions on either side of a day and a month boundary, including transactions at midnight.</p>
+ *
+ * <p>The suites tagged {@code database} run with {@code ./gradlew databaseTest} against the database configured with
+ * the {@code spring.datasource.*} system properties. Every test runs in a transaction that is rolled back. They are
+ * excluded from the regular test run.</p>
+ */
+@Tag("database")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Transactional
+class JdbcBalanceCheckpointsTest {
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private JdbcBalanceCheckpoints checkpoints;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    private AccountId accountId;
+
+    @BeforeEach
+    void setUp() {
+        accountId = accountRepository.save(new Account(AccountId.generate(), AccountType.SAVINGS, Currencies.DEFAULT))
+                .getId();
+        transactionRepository.saveAll(List.of(
+                deposit("100.00", LocalDateTime.of(2024, 1, 31, 23, 59, 59)),
+                deposit("10.00", LocalDateTime.of(2024, 2, 1, 0, 0)),
+                withdrawal("1.00", LocalDateTime.of(2024, 2, 1, 12, 0)),
+                deposit("5.00", LocalDateTime.of(2024, 2, 2, 0, 0))));
+    }
+
+    @Test
+    void sumsTheChangesOfEveryDayAndMonth() {
+        Map<String, BigDecimal> expected = new LinkedHashMap<>();
+        expected.put("D 2024-01-31", new BigDecimal("100.00"));
+        expected.put("D 2024-02-01", new BigDecimal("9.00"));
+        expected.put("D 2024-02-02", new BigDecimal("5.00"));
+        expected.put("M 2024-01-01", new BigDecimal("100.00"));
+        expected.put("M 2024-02-01", new BigDecimal("14.00"));
+
+        assertEquals(expected, checkpoints());
+    }
+
+    @Test
+    void addsLaterTransactionsToTheExistingCheckpoints() {
+        transactionRepository.saveAll(List.of(withdrawal("20.00", LocalDateTime.of(2024, 2, 1, 23, 59, 59))));
+
+        assertEquals(new BigDecimal("-11.00"), checkpoints().get("D 2024-02-01"));
+        assertEquals(new BigDecimal("-6.00"), checkpoints().get("M 2024-02-01"));
+    }
+
+    @Test
+    void includesTheTransactionsAtTheMomentOfTheBalance() {
+        assertBalance("0", LocalDateTime.of(2024, 1, 31, 23, 59, 58));
+        assertBalance("100.00", LocalDateTime.of(2024, 1, 31, 23, 59, 59));
+        assertBalance("110.00", LocalDateTime.of(2024, 2, 1, 11, 59, 59));
+        assertBalance("109.00", LocalDateTime.of(2024, 2, 1, 12, 0));
+    }
+
+    @Test
+    void countsTransactionsAtMidnightInTheDayTheyStart() {
+        // The first of the month, so the month before comes from the monthly checkpoint alone.
+        assertBalance("110.00", LocalDateTime.of(2024, 2, 1, 0, 0));
+        // The second of the month, so the first comes from the daily checkpoint.
+        assertBalance("114.00", LocalDateTime.of(2024, 2, 2, 0, 0));
+        assertBalance("109.00", LocalDateTime.of(2024, 2, 1, 23, 59, 59, 999_999_000));
+    }
+
+    @Test
+    void usesTheMonthlyCheckpointsOfTheMonthsBefore() {
+        assertBalance("114.00", LocalDateTime.of(2024, 3, 1, 0, 0));
+        assertBalance("114.00", LocalDateTime.of(2025, 1, 15, 8, 30));
+        assertBalance("0", LocalDateTime.of(2023, 12, 31, 0, 0));
+    }
+
+    @Test
+    void closesEveryDayOfTheRangeWithItsBalance() {
+        SortedMap<LocalDate, MinorAmount> balances = checkpoints.closingBalances(accountId,
+                LocalDate.of(2024, 1, 30), LocalDate.of(2024, 2, 3), Currencies.DEFAULT);
+
+        assertEquals(List.of(LocalDate.of(2024, 1, 30), LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 1),
+                        LocalDate.of(2024, 2, 2), LocalDate.of(2024, 2, 3)),
+                List.copyOf(balances.keySet()));
+        assertEquals(List.of(0L, 10_000L, 10_900L, 11_400L, 11_400L),
+                balances.values().stream().map(MinorAmount::units).toList());
+    }
+
+    private void assertBalance(String expected, LocalDateTime asOf) {
+        BigDecimal balance = checkpoints.balanceAsOf(accountId, asOf);
+        assertEquals(0, new BigDecimal(expected).compareTo(balance), () -> "Balance as of " + asOf + " is " + balance);
+    }
+
+    private Map<String, BigDecimal> checkpoints() {
+        Map<String, BigDecimal> checkpoints = new LinkedHashMap<>();
+        jdbc.query("select period, period_start, net_change from account_balance_checkpoints " +
+                        "where account_id = :accountId order by period, period_start",
+                new MapSqlParameterSource("accountId", JdbcValues.toJdbc(accountId)),
+                rs -> {
+                    checkpoints.put(rs.getString("period") + " " + rs.getDate("period_start").toLocalDate(),
+                            rs.getBigDecimal("net_change"));
+                });
+        return checkpoints;
+    }
+
+    private Transaction deposit(String amount, LocalDateTime createdAt) {
+        return new Transaction(TransactionId.generate(), TransactionType.DEPOSIT, null, accountId,
+                Money.of(new BigDecimal(amount), Currencies.DEFAULT), createdAt);
+    }
+
+    private Transaction withdrawal(String amount, LocalDateTime createdAt) {
+        return new Transaction(TransactionId.generate(), TransactionType.WITHDRAWAL, accountId, null,
+                Money.of(new BigDecimal(amount), Currencies.DEFAULT), createdAt);
+    }
+}
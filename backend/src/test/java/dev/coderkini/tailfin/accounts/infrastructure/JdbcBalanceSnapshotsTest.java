@@ -0,0 +1,167 @@
+package dev.coderkini.tailfin.accounts.infrastructure;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.money.MonetaryAmount;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import dev.coderkini.tailfin.accounts.domain.Account;
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+import dev.coderkini.tailfin.accounts.domain.AccountRepository;
+import dev.coderkini.tailfin.accounts.domain.AccountType;
+import dev.coderkini.tailfin.accounts.domain.Transaction;
+import dev.coderkini.tailfin.accounts.domain.TransactionId;
+import dev.coderkini.tailfin.accounts.domain.TransactionRepository;
+import dev.coderkini.tailfin.accounts.domain.TransactionType;
+import dev.coderkini.tailfin.commons.money.Currencies;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that {@link JdbcBalanceSnapshots} finds and rebuilds the running balances that do not match the
+ * transactions, see {@link JdbcBalanceCheckpointsTest} for how the suite runs.
+ */
+@Tag("database")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Transactional
+class JdbcBalanceSnapshotsTest {
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 15, 10, 0);
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private JdbcBalanceSnapshots balances;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    private final Set<AccountId> accounts = new HashSet<>();
+    private AccountId accountId;
+    private AccountId otherAccountId;
+
+    @BeforeEach
+    void setUp() {
+        accountId = account();
+        otherAccountId = account();
+        transactionRepository.saveAll(List.of(
+                new Transaction(TransactionId.generate(), TransactionType.DEPOSIT, null, accountId,
+                        inr("100.00"), CREATED_AT),
+                new Transaction(TransactionId.generate(), TransactionType.TRANSFER, accountId, otherAccountId,
+                        inr("30.00"), CREATED_AT.plusMinutes(1))));
+    }
+
+    @Test
+    void appliesEveryTransactionToBothOfItsAccounts() {
+        assertBalance("70.00", accountId);
+        assertBalance("30.00", otherAccountId);
+        assertEquals(List.of(), mismatches());
+    }
+
+    @Test
+    void rejectsTransactionsInAnotherCurrencyThanTheirAccount() {
+        Transaction dollars = new Transaction(TransactionId.generate(), TransactionType.DEPOSIT, null, accountId,
+                Money.of(new BigDecimal("5.00"), Currencies.of("USD")), CREATED_AT);
+
+        assertThrows(IllegalStateException.class, () -> balances.apply(List.of(dollars)));
+    }
+
+    @Test
+    void findsAndRebuildsARunningBalanceThatDrifted() {
+        setBalance(accountId, "1.00");
+
+        List<JdbcBalanceSnapshots.BalanceMismatch> mismatches = mismatches();
+        assertEquals(1, mismatches.size());
+        assertEquals(accountId, mismatches.getFirst().accountId());
+        assertEquals(new BigDecimal("1.00"), mismatches.getFirst().snapshotBalance());
+        assertEquals(new BigDecimal("70.00"), mismatches.getFirst().computedBalance());
+
+        balances.rebuild(accountId);
+
+        assertBalance("70.00", accountId);
+        assertEquals(List.of(), mismatches());
+    }
+
+    @Test
+    void countsTheNetChangesOfArchivedPartitions() {
+        jdbc.update("insert into archived_account_balances (account_id, partition_name, net_change, currency) " +
+                        "values (:accountId, 'transactions_2023_01', 5.00, 'INR')",
+                new MapSqlParameterSource("accountId", JdbcValues.toJdbc(accountId)));
+
+        assertEquals(List.of(accountId), mismatches().stream().map(JdbcBalanceSnapshots.BalanceMismatch::accountId)
+                .toList());
+
+        balances.rebuild(accountId);
+
+        assertBalance("75.00", accountId);
+        assertEquals(List.of(), mismatches());
+    }
+
+    @Test
+    void matchesAZeroBalanceOfAnAccountWithoutTransactions() {
+        AccountId idle = account();
+        balances.lock(List.of(idle));
+
+        assertBalance("0", idle);
+        assertEquals(List.of(), mismatches());
+    }
+
+    @Test
+    void rebuildingAnAccountWithoutTransactionsRemovesItsBalance() {
+        AccountId idle = account();
+        balances.lock(List.of(idle));
+        setBalance(idle, "12.00");
+        assertEquals(1, mismatches().size());
+
+        balances.rebuild(idle);
+
+        assertNull(balances.find(idle));
+        assertEquals(List.of(), mismatches());
+    }
+
+    private AccountId account() {
+        AccountId id = accountRepository.save(new Account(AccountId.generate(), AccountType.SAVINGS,
+                Currencies.DEFAULT)).getId();
+        accounts.add(id);
+        return id;
+    }
+
+    private void assertBalance(String expected, AccountId id) {
+        MonetaryAmount balance = balances.find(id);
+        assertTrue(inr(expected).isEqualTo(balance), () -> "Balance of " + id + " is " + balance);
+    }
+
+    private void setBalance(AccountId id, String balance) {
+        jdbc.update("update account_balances set balance = :balance where account_id = :accountId",
+                new MapSqlParameterSource("accountId", JdbcValues.toJdbc(id))
+                        .addValue("balance", new BigDecimal(balance)));
+    }
+
+    /**
+     * Returns the mismatches of the accounts of the test, the database may hold others.
+     */
+    private List<JdbcBalanceSnapshots.BalanceMismatch> mismatches() {
+        return balances.verify().stream()
+                .filter(mismatch -> accounts.contains(mismatch.accountId()))
+                .toList();
+    }
+
+    private static Money inr(String amount) {
+        return Money.of(new BigDecimal(amount), Currencies.DEFAULT);
+    }
+}
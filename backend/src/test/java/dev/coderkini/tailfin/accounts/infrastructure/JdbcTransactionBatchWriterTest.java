@@ -0,0 +1,143 @@
+package dev.coderkini.tailfin.accounts.infrastructure;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import dev.coderkini.tailfin.accounts.domain.Account;
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+import dev.coderkini.tailfin.accounts.domain.AccountRepository;
+import dev.coderkini.tailfin.accounts.domain.AccountType;
+import dev.coderkini.tailfin.accounts.domain.IdempotencyKey;
+import dev.coderkini.tailfin.accounts.domain.Transaction;
+import dev.coderkini.tailfin.accounts.domain.TransactionId;
+import dev.coderkini.tailfin.accounts.domain.TransactionType;
+import dev.coderkini.tailfin.commons.jdbc.RepositoryProperties;
+import dev.coderkini.tailfin.commons.money.Currencies;
+import dev.coderkini.tailfin.commons.repository.BatchResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Writes the same batch with JDBC batches, below the copy threshold, and with {@code COPY}, at or above it, and checks
+ * that both report the same transactions as saved, duplicates and failures, see {@link JdbcBalanceCheckpointsTest} for
+ * how the suite runs.
+ */
+@Tag("database")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Transactional
+class JdbcTransactionBatchWriterTest {
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 4, 10, 9, 0);
+    private static final int BATCH_SIZE = 2;
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+    @Autowired
+    private DataSource dataSource;
+
+    private AccountId accountId;
+
+    @BeforeEach
+    void setUp() {
+        accountId = accountRepository.save(new Account(AccountId.generate(), AccountType.SAVINGS, Currencies.DEFAULT))
+                .getId();
+    }
+
+    @ParameterizedTest(name = "copy threshold {0}")
+    @ValueSource(ints = {1_000, 1})
+    void reportsTheFailuresAtTheirPositionInTheBatch(int copyThreshold) {
+        IdempotencyKey key = new IdempotencyKey("writer-" + accountId.value());
+        List<Transaction> transactions = List.of(
+                deposit("10.00", key),
+                new Transaction(TransactionId.generate(), TransactionType.DEPOSIT, null, AccountId.generate(),
+                        inr("20.00"), CREATED_AT),
+                withdrawal("3.00"),
+                new Transaction(TransactionId.generate(), TransactionType.DEPOSIT, null, accountId,
+                        Money.of(new BigDecimal("4.00"), Currencies.of("USD")), CREATED_AT),
+                deposit("10.00", key),
+                withdrawal("0.001"),
+                deposit("7.00", null));
+        List<Transaction> saved = new ArrayList<>();
+        List<Transaction> duplicates = new ArrayList<>();
+
+        List<BatchResult.Failure<Transaction>> failures = writer(copyThreshold).write(transactions, saved, duplicates);
+
+        assertEquals(List.of(1L, 3L, 5L), failures.stream().map(BatchResult.Failure::index).toList());
+        for (BatchResult.Failure<Transaction> failure : failures) {
+            assertEquals(transactions.get((int) failure.index()), failure.item());
+            assertNotNull(failure.reason());
+        }
+        assertEquals(List.of(transactions.get(0), transactions.get(2), transactions.get(6)), saved);
+        assertEquals(List.of(transactions.get(4)), duplicates);
+        assertEquals(3, count("select count(*) from transactions where source_account_id = :accountId " +
+                "or target_account_id = :accountId"));
+        assertEquals(1, count("select count(*) from transaction_idempotency_keys where idempotency_key = :key",
+                key.value()));
+    }
+
+    @ParameterizedTest(name = "copy threshold {0}")
+    @ValueSource(ints = {1_000, 1})
+    void keepsTheFirstOfTheTransactionsSharingAKey(int copyThreshold) {
+        IdempotencyKey key = new IdempotencyKey("writer-" + accountId.value());
+        List<Transaction> transactions = List.of(
+                new Transaction(TransactionId.generate(), TransactionType.DEPOSIT, null, AccountId.generate(),
+                        inr("1.00"), CREATED_AT, key),
+                deposit("2.00", key),
+                new Transaction(TransactionId.generate(), TransactionType.DEPOSIT, null, accountId, inr("3.00"),
+                        CREATED_AT.plusDays(1), key));
+        List<Transaction> saved = new ArrayList<>();
+        List<Transaction> duplicates = new ArrayList<>();
+
+        List<BatchResult.Failure<Transaction>> failures = writer(copyThreshold).write(transactions, saved, duplicates);
+
+        assertEquals(List.of(0L), failures.stream().map(BatchResult.Failure::index).toList());
+        assertEquals(List.of(transactions.get(1)), saved);
+        assertEquals(List.of(transactions.get(2)), duplicates);
+    }
+
+    private JdbcTransactionBatchWriter writer(int copyThreshold) {
+        return new JdbcTransactionBatchWriter(jdbc, dataSource, new RepositoryProperties(500, BATCH_SIZE,
+                copyThreshold, 1024, Duration.ofSeconds(30), 1024, 10_000, 10_000, 0.01, 0, Duration.ofSeconds(5),
+                Duration.ofMillis(200), 100));
+    }
+
+    private long count(String sql) {
+        return count(sql, null);
+    }
+
+    private long count(String sql, String key) {
+        return jdbc.queryForObject(sql, new MapSqlParameterSource("accountId", JdbcValues.toJdbc(accountId))
+                .addValue("key", key), Long.class);
+    }
+
+    private Transaction deposit(String amount, IdempotencyKey key) {
+        return new Transaction(TransactionId.generate(), TransactionType.DEPOSIT, null, accountId, inr(amount),
+                CREATED_AT, key);
+    }
+
+    private Transaction withdrawal(String amount) {
+        return new Transaction(TransactionId.generate(), TransactionType.WITHDRAWAL, accountId, null, inr(amount),
+                CREATED_AT);
+    }
+
+    private static Money inr(String amount) {
+        return Money.of(new BigDecimal(amount), Currencies.DEFAULT);
+    }
+}
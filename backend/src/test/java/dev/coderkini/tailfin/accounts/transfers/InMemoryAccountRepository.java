@@ -0,0 +1,77 @@
+package dev.coderkini.tailfin.accounts.transfers;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.money.MonetaryAmount;
+
+import dev.coderkini.tailfin.accounts.domain.Account;
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+import dev.coderkini.tailfin.accounts.domain.AccountRepository;
+import dev.coderkini.tailfin.accounts.domain.BankId;
+import dev.coderkini.tailfin.commons.repository.PagedResult;
+import dev.coderkini.tailfin.commons.repository.QueryConstraints;
+
+/**
+ * Keeps accounts in memory, for the lookups made by {@link TransferService}. The other queries are not supported.
+ */
+class InMemoryAccountRepository implements AccountRepository {
+    private final Map<AccountId, Account> accounts = new ConcurrentHashMap<>();
+
+    @Override
+    public Account findById(AccountId id) {
+        return accounts.get(id);
+    }
+
+    @Override
+    public Map<AccountId, Account> findAllByIds(Collection<AccountId> ids) {
+        Map<AccountId, Account> found = new HashMap<>();
+        for (AccountId id : ids) {
+            Account account = id == null ? null : accounts.get(id);
+            if (account != null) {
+                found.put(id, account);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public Account findByAccountNumber(String accountNumber) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PagedResult<Account> findAccountsByBank(BankId bankId, QueryConstraints<Account> constraints) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Account> search(String text, int limit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Map<AccountId, MonetaryAmount> getInitialBalances() {
+        Map<AccountId, MonetaryAmount> balances = new HashMap<>();
+        accounts.forEach((id, account) -> balances.put(id, account.getBalance()));
+        return balances;
+    }
+
+    @Override
+    public Account save(Account account) {
+        accounts.put(account.getId(), account);
+        return account;
+    }
+
+    @Override
+    public void delete(Account account) {
+        accounts.remove(account.getId());
+    }
+
+    @Override
+    public void update(Account account) {
+        accounts.put(account.getId(), account);
+    }
+}
@@ -0,0 +1,162 @@
+package dev.coderkini.tailfin.accounts.transfers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import javax.money.MonetaryAmount;
+
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+import dev.coderkini.tailfin.accounts.domain.Transaction;
+import dev.coderkini.tailfin.accounts.domain.TransactionId;
+import dev.coderkini.tailfin.accounts.domain.TransactionRepository;
+import dev.coderkini.tailfin.commons.money.Currencies;
+import dev.coderkini.tailfin.commons.money.MinorAmount;
+import dev.coderkini.tailfin.commons.repository.BatchResult;
+import dev.coderkini.tailfin.commons.repository.PagedResult;
+import dev.coderkini.tailfin.commons.repository.QueryConstraints;
+
+/**
+ * <p>Keeps transactions and running balances in memory, for the calls made by {@link TransferService}. The other
+ * queries are not supported.</p>
+ *
+ * <p>Unlike the database, the repository does not lock anything: {@link #lockAccountBalances(Collection)} only reads
+ * the balances, and {@link #save(Transaction)} reads and writes them back without any atomicity, so a transfer that
+ * runs concurrently with another transfer of the same account loses an update. Both calls take the specified latency,
+ * like a round trip to the database, which widens the window for lost updates and makes the time the locks of a
+ * transfer are held realistic.</p>
+ */
+class InMemoryTransactionRepository implements TransactionRepository {
+    private final Map<AccountId, Long> balances = new ConcurrentHashMap<>();
+    private final Queue<Transaction> transactions = new ConcurrentLinkedQueue<>();
+    private final long latencyNanos;
+
+    /**
+     * Creates a new instance of {@link InMemoryTransactionRepository}.
+     *
+     * @param latency   How long reading and saving take.
+     */
+    InMemoryTransactionRepository(Duration latency) {
+        this.latencyNanos = latency.toNanos();
+    }
+
+    /**
+     * Sets the running balance of the specified account, as if it had transactions before the test.
+     *
+     * @param accountId The account.
+     * @param units     The running balance in minor units.
+     */
+    void open(AccountId accountId, long units) {
+        balances.put(accountId, units);
+    }
+
+    /**
+     * Returns the saved transactions.
+     *
+     * @return  The transactions, in the order they were saved.
+     */
+    List<Transaction> transactions() {
+        return List.copyOf(transactions);
+    }
+
+    @Override
+    public Transaction findById(TransactionId id) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PagedResult<Transaction> findAll(QueryConstraints<Transaction> constraints) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PagedResult<Transaction> findByAccountId(AccountId accountId, QueryConstraints<Transaction> constraints) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PagedResult<Transaction> findByAccountAndDateRange(AccountId accountId,
+                                                              LocalDateTime startDate,
+                                                              LocalDateTime endDate,
+                                                              QueryConstraints<Transaction> constraints) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Stream<Transaction> streamByAccountId(AccountId accountId) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void save(Transaction transaction) {
+        long amount = MinorAmount.toUnits(transaction.getAmount());
+        long source = balances.getOrDefault(transaction.getSourceAccountId(), 0L);
+        long target = balances.getOrDefault(transaction.getTargetAccountId(), 0L);
+        LockSupport.parkNanos(latencyNanos);
+        balances.put(transaction.getSourceAccountId(), source - amount);
+        balances.put(transaction.getTargetAccountId(), target + amount);
+        transactions.add(transaction);
+    }
+
+    @Override
+    public BatchResult<Transaction> saveAll(Collection<Transaction> transactions) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public MonetaryAmount getAccountBalance(AccountId accountId) {
+        return new MinorAmount(balances.getOrDefault(accountId, 0L), Currencies.DEFAULT).toMonetaryAmount();
+    }
+
+    @Override
+    public Map<AccountId, MonetaryAmount> getAccountBalances() {
+        Map<AccountId, MonetaryAmount> all = new HashMap<>();
+        balances.forEach((accountId, units) ->
+                all.put(accountId, new MinorAmount(units, Currencies.DEFAULT).toMonetaryAmount()));
+        return all;
+    }
+
+    @Override
+    public Map<AccountId, MonetaryAmount> getAccountBalances(Collection<AccountId> accountIds) {
+        Map<AccountId, MonetaryAmount> found = new HashMap<>();
+        for (AccountId accountId : accountIds) {
+            Long units = balances.get(accountId);
+            if (units != null) {
+                found.put(accountId, new MinorAmount(units, Currencies.DEFAULT).toMonetaryAmount());
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public Map<AccountId, MonetaryAmount> lockAccountBalances(Collection<AccountId> accountIds) {
+        LockSupport.parkNanos(latencyNanos);
+        Map<AccountId, MonetaryAmount> locked = new HashMap<>();
+        for (AccountId accountId : accountIds) {
+            locked.put(accountId,
+                    new MinorAmount(balances.getOrDefault(accountId, 0L), Currencies.DEFAULT).toMonetaryAmount());
+        }
+        return locked;
+    }
+
+    @Override
+    public MonetaryAmount getAccountBalance(AccountId accountId, LocalDateTime asOf) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SortedMap<LocalDate, MonetaryAmount> getBalanceHistory(AccountId accountId,
+                                                                  LocalDate startDate,
+                                                                  LocalDate endDate) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,168 @@
+package dev.coderkini.tailfin.accounts.transfers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import dev.coderkini.tailfin.accounts.domain.Account;
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+import dev.coderkini.tailfin.accounts.domain.AccountType;
+import dev.coderkini.tailfin.accounts.domain.Transaction;
+import dev.coderkini.tailfin.commons.money.Currencies;
+import dev.coderkini.tailfin.commons.money.MinorAmount;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>Posts transfers from many concurrent clients between random pairs of a set of accounts, with repositories kept in
+ * memory that lose updates unless {@link TransferService} serializes the transfers of the same account, and checks
+ * that the books still balance: no money was created or lost, no account was overdrawn, and the balance of every
+ * account is its opening balance plus the transfers saved for it. Half of the opening balance of every account is its
+ * initial balance and the other half the running balance of earlier transactions, so the overdraft check has to add
+ * up both.</p>
+ *
+ * <p>With a handful of hot accounts nearly every transfer contends, with many accounts few do, and with a single
+ * stripe every transfer waits for every other. Each of these runs is logged with its throughput and appended to
+ * {@code build/reports/transfers/results.csv}. {@code tailfin.transfers.clients} (default 64) clients post
+ * {@code tailfin.transfers.transfers-per-client} transfers each (default 100), and each repository call takes
+ * {@code tailfin.transfers.latency-micros} (default 100).</p>
+ */
+class TransferServiceConcurrencyTest {
+    private static final Logger log = LoggerFactory.getLogger(TransferServiceConcurrencyTest.class);
+    private static final Path RESULTS = Path.of("build", "reports", "transfers", "results.csv");
+    private static final long OPENING_UNITS = 100_000;
+    private static final long MAX_TRANSFER_UNITS = 20_000;
+
+    @ParameterizedTest(name = "{0} accounts, {1} stripes")
+    @CsvSource({"8, 1024", "1024, 1024", "1024, 1"})
+    void concurrentTransfersKeepTheBooksBalanced(int accountCount, int stripes)
+            throws InterruptedException, ExecutionException, IOException {
+        int clients = Integer.getInteger("tailfin.transfers.clients", 64);
+        int transfersPerClient = Integer.getInteger("tailfin.transfers.transfers-per-client", 100);
+        Duration latency = Duration.ofNanos(1000L * Integer.getInteger("tailfin.transfers.latency-micros", 100));
+
+        InMemoryAccountRepository accounts = new InMemoryAccountRepository();
+        InMemoryTransactionRepository transactions = new InMemoryTransactionRepository(latency);
+        List<AccountId> ids = new ArrayList<>(accountCount);
+        for (int i = 0; i < accountCount; i++) {
+            Account account = accounts.save(new Account(AccountId.generate(), AccountType.SAVINGS,
+                    new MinorAmount(OPENING_UNITS / 2, Currencies.DEFAULT).toMonetaryAmount()));
+            transactions.open(account.getId(), OPENING_UNITS - OPENING_UNITS / 2);
+            ids.add(account.getId());
+        }
+        TransferService service = new TransferService(accounts, transactions, new NoTransactions(),
+                new TransferProperties(stripes, Duration.ofSeconds(30)));
+
+        LongAdder posted = new LongAdder();
+        LongAdder insufficient = new LongAdder();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(clients);
+            for (int client = 0; client < clients; client++) {
+                SplittableRandom random = new SplittableRandom(client);
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < transfersPerClient; i++) {
+                        int source = random.nextInt(accountCount);
+                        int target = (source + 1 + random.nextInt(accountCount - 1)) % accountCount;
+                        MinorAmount amount = new MinorAmount(1 + random.nextLong(MAX_TRANSFER_UNITS),
+                                Currencies.DEFAULT);
+                        try {
+                            service.transfer(ids.get(source), ids.get(target), amount.toMonetaryAmount());
+                            posted.increment();
+                        } catch (InsufficientFundsException e) {
+                            insufficient.increment();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                // A deadlock would surface as a CannotAcquireLockException once the lock timeout expires.
+                future.get();
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        report(accountCount, stripes, clients, posted.sum(), insufficient.sum(), elapsed);
+
+        List<Transaction> saved = transactions.transactions();
+        assertEquals(posted.sum(), saved.size(), "Every posted transfer is saved exactly once");
+        assertEquals((long) clients * transfersPerClient, posted.sum() + insufficient.sum());
+        assertTrue(posted.sum() > 0, "No transfer was posted");
+
+        Map<AccountId, Long> expected = new HashMap<>();
+        ids.forEach(id -> expected.put(id, OPENING_UNITS));
+        for (Transaction transaction : saved) {
+            long units = MinorAmount.toUnits(transaction.getAmount());
+            expected.merge(transaction.getSourceAccountId(), -units, Long::sum);
+            expected.merge(transaction.getTargetAccountId(), units, Long::sum);
+        }
+        long total = 0;
+        for (AccountId id : ids) {
+            long balance = MinorAmount.toUnits(accounts.findById(id).getBalance())
+                    + MinorAmount.toUnits(transactions.getAccountBalance(id));
+            assertEquals(expected.get(id).longValue(), balance, "Balance of account " + id.value());
+            assertTrue(balance >= 0, "Account " + id.value() + " was overdrawn");
+            total += balance;
+        }
+        assertEquals(OPENING_UNITS * accountCount, total, "Money was created or lost");
+    }
+
+    private static void report(int accountCount, int stripes, int clients, long posted, long insufficient,
+                               Duration elapsed) throws IOException {
+        double throughput = posted / (elapsed.toNanos() / 1e9);
+        log.info("{} accounts, {} stripes, {} clients: {} transfers posted, {} rejected for insufficient funds in "
+                        + "{} ms, {} transfers/s", accountCount, stripes, clients, posted, insufficient,
+                elapsed.toMillis(), Math.round(throughput));
+
+        Files.createDirectories(RESULTS.getParent());
+        if (!Files.exists(RESULTS)) {
+            Files.writeString(RESULTS, "timestamp,accounts,stripes,clients,posted,insufficient,millis,throughput\n");
+        }
+        Files.writeString(RESULTS, String.join(",", LocalDateTime.now().toString(), Integer.toString(accountCount),
+                        Integer.toString(stripes), Integer.toString(clients), Long.toString(posted),
+                        Long.toString(insufficient), Long.toString(elapsed.toMillis()),
+                        Long.toString(Math.round(throughput))) + "\n",
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * A transaction manager without transactions, as the repositories kept in memory have none.
+     */
+    private static final class NoTransactions implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
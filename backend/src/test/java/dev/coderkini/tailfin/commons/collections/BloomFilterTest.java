@@ -0,0 +1,81 @@
+package dev.coderkini.tailfin.commons.collections;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+    private static final int EXPECTED = 20_000;
+    private static final int PROBES = 200_000;
+
+    @Test
+    void neverMissesAnAddedString() {
+        BloomFilter filter = filled(0.01);
+
+        for (int i = 0; i < EXPECTED; i++) {
+            assertTrue(filter.mightContain("added-" + i), "added-" + i);
+        }
+    }
+
+    @Test
+    void falsePositivesStayWithinTheRequestedProbability() {
+        for (double probability : new double[] {0.1, 0.01, 0.001}) {
+            double rate = falsePositiveRate(filled(probability));
+
+            // Twice the requested probability leaves room for the rounding of the bits and hashes, while a filter
+            // with too few bits or correlated hashes lands far above it.
+            assertTrue(rate <= 2 * probability,
+                    "False positive rate " + rate + " for a requested probability of " + probability);
+        }
+    }
+
+    @Test
+    void isSaturatedOnceMoreStringsThanExpectedAreAdded() {
+        BloomFilter filter = filled(0.01);
+        assertFalse(filter.isSaturated());
+        assertEquals(EXPECTED, filter.insertions());
+
+        filter.add("one-too-many");
+        assertTrue(filter.isSaturated());
+    }
+
+    @Test
+    void falsePositivesGrowOnceSaturated() {
+        BloomFilter filter = filled(0.01);
+        double sized = falsePositiveRate(filter);
+        for (int i = EXPECTED; i < 4 * EXPECTED; i++) {
+            filter.add("added-" + i);
+        }
+
+        assertTrue(falsePositiveRate(filter) > sized);
+    }
+
+    @Test
+    void rejectsInvalidSizing() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, Double.NaN));
+    }
+
+    private static BloomFilter filled(double probability) {
+        BloomFilter filter = new BloomFilter(EXPECTED, probability);
+        for (int i = 0; i < EXPECTED; i++) {
+            filter.add("added-" + i);
+        }
+        return filter;
+    }
+
+    private static double falsePositiveRate(BloomFilter filter) {
+        int positives = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if (filter.mightContain("absent-" + i)) {
+                positives++;
+            }
+        }
+        return (double) positives / PROBES;
+    }
+}
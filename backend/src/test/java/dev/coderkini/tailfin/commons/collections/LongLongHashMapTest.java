@@ -0,0 +1,97 @@
+package dev.coderkini.tailfin.commons.collections;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongLongHashMapTest {
+    @Test
+    void zeroKeyIsKeptApartFromTheTable() {
+        LongLongHashMap map = new LongLongHashMap();
+        assertFalse(map.containsKey(0));
+        assertEquals(-1, map.get(0, -1));
+
+        map.put(0, 7);
+        assertTrue(map.containsKey(0));
+        assertEquals(7, map.get(0, -1));
+        assertEquals(1, map.size());
+
+        map.put(0, 9);
+        assertEquals(9, map.get(0, -1));
+        assertEquals(12, map.addTo(0, 3));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void collidingKeysKeepTheirOwnValues() {
+        LongLongHashMap map = new LongLongHashMap(8);
+        long[] keys = collidingKeys(6, 15);
+        for (long key : keys) {
+            map.put(key, key * 10);
+        }
+        for (long key : keys) {
+            assertEquals(key * 10, map.get(key, -1));
+            assertEquals(key * 11, map.addTo(key, key));
+        }
+        assertEquals(keys.length, map.size());
+    }
+
+    @Test
+    void resizingKeepsEveryEntry() {
+        LongLongHashMap map = new LongLongHashMap();
+        Map<Long, Long> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 10_000; i++) {
+            long key = random.nextLong();
+            long amount = random.nextInt(1000);
+            expected.merge(key, amount, Long::sum);
+            map.addTo(key, amount);
+        }
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value.longValue(), map.get(key, -1)));
+
+        Map<Long, Long> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void overflowLeavesTheMapUnchanged() {
+        LongLongHashMap map = new LongLongHashMap();
+        map.put(1, Long.MAX_VALUE);
+        map.put(0, Long.MIN_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> map.addTo(1, 1));
+        assertThrows(ArithmeticException.class, () -> map.addTo(0, -1));
+        assertEquals(Long.MAX_VALUE, map.get(1, -1));
+        assertEquals(Long.MIN_VALUE, map.get(0, -1));
+        assertEquals(2, map.size());
+
+        assertEquals(Long.MIN_VALUE, map.addTo(2, Long.MIN_VALUE));
+        assertThrows(ArithmeticException.class, () -> map.addTo(2, -1));
+        assertEquals(Long.MIN_VALUE, map.get(2, -1));
+        assertEquals(3, map.size());
+    }
+
+    /**
+     * Returns the specified number of distinct keys whose home slot is the same in a table with the specified mask.
+     */
+    static long[] collidingKeys(int count, int mask) {
+        long[] keys = new long[count];
+        int slot = LongHashing.slot(1, mask);
+        int found = 0;
+        for (long key = 1; found < count; key++) {
+            if (LongHashing.slot(key, mask) == slot) {
+                keys[found++] = key;
+            }
+        }
+        return keys;
+    }
+}
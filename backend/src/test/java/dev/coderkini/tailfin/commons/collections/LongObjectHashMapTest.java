@@ -0,0 +1,83 @@
+package dev.coderkini.tailfin.commons.collections;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongObjectHashMapTest {
+    @Test
+    void zeroKeyIsKeptApartFromTheTable() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        assertFalse(map.containsKey(0));
+        assertNull(map.put(0, "zero"));
+        assertEquals("zero", map.put(0, "nought"));
+        assertEquals("nought", map.get(0));
+        assertEquals(1, map.size());
+
+        assertEquals("nought", map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void removingACollidingKeyKeepsTheOthersReachable() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>(8);
+        long[] keys = LongLongHashMapTest.collidingKeys(6, 15);
+        for (long key : keys) {
+            map.put(key, Long.toString(key));
+        }
+        for (int i = 0; i < keys.length; i += 2) {
+            assertEquals(Long.toString(keys[i]), map.remove(keys[i]));
+        }
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i % 2 == 0 ? null : Long.toString(keys[i]), map.get(keys[i]));
+        }
+        assertEquals(keys.length / 2, map.size());
+    }
+
+    @Test
+    void resizingKeepsEveryEntry() {
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+        long[] keys = new long[10_000];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+            expected.put(keys[i], (long) i);
+            map.put(keys[i], (long) i);
+            if (i % 3 == 0) {
+                long removed = keys[random.nextInt(i + 1)];
+                assertEquals(expected.remove(removed), map.remove(removed));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+
+        Map<Long, Long> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void computeIfAbsentComputesOnlyAbsentKeys() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        assertEquals("7", map.computeIfAbsent(7, Long::toString));
+        assertEquals("7", map.computeIfAbsent(7, key -> "other"));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void nullValuesAreRejected() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, null));
+        assertTrue(map.isEmpty());
+    }
+}
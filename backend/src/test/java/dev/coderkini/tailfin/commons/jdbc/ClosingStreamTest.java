@@ -0,0 +1,63 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClosingStreamTest {
+    @Test
+    void closesOnceATerminalOperationCompletes() {
+        AtomicBoolean closed = new AtomicBoolean();
+
+        List<Integer> items = ClosingStream.of(Stream.of(1, 2, 3).onClose(() -> closed.set(true))).toList();
+
+        assertEquals(List.of(1, 2, 3), items);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void closesAfterAShortCircuitingOperationOnAnIntermediateStream() {
+        AtomicBoolean closed = new AtomicBoolean();
+
+        Optional<Integer> first = ClosingStream.of(Stream.iterate(1, i -> i + 1).onClose(() -> closed.set(true)))
+                .map(i -> i * 2)
+                .filter(i -> i > 4)
+                .findFirst();
+
+        assertEquals(Optional.of(6), first);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void closesWhenATerminalOperationFails() {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Integer> stream = ClosingStream.of(Stream.of(1, 2).onClose(() -> closed.set(true)));
+
+        assertThrows(IllegalStateException.class, () -> stream.forEach(i -> {
+            throw new IllegalStateException();
+        }));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void refusesToMapToPrimitiveStreams() {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Integer> stream = ClosingStream.of(Stream.of(1, 2).onClose(() -> closed.set(true)));
+
+        assertThrows(UnsupportedOperationException.class, () -> stream.mapToInt(Integer::intValue));
+        assertThrows(UnsupportedOperationException.class, () -> stream.mapToLong(Integer::longValue));
+        assertThrows(UnsupportedOperationException.class, () -> stream.mapToDouble(Integer::doubleValue));
+        assertThrows(UnsupportedOperationException.class, () -> stream.flatMapToInt(i -> null));
+        assertFalse(closed.get());
+        assertEquals(List.of(1, 2), stream.toList());
+        assertTrue(closed.get());
+    }
+}
@@ -0,0 +1,162 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import io.hypersistence.tsid.TSID;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import dev.coderkini.tailfin.commons.repository.ContinuationToken;
+import dev.coderkini.tailfin.commons.repository.FilterOperator;
+import dev.coderkini.tailfin.commons.repository.QueryConstraints;
+import dev.coderkini.tailfin.commons.repository.SortDirection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryCompilerTest {
+    private static final EntityMapping ITEM = new EntityMapping("Item",
+            "items",
+            Map.of("id", "i.id", "name", "i.name", "amount", "i.amount", "createdAt", "i.created_at"),
+            "createdAt",
+            "id",
+            Function.identity());
+    private static final QueryTemplate TEMPLATE = fragments -> new QueryTemplate.Statements(
+            "select * from items i where true" + fragments.filters() + fragments.seek() + fragments.orderBy() +
+                    fragments.paging(),
+            null);
+    private static final ContinuationToken TOKEN = new ContinuationToken(LocalDateTime.of(2024, 3, 1, 9, 30),
+            TSID.from(42));
+
+    @Test
+    void keysetFirstPageOrdersNewestFirstWithoutSeeking() {
+        PreparedQuery query = prepare(new QueryCompiler(properties(8)), QueryConstraints.of().page(20, 0).keyset());
+
+        assertEquals("select * from items i where true order by i.created_at desc, i.id desc limit :limit",
+                query.sql());
+        assertEquals(21, query.parameters().getValue("limit"), "One item more than the limit is fetched");
+    }
+
+    @Test
+    void keysetContinuationSeeksPastTheTokenWithATimestampBound() {
+        PreparedQuery query = prepare(new QueryCompiler(properties(8)),
+                QueryConstraints.of().page(20, 0).keyset().after(TOKEN));
+
+        assertEquals("select * from items i where true" +
+                        " and i.created_at <= :keysetCreatedAt" +
+                        " and (i.created_at, i.id) < (:keysetCreatedAt, :keysetId)" +
+                        " order by i.created_at desc, i.id desc limit :limit",
+                query.sql());
+        assertEquals(Timestamp.valueOf(TOKEN.createdAt()), query.parameters().getValue("keysetCreatedAt"));
+        assertEquals(42L, query.parameters().getValue("keysetId"));
+    }
+
+    @Test
+    void ascendingKeysetContinuationSeeksForward() {
+        PreparedQuery query = prepare(new QueryCompiler(properties(8)), QueryConstraints.of()
+                .sortBy("createdAt", SortDirection.ASCENDING)
+                .keyset()
+                .after(TOKEN));
+
+        assertTrue(query.sql().contains(" and i.created_at >= :keysetCreatedAt" +
+                " and (i.created_at, i.id) > (:keysetCreatedAt, :keysetId)" +
+                " order by i.created_at asc, i.id asc"), query.sql());
+    }
+
+    @Test
+    void keysetFiltersComeBeforeTheSeek() {
+        PreparedQuery query = prepare(new QueryCompiler(properties(8)), QueryConstraints.of()
+                .filter("name", FilterOperator.EQUALS, "rent")
+                .keyset()
+                .after(TOKEN));
+
+        assertTrue(query.sql().contains(" and i.name = :filter0 and i.created_at <= :keysetCreatedAt"), query.sql());
+        assertEquals("rent", query.parameters().getValue("filter0"));
+    }
+
+    @Test
+    void keysetRejectsSortingByOtherFields() {
+        QueryCompiler compiler = new QueryCompiler(properties(8));
+
+        assertThrows(IllegalArgumentException.class, () -> prepare(compiler, QueryConstraints.of()
+                .sortBy("amount", SortDirection.DESCENDING)
+                .keyset()));
+    }
+
+    @Test
+    void keysetRejectsEntitiesWithoutATimestamp() {
+        EntityMapping untimed = new EntityMapping("Untimed", "untimed", Map.of("id", "id"), null, "id",
+                Function.identity());
+        QueryCompiler compiler = new QueryCompiler(properties(8));
+
+        assertThrows(IllegalArgumentException.class, () -> compiler.prepare(untimed, "findAll",
+                QueryConstraints.of().keyset(), TEMPLATE, new MapSqlParameterSource()));
+    }
+
+    @Test
+    void rejectsFieldsThatAreNotWhitelisted() {
+        QueryCompiler compiler = new QueryCompiler(properties(8));
+
+        assertThrows(IllegalArgumentException.class, () -> prepare(compiler,
+                QueryConstraints.of().filter("name; drop table items", FilterOperator.EQUALS, "x")));
+    }
+
+    @Test
+    void constraintsOfTheSameShapeShareTheirStatements() {
+        QueryCompiler compiler = new QueryCompiler(properties(8));
+
+        PreparedQuery first = prepare(compiler, QueryConstraints.of()
+                .filter("amount", FilterOperator.GREATER_THAN, 10)
+                .filter("name", FilterOperator.IN, List.of("a", "b"))
+                .page(10, 1));
+        PreparedQuery second = prepare(compiler, QueryConstraints.of()
+                .filter("amount", FilterOperator.GREATER_THAN, 99)
+                .filter("name", FilterOperator.IN, List.of("c", "d", "e"))
+                .page(25, 4));
+
+        assertSame(first.sql(), second.sql());
+        assertEquals(1, compiler.misses());
+        assertEquals(1, compiler.hits());
+        assertEquals(1, compiler.size());
+        assertEquals(99, second.parameters().getValue("filter0"));
+        assertEquals(100L, second.parameters().getValue("offset"));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedShape() {
+        QueryCompiler compiler = new QueryCompiler(properties(2));
+        QueryConstraints<Object> byName = QueryConstraints.of().filter("name", FilterOperator.EQUALS, "a");
+        QueryConstraints<Object> byAmount = QueryConstraints.of().filter("amount", FilterOperator.EQUALS, 1);
+        QueryConstraints<Object> keyset = QueryConstraints.of().keyset();
+
+        prepare(compiler, byName);
+        prepare(compiler, byAmount);
+        prepare(compiler, byName);
+        prepare(compiler, keyset);
+        assertEquals(2, compiler.size());
+        assertEquals(3, compiler.misses());
+        assertEquals(1, compiler.hits());
+
+        prepare(compiler, byName);
+        assertEquals(2, compiler.hits(), "The recently used shape was kept");
+        prepare(compiler, byAmount);
+        assertEquals(4, compiler.misses(), "The least recently used shape was evicted");
+        assertEquals(2, compiler.size());
+    }
+
+    private static PreparedQuery prepare(QueryCompiler compiler, QueryConstraints<?> constraints) {
+        return compiler.prepare(ITEM, "findAll", constraints, TEMPLATE, new MapSqlParameterSource());
+    }
+
+    private static RepositoryProperties properties(int queryCacheSize) {
+        return new RepositoryProperties(500, 500, 5000, queryCacheSize, Duration.ofSeconds(30), 1024, 10_000,
+                10_000, 0.01, 0, Duration.ofSeconds(5), Duration.ofMillis(200), 100);
+    }
+}
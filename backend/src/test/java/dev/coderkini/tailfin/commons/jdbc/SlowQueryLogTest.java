@@ -0,0 +1,88 @@
+package dev.coderkini.tailfin.commons.jdbc;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowQueryLogTest {
+    @Test
+    void keepsOnlyQueriesThatTookAtLeastTheThreshold() {
+        SlowQueryLog log = log(3);
+
+        record(log, "fast", 199);
+        record(log, "slow", 200);
+
+        assertEquals(List.of("slow"), names(log));
+    }
+
+    @Test
+    void keepsTheSlowestQueriesSlowestFirst() {
+        SlowQueryLog log = log(3);
+
+        record(log, "a", 300);
+        record(log, "b", 900);
+        record(log, "c", 500);
+        record(log, "d", 700);
+        record(log, "e", 250);
+
+        assertEquals(List.of("b", "d", "c"), names(log));
+    }
+
+    @Test
+    void aBurstJustOverTheThresholdDoesNotPushOutTheOutliers() {
+        SlowQueryLog log = log(2);
+        record(log, "outlier", 5_000);
+        record(log, "runner-up", 3_000);
+
+        for (int i = 0; i < 1_000; i++) {
+            record(log, "burst", 210);
+        }
+
+        assertEquals(List.of("outlier", "runner-up"), names(log));
+    }
+
+    @Test
+    void clearingDropsTheQueriesKept() {
+        SlowQueryLog log = log(2);
+        record(log, "outlier", 5_000);
+        long id = log.slowest().getFirst().id();
+
+        log.clear();
+        record(log, "burst", 210);
+
+        assertEquals(List.of("burst"), names(log));
+        assertThrows(IllegalArgumentException.class, () -> log.explain(id));
+    }
+
+    @Test
+    void describesTheParametersWithoutTheirValues() {
+        SlowQueryLog log = log(1);
+        log.record("find", "select 1", new MapSqlParameterSource("name", "secret").addValue("ids", List.of(1, 2)),
+                TimeUnit.MILLISECONDS.toNanos(300), false);
+
+        SlowQueryLog.SlowQuery query = log.slowest().getFirst();
+        assertEquals("String", query.parameters().get("name"));
+        assertEquals("list[2]", query.parameters().get("ids"));
+        assertTrue(query.millis() >= 300);
+    }
+
+    private static SlowQueryLog log(int size) {
+        return new SlowQueryLog(null, null, new RepositoryProperties(500, 500, 5000, 1024, Duration.ofSeconds(30),
+                1024, 10_000, 10_000, 0.01, 0, Duration.ofSeconds(5), Duration.ofMillis(200), size));
+    }
+
+    private static void record(SlowQueryLog log, String query, long millis) {
+        log.record(query, "select 1", new MapSqlParameterSource(), TimeUnit.MILLISECONDS.toNanos(millis), false);
+    }
+
+    private static List<String> names(SlowQueryLog log) {
+        return log.slowest().stream().map(SlowQueryLog.SlowQuery::query).toList();
+    }
+}
@@ -0,0 +1,63 @@
+package dev.coderkini.tailfin.commons.money;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MinorAmountTest {
+    @Test
+    void parsesIntoHundredths() {
+        assertEquals(12_345, MinorAmount.parse("123.45"));
+        assertEquals(12_340, MinorAmount.parse("123.4"));
+        assertEquals(12_300, MinorAmount.parse("123"));
+        assertEquals(12_300, MinorAmount.parse("123."));
+        assertEquals(5, MinorAmount.parse(".05"));
+        assertEquals(0, MinorAmount.parse("0.00"));
+    }
+
+    @Test
+    void parsesSignsWhitespaceAndThousandsSeparators() {
+        assertEquals(-12_345, MinorAmount.parse("-123.45"));
+        assertEquals(12_345, MinorAmount.parse("+123.45"));
+        assertEquals(123_456_789, MinorAmount.parse(" \t1,234,567.89\n"));
+        assertEquals(-10_000_000, MinorAmount.parse("-1,00,000"));
+    }
+
+    @Test
+    void ignoresTrailingZerosAfterTheSecondDecimalPlace() {
+        assertEquals(12_345, MinorAmount.parse("123.4500"));
+        assertThrows(ArithmeticException.class, () -> MinorAmount.parse("123.451"));
+        assertThrows(ArithmeticException.class, () -> MinorAmount.parse("123.4501"));
+    }
+
+    @Test
+    void parsesTheWholeRangeOfALong() {
+        assertEquals(Long.MAX_VALUE, MinorAmount.parse("92233720368547758.07"));
+        assertEquals(Long.MIN_VALUE, MinorAmount.parse("-92233720368547758.08"));
+        assertThrows(ArithmeticException.class, () -> MinorAmount.parse("92233720368547758.08"));
+        assertThrows(ArithmeticException.class, () -> MinorAmount.parse("-92233720368547758.09"));
+        assertThrows(ArithmeticException.class, () -> MinorAmount.parse("922337203685477581"));
+    }
+
+    @Test
+    void rejectsTextThatIsNotAnAmount() {
+        for (String text : new String[] {"", "  ", "-", ".", "1.2.3", "12a", "1e5", "--1", "1-"}) {
+            assertThrows(NumberFormatException.class, () -> MinorAmount.parse(text), text);
+        }
+    }
+
+    @Test
+    void agreesWithBigDecimal() {
+        SplittableRandom random = new SplittableRandom(100);
+        for (int i = 0; i < 10_000; i++) {
+            long units = random.nextLong();
+            String text = BigDecimal.valueOf(units, MinorAmount.SCALE).toPlainString();
+
+            assertEquals(units, MinorAmount.parse(text), text);
+        }
+    }
+}
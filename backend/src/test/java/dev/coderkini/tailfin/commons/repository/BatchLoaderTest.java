@@ -0,0 +1,109 @@
+package dev.coderkini.tailfin.commons.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BatchLoaderTest {
+    @Test
+    void loadsTheDeferredKeysTogetherWithTheRequestedOne() {
+        Loader loader = new Loader();
+        BatchLoader<Integer, String> batches = new BatchLoader<>(10, loader::load);
+
+        batches.defer(1).defer(2).defer(3);
+
+        assertEquals("2", batches.load(2));
+        assertEquals("1", batches.load(1));
+        assertEquals("3", batches.load(3));
+        assertEquals(List.of(List.of(1, 2, 3)), loader.calls);
+        assertEquals(1, batches.getBatches());
+    }
+
+    @Test
+    void loadsEachKeyOnce() {
+        Loader loader = new Loader();
+        BatchLoader<Integer, String> batches = new BatchLoader<>(10, loader::load);
+
+        batches.deferAll(Arrays.asList(1, 2, 1, null, 2));
+        assertEquals(Map.of(1, "1", 2, "2", 3, "3"), batches.loadAll(List.of(1, 2, 3, 3)));
+        assertEquals(Map.of(2, "2", 4, "4"), batches.loadAll(List.of(2, 4)));
+        batches.defer(1);
+        batches.dispatch();
+
+        assertEquals(List.of(List.of(1, 2, 3), List.of(4)), loader.calls);
+    }
+
+    @Test
+    void remembersTheKeysThatWereNotFound() {
+        Loader loader = new Loader(7);
+        BatchLoader<Integer, String> batches = new BatchLoader<>(10, loader::load);
+
+        assertNull(batches.load(7));
+        assertNull(batches.load(7));
+        assertEquals(Map.of(8, "8"), batches.loadAll(List.of(7, 8)));
+        batches.defer(7);
+        batches.dispatch();
+
+        assertEquals(List.of(List.of(7), List.of(8)), loader.calls);
+    }
+
+    @Test
+    void splitsTheKeysIntoBatchesOfTheMaximumSize() {
+        Loader loader = new Loader();
+        BatchLoader<Integer, String> batches = new BatchLoader<>(2, loader::load);
+
+        Map<Integer, String> items = batches.loadAll(List.of(1, 2, 3, 4, 5));
+
+        assertEquals(5, items.size());
+        assertEquals(List.of(List.of(1, 2), List.of(3, 4), List.of(5)), loader.calls);
+        assertEquals(3, batches.getBatches());
+    }
+
+    @Test
+    void ignoresNullKeys() {
+        Loader loader = new Loader();
+        BatchLoader<Integer, String> batches = new BatchLoader<>(10, loader::load);
+
+        assertNull(batches.load(null));
+        assertEquals(Map.of(), batches.loadAll(Arrays.asList(null, null)));
+
+        assertEquals(List.of(), loader.calls);
+    }
+
+    @Test
+    void rejectsBatchSizesThatAreNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchLoader<Integer, String>(0, keys -> Map.of()));
+    }
+
+    /**
+     * Loads the text of every key except the missing ones, recording the keys of every call.
+     */
+    private static final class Loader {
+        private final List<Integer> missing;
+        private final List<List<Integer>> calls = new ArrayList<>();
+
+        private Loader(Integer... missing) {
+            this.missing = List.of(missing);
+        }
+
+        private Map<Integer, String> load(Collection<Integer> keys) {
+            calls.add(List.copyOf(keys));
+            Map<Integer, String> items = new HashMap<>();
+            for (Integer key : keys) {
+                if (!missing.contains(key)) {
+                    items.put(key, key.toString());
+                }
+            }
+            return items;
+        }
+    }
+}
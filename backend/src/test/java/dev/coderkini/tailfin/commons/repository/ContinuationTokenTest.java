@@ -0,0 +1,94 @@
+package dev.coderkini.tailfin.commons.repository;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import io.hypersistence.tsid.TSID;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContinuationTokenTest {
+    private static final ContinuationToken TOKEN = new ContinuationToken(
+            LocalDateTime.of(2024, 3, 1, 9, 30, 15, 123_456_789), TSID.from(0x0123_4567_89AB_CDEFL));
+
+    @Test
+    void decodesWhatItEncodes() {
+        String encoded = TOKEN.encode();
+
+        assertEquals(TOKEN, ContinuationToken.decode(encoded));
+        assertEquals(encoded, TOKEN.toString());
+    }
+
+    @Test
+    void encodesAsUrlSafeBase64WithoutPadding() {
+        String encoded = TOKEN.encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+    }
+
+    @Test
+    void keepsTimestampsBeforeTheEpoch() {
+        ContinuationToken token = new ContinuationToken(LocalDateTime.of(1960, 1, 1, 0, 0, 0, 1), TSID.from(1));
+
+        assertEquals(token, ContinuationToken.decode(token.encode()));
+    }
+
+    @Test
+    void rejectsValuesThatAreNotBase64() {
+        assertThrows(IllegalArgumentException.class, () -> ContinuationToken.decode("not a token!"));
+    }
+
+    @Test
+    void rejectsNull() {
+        assertThrows(IllegalArgumentException.class, () -> ContinuationToken.decode(null));
+    }
+
+    @Test
+    void rejectsTruncatedAndExtendedTokens() {
+        byte[] bytes = Base64.getUrlDecoder().decode(TOKEN.encode());
+        byte[] truncated = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        byte[] extended = new byte[bytes.length + 1];
+        System.arraycopy(bytes, 0, extended, 0, bytes.length);
+
+        assertThrows(IllegalArgumentException.class, () -> ContinuationToken.decode(encode(truncated)));
+        assertThrows(IllegalArgumentException.class, () -> ContinuationToken.decode(encode(extended)));
+        assertThrows(IllegalArgumentException.class, () -> ContinuationToken.decode(""));
+    }
+
+    @Test
+    void rejectsTokensOfAnotherVersion() {
+        byte[] bytes = Base64.getUrlDecoder().decode(TOKEN.encode());
+        bytes[0] = 2;
+
+        assertThrows(IllegalArgumentException.class, () -> ContinuationToken.decode(encode(bytes)));
+    }
+
+    @Test
+    void rejectsTokensWithATimestampOutOfRange() {
+        String nanosOutOfRange = encode(ByteBuffer.allocate(21)
+                .put((byte) 1)
+                .putLong(LocalDateTime.of(2024, 3, 1, 0, 0).toEpochSecond(ZoneOffset.UTC))
+                .putInt(1_000_000_000)
+                .putLong(1)
+                .array());
+        String secondsOutOfRange = encode(ByteBuffer.allocate(21)
+                .put((byte) 1)
+                .putLong(Long.MAX_VALUE)
+                .putInt(0)
+                .putLong(1)
+                .array());
+
+        assertThrows(IllegalArgumentException.class, () -> ContinuationToken.decode(nanosOutOfRange));
+        assertThrows(IllegalArgumentException.class, () -> ContinuationToken.decode(secondsOutOfRange));
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,146 @@
+package dev.coderkini.tailfin.commons.repository;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.dao.QueryTimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FanOutTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @Test
+    void joinsTheResultsOfEveryCall() {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             FanOut fanOut = new FanOut(new TaskExecutorAdapter(executor))) {
+            FanOut.Call<String> first = fanOut.fork(() -> "first", TIMEOUT);
+            FanOut.Call<Integer> second = fanOut.fork(() -> 2, TIMEOUT);
+
+            fanOut.join();
+
+            assertEquals("first", first.get());
+            assertEquals(2, second.get());
+        }
+    }
+
+    @Test
+    void aFailingCallCancelsTheOthers() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        IllegalStateException failure = new IllegalStateException("failed");
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try (FanOut fanOut = new FanOut(new TaskExecutorAdapter(executor))) {
+                FanOut.Call<String> slow = fanOut.fork(() -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(TIMEOUT);
+                        return "slow";
+                    } catch (InterruptedException e) {
+                        interrupted.set(true);
+                        throw new IllegalStateException(e);
+                    }
+                }, TIMEOUT);
+                assertTrue(started.await(5, TimeUnit.SECONDS));
+                fanOut.fork(() -> {
+                    throw failure;
+                }, TIMEOUT);
+
+                assertSame(failure, assertThrows(IllegalStateException.class, fanOut::join));
+                assertThrows(IllegalStateException.class, slow::get);
+            }
+            assertTrue(interrupted.get());
+        }
+    }
+
+    @Test
+    void aMissedDeadlineFailsTheJoinWithAQueryTimeout() {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             FanOut fanOut = new FanOut(new TaskExecutorAdapter(executor))) {
+            fanOut.fork(() -> {
+                try {
+                    Thread.sleep(TIMEOUT);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "late";
+            }, Duration.ofMillis(50));
+
+            assertThrows(QueryTimeoutException.class, fanOut::join);
+        }
+    }
+
+    @Test
+    void closeWaitsForTheCallsStillRunning() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean finished = new AtomicBoolean();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            FanOut fanOut = new FanOut(new TaskExecutorAdapter(executor));
+            fanOut.fork(() -> {
+                started.countDown();
+                // Ignores the interrupt of the cancel, like a call stuck in a driver would.
+                while (true) {
+                    try {
+                        release.await();
+                        break;
+                    } catch (InterruptedException e) {
+                        // Keeps waiting.
+                    }
+                }
+                finished.set(true);
+                return "done";
+            }, TIMEOUT);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Thread closer = Thread.ofVirtual().start(fanOut::close);
+            closer.join(200);
+            assertTrue(closer.isAlive());
+
+            release.countDown();
+            closer.join(5000);
+            assertFalse(closer.isAlive());
+            assertTrue(finished.get());
+        }
+    }
+
+    @Test
+    void aCallForkedAfterAFailureNeverRuns() {
+        AtomicBoolean ran = new AtomicBoolean();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try (FanOut fanOut = new FanOut(new TaskExecutorAdapter(executor))) {
+                fanOut.fork(() -> {
+                    throw new IllegalStateException("failed");
+                }, TIMEOUT);
+                assertThrows(IllegalStateException.class, fanOut::join);
+
+                FanOut.Call<String> late = fanOut.fork(() -> {
+                    ran.set(true);
+                    return "late";
+                }, TIMEOUT);
+
+                assertThrows(IllegalStateException.class, fanOut::join);
+                assertThrows(IllegalStateException.class, late::get);
+            }
+        }
+        assertFalse(ran.get());
+    }
+
+    @Test
+    void rejectsTimeoutsThatAreNotPositive() {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             FanOut fanOut = new FanOut(new TaskExecutorAdapter(executor))) {
+            assertThrows(IllegalArgumentException.class, () -> fanOut.fork(() -> "none", Duration.ZERO));
+        }
+    }
+}
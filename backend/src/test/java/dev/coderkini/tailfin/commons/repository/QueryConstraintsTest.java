@@ -0,0 +1,51 @@
+package dev.coderkini.tailfin.commons.repository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import io.hypersistence.tsid.TSID;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QueryConstraintsTest {
+    @Test
+    void changingTheNextPageLeavesTheOriginalUnchanged() {
+        QueryConstraints<Object> first = QueryConstraints.of()
+                .sortBy("createdAt", SortDirection.DESCENDING)
+                .filter("name", FilterOperator.EQUALS, "rent");
+
+        first.nextPage()
+                .sortBy("amount", SortDirection.ASCENDING)
+                .filter("amount", FilterOperator.GREATER_THAN, 10);
+
+        assertEquals(Map.of("createdAt", SortDirection.DESCENDING), first.getSorting());
+        assertEquals(1, first.getFilters().size());
+    }
+
+    @Test
+    void changingTheContinuationLeavesTheOriginalUnchanged() {
+        QueryConstraints<Object> first = QueryConstraints.of().keyset();
+        ContinuationToken token = new ContinuationToken(LocalDateTime.of(2024, 3, 1, 9, 30), TSID.from(42));
+
+        first.after(token).filter("name", FilterOperator.EQUALS, "rent");
+        first.firstPage().filter("name", FilterOperator.EQUALS, "salary");
+
+        assertEquals(0, first.getFilters().size());
+    }
+
+    @Test
+    void copiesKeepTheSortingAndFilters() {
+        QueryConstraints<Object> first = QueryConstraints.of()
+                .sortBy("createdAt", SortDirection.DESCENDING)
+                .filter("name", FilterOperator.EQUALS, "rent")
+                .page(20, 0);
+
+        QueryConstraints<Object> next = first.nextPage();
+
+        assertEquals(first.getSorting(), next.getSorting());
+        assertEquals(first.getFilters(), next.getFilters());
+        assertEquals(1, next.getOffset());
+        assertEquals(20, next.getLimit());
+    }
+}
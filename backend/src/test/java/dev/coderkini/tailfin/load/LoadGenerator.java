@@ -0,0 +1,157 @@
+package dev.coderkini.tailfin.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * <p>A closed-loop HTTP load generator: each of {@code concurrency} clients sends a request, waits for the response
+ * and sends the next one, cycling through the paths, until the run is over. The clients run on virtual threads, so
+ * the generator itself is never the bottleneck at thousands of clients.</p>
+ *
+ * <p>Responses received during the warm-up are not counted. A response with a status other than 2xx or a request
+ * that fails is counted as an error of its status class, or of {@link LoadResult#IO_ERROR} if there was no response,
+ * and not as a latency sample.</p>
+ */
+class LoadGenerator {
+    private final URI baseUri;
+    private final List<String> paths;
+    private final String authorization;
+    private final int concurrency;
+
+    /**
+     * Creates a new instance of {@link LoadGenerator}.
+     *
+     * @param baseUri       The URI of the application the paths are resolved against.
+     * @param paths         The paths to request, cycled through by every client.
+     * @param username      The user to authenticate as with HTTP basic authentication.
+     * @param password      The password of the user.
+     * @param concurrency   The number of clients sending requests at the same time.
+     */
+    LoadGenerator(URI baseUri, List<String> paths, String username, String password, int concurrency) {
+        if (paths.isEmpty()) {
+            throw new IllegalArgumentException("At least one path is required");
+        }
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be positive");
+        }
+        this.baseUri = baseUri;
+        this.paths = List.copyOf(paths);
+        this.authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Runs the load.
+     *
+     * @param warmup    How long to send requests before the responses are counted.
+     * @param duration  How long to count the responses for, after the warm-up.
+     *
+     * @return  The throughput and the latencies of the counted responses.
+     *
+     * @throws InterruptedException if interrupted while waiting for the clients.
+     */
+    LoadResult run(Duration warmup, Duration duration) throws InterruptedException {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+        List<Client> clients = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .executor(executor)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .build()) {
+            List<Future<?>> running = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                Client client = new Client(http, i, measureFrom, measureUntil);
+                clients.add(client);
+                running.add(executor.submit(client::run));
+            }
+            for (Future<?> future : running) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Load client failed", e.getCause());
+                }
+            }
+        }
+
+        long[] latencies = clients.stream().flatMapToLong(client -> Arrays.stream(client.latencies, 0, client.count))
+                .sorted()
+                .toArray();
+        Map<String, Long> errors = new TreeMap<>();
+        clients.forEach(client -> client.errors.forEach((kind, count) -> errors.merge(kind, count, Long::sum)));
+        return LoadResult.of(latencies, errors, duration);
+    }
+
+    private final class Client {
+        private final HttpClient http;
+        private final long measureFrom;
+        private final long measureUntil;
+        private int next;
+        private long[] latencies = new long[1024];
+        private int count;
+        private final Map<String, Long> errors = new TreeMap<>();
+
+        Client(HttpClient http, int index, long measureFrom, long measureUntil) {
+            this.http = http;
+            this.next = index;
+            this.measureFrom = measureFrom;
+            this.measureUntil = measureUntil;
+        }
+
+        void run() {
+            while (true) {
+                HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(paths.get(next++ % paths.size())))
+                        .header("Authorization", authorization)
+                        .timeout(Duration.ofSeconds(60))
+                        .GET()
+                        .build();
+                long startedAt = System.nanoTime();
+                if (startedAt >= measureUntil) {
+                    return;
+                }
+                String error;
+                try {
+                    int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    error = status / 100 == 2 ? null : status / 100 + "xx";
+                } catch (IOException e) {
+                    error = LoadResult.IO_ERROR;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long finishedAt = System.nanoTime();
+                if (startedAt < measureFrom || finishedAt > measureUntil) {
+                    continue;
+                }
+                if (error != null) {
+                    errors.merge(error, 1L, Long::sum);
+                } else {
+                    addLatency(finishedAt - startedAt);
+                }
+            }
+        }
+
+        private void addLatency(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package dev.coderkini.tailfin.load;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The outcome of a run of {@link LoadGenerator}.
+ *
+ * @param requests      The number of successful responses counted.
+ * @param errors        The number of failed requests counted, keyed by the class of their status, such as
+ *                      {@code 4xx}, or {@link #IO_ERROR} if there was no response.
+ * @param throughput    The successful responses per second.
+ * @param p50Micros     The median latency of the successful responses, in microseconds.
+ * @param p99Micros     The 99th percentile latency of the successful responses, in microseconds.
+ * @param maxMicros     The highest latency of the successful responses, in microseconds.
+ */
+record LoadResult(long requests,
+                  Map<String, Long> errors,
+                  double throughput,
+                  long p50Micros,
+                  long p99Micros,
+                  long maxMicros) {
+    /**
+     * The kind of error of the requests that failed without a response.
+     */
+    static final String IO_ERROR = "io";
+
+    LoadResult {
+        errors = Map.copyOf(errors);
+    }
+
+    /**
+     * Summarizes the latencies of a run.
+     *
+     * @param sortedNanos   The latencies of the successful responses in nanoseconds, in ascending order.
+     * @param errors        The number of failed requests, keyed by the class of their status.
+     * @param duration      How long the responses were counted for.
+     *
+     * @return  The summary.
+     */
+    static LoadResult of(long[] sortedNanos, Map<String, Long> errors, Duration duration) {
+        double seconds = duration.toNanos() / 1e9;
+        if (sortedNanos.length == 0) {
+            return new LoadResult(0, errors, 0, 0, 0, 0);
+        }
+        return new LoadResult(sortedNanos.length, errors, sortedNanos.length / seconds,
+                percentile(sortedNanos, 0.50), percentile(sortedNanos, 0.99),
+                sortedNanos[sortedNanos.length - 1] / 1000);
+    }
+
+    /**
+     * Returns the number of failed requests counted, of any kind.
+     *
+     * @return  The number of errors.
+     */
+    long errorCount() {
+        return errors.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Returns the failed requests per kind of error, in the order of their kind, such as {@code 4xx=3 5xx=1}.
+     *
+     * @return  The errors per kind, or an empty string if there were none.
+     */
+    String errorsByKind() {
+        return errors.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining(" "));
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1000;
+    }
+}
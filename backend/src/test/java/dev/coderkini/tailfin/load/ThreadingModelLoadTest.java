@@ -0,0 +1,104 @@
+package dev.coderkini.tailfin.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import dev.coderkini.tailfin.TailfinApplication;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>Compares the throughput and the tail latency of the application on platform threads with the same application on
+ * virtual threads ({@code spring.threads.virtual.enabled}), under the same closed-loop load.</p>
+ *
+ * <p>The application is started once per threading model against the database configured with the
+ * {@code spring.datasource.*} system properties. {@code tailfin.load.concurrency} clients (default 1000) request
+ * {@code tailfin.load.paths} (comma-separated) for {@code tailfin.load.duration-seconds} after a warm-up of
+ * {@code tailfin.load.warmup-seconds}. The results are logged and appended to {@code build/reports/load/results.csv}.
+ * </p>
+ *
+ * <p>The suite runs with {@code ./gradlew loadTest} and is excluded from the regular test run. It only asserts that
+ * both runs served requests, as the outcome of the comparison depends on the machine and the database.</p>
+ *
+ * @see LoadGenerator
+ */
+@Tag("load")
+class ThreadingModelLoadTest {
+    private static final Logger log = LoggerFactory.getLogger(ThreadingModelLoadTest.class);
+    private static final Path RESULTS = Path.of("build", "reports", "load", "results.csv");
+    private static final String USERNAME = "load";
+    private static final String PASSWORD = "load";
+
+    @Test
+    void virtualThreadsAgainstPlatformThreads() throws IOException, InterruptedException {
+        int concurrency = Integer.getInteger("tailfin.load.concurrency", 1000);
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("tailfin.load.warmup-seconds", 10));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("tailfin.load.duration-seconds", 30));
+        List<String> paths = Arrays.stream(System.getProperty("tailfin.load.paths",
+                        "/api/net-worth,/actuator/health,/api/ifsc?prefix=HDFC").split(","))
+                .map(String::trim)
+                .toList();
+
+        LoadResult platform = run(false, paths, concurrency, warmup, duration);
+        LoadResult virtual = run(true, paths, concurrency, warmup, duration);
+        log.info("{} clients: virtual threads serve {}x the throughput at {}x the p99 latency of platform threads",
+                concurrency, ratio(virtual.throughput(), platform.throughput()),
+                ratio(virtual.p99Micros(), platform.p99Micros()));
+
+        assertTrue(platform.requests() > 0, "No requests were served on platform threads");
+        assertTrue(virtual.requests() > 0, "No requests were served on virtual threads");
+    }
+
+    private LoadResult run(boolean virtualThreads, List<String> paths, int concurrency, Duration warmup,
+                           Duration duration) throws IOException, InterruptedException {
+        String mode = virtualThreads ? "virtual" : "platform";
+        LoadResult result;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TailfinApplication.class)
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.security.user.name=" + USERNAME,
+                        "spring.security.user.password=" + PASSWORD,
+                        "management.endpoint.health.show-details=never")
+                .run()) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            LoadGenerator generator = new LoadGenerator(URI.create("http://localhost:" + port), paths, USERNAME,
+                    PASSWORD, concurrency);
+            result = generator.run(warmup, duration);
+        }
+        log.info("{} threads, {} clients: {} requests, {} errors [{}], {} req/s, p50 {} us, p99 {} us, max {} us",
+                mode, concurrency, result.requests(), result.errorCount(), result.errorsByKind(),
+                Math.round(result.throughput()), result.p50Micros(), result.p99Micros(), result.maxMicros());
+
+        Files.createDirectories(RESULTS.getParent());
+        if (!Files.exists(RESULTS)) {
+            Files.writeString(RESULTS, "timestamp,threads,clients,paths,requests,errors,throughput,p50_us,p99_us," +
+                    "max_us,errors_by_kind\n");
+        }
+        Files.writeString(RESULTS, String.join(",", LocalDateTime.now().toString(), mode,
+                        Integer.toString(concurrency), '"' + String.join(" ", paths) + '"',
+                        Long.toString(result.requests()), Long.toString(result.errorCount()),
+                        Long.toString(Math.round(result.throughput())), Long.toString(result.p50Micros()),
+                        Long.toString(result.p99Micros()), Long.toString(result.maxMicros()),
+                        '"' + result.errorsByKind() + '"') + "\n",
+                StandardOpenOption.APPEND);
+        return result;
+    }
+
+    private static String ratio(double value, double baseline) {
+        return baseline == 0 ? "n/a" : String.format("%.2f", value / baseline);
+    }
+}
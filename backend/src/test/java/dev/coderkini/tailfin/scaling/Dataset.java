@@ -0,0 +1,44 @@
+package dev.coderkini.tailfin.scaling;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+import dev.coderkini.tailfin.accounts.domain.BankId;
+
+/**
+ * Describes a generated dataset, for picking the accounts and ranges to query.
+ *
+ * @param spec          The spec the dataset was generated from.
+ * @param banks         The banks, in the order they were generated.
+ * @param accounts      The accounts from the busiest to the quietest.
+ * @param start         The start of the history of the transactions.
+ * @param end           The end of the history of the transactions, exclusive.
+ * @param saved         The number of transactions saved, less than requested if some were duplicates.
+ *
+ * @see DatasetGenerator
+ */
+record Dataset(DatasetSpec spec,
+               List<BankId> banks,
+               List<AccountId> accounts,
+               LocalDateTime start,
+               LocalDateTime end,
+               long saved) {
+    /**
+     * Returns the account with the most transactions.
+     *
+     * @return  The busiest account.
+     */
+    AccountId hotAccount() {
+        return accounts.getFirst();
+    }
+
+    /**
+     * Returns the account with the median number of transactions.
+     *
+     * @return  The median account.
+     */
+    AccountId medianAccount() {
+        return accounts.get(accounts.size() / 2);
+    }
+}
@@ -0,0 +1,190 @@
+package dev.coderkini.tailfin.scaling;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import org.javamoney.moneta.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import dev.coderkini.tailfin.accounts.domain.Account;
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+import dev.coderkini.tailfin.accounts.domain.AccountRepository;
+import dev.coderkini.tailfin.accounts.domain.AccountType;
+import dev.coderkini.tailfin.accounts.domain.Bank;
+import dev.coderkini.tailfin.accounts.domain.BankId;
+import dev.coderkini.tailfin.accounts.domain.BankRepository;
+import dev.coderkini.tailfin.accounts.domain.IfsCode;
+import dev.coderkini.tailfin.accounts.domain.Transaction;
+import dev.coderkini.tailfin.accounts.domain.TransactionId;
+import dev.coderkini.tailfin.accounts.domain.TransactionRepository;
+import dev.coderkini.tailfin.accounts.domain.TransactionType;
+import dev.coderkini.tailfin.commons.money.Currencies;
+import dev.coderkini.tailfin.commons.money.MinorAmount;
+import dev.coderkini.tailfin.commons.repository.BatchResult;
+
+/**
+ * <p>Generates synthetic banks, accounts and transactions through the repositories, at sizes from thousands to tens
+ * of millions of transactions.</p>
+ *
+ * <p>Transactions are spread over the accounts following a Zipf distribution, so a few hot accounts have most of the
+ * transactions like the salary and card accounts of a real household, and over the months of the history uniformly.
+ * Amounts follow a log-normal distribution around a few thousand rupees, and seven in ten transactions are
+ * withdrawals. Transactions are saved in batches large enough to go through {@code COPY}.</p>
+ *
+ * <p>{@link #clear()} deletes every bank, account and transaction, the generator must only be pointed at a
+ * throwaway database.</p>
+ */
+class DatasetGenerator {
+    private static final Logger log = LoggerFactory.getLogger(DatasetGenerator.class);
+    private static final int BATCH_SIZE = 10_000;
+    private static final AccountType[] ACCOUNT_TYPES = {AccountType.SAVINGS, AccountType.SAVINGS,
+            AccountType.CURRENT, AccountType.CREDIT_CARD, AccountType.CASH, AccountType.FIXED_DEPOSIT,
+            AccountType.LOAN};
+
+    private final BankRepository bankRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * Create a new DatasetGenerator instance.
+     *
+     * @param bankRepository        reference to the {@link BankRepository} the banks are saved to
+     * @param accountRepository     reference to the {@link AccountRepository} the accounts are saved to
+     * @param transactionRepository reference to the {@link TransactionRepository} the transactions are saved to
+     * @param jdbc                  reference to the {@link NamedParameterJdbcTemplate} used to clear the database
+     *                              and create the partitions of the history
+     */
+    DatasetGenerator(BankRepository bankRepository,
+                     AccountRepository accountRepository,
+                     TransactionRepository transactionRepository,
+                     NamedParameterJdbcTemplate jdbc) {
+        this.bankRepository = bankRepository;
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Deletes every bank, account and transaction, together with the balances and the idempotency keys derived from
+     * them.
+     */
+    void clear() {
+        jdbc.getJdbcOperations().execute("truncate table transactions, transaction_idempotency_keys, " +
+                "account_balances, account_balance_checkpoints, archived_account_balances, accounts, banks");
+    }
+
+    /**
+     * Generates a dataset of the specified spec, on top of what the database already holds.
+     *
+     * @param spec  the size and shape of the dataset
+     *
+     * @return the generated dataset
+     */
+    Dataset generate(DatasetSpec spec) {
+        long startedAt = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(spec.seed());
+        YearMonth firstMonth = YearMonth.now().minusMonths(spec.months() - 1);
+        LocalDateTime start = firstMonth.atDay(1).atStartOfDay();
+        LocalDateTime end = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (YearMonth month = firstMonth; !month.isAfter(YearMonth.now()); month = month.plusMonths(1)) {
+            jdbc.queryForObject("select create_transactions_partition(:month)",
+                    new MapSqlParameterSource("month", Date.valueOf(month.atDay(1))),
+                    String.class);
+        }
+
+        List<BankId> banks = new ArrayList<>(spec.banks());
+        for (int i = 0; i < spec.banks(); i++) {
+            String code = bankCode(i);
+            Bank bank = bankRepository.save(new Bank(BankId.generate(), "Bank " + code, "Main branch",
+                    new IfsCode(code + "0" + String.format(Locale.ROOT, "%06d", i % 1_000_000))));
+            banks.add(bank.getId());
+        }
+
+        List<AccountId> accounts = new ArrayList<>(spec.accounts());
+        for (int i = 0; i < spec.accounts(); i++) {
+            AccountType type = ACCOUNT_TYPES[random.nextInt(ACCOUNT_TYPES.length)];
+            BankId bankId = type == AccountType.CASH ? null : banks.get(random.nextInt(banks.size()));
+            Account account = accountRepository.save(new Account(AccountId.generate(), type, bankId,
+                    bankId == null ? null : String.format(Locale.ROOT, "%012d", i),
+                    "Account " + i, Money.zero(Currencies.DEFAULT), start, null));
+            accounts.add(account.getId());
+        }
+
+        double[] cumulative = zipf(spec.accounts(), spec.skew());
+        long seconds = ChronoUnit.SECONDS.between(start, end);
+        long saved = 0;
+        List<Transaction> batch = new ArrayList<>(BATCH_SIZE);
+        for (long i = 0; i < spec.transactions(); i++) {
+            AccountId accountId = accounts.get(sample(cumulative, random.nextDouble()));
+            TransactionType type = random.nextInt(10) < 7 ? TransactionType.WITHDRAWAL : TransactionType.DEPOSIT;
+            long units = Math.max(100, Math.round(Math.exp(12 + 1.5 * random.nextGaussian())));
+            batch.add(new Transaction(TransactionId.generate(),
+                    type,
+                    type == TransactionType.WITHDRAWAL ? accountId : null,
+                    type == TransactionType.DEPOSIT ? accountId : null,
+                    Money.of(BigDecimal.valueOf(units, MinorAmount.SCALE), Currencies.DEFAULT),
+                    start.plusSeconds(random.nextLong(seconds))));
+            if (batch.size() == BATCH_SIZE || i == spec.transactions() - 1) {
+                BatchResult<Transaction> result = transactionRepository.saveAll(batch);
+                saved += result.saved();
+                batch.clear();
+                if ((i + 1) % 1_000_000 < BATCH_SIZE) {
+                    log.info("Generated {} of {} transactions", i + 1, spec.transactions());
+                }
+            }
+        }
+        log.info("Generated {} banks, {} accounts and {} transactions in {} s", spec.banks(), spec.accounts(), saved,
+                (System.nanoTime() - startedAt) / 1_000_000_000);
+        return new Dataset(spec, banks, accounts, start, end, saved);
+    }
+
+    /**
+     * Returns the cumulative probabilities of the ranks of a Zipf distribution with the specified exponent.
+     */
+    private static double[] zipf(int ranks, double exponent) {
+        double[] cumulative = new double[ranks];
+        double sum = 0;
+        for (int rank = 0; rank < ranks; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < ranks; rank++) {
+            cumulative[rank] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int sample(double[] cumulative, double probability) {
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] < probability) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static String bankCode(int bank) {
+        char[] code = new char[4];
+        for (int i = 3; i >= 0; i--) {
+            code[i] = (char) ('A' + bank % 26);
+            bank /= 26;
+        }
+        return new String(code);
+    }
+}
@@ -0,0 +1,43 @@
+package dev.coderkini.tailfin.scaling;
+
+/**
+ * Describes the size and shape of a synthetic dataset.
+ *
+ * @param transactions  The number of transactions to generate.
+ * @param accounts      The number of accounts the transactions are spread over.
+ * @param banks         The number of banks the accounts are held with.
+ * @param months        The number of months, up to the current one, the transactions are spread over.
+ * @param skew          The exponent of the Zipf distribution of the transactions over the accounts, zero for a
+ *                      uniform distribution. At one, the busiest of 100k accounts has about 8% of all transactions.
+ * @param seed          The seed of the random generator, so that a dataset can be generated again.
+ *
+ * @see DatasetGenerator
+ */
+record DatasetSpec(long transactions, int accounts, int banks, int months, double skew, long seed) {
+    /**
+     * Creates a new instance of {@link DatasetSpec}.
+     *
+     * @throws IllegalArgumentException if a size is not positive or the skew is negative.
+     */
+    DatasetSpec {
+        if (transactions < 1 || accounts < 1 || banks < 1 || months < 1) {
+            throw new IllegalArgumentException("Dataset sizes must be positive");
+        }
+        if (skew < 0) {
+            throw new IllegalArgumentException("Skew must not be negative");
+        }
+    }
+
+    /**
+     * Returns the spec of a dataset of the specified number of transactions, with an account per 500 transactions
+     * (at least 100), a bank per 200 accounts (at least 10), two years of history and a skew of 0.9.
+     *
+     * @param transactions  The number of transactions to generate.
+     *
+     * @return  The spec of the dataset.
+     */
+    static DatasetSpec ofSize(long transactions) {
+        int accounts = (int) Math.max(100, Math.min(transactions / 500, 1_000_000));
+        return new DatasetSpec(transactions, accounts, Math.max(10, accounts / 200), 24, 0.9, 42);
+    }
+}
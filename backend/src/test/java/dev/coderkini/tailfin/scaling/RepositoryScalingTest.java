@@ -0,0 +1,154 @@
+package dev.coderkini.tailfin.scaling;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import dev.coderkini.tailfin.accounts.domain.Account;
+import dev.coderkini.tailfin.accounts.domain.AccountId;
+import dev.coderkini.tailfin.accounts.domain.AccountRepository;
+import dev.coderkini.tailfin.accounts.domain.BankRepository;
+import dev.coderkini.tailfin.accounts.domain.Transaction;
+import dev.coderkini.tailfin.accounts.domain.TransactionRepository;
+import dev.coderkini.tailfin.commons.repository.PagedResult;
+import dev.coderkini.tailfin.commons.repository.QueryConstraints;
+import dev.coderkini.tailfin.commons.repository.SortDirection;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>Times the main repository queries against datasets of growing size, to show where their latency stops being
+ * flat. Each size in {@code tailfin.scaling.sizes} (transactions, comma-separated) gets a freshly generated dataset,
+ * and each query is run {@code tailfin.scaling.samples} times after a warm-up. The percentiles are logged and appended
+ * to {@code build/reports/scaling/results.csv}.</p>
+ *
+ * <p>The suite runs with {@code ./gradlew scalingTest} against the database configured with the
+ * {@code spring.datasource.*} system properties, which it clears before every size. It is excluded from the regular
+ * test run.</p>
+ *
+ * @see DatasetGenerator
+ */
+@Tag("scaling")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryScalingTest {
+    private static final Logger log = LoggerFactory.getLogger(RepositoryScalingTest.class);
+    private static final Path RESULTS = Path.of("build", "reports", "scaling", "results.csv");
+    private static final int WARMUP = 20;
+
+    @Autowired
+    private BankRepository bankRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    private DatasetGenerator generator;
+    private int samples;
+
+    static LongStream sizes() {
+        return Arrays.stream(System.getProperty("tailfin.scaling.sizes", "10000,100000,1000000").split(","))
+                .map(String::trim)
+                .mapToLong(Long::parseLong);
+    }
+
+    @BeforeAll
+    void setUp() throws IOException {
+        generator = new DatasetGenerator(bankRepository, accountRepository, transactionRepository, jdbc);
+        samples = Integer.getInteger("tailfin.scaling.samples", 200);
+        Files.createDirectories(RESULTS.getParent());
+        if (!Files.exists(RESULTS)) {
+            Files.writeString(RESULTS, "timestamp,transactions,accounts,query,samples,p50_us,p95_us,p99_us,max_us\n");
+        }
+    }
+
+    @AfterAll
+    void tearDown() {
+        generator.clear();
+    }
+
+    @ParameterizedTest(name = "{0} transactions")
+    @MethodSource("sizes")
+    void queriesScale(long size) throws IOException {
+        generator.clear();
+        Dataset dataset = generator.generate(DatasetSpec.ofSize(size));
+        assertTrue(dataset.saved() > 0, "No transactions were generated");
+
+        SplittableRandom random = new SplittableRandom(7);
+        LocalDateTime rangeEnd = dataset.end();
+        LocalDateTime rangeStart = rangeEnd.minusDays(30);
+        QueryConstraints<Transaction> latest = QueryConstraints.<Transaction>of()
+                .sortBy("createdAt", SortDirection.DESCENDING)
+                .page(50, 0);
+        QueryConstraints<Account> firstAccounts = QueryConstraints.<Account>of().page(50, 0);
+
+        time(dataset, "findByAccountAndDateRange(hot)", () -> consume(transactionRepository
+                .findByAccountAndDateRange(dataset.hotAccount(), rangeStart, rangeEnd, latest)));
+        time(dataset, "findByAccountAndDateRange(median)", () -> consume(transactionRepository
+                .findByAccountAndDateRange(dataset.medianAccount(), rangeStart, rangeEnd, latest)));
+        time(dataset, "getAccountBalance(hot)",
+                () -> transactionRepository.getAccountBalance(dataset.hotAccount()));
+        time(dataset, "getAccountBalance(random)", () -> {
+            AccountId accountId = dataset.accounts().get(random.nextInt(dataset.accounts().size()));
+            return transactionRepository.getAccountBalance(accountId);
+        });
+        time(dataset, "findAccountsByBank(random)", () -> consume(accountRepository.findAccountsByBank(
+                dataset.banks().get(random.nextInt(dataset.banks().size())), firstAccounts)));
+    }
+
+    private void time(Dataset dataset, String query, Supplier<?> call) throws IOException {
+        for (int i = 0; i < WARMUP; i++) {
+            call.get();
+        }
+        long[] nanos = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long startedAt = System.nanoTime();
+            call.get();
+            nanos[i] = System.nanoTime() - startedAt;
+        }
+        Arrays.sort(nanos);
+        long p50 = percentile(nanos, 0.50);
+        long p95 = percentile(nanos, 0.95);
+        long p99 = percentile(nanos, 0.99);
+        long max = nanos[nanos.length - 1] / 1000;
+        log.info("{} transactions, {}: p50 {} us, p95 {} us, p99 {} us, max {} us", dataset.saved(), query,
+                p50, p95, p99, max);
+        Files.writeString(RESULTS, String.join(",", LocalDateTime.now().toString(),
+                        Long.toString(dataset.saved()), Integer.toString(dataset.accounts().size()), '"' + query + '"',
+                        Integer.toString(samples), Long.toString(p50), Long.toString(p95), Long.toString(p99),
+                        Long.toString(max)) + "\n",
+                StandardOpenOption.APPEND);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1000;
+    }
+
+    private static long consume(PagedResult<?> result) {
+        try (Stream<?> items = result.items()) {
+            return items.count();
+        }
+    }
+}